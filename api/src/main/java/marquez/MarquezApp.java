@@ -25,17 +25,22 @@ import java.util.EnumSet;
 import javax.servlet.DispatcherType;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
+import marquez.api.filter.CompactLineageWriter;
 import marquez.api.filter.JobRedirectFilter;
+import marquez.api.filter.RawEventReaderInterceptor;
 import marquez.api.filter.exclusions.Exclusions;
 import marquez.api.filter.exclusions.ExclusionsConfig;
 import marquez.cli.DbMigrationCommand;
 import marquez.cli.DbRetentionCommand;
 import marquez.cli.MetadataCommand;
+import marquez.cli.SearchIndexCommand;
 import marquez.cli.SeedCommand;
 import marquez.common.Utils;
 import marquez.db.DbMigration;
 import marquez.jobs.DbRetentionJob;
+import marquez.jobs.UnprocessedEventsJob;
 import marquez.logging.LoggingMdcFilter;
+import marquez.service.LocalSearchEngine;
 import marquez.tracing.SentryConfig;
 import marquez.tracing.TracingContainerResponseFilter;
 import marquez.tracing.TracingSQLLogger;
@@ -85,6 +90,7 @@ public final class MarquezApp extends Application<MarquezConfig> {
     bootstrap.addCommand(new DbRetentionCommand());
     bootstrap.addCommand(new MetadataCommand());
     bootstrap.addCommand(new SeedCommand());
+    bootstrap.addCommand(new SearchIndexCommand());
 
     bootstrap.getObjectMapper().disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
     Utils.addZonedDateTimeMixin(bootstrap.getObjectMapper());
@@ -130,7 +136,24 @@ public final class MarquezApp extends Application<MarquezConfig> {
 
     final Jdbi jdbi = newJdbi(config, env, source);
     final MarquezContext marquezContext =
-        MarquezContext.builder().jdbi(jdbi).tags(config.getTags()).build();
+        MarquezContext.builder()
+            .jdbi(jdbi)
+            .tags(config.getTags())
+            .ingestConfig(config.getIngest())
+            .lineageConfig(config.getLineage())
+            .searchConfig(config.getSearch())
+            .objectMapper(env.getObjectMapper())
+            .build();
+    env.lifecycle().manage(marquezContext.getIngestExecutor());
+    if (marquezContext.getIngestLanes() != null) {
+      env.lifecycle().manage(marquezContext.getIngestLanes());
+    }
+    if (marquezContext.getLineageGraphIndex() != null) {
+      env.lifecycle().manage(marquezContext.getLineageGraphIndex());
+    }
+    if (marquezContext.getSearchEngine() instanceof LocalSearchEngine localSearchEngine) {
+      env.lifecycle().manage(localSearchEngine);
+    }
 
     registerResources(config, env, marquezContext);
     registerServlets(env);
@@ -139,7 +162,20 @@ public final class MarquezApp extends Application<MarquezConfig> {
     // Add scheduled jobs to lifecycle.
     if (config.hasDbRetentionPolicy()) {
       // Add job to apply retention policy to database.
-      env.lifecycle().manage(new DbRetentionJob(jdbi, config.getDbRetention()));
+      env.lifecycle()
+          .manage(
+              new DbRetentionJob(
+                  jdbi,
+                  config.getDbRetention(),
+                  marquezContext.getIngestCaches(),
+                  marquezContext.getLineageCache(),
+                  marquezContext.getSearchEngine()));
+    }
+    if (config.getIngest().isWriteAhead()) {
+      // Add job to apply events written ahead to the Marquez model.
+      env.lifecycle()
+          .manage(
+              new UnprocessedEventsJob(marquezContext.getOpenLineageService(), config.getIngest()));
     }
 
     // set namespaceFilter
@@ -201,6 +237,8 @@ public final class MarquezApp extends Application<MarquezConfig> {
 
   private void registerFilters(@NonNull Environment env, MarquezContext marquezContext) {
     env.jersey().getResourceConfig().register(new LoggingMdcFilter());
+    env.jersey().getResourceConfig().register(new RawEventReaderInterceptor());
+    env.jersey().getResourceConfig().register(new CompactLineageWriter(env.getObjectMapper()));
     env.jersey()
         .getResourceConfig()
         .register(new JobRedirectFilter(marquezContext.getJobService()));
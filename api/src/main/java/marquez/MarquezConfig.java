@@ -16,6 +16,9 @@ import marquez.api.filter.exclusions.ExclusionsConfig;
 import marquez.db.FlywayFactory;
 import marquez.graphql.GraphqlConfig;
 import marquez.jobs.DbRetentionConfig;
+import marquez.service.IngestConfig;
+import marquez.service.LineageConfig;
+import marquez.service.SearchConfig;
 import marquez.service.models.Tag;
 import marquez.tracing.SentryConfig;
 
@@ -40,6 +43,18 @@ public class MarquezConfig extends Configuration {
   @JsonProperty("graphql")
   private final GraphqlConfig graphql = new GraphqlConfig();
 
+  @Getter
+  @JsonProperty("ingest")
+  private final IngestConfig ingest = new IngestConfig();
+
+  @Getter
+  @JsonProperty("lineage")
+  private final LineageConfig lineage = new LineageConfig();
+
+  @Getter
+  @JsonProperty("search")
+  private final SearchConfig search = new SearchConfig();
+
   @Getter
   @JsonProperty("sentry")
   private final SentryConfig sentry = new SentryConfig();
@@ -5,12 +5,15 @@
 
 package marquez;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
 import graphql.kickstart.servlet.GraphQLHttpServlet;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import javax.annotation.Nullable;
 import lombok.Getter;
 import lombok.NonNull;
 import marquez.api.ColumnLineageResource;
@@ -23,11 +26,14 @@ import marquez.api.SourceResource;
 import marquez.api.TagResource;
 import marquez.api.exceptions.JdbiExceptionExceptionMapper;
 import marquez.api.exceptions.JsonProcessingExceptionMapper;
+import marquez.api.exceptions.RejectedExecutionExceptionMapper;
+import marquez.common.Utils;
 import marquez.db.BaseDao;
 import marquez.db.ColumnLineageDao;
 import marquez.db.DatasetDao;
 import marquez.db.DatasetFieldDao;
 import marquez.db.DatasetVersionDao;
+import marquez.db.IngestCaches;
 import marquez.db.JobDao;
 import marquez.db.JobFacetsDao;
 import marquez.db.JobVersionDao;
@@ -47,12 +53,23 @@ import marquez.service.ColumnLineageService;
 import marquez.service.DatasetFieldService;
 import marquez.service.DatasetService;
 import marquez.service.DatasetVersionService;
+import marquez.service.FacetPolicy;
+import marquez.service.IngestConfig;
+import marquez.service.IngestExecutor;
+import marquez.service.IngestLanes;
 import marquez.service.JobService;
+import marquez.service.LineageCache;
+import marquez.service.LineageConfig;
+import marquez.service.LineageGraphIndex;
 import marquez.service.LineageService;
+import marquez.service.LocalSearchEngine;
 import marquez.service.NamespaceService;
 import marquez.service.OpenLineageService;
+import marquez.service.PostgresSearchEngine;
 import marquez.service.RunService;
 import marquez.service.RunTransitionListener;
+import marquez.service.SearchConfig;
+import marquez.service.SearchEngine;
 import marquez.service.ServiceFactory;
 import marquez.service.SourceService;
 import marquez.service.TagService;
@@ -78,7 +95,13 @@ public final class MarquezContext {
   @Getter private final LineageDao lineageDao;
   @Getter private final ColumnLineageDao columnLineageDao;
   @Getter private final SearchDao searchDao;
+  @Getter private final SearchEngine searchEngine;
   @Getter private final List<RunTransitionListener> runTransitionListeners;
+  @Getter private final IngestExecutor ingestExecutor;
+  @Getter private final IngestCaches ingestCaches;
+  @Getter private final LineageCache lineageCache;
+  @Getter @Nullable private final IngestLanes ingestLanes;
+  @Getter @Nullable private final LineageGraphIndex lineageGraphIndex;
 
   @Getter private final NamespaceService namespaceService;
   @Getter private final SourceService sourceService;
@@ -100,12 +123,17 @@ public final class MarquezContext {
   @Getter private final ImmutableList<Object> resources;
   @Getter private final JdbiExceptionExceptionMapper jdbiException;
   @Getter private final JsonProcessingExceptionMapper jsonException;
+  @Getter private final RejectedExecutionExceptionMapper rejectedException;
   @Getter private final GraphQLHttpServlet graphqlServlet;
 
   private MarquezContext(
       @NonNull final Jdbi jdbi,
       @NonNull final ImmutableSet<Tag> tags,
-      List<RunTransitionListener> runTransitionListeners) {
+      List<RunTransitionListener> runTransitionListeners,
+      @NonNull final IngestConfig ingestConfig,
+      @NonNull final LineageConfig lineageConfig,
+      @NonNull final SearchConfig searchConfig,
+      @NonNull final ObjectMapper mapper) {
     if (runTransitionListeners == null) {
       runTransitionListeners = new ArrayList<>();
     }
@@ -128,7 +156,26 @@ public final class MarquezContext {
     this.lineageDao = jdbi.onDemand(LineageDao.class);
     this.columnLineageDao = jdbi.onDemand(ColumnLineageDao.class);
     this.searchDao = jdbi.onDemand(SearchDao.class);
+    this.searchEngine =
+        switch (searchConfig.getEngine()) {
+          case POSTGRES -> new PostgresSearchEngine(searchDao);
+          case LOCAL -> new LocalSearchEngine(searchConfig);
+        };
+    this.lineageCache =
+        new LineageCache(
+            lineageConfig.getCacheSize(), Duration.ofSeconds(lineageConfig.getCacheTtlSecs()));
+    this.lineageGraphIndex =
+        lineageConfig.isInMemoryGraph()
+            ? new LineageGraphIndex(lineageDao, lineageConfig, lineageCache)
+            : null;
     this.runTransitionListeners = runTransitionListeners;
+    this.ingestExecutor = new IngestExecutor(ingestConfig);
+    this.ingestLanes = ingestConfig.getLanes() > 0 ? new IngestLanes(ingestConfig) : null;
+    this.ingestCaches =
+        new IngestCaches(
+            ingestConfig.getIdentityCacheSize(),
+            ingestConfig.getInputDatasetCacheSize(),
+            Duration.ofSeconds(ingestConfig.getIdentityCacheTtlSecs()));
 
     this.namespaceService = new NamespaceService(baseDao);
     this.sourceService = new SourceService(baseDao);
@@ -138,11 +185,24 @@ public final class MarquezContext {
     this.jobService = new JobService(baseDao, runService);
     this.tagService = new TagService(baseDao);
     this.tagService.init(tags);
-    this.openLineageService = new OpenLineageService(baseDao, runService);
-    this.lineageService = new LineageService(lineageDao, jobDao);
-    this.columnLineageService = new ColumnLineageService(columnLineageDao, datasetFieldDao);
+    this.openLineageService =
+        OpenLineageService.builder(baseDao, runService)
+            .executor(ingestExecutor)
+            .singleTransaction(ingestConfig.isSingleTransaction())
+            .writeAhead(ingestConfig.isWriteAhead())
+            .lanes(ingestLanes)
+            .facetPolicy(new FacetPolicy(ingestConfig))
+            .ingestCaches(ingestCaches)
+            .lineageCache(lineageCache)
+            .searchEngine(searchEngine)
+            .build();
+    this.lineageService = new LineageService(lineageDao, jobDao, lineageGraphIndex, lineageCache);
+    this.columnLineageService =
+        new ColumnLineageService(columnLineageDao, datasetFieldDao, lineageCache);
     this.jdbiException = new JdbiExceptionExceptionMapper();
     this.jsonException = new JsonProcessingExceptionMapper();
+    this.rejectedException =
+        new RejectedExecutionExceptionMapper(ingestExecutor.getRetryAfterSecs());
     final ServiceFactory serviceFactory =
         ServiceFactory.builder()
             .datasetService(datasetService)
@@ -154,17 +214,27 @@ public final class MarquezContext {
             .sourceService(sourceService)
             .lineageService(lineageService)
             .columnLineageService(columnLineageService)
+            .searchEngine(searchEngine)
             .datasetFieldService(new DatasetFieldService(baseDao))
             .datasetVersionService(new DatasetVersionService(baseDao))
             .build();
-    this.namespaceResource = new NamespaceResource(serviceFactory);
+    this.namespaceResource = new NamespaceResource(serviceFactory, ingestCaches, lineageCache);
     this.sourceResource = new SourceResource(serviceFactory);
-    this.datasetResource = new DatasetResource(serviceFactory);
+    this.datasetResource = new DatasetResource(serviceFactory, lineageCache);
     this.columnLineageResource = new ColumnLineageResource(serviceFactory);
-    this.jobResource = new JobResource(serviceFactory, jobVersionDao, jobFacetsDao, runFacetsDao);
+    this.jobResource =
+        new JobResource(
+            serviceFactory,
+            jobVersionDao,
+            jobFacetsDao,
+            runFacetsDao,
+            ingestCaches,
+            lineageCache);
     this.tagResource = new TagResource(serviceFactory);
-    this.openLineageResource = new OpenLineageResource(serviceFactory, openLineageDao);
-    this.searchResource = new SearchResource(searchDao);
+    this.openLineageResource =
+        new OpenLineageResource(
+            serviceFactory, openLineageDao, mapper, ingestConfig.getMaxBatchSize());
+    this.searchResource = new SearchResource(searchEngine);
 
     this.resources =
         ImmutableList.of(
@@ -176,6 +246,7 @@ public final class MarquezContext {
             tagResource,
             jdbiException,
             jsonException,
+            rejectedException,
             openLineageResource,
             searchResource);
 
@@ -192,10 +263,18 @@ public final class MarquezContext {
     private Jdbi jdbi;
     private ImmutableSet<Tag> tags;
     private List<RunTransitionListener> runTransitionListeners;
+    private IngestConfig ingestConfig;
+    private LineageConfig lineageConfig;
+    private SearchConfig searchConfig;
+    private ObjectMapper mapper;
 
     Builder() {
       this.tags = ImmutableSet.of();
       this.runTransitionListeners = new ArrayList<>();
+      this.ingestConfig = new IngestConfig();
+      this.lineageConfig = new LineageConfig();
+      this.searchConfig = new SearchConfig();
+      this.mapper = Utils.getMapper();
     }
 
     public Builder jdbi(@NonNull Jdbi jdbi) {
@@ -218,8 +297,29 @@ public final class MarquezContext {
       return this;
     }
 
+    public Builder ingestConfig(@NonNull IngestConfig ingestConfig) {
+      this.ingestConfig = ingestConfig;
+      return this;
+    }
+
+    public Builder lineageConfig(@NonNull LineageConfig lineageConfig) {
+      this.lineageConfig = lineageConfig;
+      return this;
+    }
+
+    public Builder searchConfig(@NonNull SearchConfig searchConfig) {
+      this.searchConfig = searchConfig;
+      return this;
+    }
+
+    public Builder objectMapper(@NonNull ObjectMapper mapper) {
+      this.mapper = mapper;
+      return this;
+    }
+
     public MarquezContext build() {
-      return new MarquezContext(jdbi, tags, runTransitionListeners);
+      return new MarquezContext(
+          jdbi, tags, runTransitionListeners, ingestConfig, lineageConfig, searchConfig, mapper);
     }
   }
 }
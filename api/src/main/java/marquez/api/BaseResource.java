@@ -18,6 +18,7 @@ import marquez.api.exceptions.NamespaceNotFoundException;
 import marquez.api.exceptions.RunAlreadyExistsException;
 import marquez.api.exceptions.RunNotFoundException;
 import marquez.api.exceptions.SourceNotFoundException;
+import marquez.api.filter.CompactLineageWriter;
 import marquez.common.models.DatasetFieldId;
 import marquez.common.models.DatasetId;
 import marquez.common.models.DatasetName;
@@ -36,6 +37,7 @@ import marquez.service.LineageService;
 import marquez.service.NamespaceService;
 import marquez.service.OpenLineageService;
 import marquez.service.RunService;
+import marquez.service.SearchEngine;
 import marquez.service.ServiceFactory;
 import marquez.service.SourceService;
 import marquez.service.TagService;
@@ -43,6 +45,12 @@ import marquez.service.models.NodeId;
 import marquez.service.models.Run;
 
 public class BaseResource {
+  /**
+   * The compact lineage format, see {@link CompactLineageWriter}; served only to clients that
+   * prefer it to {@code application/json}.
+   */
+  static final String COMPACT_LINEAGE = CompactLineageWriter.MEDIA_TYPE + ";qs=0.5";
+
   protected ServiceFactory serviceFactory;
   protected DatasetService datasetService;
   protected JobService jobService;
@@ -55,6 +63,7 @@ public class BaseResource {
   protected DatasetFieldService datasetFieldService;
   protected LineageService lineageService;
   protected ColumnLineageService columnLineageService;
+  protected SearchEngine searchEngine;
 
   public BaseResource(ServiceFactory serviceFactory) {
     this.serviceFactory = serviceFactory;
@@ -69,6 +78,7 @@ public class BaseResource {
     this.datasetFieldService = serviceFactory.getDatasetFieldService();
     this.lineageService = serviceFactory.getLineageService();
     this.columnLineageService = serviceFactory.getColumnLineageService();
+    this.searchEngine = serviceFactory.getSearchEngine();
   }
 
   void throwIfNotExists(@NonNull NamespaceName namespaceName) {
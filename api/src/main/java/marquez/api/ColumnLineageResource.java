@@ -37,7 +37,7 @@ public class ColumnLineageResource extends BaseResource {
   @ResponseMetered
   @ExceptionMetered
   @GET
-  @Produces(APPLICATION_JSON)
+  @Produces({APPLICATION_JSON, COMPACT_LINEAGE})
   public Response getLineage(
       @QueryParam("nodeId") @NotNull NodeId nodeId,
       @QueryParam("depth") @DefaultValue(DEFAULT_DEPTH) int depth,
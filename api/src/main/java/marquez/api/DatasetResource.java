@@ -15,6 +15,7 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
+import java.util.Set;
 import javax.validation.Valid;
 import javax.validation.constraints.Min;
 import javax.ws.rs.Consumes;
@@ -34,11 +35,14 @@ import lombok.extern.slf4j.Slf4j;
 import marquez.api.exceptions.DatasetNotFoundException;
 import marquez.api.exceptions.DatasetVersionNotFoundException;
 import marquez.api.models.ResultsPage;
+import marquez.api.models.SearchResult.ResultType;
+import marquez.common.models.DatasetId;
 import marquez.common.models.DatasetName;
 import marquez.common.models.FieldName;
 import marquez.common.models.NamespaceName;
 import marquez.common.models.TagName;
 import marquez.common.models.Version;
+import marquez.service.LineageCache;
 import marquez.service.ServiceFactory;
 import marquez.service.models.Dataset;
 import marquez.service.models.DatasetMeta;
@@ -47,8 +51,12 @@ import marquez.service.models.DatasetVersion;
 @Slf4j
 @Path("/api/v1/namespaces/{namespace}/datasets")
 public class DatasetResource extends BaseResource {
-  public DatasetResource(@NonNull final ServiceFactory serviceFactory) {
+  private final LineageCache lineageCache;
+
+  public DatasetResource(
+      @NonNull final ServiceFactory serviceFactory, @NonNull final LineageCache lineageCache) {
     super(serviceFactory);
+    this.lineageCache = lineageCache;
   }
 
   /**
@@ -72,6 +80,7 @@ public class DatasetResource extends BaseResource {
     throwIfSourceNotExists(datasetMeta.getSourceName());
 
     final Dataset dataset = datasetService.createOrUpdate(namespaceName, datasetName, datasetMeta);
+    searchEngine.index(dataset);
     return Response.ok(dataset).build();
   }
 
@@ -173,6 +182,8 @@ public class DatasetResource extends BaseResource {
     datasetService
         .delete(namespaceName.getValue(), datasetName.getValue())
         .orElseThrow(() -> new DatasetNotFoundException(datasetName));
+    invalidateLineageOf(namespaceName, datasetName);
+    searchEngine.remove(ResultType.DATASET, namespaceName.getValue(), datasetName.getValue());
     return Response.ok(dataset).build();
   }
 
@@ -196,6 +207,7 @@ public class DatasetResource extends BaseResource {
     final Dataset dataset =
         datasetService.updateTags(
             namespaceName.getValue(), datasetName.getValue(), tagName.getValue());
+    invalidateLineageOf(namespaceName, datasetName);
     return Response.ok(dataset).build();
   }
 
@@ -223,6 +235,7 @@ public class DatasetResource extends BaseResource {
         datasetService
             .findDatasetByName(namespaceName.getValue(), datasetName.getValue())
             .orElseThrow(() -> new DatasetNotFoundException(datasetName));
+    invalidateLineageOf(namespaceName, datasetName);
     return Response.ok(dataset).build();
   }
 
@@ -252,6 +265,7 @@ public class DatasetResource extends BaseResource {
             datasetName.getValue(),
             fieldName.getValue(),
             tagName.getValue().toUpperCase(Locale.getDefault()));
+    invalidateLineageOf(namespaceName, datasetName);
     return Response.ok(dataset).build();
   }
 
@@ -293,9 +307,15 @@ public class DatasetResource extends BaseResource {
         datasetService
             .findDatasetByName(namespaceName.getValue(), datasetName.getValue())
             .orElseThrow(() -> new DatasetNotFoundException(datasetName));
+    invalidateLineageOf(namespaceName, datasetName);
     return Response.ok(dataset).build();
   }
 
+  /** Drops the cached lineage graphs containing the dataset, as its node data has changed. */
+  private void invalidateLineageOf(NamespaceName namespaceName, DatasetName datasetName) {
+    lineageCache.invalidate(Set.of(), Set.of(new DatasetId(namespaceName, datasetName)));
+  }
+
   @Value
   static class DatasetVersions {
     @NonNull
@@ -38,15 +38,18 @@ import marquez.api.exceptions.JobNotFoundException;
 import marquez.api.exceptions.JobVersionNotFoundException;
 import marquez.api.models.JobVersion;
 import marquez.api.models.ResultsPage;
+import marquez.api.models.SearchResult.ResultType;
 import marquez.common.models.FacetType;
 import marquez.common.models.JobName;
 import marquez.common.models.NamespaceName;
 import marquez.common.models.RunId;
 import marquez.common.models.Version;
+import marquez.db.IngestCaches;
 import marquez.db.JobFacetsDao;
 import marquez.db.JobVersionDao;
 import marquez.db.RunFacetsDao;
 import marquez.db.models.JobRow;
+import marquez.service.LineageCache;
 import marquez.service.ServiceFactory;
 import marquez.service.models.Job;
 import marquez.service.models.JobMeta;
@@ -58,16 +61,22 @@ public class JobResource extends BaseResource {
   private final JobVersionDao jobVersionDao;
   private final JobFacetsDao jobFacetsDao;
   private final RunFacetsDao runFacetsDao;
+  private final IngestCaches ingestCaches;
+  private final LineageCache lineageCache;
 
   public JobResource(
       @NonNull final ServiceFactory serviceFactory,
       @NonNull final JobVersionDao jobVersionDao,
       @NonNull JobFacetsDao jobFacetsDao,
-      @NonNull RunFacetsDao runFacetsDao) {
+      @NonNull RunFacetsDao runFacetsDao,
+      @NonNull IngestCaches ingestCaches,
+      @NonNull LineageCache lineageCache) {
     super(serviceFactory);
     this.jobVersionDao = jobVersionDao;
     this.jobFacetsDao = jobFacetsDao;
     this.runFacetsDao = runFacetsDao;
+    this.ingestCaches = ingestCaches;
+    this.lineageCache = lineageCache;
   }
 
   /**
@@ -95,6 +104,7 @@ public class JobResource extends BaseResource {
     throwIfDatasetsNotExist(jobMeta.getOutputs());
 
     final Job job = jobService.createOrUpdate(namespaceName, jobName, jobMeta);
+    searchEngine.index(job);
     return Response.ok(job).build();
   }
 
@@ -188,6 +198,9 @@ public class JobResource extends BaseResource {
             .orElseThrow(() -> new JobNotFoundException(jobName));
 
     jobService.delete(namespaceName.getValue(), job.getName().getValue());
+    ingestCaches.invalidateJob(namespaceName.getValue(), job.getName().getValue());
+    lineageCache.invalidateAll();
+    searchEngine.remove(ResultType.JOB, namespaceName.getValue(), job.getName().getValue());
     return Response.ok(job).build();
   }
 
@@ -31,14 +31,24 @@ import marquez.api.exceptions.NamespaceNotFoundException;
 import marquez.api.filter.exclusions.Exclusions;
 import marquez.api.filter.exclusions.ExclusionsConfig;
 import marquez.common.models.NamespaceName;
+import marquez.db.IngestCaches;
+import marquez.service.LineageCache;
 import marquez.service.ServiceFactory;
 import marquez.service.models.Namespace;
 import marquez.service.models.NamespaceMeta;
 
 @Path("/api/v1")
 public class NamespaceResource extends BaseResource {
-  public NamespaceResource(@NonNull final ServiceFactory serviceFactory) {
+  private final IngestCaches ingestCaches;
+  private final LineageCache lineageCache;
+
+  public NamespaceResource(
+      @NonNull final ServiceFactory serviceFactory,
+      @NonNull final IngestCaches ingestCaches,
+      @NonNull final LineageCache lineageCache) {
     super(serviceFactory);
+    this.ingestCaches = ingestCaches;
+    this.lineageCache = lineageCache;
   }
 
   @Timed
@@ -103,6 +113,9 @@ public class NamespaceResource extends BaseResource {
     datasetService.deleteByNamespaceName(namespace.getName().getValue());
     jobService.deleteByNamespaceName(namespace.getName().getValue());
     namespaceService.delete(namespace.getName().getValue());
+    ingestCaches.invalidateNamespace(namespace.getName().getValue());
+    lineageCache.invalidateAll();
+    searchEngine.removeNamespace(namespace.getName().getValue());
     return Response.ok(namespace).build();
   }
 
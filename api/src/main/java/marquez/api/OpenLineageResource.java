@@ -8,20 +8,32 @@ package marquez.api;
 import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
 import static javax.ws.rs.core.Response.Status.BAD_REQUEST;
 import static javax.ws.rs.core.Response.Status.INTERNAL_SERVER_ERROR;
+import static javax.ws.rs.core.Response.Status.SERVICE_UNAVAILABLE;
 
 import com.codahale.metrics.annotation.ExceptionMetered;
 import com.codahale.metrics.annotation.ResponseMetered;
 import com.codahale.metrics.annotation.Timed;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableSortedSet;
 import io.dropwizard.jersey.jsr310.ZonedDateTimeParam;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.sql.SQLException;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 import javax.validation.Valid;
 import javax.validation.constraints.Min;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.NotNull;
+import javax.ws.rs.BadRequestException;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.DefaultValue;
 import javax.ws.rs.GET;
@@ -32,30 +44,47 @@ import javax.ws.rs.QueryParam;
 import javax.ws.rs.container.AsyncResponse;
 import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 import lombok.NonNull;
 import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
+import marquez.api.exceptions.BatchTooLargeException;
+import marquez.api.exceptions.InvalidLineageCursorException;
+import marquez.api.models.LineageQuery;
 import marquez.api.models.SortDirection;
 import marquez.common.models.RunId;
 import marquez.db.OpenLineageDao;
+import marquez.service.OpenLineageService.BatchEventResult;
 import marquez.service.ServiceFactory;
 import marquez.service.models.BaseEvent;
 import marquez.service.models.DatasetEvent;
 import marquez.service.models.JobEvent;
+import marquez.service.models.LineageBudget;
+import marquez.service.models.LineageCursor;
+import marquez.service.models.LineageDirection;
 import marquez.service.models.LineageEvent;
+import marquez.service.models.Node;
 import marquez.service.models.NodeId;
 
 @Slf4j
 @Path("/api/v1")
 public class OpenLineageResource extends BaseResource {
   private static final String DEFAULT_DEPTH = "20";
+  private static final int MULTI_STATUS = 207;
 
   private final OpenLineageDao openLineageDao;
+  private final ObjectMapper mapper;
+  private final int maxBatchSize;
 
   public OpenLineageResource(
-      @NonNull final ServiceFactory serviceFactory, @NonNull final OpenLineageDao openLineageDao) {
+      @NonNull final ServiceFactory serviceFactory,
+      @NonNull final OpenLineageDao openLineageDao,
+      @NonNull final ObjectMapper mapper,
+      final int maxBatchSize) {
     super(serviceFactory);
     this.openLineageDao = openLineageDao;
+    this.mapper = mapper;
+    this.maxBatchSize = maxBatchSize;
   }
 
   @Timed
@@ -87,6 +116,53 @@ public class OpenLineageResource extends BaseResource {
     }
   }
 
+  /**
+   * Ingests a batch of OpenLineage events. Events are written in chunks, one transaction per chunk,
+   * and the status of each event is returned in the order the events were provided. Returns {@code
+   * 201} if all events were ingested, or {@code 207} if at least one event failed. A batch of more
+   * than {@code maxBatchSize} events is rejected with a {@code 413}, before any event is written.
+   */
+  @Timed
+  @ResponseMetered
+  @ExceptionMetered
+  @POST
+  @Consumes(APPLICATION_JSON)
+  @Produces(APPLICATION_JSON)
+  @Path("/lineage/batch")
+  public void createBatch(
+      @Valid @NotEmpty List<BaseEvent> events, @Suspended final AsyncResponse asyncResponse) {
+    if (events.size() > maxBatchSize) {
+      throw new BatchTooLargeException(events.size(), maxBatchSize);
+    }
+    openLineageService
+        .createBatchAsync(events)
+        .whenComplete((results, err) -> onBatchComplete(results, err, asyncResponse));
+  }
+
+  private void onBatchComplete(
+      List<BatchEventResult> results, Throwable err, AsyncResponse asyncResponse) {
+    if (err != null) {
+      log.error("Unexpected error while processing batch request", err);
+      asyncResponse.resume(Response.status(determineStatusCode(err)).build());
+      return;
+    }
+    final List<BatchResult> batchResults =
+        results.stream().map(this::toBatchResult).collect(Collectors.toList());
+    final int failed = (int) results.stream().filter(result -> !result.isSuccess()).count();
+    asyncResponse.resume(
+        Response.status(failed == 0 ? 201 : MULTI_STATUS)
+            .entity(new BatchResults(batchResults, results.size() - failed, failed))
+            .build());
+  }
+
+  private BatchResult toBatchResult(BatchEventResult result) {
+    if (!result.isSuccess()) {
+      return new BatchResult(
+          result.index(), determineStatusCode(result.error()), result.error().getMessage());
+    }
+    return new BatchResult(result.index(), result.isSupported() ? 201 : 200, null);
+  }
+
   private void onComplete(Void result, Throwable err, AsyncResponse asyncResponse) {
     if (err != null) {
       log.error("Unexpected error while processing request", err);
@@ -101,6 +177,8 @@ public class OpenLineageResource extends BaseResource {
       return determineStatusCode(e.getCause());
     } else if (e instanceof IllegalArgumentException) {
       return BAD_REQUEST.getStatusCode();
+    } else if (e instanceof RejectedExecutionException) {
+      return SERVICE_UNAVAILABLE.getStatusCode();
     }
     return INTERNAL_SERVER_ERROR.getStatusCode();
   }
@@ -110,13 +188,104 @@ public class OpenLineageResource extends BaseResource {
   @ExceptionMetered
   @GET
   @Consumes(APPLICATION_JSON)
-  @Produces(APPLICATION_JSON)
+  @Produces({APPLICATION_JSON, COMPACT_LINEAGE})
   @Path("/lineage")
   public Response getLineage(
       @QueryParam("nodeId") @NotNull NodeId nodeId,
-      @QueryParam("depth") @DefaultValue(DEFAULT_DEPTH) int depth) {
+      @QueryParam("depth") @DefaultValue(DEFAULT_DEPTH) int depth,
+      @QueryParam("direction") @DefaultValue("BOTH") LineageDirection direction,
+      @QueryParam("maxNodes") @Min(value = 1) Integer maxNodes,
+      @QueryParam("maxFanOut") @Min(value = 1) Integer maxFanOut,
+      @QueryParam("asOf") ZonedDateTimeParam asOf) {
+    throwIfNotExists(nodeId);
+    final LineageBudget budget = LineageBudget.of(maxNodes, maxFanOut);
+    if (asOf != null) {
+      if (!budget.isUnlimited()) {
+        throw new BadRequestException("maxNodes and maxFanOut are not supported with asOf");
+      }
+      return Response.ok(
+              lineageService.lineageAsOf(nodeId, depth, direction, asOf.get().toInstant()))
+          .build();
+    }
+    // The lineage is written node by node as it is serialized.
+    return Response.ok(lineageService.streamLineage(nodeId, depth, direction, budget, true))
+        .build();
+  }
+
+  /**
+   * Returns the lineage of many nodes at once, see {@link LineageQuery}: the union of their
+   * lineage, or the lineage of each node. The lineage of all of the nodes is traversed at once, so
+   * that lineage shared by the nodes is read once.
+   */
+  @Timed
+  @ResponseMetered
+  @ExceptionMetered
+  @POST
+  @Consumes(APPLICATION_JSON)
+  @Produces(APPLICATION_JSON)
+  @Path("/lineage/query")
+  public Response queryLineage(@Valid @NotNull LineageQuery query) {
+    throwIfNotExists(query.getNodeIds());
+    if (!query.isPerNode()) {
+      return Response.ok(
+              lineageService.lineage(
+                  query.getNodeIds(), query.getDepth(), query.getDirection(), true))
+          .build();
+    }
+    final List<NodeLineage> lineages =
+        lineageService
+            .lineageByNode(query.getNodeIds(), query.getDepth(), query.getDirection(), true)
+            .entrySet()
+            .stream()
+            .map(lineage -> new NodeLineage(lineage.getKey(), lineage.getValue().getGraph()))
+            .collect(Collectors.toList());
+    return Response.ok(new NodeLineages(lineages)).build();
+  }
+
+  /**
+   * Throws if any of the provided nodes does not exist, see {@link #throwIfNotExists(NodeId)}. The
+   * dataset and job nodes are looked up with a single query.
+   */
+  private void throwIfNotExists(List<NodeId> nodeIds) {
+    final Set<NodeId> existing = lineageService.existingNodes(nodeIds);
+    nodeIds.stream()
+        .filter(nodeId -> !nodeId.hasVersion() && !existing.contains(nodeId))
+        .forEach(this::throwIfNotExists);
+  }
+
+  /**
+   * Returns a page of the lineage of the provided node, see {@link
+   * marquez.service.LineageService#lineagePage}. The first page holds the jobs the lineage is
+   * traversed from; each page holds the cursor of the next one, if any.
+   */
+  @Timed
+  @ResponseMetered
+  @ExceptionMetered
+  @GET
+  @Consumes(APPLICATION_JSON)
+  @Produces(APPLICATION_JSON)
+  @Path("/lineage/pages")
+  public Response getLineagePage(
+      @QueryParam("nodeId") @NotNull NodeId nodeId,
+      @QueryParam("depth") @DefaultValue(DEFAULT_DEPTH) int depth,
+      @QueryParam("direction") @DefaultValue("BOTH") LineageDirection direction,
+      @QueryParam("cursor") String cursor,
+      @QueryParam("limit") @DefaultValue("100") @Min(value = 1) int limit) {
     throwIfNotExists(nodeId);
-    return Response.ok(lineageService.lineage(nodeId, depth, true)).build();
+    return Response.ok(
+            lineageService.lineagePage(nodeId, depth, direction, decodeCursor(cursor), limit))
+        .build();
+  }
+
+  private static LineageCursor decodeCursor(@Nullable String cursor) {
+    if (cursor == null) {
+      return LineageCursor.FIRST;
+    }
+    try {
+      return LineageCursor.decode(cursor);
+    } catch (IllegalArgumentException e) {
+      throw new InvalidLineageCursorException(cursor);
+    }
   }
 
   @Timed
@@ -148,6 +317,10 @@ public class OpenLineageResource extends BaseResource {
    *
    * @param runId the run to get upstream lineage from
    * @param depth the maximum depth of the upstream lineage
+   * @param maxNodes the maximum number of runs; the runs not expanded within it are returned as
+   *     {@code unexpandedRunIds}
+   * @param stream whether to write each level of runs as soon as it is read, rather than once the
+   *     lineage is complete
    * @return the upstream lineage for that run up to `detph` levels
    */
   @Timed
@@ -159,9 +332,70 @@ public class OpenLineageResource extends BaseResource {
   @Path("/runlineage/upstream")
   public Response getRunLineageUpstream(
       @QueryParam("runId") @NotNull RunId runId,
-      @QueryParam("depth") @DefaultValue(DEFAULT_DEPTH) int depth) {
+      @QueryParam("depth") @DefaultValue(DEFAULT_DEPTH) int depth,
+      @QueryParam("maxNodes") @Min(value = 1) Integer maxNodes,
+      @QueryParam("stream") @DefaultValue("false") boolean stream) {
     throwIfNotExists(runId);
-    return Response.ok(lineageService.upstream(runId, depth)).build();
+    final int maxRuns = (maxNodes == null) ? Integer.MAX_VALUE : maxNodes;
+    if (!stream) {
+      return Response.ok(lineageService.upstream(runId, depth, maxRuns)).build();
+    }
+    final StreamingOutput output =
+        out -> {
+          final JsonGenerator generator = mapper.getFactory().createGenerator(out);
+          generator.writeStartObject();
+          generator.writeArrayFieldStart("runs");
+          final List<RunId> unexpandedRunIds =
+              lineageService.upstream(
+                  runId,
+                  depth,
+                  maxRuns,
+                  run -> {
+                    try {
+                      generator.writeObject(run);
+                    } catch (IOException e) {
+                      throw new UncheckedIOException(e);
+                    }
+                  });
+          generator.writeEndArray();
+          if (!unexpandedRunIds.isEmpty()) {
+            generator.writeObjectField("unexpandedRunIds", unexpandedRunIds);
+          }
+          generator.writeEndObject();
+          // Flush, rather than close, the generator; the output stream is closed by the container.
+          generator.flush();
+        };
+    return Response.ok(output).build();
+  }
+
+  @Value
+  static class BatchResult {
+    int index;
+    int status;
+    @Nullable String error;
+  }
+
+  @Value
+  static class BatchResults {
+    @NonNull
+    @JsonProperty("results")
+    List<BatchResult> value;
+
+    int succeeded;
+    int failed;
+  }
+
+  @Value
+  static class NodeLineage {
+    @NonNull NodeId nodeId;
+    @NonNull ImmutableSortedSet<Node> graph;
+  }
+
+  @Value
+  static class NodeLineages {
+    @NonNull
+    @JsonProperty("lineages")
+    List<NodeLineage> value;
   }
 
   @Value
@@ -31,7 +31,7 @@ import lombok.extern.slf4j.Slf4j;
 import marquez.api.models.SearchFilter;
 import marquez.api.models.SearchResult;
 import marquez.api.models.SearchSort;
-import marquez.db.SearchDao;
+import marquez.service.SearchEngine;
 
 @Slf4j
 @Path("/api/v1/search")
@@ -41,10 +41,10 @@ public class SearchResource {
   private static final String DEFAULT_LIMIT = "10";
   private static final int MIN_LIMIT = 0;
 
-  private final SearchDao searchDao;
+  private final SearchEngine searchEngine;
 
-  public SearchResource(@NonNull final SearchDao searchDao) {
-    this.searchDao = searchDao;
+  public SearchResource(@NonNull final SearchEngine searchEngine) {
+    this.searchEngine = searchEngine;
   }
 
   @Timed
@@ -61,7 +61,7 @@ public class SearchResource {
       @QueryParam("before") @Valid @Pattern(regexp = YYYY_MM_DD) @Nullable String before,
       @QueryParam("after") @Valid @Pattern(regexp = YYYY_MM_DD) @Nullable String after) {
     final List<SearchResult> searchResults =
-        searchDao.search(
+        searchEngine.search(
             query,
             filter,
             sort,
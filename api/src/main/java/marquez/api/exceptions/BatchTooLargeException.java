@@ -0,0 +1,19 @@
+/*
+ * Copyright 2018-2023 contributors to the Marquez project
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package marquez.api.exceptions;
+
+import javax.ws.rs.ClientErrorException;
+import javax.ws.rs.core.Response;
+
+public final class BatchTooLargeException extends ClientErrorException {
+  private static final long serialVersionUID = 1L;
+
+  public BatchTooLargeException(final int size, final int maxSize) {
+    super(
+        String.format("Batch of '%d' events exceeds the maximum of '%d' events.", size, maxSize),
+        Response.Status.REQUEST_ENTITY_TOO_LARGE);
+  }
+}
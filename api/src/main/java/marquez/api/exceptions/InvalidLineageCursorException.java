@@ -0,0 +1,18 @@
+/*
+ * Copyright 2018-2023 contributors to the Marquez project
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package marquez.api.exceptions;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import javax.ws.rs.BadRequestException;
+
+public final class InvalidLineageCursorException extends BadRequestException {
+  private static final long serialVersionUID = 1L;
+
+  public InvalidLineageCursorException(final String cursor) {
+    super(String.format("Invalid lineage cursor '%s'.", checkNotNull(cursor)));
+  }
+}
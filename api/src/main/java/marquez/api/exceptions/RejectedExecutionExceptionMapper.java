@@ -0,0 +1,40 @@
+/*
+ * Copyright 2018-2023 contributors to the Marquez project
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package marquez.api.exceptions;
+
+import static javax.ws.rs.core.MediaType.APPLICATION_JSON_TYPE;
+import static javax.ws.rs.core.Response.Status.SERVICE_UNAVAILABLE;
+
+import io.dropwizard.jersey.errors.ErrorMessage;
+import java.util.concurrent.RejectedExecutionException;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.ext.ExceptionMapper;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Maps a {@link RejectedExecutionException}, thrown when the ingest queue is full, to a {@code 503}
+ * with a {@code Retry-After} header so that clients back off before retrying.
+ */
+@Slf4j
+public class RejectedExecutionExceptionMapper
+    implements ExceptionMapper<RejectedExecutionException> {
+  private final int retryAfterSecs;
+
+  public RejectedExecutionExceptionMapper(final int retryAfterSecs) {
+    this.retryAfterSecs = retryAfterSecs;
+  }
+
+  @Override
+  public Response toResponse(RejectedExecutionException e) {
+    log.warn("Rejected request: {}", e.getMessage());
+    return Response.status(SERVICE_UNAVAILABLE)
+        .type(APPLICATION_JSON_TYPE)
+        .header(HttpHeaders.RETRY_AFTER, retryAfterSecs)
+        .entity(new ErrorMessage(SERVICE_UNAVAILABLE.getStatusCode(), e.getMessage()))
+        .build();
+  }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2018-2023 contributors to the Marquez project
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package marquez.api.filter;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.Nullable;
+import javax.ws.rs.Produces;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.Provider;
+import lombok.NonNull;
+import marquez.service.models.Edge;
+import marquez.service.models.Lineage;
+import marquez.service.models.Node;
+import marquez.service.models.NodeId;
+import marquez.service.models.StreamingLineage;
+
+/**
+ * Writes a lineage graph in the compact lineage format, {@value #MEDIA_TYPE}. Each node ID of the
+ * graph is written once, to {@code nodeIds}, and referenced by its index elsewhere: a node refers
+ * to its ID by index, and an edge is a pair of indexes. For example:
+ *
+ * <pre>{@code
+ * {
+ *   "nodes": [
+ *     {"id": 0, "type": "DATASET", "data": {...}, "inEdges": [], "outEdges": [[0, 1]]},
+ *     {"id": 1, "type": "JOB", "data": {...}, "inEdges": [[0, 1]], "outEdges": []}
+ *   ],
+ *   "nodeIds": ["dataset:food_delivery:public.orders", "job:food_delivery:etl_orders"]
+ * }
+ * }</pre>
+ *
+ * <p>IDs are indexed in the order they are first referenced, so that nodes are written as the
+ * graph is iterated; the IDs are written last. The {@code unexpandedNodeIds} of a graph, if any,
+ * are written as indexes as well.
+ */
+@Provider
+@Produces(CompactLineageWriter.MEDIA_TYPE)
+public class CompactLineageWriter implements MessageBodyWriter<Object> {
+  public static final String MEDIA_TYPE = "application/vnd.marquez.lineage.compact+json";
+
+  private static final MediaType COMPACT = MediaType.valueOf(MEDIA_TYPE);
+
+  private final ObjectMapper mapper;
+
+  public CompactLineageWriter(@NonNull final ObjectMapper mapper) {
+    this.mapper = mapper;
+  }
+
+  @Override
+  public boolean isWriteable(
+      Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+    return (Lineage.class.isAssignableFrom(type) || StreamingLineage.class.isAssignableFrom(type))
+        && COMPACT.isCompatible(mediaType);
+  }
+
+  @Override
+  public void writeTo(
+      Object lineage,
+      Class<?> type,
+      Type genericType,
+      Annotation[] annotations,
+      MediaType mediaType,
+      MultivaluedMap<String, Object> httpHeaders,
+      OutputStream out)
+      throws IOException, WebApplicationException {
+    if (lineage instanceof StreamingLineage streaming) {
+      write(streaming.getGraph(), streaming.getUnexpandedNodeIds(), out);
+    } else {
+      write(((Lineage) lineage).getGraph(), ((Lineage) lineage).getUnexpandedNodeIds(), out);
+    }
+  }
+
+  private void write(
+      Iterable<Node> graph, @Nullable Set<NodeId> unexpandedNodeIds, OutputStream out)
+      throws IOException {
+    final Map<NodeId, Integer> indexes = new LinkedHashMap<>();
+    final JsonGenerator generator = mapper.getFactory().createGenerator(out);
+    generator.writeStartObject();
+    generator.writeArrayFieldStart("nodes");
+    for (final Node node : graph) {
+      generator.writeStartObject();
+      generator.writeNumberField("id", indexOf(node.getId(), indexes));
+      generator.writeObjectField("type", node.getType());
+      generator.writeObjectField("data", node.getData());
+      writeEdges("inEdges", node.getInEdges(), indexes, generator);
+      writeEdges("outEdges", node.getOutEdges(), indexes, generator);
+      generator.writeEndObject();
+    }
+    generator.writeEndArray();
+    if (unexpandedNodeIds != null) {
+      generator.writeArrayFieldStart("unexpandedNodeIds");
+      for (final NodeId nodeId : unexpandedNodeIds) {
+        generator.writeNumber(indexOf(nodeId, indexes));
+      }
+      generator.writeEndArray();
+    }
+    generator.writeArrayFieldStart("nodeIds");
+    for (final NodeId nodeId : indexes.keySet()) {
+      generator.writeString(nodeId.getValue());
+    }
+    generator.writeEndArray();
+    generator.writeEndObject();
+    // Flush, rather than close, the generator; the output stream is closed by the container.
+    generator.flush();
+  }
+
+  private static void writeEdges(
+      String fieldName, Set<Edge> edges, Map<NodeId, Integer> indexes, JsonGenerator generator)
+      throws IOException {
+    generator.writeArrayFieldStart(fieldName);
+    for (final Edge edge : edges) {
+      generator.writeStartArray();
+      generator.writeNumber(indexOf(edge.getOrigin(), indexes));
+      generator.writeNumber(indexOf(edge.getDestination(), indexes));
+      generator.writeEndArray();
+    }
+    generator.writeEndArray();
+  }
+
+  private static int indexOf(NodeId nodeId, Map<NodeId, Integer> indexes) {
+    return indexes.computeIfAbsent(nodeId, k -> indexes.size());
+  }
+}
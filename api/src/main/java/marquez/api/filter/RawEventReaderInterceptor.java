@@ -0,0 +1,46 @@
+/*
+ * Copyright 2018-2023 contributors to the Marquez project
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package marquez.api.filter;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.ext.Provider;
+import javax.ws.rs.ext.ReaderInterceptor;
+import javax.ws.rs.ext.ReaderInterceptorContext;
+import marquez.service.models.BaseEvent;
+
+/**
+ * Keeps the raw JSON of an OpenLineage event read from a request, see {@link
+ * BaseEvent#getRawJson()}, so that the event is written to {@code lineage_events} as received
+ * rather than serialized again from the event read. Only UTF-8 encoded events are kept.
+ */
+@Provider
+public class RawEventReaderInterceptor implements ReaderInterceptor {
+  @Override
+  public Object aroundReadFrom(ReaderInterceptorContext context)
+      throws IOException, WebApplicationException {
+    if (!BaseEvent.class.isAssignableFrom(context.getType()) || !isUtf8(context.getMediaType())) {
+      return context.proceed();
+    }
+    final byte[] rawJson = context.getInputStream().readAllBytes();
+    context.setInputStream(new ByteArrayInputStream(rawJson));
+    final Object event = context.proceed();
+    if (event instanceof BaseEvent baseEvent) {
+      baseEvent.setRawJson(rawJson);
+    }
+    return event;
+  }
+
+  private static boolean isUtf8(MediaType mediaType) {
+    final String charset =
+        mediaType == null ? null : mediaType.getParameters().get(MediaType.CHARSET_PARAMETER);
+    return charset == null || UTF_8.name().equalsIgnoreCase(charset);
+  }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2018-2023 contributors to the Marquez project
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package marquez.api.models;
+
+import java.util.List;
+import javax.annotation.Nullable;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import lombok.Value;
+import marquez.service.models.LineageDirection;
+import marquez.service.models.NodeId;
+
+/**
+ * A query of the lineage of many nodes at once: the union of the lineage of all of the nodes, or
+ * the lineage of each of them if {@code perNode} is set.
+ */
+@Value
+public class LineageQuery {
+  public static final int MAX_NODE_IDS = 1000;
+  static final int DEFAULT_DEPTH = 20;
+
+  @NotEmpty
+  @Size(max = MAX_NODE_IDS)
+  List<@NotNull NodeId> nodeIds;
+
+  @Nullable
+  @Min(0)
+  Integer depth;
+
+  @Nullable LineageDirection direction;
+  boolean perNode;
+
+  public int getDepth() {
+    return depth == null ? DEFAULT_DEPTH : depth;
+  }
+
+  public LineageDirection getDirection() {
+    return direction == null ? LineageDirection.BOTH : direction;
+  }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2018-2023 contributors to the Marquez project
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package marquez.cli;
+
+import io.dropwizard.cli.ConfiguredCommand;
+import io.dropwizard.db.DataSourceFactory;
+import io.dropwizard.db.ManagedDataSource;
+import io.dropwizard.setup.Bootstrap;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import marquez.MarquezConfig;
+import marquez.common.Utils;
+import marquez.db.OpenLineageDao;
+import marquez.service.LocalSearchEngine;
+import marquez.service.SearchConfig;
+import marquez.service.models.BaseEvent;
+import net.sourceforge.argparse4j.inf.Namespace;
+import org.jdbi.v3.core.Jdbi;
+import org.jdbi.v3.postgres.PostgresPlugin;
+import org.jdbi.v3.sqlobject.SqlObjectPlugin;
+
+/**
+ * A command to build the index of the {@code LOCAL} search engine from the events in {@code
+ * lineage_events}, replacing the index saved to the configured {@code search.indexPath}. Only the
+ * events applied to the Marquez model are indexed, not those written ahead and not applied yet;
+ * datasets and jobs created through the API, rather than by events, are not indexed either. As
+ * the index is saved by Marquez as well, run the command while Marquez is stopped.
+ *
+ * <h2>Usage</h2>
+ *
+ * <pre>{@code
+ * java -jar marquez-api.jar search-index marquez.yml
+ * }</pre>
+ */
+@Slf4j
+public class SearchIndexCommand extends ConfiguredCommand<MarquezConfig> {
+  private static final String DB_SOURCE_NAME = "ad-hoc-search-index-source";
+  private static final int LOG_INTERVAL = 100_000;
+
+  /* Define 'search-index' command. */
+  public SearchIndexCommand() {
+    super("search-index", "build the local search index from lineage events");
+  }
+
+  @Override
+  protected void run(
+      @NonNull Bootstrap<MarquezConfig> bootstrap,
+      @NonNull Namespace namespace,
+      @NonNull MarquezConfig config)
+      throws Exception {
+    if (config.getSearch().getEngine() != SearchConfig.Engine.LOCAL) {
+      log.error("The search engine configured is not 'LOCAL'; no index to build.");
+      return;
+    }
+    final LocalSearchEngine searchEngine = new LocalSearchEngine(config.getSearch());
+
+    // Configure connection.
+    final DataSourceFactory sourceFactory = config.getDataSourceFactory();
+    final ManagedDataSource source =
+        sourceFactory.build(bootstrap.getMetricRegistry(), DB_SOURCE_NAME);
+
+    // Open connection.
+    final Jdbi jdbi = Jdbi.create(source);
+    jdbi.installPlugin(new SqlObjectPlugin());
+    jdbi.installPlugin(new PostgresPlugin()); // Add postgres support.
+
+    final AtomicInteger indexed = new AtomicInteger();
+    jdbi.useTransaction(
+        handle -> {
+          try (Stream<String> events = handle.attach(OpenLineageDao.class).streamEvents()) {
+            events.forEach(
+                json -> {
+                  try {
+                    searchEngine.index(Utils.getMapper().readValue(json, BaseEvent.class));
+                  } catch (IOException errorOnRead) {
+                    log.warn("Skipping lineage event not readable: {}", errorOnRead.getMessage());
+                    return;
+                  }
+                  if (indexed.incrementAndGet() % LOG_INTERVAL == 0) {
+                    log.info("Indexed '{}' lineage events...", indexed.get());
+                  }
+                });
+          }
+        });
+    searchEngine.save();
+    log.info(
+        "Indexed '{}' lineage events; '{}' datasets and jobs indexed.",
+        indexed.get(),
+        searchEngine.size());
+  }
+}
@@ -8,6 +8,7 @@ package marquez.db;
 import static org.jdbi.v3.sqlobject.customizer.BindList.EmptyHandling.NULL_STRING;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
@@ -54,6 +55,7 @@ public interface ColumnLineageDao extends BaseDao {
                         now,
                         now))
             .collect(Collectors.toList()));
+    upsertLatestColumnLineage(outputDatasetVersionUuid, outputDatasetFieldUuid);
     return findColumnLineageByDatasetVersionColumnAndOutputDatasetField(
         outputDatasetVersionUuid, outputDatasetFieldUuid);
   }
@@ -63,6 +65,47 @@ public interface ColumnLineageDao extends BaseDao {
   List<ColumnLineageRow> findColumnLineageByDatasetVersionColumnAndOutputDatasetField(
       UUID datasetVersionUuid, UUID outputDatasetFieldUuid);
 
+  /**
+   * Updates {@code column_lineage_latest} with the edges into the provided output field of the
+   * provided dataset version, where they are the latest edges between their fields.
+   */
+  @SqlUpdate(
+      """
+          INSERT INTO column_lineage_latest (
+          output_dataset_field_uuid,
+          input_dataset_field_uuid,
+          output_dataset_version_uuid,
+          input_dataset_version_uuid,
+          transformation_description,
+          transformation_type,
+          created_at,
+          updated_at
+          )
+          SELECT DISTINCT ON (input_dataset_field_uuid)
+          output_dataset_field_uuid,
+          input_dataset_field_uuid,
+          output_dataset_version_uuid,
+          input_dataset_version_uuid,
+          transformation_description,
+          transformation_type,
+          created_at,
+          updated_at
+          FROM column_lineage
+          WHERE output_dataset_version_uuid = :outputDatasetVersionUuid
+          AND output_dataset_field_uuid = :outputDatasetFieldUuid
+          ORDER BY input_dataset_field_uuid, updated_at DESC
+          ON CONFLICT (output_dataset_field_uuid, input_dataset_field_uuid)
+          DO UPDATE SET
+          output_dataset_version_uuid = EXCLUDED.output_dataset_version_uuid,
+          input_dataset_version_uuid = EXCLUDED.input_dataset_version_uuid,
+          transformation_description = EXCLUDED.transformation_description,
+          transformation_type = EXCLUDED.transformation_type,
+          created_at = EXCLUDED.created_at,
+          updated_at = EXCLUDED.updated_at
+          WHERE column_lineage_latest.updated_at <= EXCLUDED.updated_at
+          """)
+  void upsertLatestColumnLineage(UUID outputDatasetVersionUuid, UUID outputDatasetFieldUuid);
+
   @SqlUpdate(
       """
           INSERT INTO column_lineage (
@@ -96,50 +139,107 @@ public interface ColumnLineageDao extends BaseDao {
               value = "values")
           List<ColumnLineageRow> rows);
 
+  /**
+   * Returns the current column lineage of the provided fields up to {@code depth} edges away; see
+   * {@link ColumnLineageTraversal}. Edges are read from {@code column_lineage_latest}, so that only
+   * the edges traversed are read.
+   */
+  default Set<ColumnLineageNodeData> getLineage(
+      int depth, List<UUID> datasetFieldUuids, boolean withDownstream) {
+    return getLineageOf(
+        ColumnLineageTraversal.traverse(
+            datasetFieldUuids, depth, withDownstream, this::getLatestColumnLineageEdges));
+  }
+
+  /**
+   * Returns the column lineage of the provided fields up to {@code depth} edges away as of {@code
+   * createdAtUntil}: the latest edge between each pair of fields created by then.
+   */
+  default Set<ColumnLineageNodeData> getLineage(
+      int depth, List<UUID> datasetFieldUuids, boolean withDownstream, Instant createdAtUntil) {
+    return getLineageOf(
+        ColumnLineageTraversal.traverse(
+            datasetFieldUuids,
+            depth,
+            withDownstream,
+            (outputFieldUuids, inputFieldUuids) ->
+                getColumnLineageEdges(outputFieldUuids, inputFieldUuids, createdAtUntil)));
+  }
+
+  /** Returns the lineage nodes of the output fields of the provided edges. */
+  default Set<ColumnLineageNodeData> getLineageOf(Collection<ColumnLineageRow> edges) {
+    if (edges.isEmpty()) {
+      return Collections.emptySet();
+    }
+    return getLineageOfEdges(
+        edges.stream().map(ColumnLineageRow::getOutputDatasetVersionUuid).toArray(UUID[]::new),
+        edges.stream().map(ColumnLineageRow::getOutputDatasetFieldUuid).toArray(UUID[]::new),
+        edges.stream().map(ColumnLineageRow::getInputDatasetVersionUuid).toArray(UUID[]::new),
+        edges.stream().map(ColumnLineageRow::getInputDatasetFieldUuid).toArray(UUID[]::new),
+        edges.stream()
+            .map(edge -> edge.getTransformationDescription().orElse(null))
+            .toArray(String[]::new),
+        edges.stream()
+            .map(edge -> edge.getTransformationType().orElse(null))
+            .toArray(String[]::new));
+  }
+
+  @SqlQuery(
+      """
+          SELECT * FROM column_lineage_latest
+          WHERE output_dataset_field_uuid IN (<outputFieldUuids>)
+          OR input_dataset_field_uuid IN (<inputFieldUuids>)
+          """)
+  List<ColumnLineageRow> getLatestColumnLineageEdges(
+      @BindList(onEmpty = NULL_STRING) Collection<UUID> outputFieldUuids,
+      @BindList(onEmpty = NULL_STRING) Collection<UUID> inputFieldUuids);
+
   @SqlQuery(
       """
-          WITH RECURSIVE
-            column_lineage_latest AS (
-                SELECT DISTINCT ON (output_dataset_field_uuid, input_dataset_field_uuid) *
-                FROM column_lineage
-                WHERE created_at <= :createdAtUntil
-                ORDER BY output_dataset_field_uuid, input_dataset_field_uuid, updated_at DESC, updated_at
+          SELECT DISTINCT ON (output_dataset_field_uuid, input_dataset_field_uuid) *
+          FROM column_lineage
+          WHERE (
+            output_dataset_field_uuid IN (<outputFieldUuids>)
+            OR input_dataset_field_uuid IN (<inputFieldUuids>)
+          )
+          AND created_at <= :createdAtUntil
+          ORDER BY output_dataset_field_uuid, input_dataset_field_uuid, updated_at DESC
+          """)
+  List<ColumnLineageRow> getColumnLineageEdges(
+      @BindList(onEmpty = NULL_STRING) Collection<UUID> outputFieldUuids,
+      @BindList(onEmpty = NULL_STRING) Collection<UUID> inputFieldUuids,
+      Instant createdAtUntil);
+
+  /**
+   * Returns the lineage nodes of the output fields of the provided edges, each edge given by its
+   * elements at the same index of the arrays. Arrays, rather than a list of rows, are bound so that
+   * the number of edges is not limited by the number of bind parameters of a statement.
+   */
+  @SqlQuery(
+      """
+          WITH
+            column_lineage_traversed AS (
+              SELECT *
+              FROM unnest(
+                :outputDatasetVersionUuids,
+                :outputDatasetFieldUuids,
+                :inputDatasetVersionUuids,
+                :inputDatasetFieldUuids,
+                :transformationDescriptions,
+                :transformationTypes
+              ) AS t(
+                output_dataset_version_uuid,
+                output_dataset_field_uuid,
+                input_dataset_version_uuid,
+                input_dataset_field_uuid,
+                transformation_description,
+                transformation_type
+              )
             ),
             dataset_fields_view AS (
               SELECT d.namespace_name as namespace_name, d.name as dataset_name, df.name as field_name, df.type, df.uuid, d.namespace_uuid
               FROM dataset_fields df
               INNER JOIN datasets_view d ON d.uuid = df.dataset_uuid
-            ),
-            column_lineage_recursive AS (
-              (
-                SELECT
-                  *,
-                  0 as depth,
-                  false as is_cycle,
-                  ARRAY[ROW(output_dataset_field_uuid, input_dataset_field_uuid)] as path -- path and is_cycle mechanism as describe here https://www.postgresql.org/docs/current/queries-with.html (CYCLE clause not available in postgresql 12)
-                FROM column_lineage_latest
-                WHERE output_dataset_field_uuid IN (<datasetFieldUuids>)
-              )
-              UNION ALL
-              SELECT
-                adjacent_node.output_dataset_version_uuid,
-                adjacent_node.output_dataset_field_uuid,
-                adjacent_node.input_dataset_version_uuid,
-                adjacent_node.input_dataset_field_uuid,
-                adjacent_node.transformation_description,
-                adjacent_node.transformation_type,
-                adjacent_node.created_at,
-                adjacent_node.updated_at,
-                node.depth + 1 as depth,
-                ROW(adjacent_node.input_dataset_field_uuid, adjacent_node.output_dataset_field_uuid) = ANY(path) as is_cycle,
-                path || ROW(adjacent_node.input_dataset_field_uuid, adjacent_node.output_dataset_field_uuid) as path
-              FROM column_lineage_latest adjacent_node, column_lineage_recursive node
-              WHERE (
-                (node.input_dataset_field_uuid = adjacent_node.output_dataset_field_uuid) --upstream lineage
-                OR (:withDownstream AND adjacent_node.input_dataset_field_uuid = node.output_dataset_field_uuid) --optional downstream lineage
-              )
-              AND node.depth < :depth - 1 -- fetching single row means fetching single edge which is size 1
-              AND NOT is_cycle
             )
             SELECT
                 output_fields.namespace_name,
@@ -155,12 +255,12 @@ public interface ColumnLineageDao extends BaseDao {
                   clr.transformation_type
                 ]) AS inputFields,
                 clr.output_dataset_version_uuid as dataset_version_uuid
-            FROM column_lineage_recursive clr
+            FROM column_lineage_traversed clr
             INNER JOIN dataset_fields_view output_fields ON clr.output_dataset_field_uuid = output_fields.uuid -- hidden datasets will be filtered
             INNER JOIN dataset_symlinks ds_output ON ds_output.namespace_uuid = output_fields.namespace_uuid AND ds_output.name = output_fields.dataset_name
             LEFT JOIN dataset_fields_view input_fields ON clr.input_dataset_field_uuid = input_fields.uuid
             INNER JOIN dataset_symlinks ds_input ON ds_input.namespace_uuid = input_fields.namespace_uuid AND ds_input.name = input_fields.dataset_name
-            WHERE NOT clr.is_cycle AND ds_output.is_primary is true AND ds_input.is_primary
+            WHERE ds_output.is_primary is true AND ds_input.is_primary
             GROUP BY
                 output_fields.namespace_name,
                 output_fields.dataset_name,
@@ -168,11 +268,13 @@ public interface ColumnLineageDao extends BaseDao {
                 output_fields.type,
                 clr.output_dataset_version_uuid
           """)
-  Set<ColumnLineageNodeData> getLineage(
-      int depth,
-      @BindList(onEmpty = NULL_STRING) List<UUID> datasetFieldUuids,
-      boolean withDownstream,
-      Instant createdAtUntil);
+  Set<ColumnLineageNodeData> getLineageOfEdges(
+      UUID[] outputDatasetVersionUuids,
+      UUID[] outputDatasetFieldUuids,
+      UUID[] inputDatasetVersionUuids,
+      UUID[] inputDatasetFieldUuids,
+      String[] transformationDescriptions,
+      String[] transformationTypes);
 
   @SqlQuery(
       """
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2018-2023 contributors to the Marquez project
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package marquez.db;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import lombok.NonNull;
+import marquez.db.models.ColumnLineageRow;
+
+/**
+ * A breadth-first traversal of column lineage edges. The traversal starts from the edges into the
+ * provided fields, then each hop follows the edges into the input fields of the edges of the
+ * previous hop and, downstream, the edges out of their output fields. The edges of each hop are
+ * read at once, and each field is expanded in each direction once, so that the cost of a traversal
+ * is that of the edges traversed.
+ */
+final class ColumnLineageTraversal {
+  private ColumnLineageTraversal() {}
+
+  /**
+   * Reads the edges into the provided output fields, and the edges out of the provided input
+   * fields.
+   */
+  @FunctionalInterface
+  interface Edges {
+    List<ColumnLineageRow> edgesOf(
+        Collection<UUID> outputFieldUuids, Collection<UUID> inputFieldUuids);
+  }
+
+  /** An edge between two fields; a field is connected to another by a single edge. */
+  private record FieldEdge(UUID outputFieldUuid, UUID inputFieldUuid) {}
+
+  /**
+   * Returns the edges within {@code depth} hops of the provided fields, in the order they are
+   * traversed. The edges into the provided fields are always traversed.
+   */
+  static Collection<ColumnLineageRow> traverse(
+      @NonNull Collection<UUID> fieldUuids,
+      int depth,
+      boolean withDownstream,
+      @NonNull Edges edges) {
+    if (fieldUuids.isEmpty()) {
+      return List.of();
+    }
+    final Map<FieldEdge, ColumnLineageRow> visited = new LinkedHashMap<>();
+    final Set<UUID> expandedUpstream = new HashSet<>(fieldUuids);
+    final Set<UUID> expandedDownstream = new HashSet<>();
+    List<ColumnLineageRow> frontier = visit(edges.edgesOf(fieldUuids, List.of()), visited);
+    for (int hop = 1; hop < depth && !frontier.isEmpty(); hop++) {
+      final List<UUID> upstream = new ArrayList<>();
+      final List<UUID> downstream = new ArrayList<>();
+      for (final ColumnLineageRow edge : frontier) {
+        if (expandedUpstream.add(edge.getInputDatasetFieldUuid())) {
+          upstream.add(edge.getInputDatasetFieldUuid());
+        }
+        if (withDownstream && expandedDownstream.add(edge.getOutputDatasetFieldUuid())) {
+          downstream.add(edge.getOutputDatasetFieldUuid());
+        }
+      }
+      if (upstream.isEmpty() && downstream.isEmpty()) {
+        break;
+      }
+      frontier = visit(edges.edgesOf(upstream, downstream), visited);
+    }
+    return visited.values();
+  }
+
+  /** Adds the provided edges to {@code visited}, and returns those not visited before. */
+  private static List<ColumnLineageRow> visit(
+      List<ColumnLineageRow> edges, Map<FieldEdge, ColumnLineageRow> visited) {
+    final List<ColumnLineageRow> unvisited = new ArrayList<>();
+    for (final ColumnLineageRow edge : edges) {
+      final FieldEdge key =
+          new FieldEdge(edge.getOutputDatasetFieldUuid(), edge.getInputDatasetFieldUuid());
+      if (visited.putIfAbsent(key, edge) == null) {
+        unvisited.add(edge);
+      }
+    }
+    return unvisited;
+  }
+}
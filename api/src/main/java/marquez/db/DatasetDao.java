@@ -69,6 +69,11 @@ public interface DatasetDao extends BaseDao {
           + "WHERE uuid = :rowUuid")
   void updateVersion(UUID rowUuid, Instant updatedAt, UUID currentVersionUuid);
 
+  @SqlQuery(
+      "SELECT current_version_uuid FROM datasets "
+          + "WHERE uuid = :rowUuid AND NOT is_hidden AND NOT is_deleted")
+  Optional<UUID> findCurrentVersionUuid(UUID rowUuid);
+
   @SqlQuery(
       """
           SELECT d.*, dv.fields, dv.lifecycle_state, sv.schema_location, t.tags, facets
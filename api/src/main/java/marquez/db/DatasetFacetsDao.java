@@ -5,23 +5,48 @@
 
 package marquez.db;
 
-import com.fasterxml.jackson.databind.JsonNode;
 import java.time.Instant;
 import java.util.Arrays;
-import java.util.Spliterator;
-import java.util.Spliterators;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
-import java.util.stream.StreamSupport;
+import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 import lombok.NonNull;
-import marquez.common.Utils;
 import marquez.service.models.LineageEvent;
+import org.jdbi.v3.sqlobject.customizer.BindMethods;
+import org.jdbi.v3.sqlobject.statement.SqlBatch;
 import org.jdbi.v3.sqlobject.statement.SqlUpdate;
 import org.jdbi.v3.sqlobject.transaction.Transaction;
 import org.postgresql.util.PGobject;
 
 /** The DAO for {@code dataset} facets. */
 public interface DatasetFacetsDao {
+  String INSERT_DATASET_FACET =
+      """
+      INSERT INTO dataset_facets (
+         created_at,
+         dataset_uuid,
+         dataset_version_uuid,
+         run_uuid,
+         lineage_event_time,
+         lineage_event_type,
+         type,
+         name,
+         facet
+      ) VALUES (
+         :createdAt,
+         :datasetUuid,
+         :datasetVersionUuid,
+         :runUuid,
+         :lineageEventTime,
+         :lineageEventType,
+         :type,
+         :name,
+         :facet
+      )
+      """;
+
   /* An {@code enum} used ... */
   enum Type {
     DATASET,
@@ -81,30 +106,7 @@ public interface DatasetFacetsDao {
    * @param name
    * @param facet
    */
-  @SqlUpdate(
-      """
-          INSERT INTO dataset_facets (
-             created_at,
-             dataset_uuid,
-             dataset_version_uuid,
-             run_uuid,
-             lineage_event_time,
-             lineage_event_type,
-             type,
-             name,
-             facet
-          ) VALUES (
-             :createdAt,
-             :datasetUuid,
-             :datasetVersionUuid,
-             :runUuid,
-             :lineageEventTime,
-             :lineageEventType,
-             :type,
-             :name,
-             :facet
-          )
-      """)
+  @SqlUpdate(INSERT_DATASET_FACET)
   void insertDatasetFacet(
       Instant createdAt,
       UUID datasetUuid,
@@ -116,6 +118,10 @@ public interface DatasetFacetsDao {
       String name,
       PGobject facet);
 
+  /** Inserts the provided facet {@code rows} with a single JDBC batch. */
+  @SqlBatch(INSERT_DATASET_FACET)
+  void insertDatasetFacets(@BindMethods List<DatasetFacetRow> rows);
+
   /**
    * @param datasetUuid
    * @param runUuid
@@ -131,23 +137,15 @@ public interface DatasetFacetsDao {
       @NonNull Instant lineageEventTime,
       @Nullable String lineageEventType,
       @NonNull LineageEvent.DatasetFacets datasetFacets) {
-    final Instant now = Instant.now();
-
-    JsonNode jsonNode = Utils.getMapper().valueToTree(datasetFacets);
-    StreamSupport.stream(
-            Spliterators.spliteratorUnknownSize(jsonNode.fieldNames(), Spliterator.DISTINCT), false)
-        .forEach(
-            fieldName ->
-                insertDatasetFacet(
-                    now,
-                    datasetUuid,
-                    datasetVersionUuid,
-                    runUuid,
-                    lineageEventTime,
-                    lineageEventType,
-                    DatasetFacet.typeFromName(fieldName),
-                    fieldName,
-                    FacetUtils.toPgObject(fieldName, jsonNode.get(fieldName))));
+    insertDatasetFacets(
+        datasetFacetRowsFor(
+            datasetUuid,
+            datasetVersionUuid,
+            runUuid,
+            lineageEventTime,
+            lineageEventType,
+            null,
+            FacetUtils.facetsOf(datasetFacets)));
   }
 
   default void insertInputDatasetFacetsFor(
@@ -157,23 +155,15 @@ public interface DatasetFacetsDao {
       @NonNull Instant lineageEventTime,
       @NonNull String lineageEventType,
       @NonNull LineageEvent.InputDatasetFacets inputFacets) {
-    final Instant now = Instant.now();
-
-    JsonNode jsonNode = Utils.getMapper().valueToTree(inputFacets);
-    StreamSupport.stream(
-            Spliterators.spliteratorUnknownSize(jsonNode.fieldNames(), Spliterator.DISTINCT), false)
-        .forEach(
-            fieldName ->
-                insertDatasetFacet(
-                    now,
-                    datasetUuid,
-                    datasetVersionUuid,
-                    runUuid,
-                    lineageEventTime,
-                    lineageEventType,
-                    Type.INPUT,
-                    fieldName,
-                    FacetUtils.toPgObject(fieldName, jsonNode.get(fieldName))));
+    insertDatasetFacets(
+        datasetFacetRowsFor(
+            datasetUuid,
+            datasetVersionUuid,
+            runUuid,
+            lineageEventTime,
+            lineageEventType,
+            Type.INPUT,
+            FacetUtils.facetsOf(inputFacets)));
   }
 
   default void insertOutputDatasetFacetsFor(
@@ -183,23 +173,44 @@ public interface DatasetFacetsDao {
       @NonNull Instant lineageEventTime,
       @NonNull String lineageEventType,
       @NonNull LineageEvent.OutputDatasetFacets outputFacets) {
-    final Instant now = Instant.now();
+    insertDatasetFacets(
+        datasetFacetRowsFor(
+            datasetUuid,
+            datasetVersionUuid,
+            runUuid,
+            lineageEventTime,
+            lineageEventType,
+            Type.OUTPUT,
+            FacetUtils.facetsOf(outputFacets)));
+  }
 
-    JsonNode jsonNode = Utils.getMapper().valueToTree(outputFacets);
-    StreamSupport.stream(
-            Spliterators.spliteratorUnknownSize(jsonNode.fieldNames(), Spliterator.DISTINCT), false)
-        .forEach(
-            fieldName ->
-                insertDatasetFacet(
+  /**
+   * Returns the rows of the provided {@code facets}, keyed by facet name, of a dataset version; a
+   * {@code null} {@code type} derives the type of each facet from its name.
+   */
+  static List<DatasetFacetRow> datasetFacetRowsFor(
+      @NonNull UUID datasetUuid,
+      @NonNull UUID datasetVersionUuid,
+      @Nullable UUID runUuid,
+      @NonNull Instant lineageEventTime,
+      @Nullable String lineageEventType,
+      @Nullable Type type,
+      @NonNull Map<String, Object> facets) {
+    final Instant now = Instant.now();
+    return facets.entrySet().stream()
+        .map(
+            facet ->
+                new DatasetFacetRow(
                     now,
                     datasetUuid,
                     datasetVersionUuid,
                     runUuid,
                     lineageEventTime,
                     lineageEventType,
-                    Type.OUTPUT,
-                    fieldName,
-                    FacetUtils.toPgObject(fieldName, jsonNode.get(fieldName))));
+                    type == null ? DatasetFacet.typeFromName(facet.getKey()) : type,
+                    facet.getKey(),
+                    FacetUtils.toPgObject(facet.getKey(), facet.getValue())))
+        .collect(Collectors.toList());
   }
 
   record DatasetFacetRow(
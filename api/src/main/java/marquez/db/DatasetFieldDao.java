@@ -7,7 +7,9 @@ package marquez.db;
 
 import com.google.common.collect.ImmutableSet;
 import java.time.Instant;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -24,9 +26,11 @@ import marquez.db.models.InputFieldData;
 import marquez.db.models.TagRow;
 import marquez.service.models.Dataset;
 import marquez.service.models.DatasetVersion;
+import marquez.service.models.LineageEvent.SchemaField;
 import org.apache.commons.lang3.tuple.Pair;
 import org.jdbi.v3.sqlobject.config.RegisterRowMapper;
 import org.jdbi.v3.sqlobject.customizer.BindBean;
+import org.jdbi.v3.sqlobject.customizer.BindBeanList;
 import org.jdbi.v3.sqlobject.statement.SqlBatch;
 import org.jdbi.v3.sqlobject.statement.SqlQuery;
 import org.jdbi.v3.sqlobject.statement.SqlUpdate;
@@ -265,6 +269,68 @@ public interface DatasetFieldDao extends BaseDao {
   DatasetFieldRow upsert(
       UUID uuid, Instant now, String name, String type, String description, UUID datasetUuid);
 
+  /**
+   * Upserts the {@code fields} of the dataset {@code datasetUuid} with a single multi-row statement
+   * rather than one statement per field. A statement can't affect the same row twice, so fields
+   * are deduplicated on {@code (name, type)} with the last occurrence winning, as it would when
+   * upserted one by one. The returned rows are in the order of {@code fields}.
+   */
+  default List<DatasetFieldRow> upsertAll(Instant now, UUID datasetUuid, List<SchemaField> fields) {
+    if (fields.isEmpty()) {
+      return List.of();
+    }
+    final Map<Pair<String, String>, DatasetFieldUpsert> upserts = new LinkedHashMap<>();
+    for (SchemaField field : fields) {
+      upserts.put(
+          Pair.of(field.getName(), field.getType()),
+          new DatasetFieldUpsert(
+              UUID.randomUUID(),
+              field.getType(),
+              now,
+              now,
+              datasetUuid,
+              field.getName(),
+              field.getDescription()));
+    }
+    final Map<Pair<String, String>, DatasetFieldRow> rows =
+        doUpsertAll(List.copyOf(upserts.values())).stream()
+            .collect(Collectors.toMap(row -> Pair.of(row.getName(), row.getType()), row -> row));
+    return fields.stream()
+        .map(field -> rows.get(Pair.of(field.getName(), field.getType())))
+        .collect(Collectors.toList());
+  }
+
+  @SqlQuery(
+      """
+      INSERT INTO dataset_fields (
+      uuid,
+      type,
+      created_at,
+      updated_at,
+      dataset_uuid,
+      name,
+      description
+      ) VALUES <values>
+      ON CONFLICT (dataset_uuid, name, type)
+      DO UPDATE SET
+      updated_at = EXCLUDED.updated_at,
+      description = EXCLUDED.description
+      RETURNING *
+      """)
+  List<DatasetFieldRow> doUpsertAll(
+      @BindBeanList(
+              propertyNames = {
+                "uuid",
+                "type",
+                "createdAt",
+                "updatedAt",
+                "datasetUuid",
+                "name",
+                "description"
+              },
+              value = "values")
+          List<DatasetFieldUpsert> upserts);
+
   @SqlBatch(
       "INSERT INTO dataset_versions_field_mapping (dataset_version_uuid, dataset_field_uuid) "
           + "VALUES (:datasetVersionUuid, :datasetFieldUuid) ON CONFLICT DO NOTHING")
@@ -276,6 +342,17 @@ public interface DatasetFieldDao extends BaseDao {
     UUID datasetFieldUuid;
   }
 
+  @Value
+  class DatasetFieldUpsert {
+    UUID uuid;
+    String type;
+    Instant createdAt;
+    Instant updatedAt;
+    UUID datasetUuid;
+    String name;
+    String description;
+  }
+
   @Value
   class DatasetFieldTag {
     UUID datasetFieldUuid;
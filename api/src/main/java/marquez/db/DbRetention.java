@@ -54,7 +54,8 @@ import org.jdbi.v3.core.statement.Script;
  *       deleted if the dataset version is the {@code current} version of a given dataset version,
  *       or the input of a run.
  *   <li>Delete lineage events from {@code lineage_events} table if {@code
- *       lineage_events.event_time} older than retentionDays.
+ *       lineage_events.event_time} older than retentionDays; an event written ahead will not be
+ *       deleted until applied to the Marquez model, see {@code lineage_events.processed}.
  * </ul>
  */
 @Slf4j
@@ -508,10 +509,12 @@ public final class DbRetention {
                         LOOP
                           WITH deleted_rows AS (
                             DELETE FROM lineage_events
-                              WHERE run_uuid IN (
+                              WHERE processed IS NOT FALSE
+                                AND run_uuid IN (
                                SELECT run_uuid
                                  FROM lineage_events
                                 WHERE event_time < CURRENT_TIMESTAMP - INTERVAL '${retentionDays} days'
+                                  AND processed IS NOT FALSE
                                   FOR UPDATE SKIP LOCKED
                                 LIMIT rows_per_batch
                               ) RETURNING run_uuid
@@ -699,5 +702,6 @@ public final class DbRetention {
       """
       DELETE FROM lineage_events
         WHERE event_time < CURRENT_TIMESTAMP - INTERVAL '${retentionDays} days'
+          AND processed IS NOT FALSE
       """;
 }
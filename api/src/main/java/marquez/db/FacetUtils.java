@@ -5,7 +5,13 @@
 
 package marquez.db;
 
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.introspect.AnnotatedMember;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import lombok.NonNull;
 import marquez.common.Utils;
 import org.postgresql.util.PGobject;
@@ -21,4 +27,36 @@ public class FacetUtils {
   static PGobject toPgObject(String name, Object o) {
     return Columns.toPgObject(asJson(name, o));
   }
+
+  /**
+   * Returns the non-null facets of {@code facets} by the name they are serialized with, including
+   * any additional facets. Unlike converting {@code facets} to a tree, facets are not copied, so
+   * that each facet, which may be large, is only serialized once, by {@link #toPgObject(String,
+   * Object)}.
+   */
+  static Map<String, Object> facetsOf(@NonNull Object facets) {
+    final ObjectMapper mapper = Utils.getMapper();
+    final BeanDescription description =
+        mapper.getSerializationConfig().introspect(mapper.constructType(facets.getClass()));
+    final Map<String, Object> facetsByName = new LinkedHashMap<>();
+    for (final BeanPropertyDefinition property : description.findProperties()) {
+      final AnnotatedMember accessor = property.getAccessor();
+      if (accessor != null) {
+        final Object facet = accessor.getValue(facets);
+        if (facet != null) {
+          facetsByName.put(property.getName(), facet);
+        }
+      }
+    }
+    final AnnotatedMember anyGetter = description.findAnyGetter();
+    if (anyGetter != null && anyGetter.getValue(facets) instanceof Map<?, ?> additional) {
+      additional.forEach(
+          (name, facet) -> {
+            if (facet != null) {
+              facetsByName.put(String.valueOf(name), facet);
+            }
+          });
+    }
+    return facetsByName;
+  }
 }
@@ -0,0 +1,234 @@
+/*
+ * Copyright 2018-2023 contributors to the Marquez project
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package marquez.db;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import javax.annotation.Nullable;
+import lombok.NonNull;
+import marquez.db.models.JobRow;
+import marquez.db.models.NamespaceRow;
+import marquez.db.models.SourceRow;
+import marquez.db.models.UpdateLineageRow.DatasetRecord;
+import marquez.service.IngestMetrics;
+import org.jdbi.v3.core.Handle;
+
+/**
+ * Caches of the namespace, source and job rows upserted for each event on ingest. The same few
+ * hundred namespaces, sources and jobs are usually seen over and over; a cached row is returned in
+ * place of an upsert as long as the attributes of the event match those the row was upserted with.
+ * Rows are only cached once the transaction upserting them commits, as a row inserted within a
+ * transaction that is later rolled back must never be returned. A namespace or job hidden since it
+ * was cached, such as by another instance, is unhidden on a cache hit, as its upsert would.
+ *
+ * <p>The input datasets of events are cached as well, keyed by dataset and fingerprinted by the
+ * attributes of the event the dataset version depends on; a cached input dataset is only returned
+ * if its version is still the current version of the dataset.
+ *
+ * <p>The caches are held by the instance and shared by all its ingest threads. Deleting a namespace
+ * or a job must invalidate its entries, see {@link #invalidateNamespace(String)} and {@link
+ * #invalidateJob(String, String)}.
+ */
+public final class IngestCaches {
+  /** Caches that are disabled, so that every row is upserted. */
+  public static final IngestCaches DISABLED = new IngestCaches(0, 0, Duration.ZERO);
+
+  private final IdentityCache<String, NamespaceRow> namespaces;
+  private final IdentityCache<String, SourceRow> sources;
+  private final IdentityCache<JobKey, JobRow> jobs;
+  private final IdentityCache<DatasetKey, DatasetRecord> inputDatasets;
+
+  /** The identity of a job row; jobs with a parent are keyed by their simple name. */
+  record JobKey(
+      @NonNull String namespaceName, @NonNull String name, @Nullable UUID parentJobUuid) {}
+
+  /** The identity of a dataset, as named in events. */
+  record DatasetKey(@NonNull String namespaceName, @NonNull String name) {}
+
+  /**
+   * Returns caches holding up to {@code maxSize} namespace, source and job rows each and up to
+   * {@code maxInputDatasets} input datasets, for up to {@code ttl} after a row was cached; a size
+   * of {@code 0} disables the respective caches.
+   */
+  public IngestCaches(int maxSize, int maxInputDatasets, @NonNull Duration ttl) {
+    this.namespaces = new IdentityCache<>("namespace", maxSize, ttl);
+    this.sources = new IdentityCache<>("source", maxSize, ttl);
+    this.jobs = new IdentityCache<>("job", maxSize, ttl);
+    this.inputDatasets = new IdentityCache<>("input_dataset", maxInputDatasets, ttl);
+  }
+
+  NamespaceRow namespace(
+      @NonNull Handle handle,
+      @NonNull String name,
+      @NonNull Supplier<NamespaceRow> upsert,
+      @NonNull Consumer<NamespaceRow> onHit) {
+    return namespaces.get(handle, name, null, upsert, onHit);
+  }
+
+  SourceRow source(
+      @NonNull Handle handle,
+      @NonNull String name,
+      @Nullable List<?> attributes,
+      @NonNull Supplier<SourceRow> upsert) {
+    return sources.get(handle, name, attributes, upsert, row -> {});
+  }
+
+  JobRow job(
+      @NonNull Handle handle,
+      @NonNull JobKey key,
+      @NonNull List<?> attributes,
+      @NonNull Supplier<JobRow> upsert,
+      @NonNull Consumer<JobRow> onHit) {
+    return jobs.get(handle, key, attributes, upsert, onHit);
+  }
+
+  boolean cachesInputDatasets() {
+    return inputDatasets.isEnabled();
+  }
+
+  /**
+   * Returns the cached input dataset {@code key} if it was cached with the same {@code fingerprint}
+   * and its version is still the current version of the dataset, as returned by {@code
+   * currentVersionOf} for the UUID of the dataset.
+   */
+  Optional<DatasetRecord> inputDataset(
+      @NonNull DatasetKey key,
+      @NonNull List<?> fingerprint,
+      @NonNull Function<UUID, Optional<UUID>> currentVersionOf) {
+    final Optional<DatasetRecord> cached = inputDatasets.getIfPresent(key, fingerprint);
+    if (cached.isEmpty()
+        || currentVersionOf
+            .apply(cached.get().getDatasetRow().getUuid())
+            .filter(cached.get().getDatasetVersionRow().getUuid()::equals)
+            .isPresent()) {
+      return cached;
+    }
+    // A new version of the dataset was written since, possibly by another instance.
+    IngestMetrics.identityCacheRequests.labels("input_dataset", "stale").inc();
+    invalidateInputDataset(key);
+    return Optional.empty();
+  }
+
+  void putInputDataset(
+      @NonNull Handle handle,
+      @NonNull DatasetKey key,
+      @NonNull List<?> fingerprint,
+      @NonNull DatasetRecord record) {
+    inputDatasets.putAfterCommit(handle, key, fingerprint, record);
+  }
+
+  /** Invalidates the cached input dataset {@code key}, such as when a new version is written. */
+  void invalidateInputDataset(@NonNull DatasetKey key) {
+    inputDatasets.invalidateIf(key::equals);
+  }
+
+  /** Invalidates the cached rows of the namespace {@code name}, and of its jobs. */
+  public void invalidateNamespace(@NonNull String name) {
+    namespaces.invalidateIf(name::equals);
+    jobs.invalidateIf(key -> key.namespaceName().equals(name));
+    inputDatasets.invalidateIf(key -> key.namespaceName().equals(name));
+  }
+
+  /** Invalidates the cached rows of the job {@code name}, including its child jobs. */
+  public void invalidateJob(@NonNull String namespaceName, @NonNull String name) {
+    jobs.invalidateIf(
+        key ->
+            key.namespaceName().equals(namespaceName)
+                && (key.name().equals(name) || key.parentJobUuid() != null));
+  }
+
+  /** Invalidates all cached rows, such as after rows have been deleted by retention. */
+  public void invalidateAll() {
+    namespaces.invalidateIf(key -> true);
+    sources.invalidateIf(key -> true);
+    jobs.invalidateIf(key -> true);
+    inputDatasets.invalidateIf(key -> true);
+  }
+
+  private static final class IdentityCache<K, R> {
+    private final String name;
+    @Nullable private final Cache<K, Entry<R>> cache;
+
+    private record Entry<R>(@Nullable List<?> attributes, R row) {}
+
+    IdentityCache(String name, int maxSize, Duration ttl) {
+      this.name = name;
+      this.cache =
+          maxSize == 0
+              ? null
+              : CacheBuilder.newBuilder()
+                  .maximumSize(maxSize)
+                  .expireAfterWrite(ttl)
+                  .<K, Entry<R>>removalListener(
+                      removal -> {
+                        if (removal.wasEvicted()) {
+                          IngestMetrics.identityCacheEvictions.labels(name).inc();
+                        }
+                      })
+                  .build();
+    }
+
+    R get(
+        Handle handle, K key, @Nullable List<?> attributes, Supplier<R> upsert, Consumer<R> onHit) {
+      if (cache == null) {
+        return upsert.get();
+      }
+      final Optional<R> cached = getIfPresent(key, attributes);
+      if (cached.isPresent()) {
+        onHit.accept(cached.get());
+        return cached.get();
+      }
+      final R row = upsert.get();
+      putAfterCommit(handle, key, attributes, row);
+      return row;
+    }
+
+    Optional<R> getIfPresent(K key, @Nullable List<?> attributes) {
+      if (cache == null) {
+        return Optional.empty();
+      }
+      final Entry<R> cached = cache.getIfPresent(key);
+      if (cached != null && Objects.equals(cached.attributes(), attributes)) {
+        IngestMetrics.identityCacheRequests.labels(name, "hit").inc();
+        return Optional.of(cached.row());
+      }
+      IngestMetrics.identityCacheRequests.labels(name, "miss").inc();
+      return Optional.empty();
+    }
+
+    void putAfterCommit(Handle handle, K key, @Nullable List<?> attributes, R row) {
+      if (cache == null) {
+        return;
+      }
+      // A row upserted within a transaction may yet be rolled back; it is cached on commit.
+      final Runnable put = () -> cache.put(key, new Entry<>(attributes, row));
+      if (handle.isInTransaction()) {
+        handle.afterCommit(put);
+      } else {
+        put.run();
+      }
+    }
+
+    boolean isEnabled() {
+      return cache != null;
+    }
+
+    void invalidateIf(Predicate<K> predicate) {
+      if (cache != null) {
+        cache.asMap().keySet().removeIf(predicate);
+      }
+    }
+  }
+}
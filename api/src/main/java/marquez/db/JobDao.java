@@ -81,6 +81,15 @@ public interface JobDao extends BaseDao {
   """)
   void delete(String namespaceName, String name);
 
+  @SqlUpdate(
+      """
+    UPDATE jobs
+    SET is_hidden = false
+    WHERE uuid = :uuid
+    AND is_hidden
+  """)
+  void undeleteIfHidden(UUID uuid);
+
   @SqlUpdate(
       """
   UPDATE jobs
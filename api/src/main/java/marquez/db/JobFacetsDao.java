@@ -5,19 +5,19 @@
 
 package marquez.db;
 
-import com.fasterxml.jackson.databind.JsonNode;
 import java.time.Instant;
-import java.util.Spliterator;
-import java.util.Spliterators;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
-import java.util.stream.StreamSupport;
+import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 import lombok.NonNull;
-import marquez.common.Utils;
 import marquez.db.mappers.JobFacetsMapper;
 import marquez.service.models.JobFacets;
 import marquez.service.models.LineageEvent;
 import org.jdbi.v3.sqlobject.config.RegisterRowMapper;
+import org.jdbi.v3.sqlobject.customizer.BindMethods;
+import org.jdbi.v3.sqlobject.statement.SqlBatch;
 import org.jdbi.v3.sqlobject.statement.SqlQuery;
 import org.jdbi.v3.sqlobject.statement.SqlUpdate;
 import org.jdbi.v3.sqlobject.transaction.Transaction;
@@ -26,27 +26,47 @@ import org.postgresql.util.PGobject;
 @RegisterRowMapper(JobFacetsMapper.class)
 /** The DAO for {@code job} facets. */
 public interface JobFacetsDao {
+  String INSERT_JOB_FACET =
+      """
+      INSERT INTO job_facets (
+         created_at,
+         job_uuid,
+         run_uuid,
+         lineage_event_time,
+         lineage_event_type,
+         name,
+         facet
+      ) VALUES (
+         :createdAt,
+         :jobUuid,
+         :runUuid,
+         :lineageEventTime,
+         :lineageEventType,
+         :name,
+         :facet
+      )
+      """;
 
-  @SqlUpdate(
+  String INSERT_JOB_VERSION_FACET =
       """
-            INSERT INTO job_facets (
-               created_at,
-               job_uuid,
-               run_uuid,
-               lineage_event_time,
-               lineage_event_type,
-               name,
-               facet
-            ) VALUES (
-               :createdAt,
-               :jobUuid,
-               :runUuid,
-               :lineageEventTime,
-               :lineageEventType,
-               :name,
-               :facet
-            )
-            """)
+      INSERT INTO job_facets (
+         created_at,
+         job_uuid,
+         job_version_uuid,
+         lineage_event_time,
+         name,
+         facet
+      ) VALUES (
+         :createdAt,
+         :jobUuid,
+         :jobVersionUuid,
+         :lineageEventTime,
+         :name,
+         :facet
+      )
+      """;
+
+  @SqlUpdate(INSERT_JOB_FACET)
   void insertJobFacet(
       Instant createdAt,
       UUID jobUuid,
@@ -56,24 +76,7 @@ public interface JobFacetsDao {
       String name,
       PGobject facet);
 
-  @SqlUpdate(
-      """
-            INSERT INTO job_facets (
-               created_at,
-               job_uuid,
-               job_version_uuid,
-               lineage_event_time,
-               name,
-               facet
-            ) VALUES (
-               :createdAt,
-               :jobUuid,
-               :jobVersionUuid,
-               :lineageEventTime,
-               :name,
-               :facet
-            )
-            """)
+  @SqlUpdate(INSERT_JOB_VERSION_FACET)
   void insertJobFacet(
       Instant createdAt,
       UUID jobUuid,
@@ -82,6 +85,14 @@ public interface JobFacetsDao {
       String name,
       PGobject facet);
 
+  /** Inserts the provided facet {@code rows} of runs with a single JDBC batch. */
+  @SqlBatch(INSERT_JOB_FACET)
+  void insertJobFacets(@BindMethods List<JobFacetRow> rows);
+
+  /** Inserts the provided facet {@code rows} of job versions with a single JDBC batch. */
+  @SqlBatch(INSERT_JOB_VERSION_FACET)
+  void insertJobVersionFacets(@BindMethods List<JobVersionFacetRow> rows);
+
   @SqlQuery(
       """
             SELECT
@@ -104,18 +115,18 @@ public interface JobFacetsDao {
       @NonNull LineageEvent.JobFacet jobFacet) {
     final Instant now = Instant.now();
 
-    JsonNode jsonNode = Utils.getMapper().valueToTree(jobFacet);
-    StreamSupport.stream(
-            Spliterators.spliteratorUnknownSize(jsonNode.fieldNames(), Spliterator.DISTINCT), false)
-        .forEach(
-            fieldName ->
-                insertJobFacet(
-                    now,
-                    jobUuid,
-                    jobVersionUuid,
-                    lineageEventTime,
-                    fieldName,
-                    FacetUtils.toPgObject(fieldName, jsonNode.get(fieldName))));
+    insertJobVersionFacets(
+        FacetUtils.facetsOf(jobFacet).entrySet().stream()
+            .map(
+                facet ->
+                    new JobVersionFacetRow(
+                        now,
+                        jobUuid,
+                        jobVersionUuid,
+                        lineageEventTime,
+                        facet.getKey(),
+                        FacetUtils.toPgObject(facet.getKey(), facet.getValue())))
+            .collect(Collectors.toList()));
   }
 
   @Transaction
@@ -125,21 +136,31 @@ public interface JobFacetsDao {
       @NonNull Instant lineageEventTime,
       @Nullable String lineageEventType,
       @NonNull LineageEvent.JobFacet jobFacet) {
-    final Instant now = Instant.now();
+    insertJobFacets(
+        jobFacetRowsFor(
+            jobUuid, runUuid, lineageEventTime, lineageEventType, FacetUtils.facetsOf(jobFacet)));
+  }
 
-    JsonNode jsonNode = Utils.getMapper().valueToTree(jobFacet);
-    StreamSupport.stream(
-            Spliterators.spliteratorUnknownSize(jsonNode.fieldNames(), Spliterator.DISTINCT), false)
-        .forEach(
-            fieldName ->
-                insertJobFacet(
+  /** Returns the rows of the provided {@code facets} of a run, keyed by facet name. */
+  static List<JobFacetRow> jobFacetRowsFor(
+      @NonNull UUID jobUuid,
+      @Nullable UUID runUuid,
+      @NonNull Instant lineageEventTime,
+      @Nullable String lineageEventType,
+      @NonNull Map<String, Object> facets) {
+    final Instant now = Instant.now();
+    return facets.entrySet().stream()
+        .map(
+            facet ->
+                new JobFacetRow(
                     now,
                     jobUuid,
                     runUuid,
                     lineageEventTime,
                     lineageEventType,
-                    fieldName,
-                    FacetUtils.toPgObject(fieldName, jsonNode.get(fieldName))));
+                    facet.getKey(),
+                    FacetUtils.toPgObject(facet.getKey(), facet.getValue())))
+        .collect(Collectors.toList());
   }
 
   record JobFacetRow(
@@ -150,4 +171,12 @@ public interface JobFacetsDao {
       String lineageEventType,
       String name,
       PGobject facet) {}
+
+  record JobVersionFacetRow(
+      Instant createdAt,
+      UUID jobUuid,
+      UUID jobVersionUuid,
+      Instant lineageEventTime,
+      String name,
+      PGobject facet) {}
 }
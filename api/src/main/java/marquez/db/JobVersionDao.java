@@ -192,7 +192,10 @@ public interface JobVersionDao extends BaseDao {
       String namespaceName);
 
   /**
-   * Used to upsert an input or output dataset to a given job version.
+   * Used to upsert an input or output dataset to a given job version, and the edge between the job
+   * and the dataset in {@code lineage_edges}. An interval of {@code
+   * job_versions_io_mapping_validity} is opened as of now, unless one is open already; see {@code
+   * LineageDao.getLineageAsOf()}.
    *
    * @param jobVersionUuid The unique ID of the job version.
    * @param datasetUuid The unique ID of the output dataset
@@ -201,10 +204,27 @@ public interface JobVersionDao extends BaseDao {
    */
   @SqlUpdate(
       """
-    INSERT INTO job_versions_io_mapping (
-      job_version_uuid, dataset_uuid, io_type, job_uuid, job_symlink_target_uuid, is_current_job_version, made_current_at)
-    VALUES (:jobVersionUuid, :datasetUuid, :ioType, :jobUuid, :symlinkTargetJobUuid, TRUE, NOW())
-    ON CONFLICT (job_version_uuid, dataset_uuid, io_type, job_uuid) DO UPDATE SET is_current_job_version = TRUE
+    WITH current_io AS (
+      INSERT INTO job_versions_io_mapping (
+        job_version_uuid, dataset_uuid, io_type, job_uuid, job_symlink_target_uuid, is_current_job_version, made_current_at)
+      VALUES (:jobVersionUuid, :datasetUuid, :ioType, :jobUuid, :symlinkTargetJobUuid, TRUE, NOW())
+      ON CONFLICT (job_version_uuid, dataset_uuid, io_type, job_uuid) DO UPDATE SET is_current_job_version = TRUE
+      RETURNING job_uuid, dataset_uuid, io_type, job_symlink_target_uuid
+    ),
+    opened_validity AS (
+      INSERT INTO job_versions_io_mapping_validity (job_uuid, dataset_uuid, io_type, valid_from)
+      SELECT job_uuid, dataset_uuid, io_type, NOW()
+      FROM current_io
+      WHERE job_uuid IS NOT NULL
+      ON CONFLICT (job_uuid, dataset_uuid, io_type) WHERE valid_to IS NULL DO NOTHING
+    )
+    INSERT INTO lineage_edges (job_uuid, dataset_uuid, io_type, job_symlink_target_uuid, updated_at)
+    SELECT job_uuid, dataset_uuid, io_type, job_symlink_target_uuid, NOW()
+    FROM current_io
+    WHERE job_uuid IS NOT NULL
+    ON CONFLICT (job_uuid, dataset_uuid, io_type) DO UPDATE SET
+      job_symlink_target_uuid = EXCLUDED.job_symlink_target_uuid,
+      updated_at = EXCLUDED.updated_at
   """)
   void upsertCurrentInputOrOutputDatasetFor(
       UUID jobVersionUuid,
@@ -213,24 +233,60 @@ public interface JobVersionDao extends BaseDao {
       UUID symlinkTargetJobUuid,
       IoType ioType);
 
+  /**
+   * Marks the input or output datasets of the versions of a job, other than the provided version,
+   * as previous, closing their intervals of {@code job_versions_io_mapping_validity} as of now, and
+   * removes the edges between the job and the datasets from {@code lineage_edges}.
+   */
   @SqlUpdate(
       """
-    UPDATE job_versions_io_mapping
-    SET is_current_job_version = FALSE
-    WHERE (job_uuid = :jobUuid OR job_symlink_target_uuid = :jobUuid)
-    AND job_version_uuid != :jobVersionUuid
-    AND io_type = :ioType
-    AND is_current_job_version = TRUE;
+    WITH previous_io AS (
+      UPDATE job_versions_io_mapping
+      SET is_current_job_version = FALSE
+      WHERE (job_uuid = :jobUuid OR job_symlink_target_uuid = :jobUuid)
+      AND job_version_uuid != :jobVersionUuid
+      AND io_type = :ioType
+      AND is_current_job_version = TRUE
+      RETURNING job_uuid, dataset_uuid, io_type
+    ),
+    closed_validity AS (
+      UPDATE job_versions_io_mapping_validity v
+      SET valid_to = NOW()
+      FROM previous_io p
+      WHERE v.job_uuid = p.job_uuid AND v.dataset_uuid = p.dataset_uuid AND v.io_type = p.io_type
+      AND v.valid_to IS NULL
+    )
+    DELETE FROM lineage_edges e
+    USING previous_io p
+    WHERE e.job_uuid = p.job_uuid AND e.dataset_uuid = p.dataset_uuid AND e.io_type = p.io_type;
   """)
   void markInputOrOutputDatasetAsPreviousFor(UUID jobVersionUuid, UUID jobUuid, IoType ioType);
 
+  /**
+   * Marks the input or output datasets of all versions of a job as previous, closing their intervals
+   * of {@code job_versions_io_mapping_validity} as of now, and removes the edges between the job and
+   * the datasets from {@code lineage_edges}.
+   */
   @SqlUpdate(
       """
-    UPDATE job_versions_io_mapping
-    SET is_current_job_version = FALSE
-    WHERE (job_uuid = :jobUuid OR job_symlink_target_uuid = :jobUuid)
-    AND io_type = :ioType
-    AND is_current_job_version = TRUE;
+    WITH previous_io AS (
+      UPDATE job_versions_io_mapping
+      SET is_current_job_version = FALSE
+      WHERE (job_uuid = :jobUuid OR job_symlink_target_uuid = :jobUuid)
+      AND io_type = :ioType
+      AND is_current_job_version = TRUE
+      RETURNING job_uuid, dataset_uuid, io_type
+    ),
+    closed_validity AS (
+      UPDATE job_versions_io_mapping_validity v
+      SET valid_to = NOW()
+      FROM previous_io p
+      WHERE v.job_uuid = p.job_uuid AND v.dataset_uuid = p.dataset_uuid AND v.io_type = p.io_type
+      AND v.valid_to IS NULL
+    )
+    DELETE FROM lineage_edges e
+    USING previous_io p
+    WHERE e.job_uuid = p.job_uuid AND e.dataset_uuid = p.dataset_uuid AND e.io_type = p.io_type;
   """)
   void markInputOrOutputDatasetAsPreviousFor(UUID jobUuid, IoType ioType);
 
@@ -7,32 +7,46 @@ package marquez.db;
 
 import java.time.Instant;
 import java.util.Collection;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
-import javax.validation.constraints.NotNull;
+import javax.annotation.Nullable;
+import lombok.NonNull;
+import marquez.common.models.DatasetId;
 import marquez.common.models.DatasetName;
 import marquez.common.models.JobName;
 import marquez.common.models.NamespaceName;
 import marquez.common.models.RunId;
+import marquez.db.JobVersionDao.IoType;
+import marquez.db.mappers.AdjacentJobRowMapper;
 import marquez.db.mappers.DatasetDataMapper;
+import marquez.db.mappers.DatasetIdMapper;
 import marquez.db.mappers.JobDataMapper;
+import marquez.db.mappers.JobEdgeRowMapper;
 import marquez.db.mappers.JobRowMapper;
 import marquez.db.mappers.RunMapper;
+import marquez.db.mappers.SeedJobRowMapper;
 import marquez.db.mappers.UpstreamRunRowMapper;
 import marquez.service.models.DatasetData;
 import marquez.service.models.JobData;
+import marquez.service.models.LineageDirection;
 import marquez.service.models.Run;
 import org.jdbi.v3.sqlobject.config.RegisterRowMapper;
 import org.jdbi.v3.sqlobject.customizer.BindList;
 import org.jdbi.v3.sqlobject.statement.SqlQuery;
+import org.jdbi.v3.sqlobject.statement.SqlUpdate;
 
 @RegisterRowMapper(DatasetDataMapper.class)
 @RegisterRowMapper(JobDataMapper.class)
 @RegisterRowMapper(RunMapper.class)
 @RegisterRowMapper(JobRowMapper.class)
 @RegisterRowMapper(UpstreamRunRowMapper.class)
+@RegisterRowMapper(JobEdgeRowMapper.class)
+@RegisterRowMapper(AdjacentJobRowMapper.class)
+@RegisterRowMapper(DatasetIdMapper.class)
+@RegisterRowMapper(SeedJobRowMapper.class)
 public interface LineageDao {
 
   public record JobSummary(NamespaceName namespace, JobName name, UUID version) {}
@@ -44,59 +58,269 @@ public interface LineageDao {
 
   public record UpstreamRunRow(JobSummary job, RunSummary run, DatasetSummary input) {}
 
+  /**
+   * An edge between a job and a dataset of the current version of the job; {@code datasetUuid} and
+   * {@code ioType} are {@code null} for a job without any edge.
+   */
+  public record JobEdgeRow(
+      @NonNull UUID jobUuid,
+      @Nullable UUID jobSymlinkTargetUuid,
+      @Nullable UUID datasetUuid,
+      @Nullable IoType ioType) {}
+
+  /**
+   * A job adjacent to another job, see {@link #getAdjacentJobs(Collection, LineageDirection, int)}.
+   */
+  public record AdjacentJobRow(@NonNull UUID jobUuid, @NonNull UUID adjacentJobUuid) {}
+
+  /**
+   * A job the lineage of a node is traversed from, see {@link #getSeedJobs(List, List, List,
+   * IoType)}; {@code nodeId} is the value of the node.
+   */
+  public record SeedJobRow(@NonNull String nodeId, @NonNull UUID jobUuid) {}
+
+  /**
+   * The edges traversed from a job, and the edges of adjacent jobs on the same dataset followed, in
+   * a {@link LineageDirection}.
+   */
+  public record IoTypes(@NonNull Set<IoType> traversed, @NonNull Set<IoType> adjacent) {
+    public static IoTypes of(@NonNull LineageDirection direction) {
+      return switch (direction) {
+        case UPSTREAM -> new IoTypes(Set.of(IoType.INPUT), Set.of(IoType.OUTPUT));
+        case DOWNSTREAM -> new IoTypes(Set.of(IoType.OUTPUT), Set.of(IoType.INPUT));
+        case BOTH -> new IoTypes(EnumSet.allOf(IoType.class), EnumSet.allOf(IoType.class));
+      };
+    }
+  }
+
   /**
    * Fetch all of the jobs that consume or produce the datasets that are consumed or produced by the
    * input jobIds. This returns a single layer from the BFS using datasets as edges. Jobs that have
-   * no input or output datasets will have no results. Jobs that have no upstream producers or
-   * downstream consumers will have the original jobIds returned.
+   * no upstream producers or downstream consumers will have the original jobIds returned. Edges are
+   * read from {@code lineage_edges}, so that only the jobs traversed are read.
    *
    * @param jobIds
    * @return
    */
+  default Set<JobData> getLineage(Set<UUID> jobIds, int depth) {
+    return getLineage(jobIds, depth, LineageDirection.BOTH);
+  }
+
+  /**
+   * Fetch the jobs within {@code depth} hops of the input jobIds in the provided {@code direction}:
+   * upstream follows each job to the producers of its inputs, and downstream to the consumers of
+   * its outputs.
+   */
+  default Set<JobData> getLineage(
+      Set<UUID> jobIds, int depth, @NonNull LineageDirection direction) {
+    final IoTypes ioTypes = IoTypes.of(direction);
+    return getLineage(jobIds, depth, ioTypes.traversed(), ioTypes.adjacent());
+  }
+
+  /**
+   * Fetch the jobs reachable from the input jobIds by following, from each job, its edges of the
+   * {@code traversedIoTypes} to the edges of the {@code adjacentIoTypes} of other jobs on the same
+   * dataset.
+   */
   @SqlQuery(
       """
       WITH RECURSIVE
-                 job_io AS (
-                    SELECT
-                           io.job_uuid AS job_uuid,
-                           io.job_symlink_target_uuid AS job_symlink_target_uuid,
-                           ARRAY_AGG(DISTINCT io.dataset_uuid) FILTER (WHERE io.io_type='INPUT') AS inputs,
-                           ARRAY_AGG(DISTINCT io.dataset_uuid) FILTER (WHERE io.io_type='OUTPUT') AS outputs
-                    FROM job_versions_io_mapping io
-                    WHERE io.is_current_job_version = TRUE
-                    GROUP BY io.job_symlink_target_uuid, io.job_uuid
-                ),
-                lineage(job_uuid, job_symlink_target_uuid, inputs, outputs) AS (
-                    SELECT job_uuid,
-                           job_symlink_target_uuid,
-                           COALESCE(inputs, Array[]::uuid[]) AS inputs,
-                           COALESCE(outputs, Array[]::uuid[]) AS outputs,
-                           0 AS depth
-                    FROM job_io
-                    WHERE job_uuid IN (<jobIds>) OR job_symlink_target_uuid IN (<jobIds>)
+                 lineage(job_uuid, depth) AS (
+                    SELECT j.uuid, 0 AS depth
+                    FROM jobs j
+                    WHERE j.uuid IN (<jobIds>) OR j.symlink_target_uuid IN (<jobIds>)
                     UNION
-                    SELECT io.job_uuid, io.job_symlink_target_uuid, io.inputs, io.outputs, l.depth + 1
-                    FROM job_io io, lineage l
-                    WHERE (io.job_uuid != l.job_uuid) AND
-                        array_cat(io.inputs, io.outputs) && array_cat(l.inputs, l.outputs)
-                      AND depth < :depth),
-                lineage_outside_job_io(job_uuid) AS (
-                    SELECT
-                      param_jobs.param_job_uuid as job_uuid,
-                      j.symlink_target_uuid,
-                      Array[]::uuid[] AS inputs,
-                      Array[]::uuid[] AS outputs,
-                      0 AS depth
-                    FROM (SELECT unnest(ARRAY[<jobIds>]::UUID[]) AS param_job_uuid) param_jobs
-                    LEFT JOIN lineage l on param_jobs.param_job_uuid = l.job_uuid
-                    INNER JOIN jobs j ON j.uuid = param_jobs.param_job_uuid
-                    WHERE l.job_uuid IS NULL
+                    SELECT adjacent.job_uuid, l.depth + 1
+                    FROM lineage l
+                    INNER JOIN lineage_edges e ON e.job_uuid = l.job_uuid
+                    INNER JOIN lineage_edges adjacent ON adjacent.dataset_uuid = e.dataset_uuid
+                    WHERE adjacent.job_uuid != l.job_uuid AND l.depth < :depth
+                    AND e.io_type IN (<traversedIoTypes>)
+                    AND adjacent.io_type IN (<adjacentIoTypes>)),
+                 lineage_jobs(job_uuid) AS (
+                    SELECT DISTINCT COALESCE(j.symlink_target_uuid, j.uuid)
+                    FROM lineage l
+                    INNER JOIN jobs j ON j.uuid = l.job_uuid
                 )
-            SELECT DISTINCT ON (j.uuid) j.*, inputs AS input_uuids, outputs AS output_uuids
-            FROM (SELECT * FROM lineage UNION SELECT * FROM lineage_outside_job_io) l2
-            INNER JOIN jobs_view j ON (j.uuid=l2.job_uuid OR j.uuid=l2.job_symlink_target_uuid)
+            SELECT j.*,
+                   COALESCE(io.inputs, Array[]::uuid[]) AS input_uuids,
+                   COALESCE(io.outputs, Array[]::uuid[]) AS output_uuids
+            FROM lineage_jobs l
+            INNER JOIN jobs_view j ON j.uuid = l.job_uuid
+            LEFT JOIN LATERAL (
+                SELECT ARRAY_AGG(DISTINCT e.dataset_uuid) FILTER (WHERE e.io_type='INPUT') AS inputs,
+                       ARRAY_AGG(DISTINCT e.dataset_uuid) FILTER (WHERE e.io_type='OUTPUT') AS outputs
+                FROM lineage_edges e
+                WHERE e.job_uuid = j.uuid OR e.job_symlink_target_uuid = j.uuid
+            ) io ON TRUE
   """)
-  Set<JobData> getLineage(@BindList Set<UUID> jobIds, int depth);
+  Set<JobData> getLineage(
+      @BindList Set<UUID> jobIds,
+      int depth,
+      @BindList Set<IoType> traversedIoTypes,
+      @BindList Set<IoType> adjacentIoTypes);
+
+  /**
+   * Fetch the jobs within {@code depth} hops of the input jobIds in the provided {@code direction}
+   * as of the provided point in time: each job with the datasets of its version current at {@code
+   * asOf}. Edges are read from the intervals of {@code job_versions_io_mapping_validity}
+   * containing {@code asOf}, so that the versions of the jobs are not read at all.
+   */
+  default Set<JobData> getLineageAsOf(
+      Set<UUID> jobIds, int depth, @NonNull LineageDirection direction, @NonNull Instant asOf) {
+    final IoTypes ioTypes = IoTypes.of(direction);
+    return getLineageAsOf(jobIds, depth, ioTypes.traversed(), ioTypes.adjacent(), asOf);
+  }
+
+  @SqlQuery(
+      """
+      WITH RECURSIVE
+                 lineage(job_uuid, depth) AS (
+                    SELECT j.uuid, 0 AS depth
+                    FROM jobs j
+                    WHERE j.uuid IN (<jobIds>) OR j.symlink_target_uuid IN (<jobIds>)
+                    UNION
+                    SELECT adjacent.job_uuid, l.depth + 1
+                    FROM lineage l
+                    INNER JOIN job_versions_io_mapping_validity e ON e.job_uuid = l.job_uuid
+                    INNER JOIN job_versions_io_mapping_validity adjacent ON adjacent.dataset_uuid = e.dataset_uuid
+                    WHERE adjacent.job_uuid != l.job_uuid AND l.depth < :depth
+                    AND e.io_type IN (<traversedIoTypes>)
+                    AND adjacent.io_type IN (<adjacentIoTypes>)
+                    AND tstzrange(e.valid_from, e.valid_to) @> CAST(:asOf AS TIMESTAMPTZ)
+                    AND tstzrange(adjacent.valid_from, adjacent.valid_to) @> CAST(:asOf AS TIMESTAMPTZ)),
+                 lineage_jobs(job_uuid) AS (
+                    SELECT DISTINCT COALESCE(j.symlink_target_uuid, j.uuid)
+                    FROM lineage l
+                    INNER JOIN jobs j ON j.uuid = l.job_uuid
+                )
+            SELECT j.*,
+                   COALESCE(io.inputs, Array[]::uuid[]) AS input_uuids,
+                   COALESCE(io.outputs, Array[]::uuid[]) AS output_uuids
+            FROM lineage_jobs l
+            INNER JOIN jobs_view j ON j.uuid = l.job_uuid
+            LEFT JOIN LATERAL (
+                SELECT ARRAY_AGG(DISTINCT e.dataset_uuid) FILTER (WHERE e.io_type='INPUT') AS inputs,
+                       ARRAY_AGG(DISTINCT e.dataset_uuid) FILTER (WHERE e.io_type='OUTPUT') AS outputs
+                FROM job_versions_io_mapping_validity e
+                INNER JOIN jobs ej ON ej.uuid = e.job_uuid
+                WHERE (ej.uuid = j.uuid OR ej.symlink_target_uuid = j.uuid)
+                AND tstzrange(e.valid_from, e.valid_to) @> CAST(:asOf AS TIMESTAMPTZ)
+            ) io ON TRUE
+  """)
+  Set<JobData> getLineageAsOf(
+      @BindList Set<UUID> jobIds,
+      int depth,
+      @BindList Set<IoType> traversedIoTypes,
+      @BindList Set<IoType> adjacentIoTypes,
+      Instant asOf);
+
+  /** Returns the edges between all jobs and datasets of the current versions of the jobs. */
+  @SqlQuery(
+      """
+      SELECT e.job_uuid, e.job_symlink_target_uuid, e.dataset_uuid, e.io_type
+      FROM lineage_edges e""")
+  List<JobEdgeRow> getCurrentJobEdges();
+
+  /**
+   * Returns the edges of the current versions of the jobs with an edge upserted or deleted at or
+   * after {@code since}, with a single row without a dataset for each job without any edge left.
+   */
+  @SqlQuery(
+      """
+      WITH changed AS (
+        SELECT job_uuid FROM lineage_edges WHERE updated_at >= :since
+        UNION
+        SELECT job_uuid FROM lineage_edges_deleted WHERE deleted_at >= :since
+      )
+      SELECT c.job_uuid,
+             COALESCE(e.job_symlink_target_uuid, j.symlink_target_uuid) AS job_symlink_target_uuid,
+             e.dataset_uuid,
+             e.io_type
+      FROM changed c
+      LEFT JOIN jobs j ON j.uuid = c.job_uuid
+      LEFT JOIN lineage_edges e ON e.job_uuid = c.job_uuid""")
+  List<JobEdgeRow> getCurrentJobEdgesChangedSince(Instant since);
+
+  /** Returns the datasets with an edge upserted or deleted at or after {@code since}. */
+  @SqlQuery(
+      """
+      SELECT d.namespace_name, d.name
+      FROM datasets d
+      WHERE d.uuid IN (
+        SELECT dataset_uuid FROM lineage_edges WHERE updated_at >= :since
+        UNION
+        SELECT dataset_uuid FROM lineage_edges_deleted WHERE deleted_at >= :since
+      )""")
+  List<DatasetId> getDatasetsWithEdgesChangedSince(Instant since);
+
+  /** Deletes the log of the edges deleted before {@code before}, see {@code lineage_edges}. */
+  @SqlUpdate("DELETE FROM lineage_edges_deleted WHERE deleted_at < :before")
+  void deleteLineageEdgesDeletedBefore(Instant before);
+
+  /**
+   * Returns up to {@code limit} jobs adjacent to each of the provided jobs in the provided {@code
+   * direction}, ordered by UUID; see {@link #getLineage(Set, int, LineageDirection)}. The edges of
+   * jobs symlinked to a job are its own, and symlinked jobs are returned as their targets.
+   */
+  default List<AdjacentJobRow> getAdjacentJobs(
+      Collection<UUID> jobUuids, @NonNull LineageDirection direction, int limit) {
+    final IoTypes ioTypes = IoTypes.of(direction);
+    return getAdjacentJobs(jobUuids, ioTypes.traversed(), ioTypes.adjacent(), limit);
+  }
+
+  @SqlQuery(
+      """
+      SELECT j.uuid AS job_uuid, a.adjacent_job_uuid
+      FROM jobs j
+      CROSS JOIN LATERAL (
+          SELECT DISTINCT COALESCE(adjacent.job_symlink_target_uuid, adjacent.job_uuid)
+                 AS adjacent_job_uuid
+          FROM lineage_edges e
+          INNER JOIN lineage_edges adjacent ON adjacent.dataset_uuid = e.dataset_uuid
+          WHERE (e.job_uuid = j.uuid OR e.job_symlink_target_uuid = j.uuid)
+          AND e.io_type IN (<traversedIoTypes>)
+          AND adjacent.io_type IN (<adjacentIoTypes>)
+          AND COALESCE(adjacent.job_symlink_target_uuid, adjacent.job_uuid) != j.uuid
+          ORDER BY adjacent_job_uuid
+          LIMIT :limit
+      ) a
+      WHERE j.uuid IN (<jobUuids>)""")
+  List<AdjacentJobRow> getAdjacentJobs(
+      @BindList Collection<UUID> jobUuids,
+      @BindList Set<IoType> traversedIoTypes,
+      @BindList Set<IoType> adjacentIoTypes,
+      int limit);
+
+  /**
+   * Returns the provided jobs with the input and output datasets of their current versions, and of
+   * the current versions of the jobs symlinked to them.
+   */
+  @SqlQuery(
+      """
+      SELECT j.*,
+             COALESCE(io.inputs, Array[]::uuid[]) AS input_uuids,
+             COALESCE(io.outputs, Array[]::uuid[]) AS output_uuids
+      FROM jobs_view j
+      LEFT JOIN LATERAL (
+          SELECT ARRAY_AGG(DISTINCT e.dataset_uuid) FILTER (WHERE e.io_type='INPUT') AS inputs,
+                 ARRAY_AGG(DISTINCT e.dataset_uuid) FILTER (WHERE e.io_type='OUTPUT') AS outputs
+          FROM lineage_edges e
+          WHERE e.job_uuid = j.uuid OR e.job_symlink_target_uuid = j.uuid
+      ) io ON TRUE
+      WHERE j.uuid IN (<jobUuids>)""")
+  Set<JobData> getJobDataWithEdges(@BindList Collection<UUID> jobUuids);
+
+  /**
+   * Returns the provided jobs, without their input and output datasets; see {@link
+   * marquez.service.LineageGraph}.
+   */
+  @SqlQuery(
+      """
+      SELECT j.*, NULL::uuid[] AS input_uuids, NULL::uuid[] AS output_uuids
+      FROM jobs_view j
+      WHERE j.uuid IN (<jobUuids>)""")
+  Set<JobData> getJobData(@BindList Collection<UUID> jobUuids);
 
   @SqlQuery(
       """
@@ -130,6 +354,100 @@ public interface LineageDao {
       LIMIT 1""")
   Optional<UUID> getJobFromInputOrOutput(String datasetName, String namespaceName);
 
+  /**
+   * Returns the jobs whose current versions read ({@code INPUT}) or write ({@code OUTPUT}) the
+   * provided dataset.
+   */
+  @SqlQuery(
+      """
+      SELECT DISTINCT e.job_uuid
+      FROM lineage_edges e
+      INNER JOIN datasets_view ds ON ds.uuid = e.dataset_uuid
+      WHERE ds.name = :datasetName AND ds.namespace_name = :namespaceName
+      AND e.io_type = :ioType""")
+  Set<UUID> getJobsOfDataset(String datasetName, String namespaceName, IoType ioType);
+
+  /**
+   * Returns the jobs whose versions current at {@code asOf} read ({@code INPUT}) or write ({@code
+   * OUTPUT}) the provided dataset.
+   */
+  @SqlQuery(
+      """
+      SELECT DISTINCT io.job_uuid
+      FROM job_versions_io_mapping_validity io
+      INNER JOIN datasets_view ds ON ds.uuid = io.dataset_uuid
+      WHERE ds.name = :datasetName AND ds.namespace_name = :namespaceName
+      AND io.io_type IN (<ioTypes>)
+      AND tstzrange(io.valid_from, io.valid_to) @> CAST(:asOf AS TIMESTAMPTZ)""")
+  Set<UUID> getJobsOfDatasetAsOf(
+      String datasetName, String namespaceName, @BindList Set<IoType> ioTypes, Instant asOf);
+
+  /**
+   * Returns the values of those of the provided dataset and job nodes that exist; {@code
+   * namespaceNames} and {@code names} hold the namespace and name of each of {@code nodeIds}.
+   */
+  @SqlQuery(
+      """
+      SELECT n.node_id
+      FROM UNNEST(ARRAY[<nodeIds>]::text[], ARRAY[<namespaceNames>]::text[], ARRAY[<names>]::text[])
+           AS n(node_id, namespace_name, name)
+      WHERE CASE split_part(n.node_id, ':', 1)
+        WHEN 'dataset' THEN EXISTS (
+          SELECT 1 FROM datasets_view d
+          WHERE d.namespace_name = n.namespace_name AND d.name = n.name)
+        WHEN 'job' THEN EXISTS (
+          SELECT 1 FROM jobs_view j
+          WHERE j.namespace_name = n.namespace_name AND j.name = n.name)
+        ELSE FALSE
+      END""")
+  Set<String> getExistingNodes(
+      @BindList List<String> nodeIds,
+      @BindList List<String> namespaceNames,
+      @BindList List<String> names);
+
+  /**
+   * Returns the jobs to traverse the lineage of each of the provided dataset and job nodes from:
+   * the job itself, or for a dataset, the jobs whose current versions read ({@code INPUT}) or write
+   * ({@code OUTPUT}) it, or a job that ever read or wrote it if {@code ioType} is {@code null}.
+   * {@code namespaceNames} and {@code names} hold the namespace and name of each of {@code
+   * nodeIds}.
+   */
+  @SqlQuery(
+      """
+      SELECT n.node_id, s.job_uuid
+      FROM UNNEST(ARRAY[<nodeIds>]::text[], ARRAY[<namespaceNames>]::text[], ARRAY[<names>]::text[])
+           AS n(node_id, namespace_name, name)
+      CROSS JOIN LATERAL (
+        SELECT j.uuid AS job_uuid
+        FROM jobs_view j
+        WHERE split_part(n.node_id, ':', 1) = 'job'
+        AND j.namespace_name = n.namespace_name
+        AND (j.name = n.name OR n.name = ANY(j.aliases))
+        UNION
+        SELECT e.job_uuid
+        FROM lineage_edges e
+        INNER JOIN datasets_view ds ON ds.uuid = e.dataset_uuid
+        WHERE split_part(n.node_id, ':', 1) = 'dataset'
+        AND ds.namespace_name = n.namespace_name AND ds.name = n.name
+        AND e.io_type = CAST(:ioType AS TEXT)
+        UNION
+        (SELECT j.uuid
+         FROM jobs j
+         INNER JOIN job_versions jv ON jv.job_uuid = j.uuid
+         INNER JOIN job_versions_io_mapping io ON io.job_version_uuid = jv.uuid
+         INNER JOIN datasets_view ds ON ds.uuid = io.dataset_uuid
+         WHERE split_part(n.node_id, ':', 1) = 'dataset'
+         AND CAST(:ioType AS TEXT) IS NULL
+         AND ds.namespace_name = n.namespace_name AND ds.name = n.name
+         ORDER BY io.io_type DESC, jv.created_at DESC
+         LIMIT 1)
+      ) s""")
+  List<SeedJobRow> getSeedJobs(
+      @BindList List<String> nodeIds,
+      @BindList List<String> namespaceNames,
+      @BindList List<String> names,
+      @Nullable IoType ioType);
+
   @SqlQuery(
       "WITH latest_runs AS (\n"
           + "    SELECT DISTINCT on(r.job_name, r.namespace_name) r.*, jv.version\n"
@@ -179,50 +497,33 @@ public interface LineageDao {
       ORDER BY r.job_name, r.namespace_name, created_at DESC""")
   List<Run> getCurrentRuns(@BindList Collection<UUID> jobUuid);
 
+  /** Returns the latest run of each of the provided jobs created by {@code asOf}. */
   @SqlQuery(
       """
-      WITH RECURSIVE
-        upstream_runs(
-                r_uuid, -- run uuid
-                dataset_uuid, dataset_version_uuid, dataset_namespace, dataset_name, -- input dataset version to the run
-                u_r_uuid, -- upstream run that produced that dataset version
-                depth -- current depth of traversal
-                ) AS (
-
-          -- initial case: find the inputs of the initial runs
-          select r.uuid,
-                 dv.dataset_uuid, dv."version", dv.namespace_name, dv.dataset_name,
-                 dv.run_uuid,
-                 0 AS depth -- starts at 0
-          FROM (SELECT :runId::uuid AS uuid) r -- initial run
-          LEFT JOIN runs_input_mapping rim ON rim.run_uuid = r.uuid
-          LEFT JOIN dataset_versions dv ON dv.uuid = rim.dataset_version_uuid
-
-        UNION
+      SELECT DISTINCT on(r.job_name, r.namespace_name) r.*, jv.version as job_version
+      FROM runs_view r
+      INNER JOIN job_versions jv ON jv.uuid=r.job_version_uuid
+      INNER JOIN jobs_view j ON j.uuid=jv.job_uuid
+      WHERE (j.uuid in (<jobUuid>) OR j.symlink_target_uuid IN (<jobUuid>))
+      AND r.created_at <= :asOf
+      ORDER BY r.job_name, r.namespace_name, r.created_at DESC""")
+  List<Run> getRunsAsOf(@BindList Collection<UUID> jobUuid, Instant asOf);
 
-          -- recursion: find the inputs of the inputs found on the previous iteration and increase depth to know when to stop
-          SELECT
-                ur.u_r_uuid,
-                dv2.dataset_uuid, dv2."version", dv2.namespace_name, dv2.dataset_name,
-                dv2.run_uuid,
-                ur.depth + 1 AS depth -- increase depth to check end condition
-          FROM upstream_runs ur
-          LEFT JOIN runs_input_mapping rim2 ON rim2.run_uuid = ur.u_r_uuid
-          LEFT JOIN dataset_versions dv2 ON dv2.uuid = rim2.dataset_version_uuid
-          -- end condition of the recursion: no input or depth is over the maximum set
-          -- also avoid following cycles (ex: merge statement)
-          WHERE ur.u_r_uuid IS NOT NULL AND ur.u_r_uuid <> ur.r_uuid AND depth < :depth
-        )
-
-      -- present the result: use Distinct as we may have traversed the same edge multiple times if there are diamonds in the graph.
-      SELECT * FROM ( -- we need the extra statement to sort after the DISTINCT
-          SELECT DISTINCT ON (upstream_runs.r_uuid, upstream_runs.dataset_version_uuid, upstream_runs.u_r_uuid)
-            upstream_runs.*,
-            r.started_at, r.ended_at, r.current_run_state as state,
-            r.job_uuid, r.job_version_uuid, r.namespace_name as job_namespace, r.job_name
-          FROM upstream_runs, runs r WHERE upstream_runs.r_uuid = r.uuid
-        ) sub
-      ORDER BY depth ASC, job_name ASC;
-      """)
-  List<UpstreamRunRow> getUpstreamRuns(@NotNull UUID runId, int depth);
+  /**
+   * Returns the provided runs, each with the dataset versions it read and the runs that produced
+   * them; one row per input, or a single row without an input for a run without any. A single hop
+   * of the upstream lineage of runs, see {@link marquez.service.LineageService#upstream(RunId, int,
+   * int, java.util.function.Consumer)}.
+   */
+  @SqlQuery(
+      """
+      SELECT r.uuid AS r_uuid, r.started_at, r.ended_at, r.current_run_state AS state,
+             r.job_version_uuid, r.namespace_name AS job_namespace, r.job_name,
+             dv.namespace_name AS dataset_namespace, dv.dataset_name,
+             dv."version" AS dataset_version_uuid, dv.run_uuid AS u_r_uuid
+      FROM runs r
+      LEFT JOIN runs_input_mapping rim ON rim.run_uuid = r.uuid
+      LEFT JOIN dataset_versions dv ON dv.uuid = rim.dataset_version_uuid
+      WHERE r.uuid IN (<runUuids>)""")
+  List<UpstreamRunRow> getRunsWithInputs(@BindList Collection<UUID> runUuids);
 }
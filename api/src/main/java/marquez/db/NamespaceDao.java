@@ -88,6 +88,9 @@ public interface NamespaceDao extends BaseDao {
   @SqlUpdate("UPDATE namespaces SET is_hidden=true WHERE name = :name")
   void delete(String name);
 
+  @SqlUpdate("UPDATE namespaces SET is_hidden=false WHERE uuid = :uuid AND is_hidden")
+  void undeleteIfHidden(UUID uuid);
+
   default NamespaceRow upsertNamespaceRow(
       UUID uuid, Instant now, String name, String currentOwnerName) {
     doUpsertNamespaceRow(uuid, now, name, currentOwnerName);
@@ -5,14 +5,19 @@
 
 package marquez.db;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.hash.Hashing;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
@@ -36,6 +41,7 @@ import marquez.db.JobVersionDao.IoType;
 import marquez.db.JobVersionDao.JobRowRunDetails;
 import marquez.db.RunDao.RunUpsert;
 import marquez.db.mappers.LineageEventMapper;
+import marquez.db.mappers.UnprocessedLineageEventRowMapper;
 import marquez.db.models.ColumnLineageRow;
 import marquez.db.models.DatasetFieldRow;
 import marquez.db.models.DatasetRow;
@@ -49,6 +55,7 @@ import marquez.db.models.RunArgsRow;
 import marquez.db.models.RunRow;
 import marquez.db.models.RunStateRow;
 import marquez.db.models.SourceRow;
+import marquez.db.models.UnprocessedLineageEventRow;
 import marquez.db.models.UpdateLineageRow;
 import marquez.db.models.UpdateLineageRow.DatasetRecord;
 import marquez.service.models.BaseEvent;
@@ -57,6 +64,7 @@ import marquez.service.models.JobEvent;
 import marquez.service.models.LineageEvent;
 import marquez.service.models.LineageEvent.Dataset;
 import marquez.service.models.LineageEvent.DatasetFacets;
+import marquez.service.models.LineageEvent.DocumentationDatasetFacet;
 import marquez.service.models.LineageEvent.DocumentationJobFacet;
 import marquez.service.models.LineageEvent.Job;
 import marquez.service.models.LineageEvent.JobFacet;
@@ -69,6 +77,8 @@ import marquez.service.models.LineageEvent.SchemaDatasetFacet;
 import marquez.service.models.LineageEvent.SchemaField;
 import org.apache.commons.lang3.tuple.Pair;
 import org.jdbi.v3.sqlobject.config.RegisterRowMapper;
+import org.jdbi.v3.sqlobject.customizer.BindList;
+import org.jdbi.v3.sqlobject.customizer.FetchSize;
 import org.jdbi.v3.sqlobject.statement.SqlQuery;
 import org.jdbi.v3.sqlobject.statement.SqlUpdate;
 import org.postgresql.util.PGobject;
@@ -79,6 +89,7 @@ import org.slf4j.LoggerFactory;
 public interface OpenLineageDao extends BaseDao {
   String DEFAULT_SOURCE_NAME = "default";
   String DEFAULT_NAMESPACE_OWNER = "anonymous";
+  int EVENT_FETCH_SIZE = 1000;
 
   enum SpecEventType {
     RUN_EVENT,
@@ -127,6 +138,124 @@ public interface OpenLineageDao extends BaseDao {
   void createJobEvent(
       Instant eventTime, String jobName, String jobNamespace, PGobject event, String producer);
 
+  /**
+   * Writes the raw {@code event} without applying it to the Marquez model; the event is applied
+   * later on, in the order events were written, see {@link #claimUnprocessedEvents(int, int, int)}.
+   */
+  @SqlUpdate(
+      """
+      INSERT INTO lineage_events (
+        uuid,
+        event_type,
+        event_time,
+        run_uuid,
+        job_name,
+        job_namespace,
+        event,
+        producer,
+        _event_type,
+        processed
+      ) VALUES (
+        :uuid,
+        :eventType,
+        :eventTime,
+        :runUuid,
+        :jobName,
+        :jobNamespace,
+        :event,
+        :producer,
+        :specEventType,
+        FALSE
+      )""")
+  void createUnprocessedEvent(
+      UUID uuid,
+      String eventType,
+      Instant eventTime,
+      UUID runUuid,
+      String jobName,
+      String jobNamespace,
+      PGobject event,
+      String producer,
+      SpecEventType specEventType);
+
+  /**
+   * Claims up to {@code limit} events not yet applied to the Marquez model until {@code
+   * leaseSecs} from now, and returns them oldest first. Events failed {@code maxAttempts} times,
+   * and events of a run with events claimed by another Marquez instance, are skipped, so that the
+   * events of a run are never applied concurrently or out of order. Callers must hold {@link
+   * #tryLockUnprocessedEvents()} for the duration of their transaction, so that two instances never
+   * claim events at the same time.
+   */
+  @SqlQuery(
+      """
+      WITH claimed AS (
+        UPDATE lineage_events e
+        SET claimed_until = NOW() + make_interval(secs => :leaseSecs)
+        FROM (
+          SELECT u.uuid
+          FROM lineage_events u
+          WHERE u.processed = FALSE
+            AND u.processing_attempts < :maxAttempts
+            AND (u.claimed_until IS NULL OR u.claimed_until < NOW())
+            AND (u.run_uuid IS NULL OR NOT EXISTS (
+              SELECT 1
+              FROM lineage_events c
+              WHERE c.run_uuid = u.run_uuid
+                AND c.processed = FALSE
+                AND c.claimed_until >= NOW()))
+          ORDER BY u.created_at, u.event_time
+          LIMIT :limit
+        ) u
+        WHERE e.uuid = u.uuid
+        RETURNING e.uuid, e.run_uuid, e.event, e.created_at, e.event_time
+      )
+      SELECT uuid, run_uuid, event
+      FROM claimed
+      ORDER BY created_at, event_time""")
+  @RegisterRowMapper(UnprocessedLineageEventRowMapper.class)
+  List<UnprocessedLineageEventRow> claimUnprocessedEvents(
+      int limit, int maxAttempts, int leaseSecs);
+
+  /**
+   * Attempts to acquire the transaction-level lock serializing the claims of unprocessed events
+   * across Marquez instances; returns {@code false} if another transaction holds it.
+   */
+  @SqlQuery("SELECT pg_try_advisory_xact_lock(hashtext('marquez.lineage_events.unprocessed'))")
+  boolean tryLockUnprocessedEvents();
+
+  @SqlUpdate(
+      """
+      UPDATE lineage_events
+      SET processed = TRUE, processing_error = NULL, claimed_until = NULL
+      WHERE uuid = :uuid""")
+  void markEventAsProcessed(UUID uuid);
+
+  /**
+   * Records a failed attempt to apply the event, and keeps it claimed for {@code retryDelaySecs}
+   * before it is retried, along with the events of its run after it.
+   */
+  @SqlUpdate(
+      """
+      UPDATE lineage_events
+      SET processing_attempts = processing_attempts + 1,
+          processing_error = :error,
+          claimed_until = NOW() + make_interval(secs => :retryDelaySecs)
+      WHERE uuid = :uuid""")
+  void markEventAsFailed(UUID uuid, String error, int retryDelaySecs);
+
+  /** Releases the claim on events not applied, so that they are claimed again later on. */
+  @SqlUpdate("UPDATE lineage_events SET claimed_until = NULL WHERE uuid IN (<uuids>)")
+  void releaseEvents(@BindList("uuids") Collection<UUID> uuids);
+
+  /**
+   * Returns the events of all types applied to the Marquez model, in no particular order, fetched
+   * {@value #EVENT_FETCH_SIZE} at a time; events written ahead and not applied (yet) are skipped.
+   * Within a transaction, the events are read through a cursor rather than all at once.
+   */
+  @SqlQuery("SELECT event::text FROM lineage_events WHERE processed IS NOT FALSE")
+  @FetchSize(EVENT_FETCH_SIZE)
+  Stream<String> streamEvents();
+
   @SqlQuery(
       "SELECT event FROM lineage_events WHERE run_uuid = :runUuid AND _event_type='RUN_EVENT'")
   List<LineageEvent> findLineageEventsByRunUuid(UUID runUuid);
@@ -163,8 +292,9 @@ public interface OpenLineageDao extends BaseDao {
       AND le.event_time >= :after)""")
   int getAllLineageTotalCount(ZonedDateTime before, ZonedDateTime after);
 
-  default UpdateLineageRow updateMarquezModel(LineageEvent event, ObjectMapper mapper) {
-    UpdateLineageRow updateLineageRow = updateBaseMarquezModel(event, mapper);
+  default UpdateLineageRow updateMarquezModel(
+      LineageEvent event, ObjectMapper mapper, IngestCaches ingestCaches) {
+    UpdateLineageRow updateLineageRow = updateBaseMarquezModel(event, mapper, ingestCaches);
     RunState runState = getRunState(event.getEventType());
 
     if (event.getJob() != null && event.getJob().isStreamingJob()) {
@@ -176,19 +306,15 @@ public interface OpenLineageDao extends BaseDao {
     return updateLineageRow;
   }
 
-  default UpdateLineageRow updateMarquezModel(DatasetEvent event, ObjectMapper mapper) {
-    ModelDaos daos = new ModelDaos();
+  default UpdateLineageRow updateMarquezModel(
+      DatasetEvent event, ObjectMapper mapper, IngestCaches ingestCaches) {
+    ModelDaos daos = new ModelDaos(ingestCaches);
     daos.initBaseDao(this);
     Instant now = event.getEventTime().withZoneSameInstant(ZoneId.of("UTC")).toInstant();
 
     UpdateLineageRow bag = new UpdateLineageRow();
     NamespaceRow namespace =
-        daos.getNamespaceDao()
-            .upsertNamespaceRow(
-                UUID.randomUUID(),
-                now,
-                formatNamespaceName(event.getDataset().getNamespace()),
-                DEFAULT_NAMESPACE_OWNER);
+        upsertNamespace(daos, now, formatNamespaceName(event.getDataset().getNamespace()));
     bag.setNamespace(namespace);
 
     Dataset dataset = event.getDataset();
@@ -205,22 +331,19 @@ public interface OpenLineageDao extends BaseDao {
             record.getDatasetVersionRow().getUuid());
 
     bag.setOutputs(Optional.ofNullable(datasetOutputs));
+    daos.flushFacetRows();
     return bag;
   }
 
-  default UpdateLineageRow updateMarquezModel(JobEvent event, ObjectMapper mapper) {
-    ModelDaos daos = new ModelDaos();
+  default UpdateLineageRow updateMarquezModel(
+      JobEvent event, ObjectMapper mapper, IngestCaches ingestCaches) {
+    ModelDaos daos = new ModelDaos(ingestCaches);
     daos.initBaseDao(this);
     Instant now = event.getEventTime().withZoneSameInstant(ZoneId.of("UTC")).toInstant();
 
     UpdateLineageRow bag = new UpdateLineageRow();
     NamespaceRow namespace =
-        daos.getNamespaceDao()
-            .upsertNamespaceRow(
-                UUID.randomUUID(),
-                now,
-                formatNamespaceName(event.getJob().getNamespace()),
-                DEFAULT_NAMESPACE_OWNER);
+        upsertNamespace(daos, now, formatNamespaceName(event.getJob().getNamespace()));
     bag.setNamespace(namespace);
 
     JobRow job =
@@ -231,6 +354,7 @@ public interface OpenLineageDao extends BaseDao {
             Collections.emptyList(),
             mapper,
             daos.getJobDao(),
+            daos.getIngestCaches(),
             now,
             namespace,
             null,
@@ -261,6 +385,7 @@ public interface OpenLineageDao extends BaseDao {
     }
 
     bag.setOutputs(Optional.ofNullable(datasetOutputs));
+    daos.flushFacetRows();
 
     // write job versions row and link job facets to job version
     BagOfJobVersionInfo bagOfJobVersionInfo =
@@ -282,19 +407,15 @@ public interface OpenLineageDao extends BaseDao {
     return bag;
   }
 
-  default UpdateLineageRow updateBaseMarquezModel(LineageEvent event, ObjectMapper mapper) {
-    ModelDaos daos = new ModelDaos();
+  default UpdateLineageRow updateBaseMarquezModel(
+      LineageEvent event, ObjectMapper mapper, IngestCaches ingestCaches) {
+    ModelDaos daos = new ModelDaos(ingestCaches);
     daos.initBaseDao(this);
     Instant now = event.getEventTime().withZoneSameInstant(ZoneId.of("UTC")).toInstant();
 
     UpdateLineageRow bag = new UpdateLineageRow();
     NamespaceRow namespace =
-        daos.getNamespaceDao()
-            .upsertNamespaceRow(
-                UUID.randomUUID(),
-                now,
-                formatNamespaceName(event.getJob().getNamespace()),
-                DEFAULT_NAMESPACE_OWNER);
+        upsertNamespace(daos, now, formatNamespaceName(event.getJob().getNamespace()));
     bag.setNamespace(namespace);
 
     Instant nominalStartTime = getNominalStartTime(event);
@@ -312,6 +433,7 @@ public interface OpenLineageDao extends BaseDao {
             event.getInputs(),
             mapper,
             daos.getJobDao(),
+            daos.getIngestCaches(),
             now,
             namespace,
             nominalStartTime,
@@ -396,6 +518,7 @@ public interface OpenLineageDao extends BaseDao {
     }
 
     bag.setOutputs(Optional.ofNullable(datasetOutputs));
+    daos.flushFacetRows();
     return bag;
   }
 
@@ -420,9 +543,10 @@ public interface OpenLineageDao extends BaseDao {
     Optional.ofNullable(event.getRun().getFacets())
         .ifPresent(
             runFacet ->
-                daos.getRunFacetsDao()
-                    .insertRunFacetsFor(
-                        runUuid, now, event.getEventType(), event.getRun().getFacets()));
+                daos.addRunFacetRows(
+                    daos.getRunFacetsDao()
+                        .runFacetRowsFor(
+                            runUuid, now, event.getEventType(), FacetUtils.facetsOf(runFacet))));
   }
 
   private void insertJobFacets(
@@ -431,8 +555,9 @@ public interface OpenLineageDao extends BaseDao {
     Optional.ofNullable(job.getFacets())
         .ifPresent(
             jobFacet ->
-                daos.getJobFacetsDao()
-                    .insertJobFacetsFor(jobUuid, runUuid, now, eventType, job.getFacets()));
+                daos.addJobFacetRows(
+                    JobFacetsDao.jobFacetRowsFor(
+                        jobUuid, runUuid, now, eventType, FacetUtils.facetsOf(jobFacet))));
   }
 
   private void insertDatasetFacets(
@@ -446,14 +571,15 @@ public interface OpenLineageDao extends BaseDao {
     Optional.ofNullable(dataset.getFacets())
         .ifPresent(
             facets ->
-                daos.getDatasetFacetsDao()
-                    .insertDatasetFacetsFor(
+                daos.addDatasetFacetRows(
+                    DatasetFacetsDao.datasetFacetRowsFor(
                         record.getDatasetRow().getUuid(),
                         record.getDatasetVersionRow().getUuid(),
                         runUuid,
                         now,
                         eventType,
-                        facets));
+                        null,
+                        FacetUtils.facetsOf(facets))));
   }
 
   private void insertInputDatasetFacets(
@@ -467,14 +593,15 @@ public interface OpenLineageDao extends BaseDao {
     Optional.ofNullable(dataset.getInputFacets())
         .ifPresent(
             facets ->
-                daos.getDatasetFacetsDao()
-                    .insertInputDatasetFacetsFor(
+                daos.addDatasetFacetRows(
+                    DatasetFacetsDao.datasetFacetRowsFor(
                         record.getDatasetRow().getUuid(),
                         record.getDatasetVersionRow().getUuid(),
                         runUuid,
                         now,
                         eventType,
-                        facets));
+                        DatasetFacetsDao.Type.INPUT,
+                        FacetUtils.facetsOf(facets))));
   }
 
   private void insertOutputDatasetFacets(
@@ -488,14 +615,15 @@ public interface OpenLineageDao extends BaseDao {
     Optional.ofNullable(dataset.getOutputFacets())
         .ifPresent(
             facets ->
-                daos.getDatasetFacetsDao()
-                    .insertOutputDatasetFacetsFor(
+                daos.addDatasetFacetRows(
+                    DatasetFacetsDao.datasetFacetRowsFor(
                         record.getDatasetRow().getUuid(),
                         record.getDatasetVersionRow().getUuid(),
                         runUuid,
                         now,
                         eventType,
-                        facets));
+                        DatasetFacetsDao.Type.OUTPUT,
+                        FacetUtils.facetsOf(facets))));
   }
 
   private JobRow buildJobFromEvent(
@@ -505,6 +633,7 @@ public interface OpenLineageDao extends BaseDao {
       List<Dataset> inputs,
       ObjectMapper mapper,
       JobDao jobDao,
+      IngestCaches ingestCaches,
       Instant now,
       NamespaceRow namespace,
       Instant nominalStartTime,
@@ -556,12 +685,22 @@ public interface OpenLineageDao extends BaseDao {
         jobName,
         job.getName(),
         parentJob.map(JobRow::getName));
-    return parentJob
-        .map(
-            parent ->
-                jobDao.upsertJob(
+    final PGobject jobInputs = jobDao.toJson(toDatasetId(inputs), mapper);
+    final UUID parentJobUuid = parentJob.map(JobRow::getUuid).orElse(null);
+    return ingestCaches.job(
+        getHandle(),
+        new IngestCaches.JobKey(namespace.getName(), jobName, parentJobUuid),
+        Arrays.asList(
+            job.type(),
+            description,
+            location,
+            jobInputs == null ? null : jobInputs.getValue(),
+            namespace.getUuid()),
+        () ->
+            parentJobUuid != null
+                ? jobDao.upsertJob(
                     UUID.randomUUID(),
-                    parent.getUuid(),
+                    parentJobUuid,
                     job.type(),
                     now,
                     namespace.getUuid(),
@@ -570,10 +709,8 @@ public interface OpenLineageDao extends BaseDao {
                     description,
                     location,
                     null,
-                    jobDao.toJson(toDatasetId(inputs), mapper)))
-        .orElseGet(
-            () ->
-                jobDao.upsertJob(
+                    jobInputs)
+                : jobDao.upsertJob(
                     UUID.randomUUID(),
                     job.type(),
                     now,
@@ -583,7 +720,8 @@ public interface OpenLineageDao extends BaseDao {
                     description,
                     location,
                     null,
-                    jobDao.toJson(toDatasetId(inputs), mapper)));
+                    jobInputs),
+        cached -> jobDao.undeleteIfHidden(cached.getUuid()));
   }
 
   private JobRow findParentJobRow(
@@ -817,6 +955,27 @@ public interface OpenLineageDao extends BaseDao {
     }
   }
 
+  /**
+   * Upserts the namespace {@code name} at most once per {@link ModelDaos}. The same namespace is
+   * usually shared by the job and most datasets of an event, and each upsert costs multiple round
+   * trips.
+   */
+  default NamespaceRow upsertNamespace(ModelDaos daos, Instant now, String name) {
+    return daos.getNamespaceRows()
+        .computeIfAbsent(
+            name,
+            namespaceName ->
+                daos.getIngestCaches()
+                    .namespace(
+                        getHandle(),
+                        namespaceName,
+                        () ->
+                            daos.getNamespaceDao()
+                                .upsertNamespaceRow(
+                                    UUID.randomUUID(), now, namespaceName, DEFAULT_NAMESPACE_OWNER),
+                        cached -> daos.getNamespaceDao().undeleteIfHidden(cached.getUuid())));
+  }
+
   default String formatNamespaceName(String namespace) {
     return namespace.replaceAll("[^a-z:/A-Z0-9\\-_.@+]", "_");
   }
@@ -824,24 +983,48 @@ public interface OpenLineageDao extends BaseDao {
   default DatasetRecord upsertLineageDataset(
       ModelDaos daos, Dataset ds, Instant now, UUID runUuid, boolean isInput) {
     daos.initBaseDao(this);
-    NamespaceRow dsNamespace =
-        daos.getNamespaceDao()
-            .upsertNamespaceRow(UUID.randomUUID(), now, ds.getNamespace(), DEFAULT_NAMESPACE_OWNER);
+    final IngestCaches ingestCaches = daos.getIngestCaches();
+    final IngestCaches.DatasetKey datasetKey =
+        new IngestCaches.DatasetKey(ds.getNamespace(), ds.getName());
+    final boolean isCachedInput =
+        isInput && runUuid != null && ingestCaches.cachesInputDatasets();
+    final List<?> fingerprint = isCachedInput ? inputDatasetFingerprintFor(ds) : null;
+    if (isCachedInput) {
+      final Optional<DatasetRecord> cached =
+          ingestCaches.inputDataset(
+              datasetKey, fingerprint, daos.getDatasetDao()::findCurrentVersionUuid);
+      if (cached.isPresent()) {
+        daos.getRunDao().updateInputMapping(runUuid, cached.get().getDatasetVersionRow().getUuid());
+        return cached.get();
+      }
+    } else if (!isInput) {
+      ingestCaches.invalidateInputDataset(datasetKey);
+    }
+    NamespaceRow dsNamespace = upsertNamespace(daos, now, ds.getNamespace());
 
     SourceRow source;
     if (ds.getFacets() != null && ds.getFacets().getDataSource() != null) {
+      final String sourceName = ds.getFacets().getDataSource().getName();
+      final String sourceType = getSourceType(ds);
+      final String connectionUrl = getUrlOrNull(ds.getFacets().getDataSource().getUri());
       source =
-          daos.getSourceDao()
-              .upsert(
-                  UUID.randomUUID(),
-                  getSourceType(ds),
-                  now,
-                  ds.getFacets().getDataSource().getName(),
-                  getUrlOrNull(ds.getFacets().getDataSource().getUri()));
+          ingestCaches.source(
+              getHandle(),
+              sourceName,
+              Arrays.asList(sourceType, connectionUrl),
+              () ->
+                  daos.getSourceDao()
+                      .upsert(UUID.randomUUID(), sourceType, now, sourceName, connectionUrl));
     } else {
       source =
-          daos.getSourceDao()
-              .upsertOrDefault(UUID.randomUUID(), getSourceType(ds), now, DEFAULT_SOURCE_NAME, "");
+          ingestCaches.source(
+              getHandle(),
+              DEFAULT_SOURCE_NAME,
+              null,
+              () ->
+                  daos.getSourceDao()
+                      .upsertOrDefault(
+                          UUID.randomUUID(), getSourceType(ds), now, DEFAULT_SOURCE_NAME, ""));
     }
 
     String dsDescription = null;
@@ -850,12 +1033,7 @@ public interface OpenLineageDao extends BaseDao {
     }
 
     NamespaceRow datasetNamespace =
-        daos.getNamespaceDao()
-            .upsertNamespaceRow(
-                UUID.randomUUID(),
-                now,
-                formatNamespaceName(ds.getNamespace()),
-                DEFAULT_NAMESPACE_OWNER);
+        upsertNamespace(daos, now, formatNamespaceName(ds.getNamespace()));
 
     DatasetSymlinkRow symlink =
         daos.getDatasetSymlinkDao()
@@ -878,13 +1056,7 @@ public interface OpenLineageDao extends BaseDao {
                                 .doUpsertDatasetSymlinkRow(
                                     symlink.getUuid(),
                                     id.getName(),
-                                    daos.getNamespaceDao()
-                                        .upsertNamespaceRow(
-                                            UUID.randomUUID(),
-                                            now,
-                                            id.getNamespace(),
-                                            DEFAULT_NAMESPACE_OWNER)
-                                        .getUuid(),
+                                    upsertNamespace(daos, now, id.getNamespace()).getUuid(),
                                     false,
                                     id.getType(),
                                     now)));
@@ -952,17 +1124,8 @@ public interface OpenLineageDao extends BaseDao {
     List<DatasetFieldMapping> datasetFieldMappings = new ArrayList<>();
     List<DatasetFieldRow> datasetFields = new ArrayList<>();
     if (fields != null) {
-      for (SchemaField field : fields) {
-        DatasetFieldRow datasetFieldRow =
-            daos.getDatasetFieldDao()
-                .upsert(
-                    UUID.randomUUID(),
-                    now,
-                    field.getName(),
-                    field.getType(),
-                    field.getDescription(),
-                    datasetRow.getUuid());
-        datasetFields.add(datasetFieldRow);
+      datasetFields = daos.getDatasetFieldDao().upsertAll(now, datasetRow.getUuid(), fields);
+      for (DatasetFieldRow datasetFieldRow : datasetFields) {
         datasetFieldMappings.add(
             new DatasetFieldMapping(datasetVersionRow.getUuid(), datasetFieldRow.getUuid()));
       }
@@ -987,7 +1150,41 @@ public interface OpenLineageDao extends BaseDao {
           upsertColumnLineage(runUuid, ds, now, datasetFields, datasetVersionRow, daos);
     }
 
-    return new DatasetRecord(datasetRow, datasetVersionRow, datasetNamespace, columnLineageRows);
+    final DatasetRecord record =
+        new DatasetRecord(datasetRow, datasetVersionRow, datasetNamespace, columnLineageRows);
+    if (isCachedInput) {
+      ingestCaches.putInputDataset(getHandle(), datasetKey, fingerprint, record);
+    }
+    return record;
+  }
+
+  /**
+   * Returns the attributes of the input dataset {@code ds} that its dataset and version rows are
+   * upserted from; the schema is fingerprinted by hash, as it may be wide.
+   */
+  default List<?> inputDatasetFingerprintFor(Dataset ds) {
+    final Optional<DatasetFacets> facets = Optional.ofNullable(ds.getFacets());
+    return Arrays.asList(
+        getSourceType(ds),
+        getDatasetType(ds),
+        facets
+            .map(DatasetFacets::getDataSource)
+            .map(source -> Arrays.asList(source.getName(), source.getUri()))
+            .orElse(null),
+        facets
+            .map(DatasetFacets::getDocumentation)
+            .map(DocumentationDatasetFacet::getDescription)
+            .orElse(null),
+        facets
+            .map(DatasetFacets::getLifecycleStateChange)
+            .map(LifecycleStateChangeFacet::getLifecycleStateChange)
+            .orElse(null),
+        facets.map(DatasetFacets::getSymlinks).map(Utils::toJson).orElse(null),
+        facets
+            .map(DatasetFacets::getSchema)
+            .map(SchemaDatasetFacet::getFields)
+            .map(fields -> Hashing.sha256().hashString(Utils.toJson(fields), UTF_8).toString())
+            .orElse(null));
   }
 
   private List<ColumnLineageRow> upsertColumnLineage(
@@ -1132,7 +1329,11 @@ public interface OpenLineageDao extends BaseDao {
     try {
       PGobject jsonObject = new PGobject();
       jsonObject.setType("json");
-      jsonObject.setValue(mapper.writeValueAsString(event));
+      // The event is written as received, if read from a request, rather than serialized again.
+      jsonObject.setValue(
+          event.getRawJson().isPresent()
+              ? new String(event.getRawJson().get(), UTF_8)
+              : mapper.writeValueAsString(event));
       return jsonObject;
     } catch (Exception e) {
       throw new RuntimeException("Could write lineage event to db", e);
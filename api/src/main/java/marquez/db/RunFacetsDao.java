@@ -5,18 +5,18 @@
 
 package marquez.db;
 
-import com.fasterxml.jackson.databind.JsonNode;
 import java.time.Instant;
-import java.util.Spliterator;
-import java.util.Spliterators;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
-import java.util.stream.StreamSupport;
+import java.util.stream.Collectors;
 import lombok.NonNull;
-import marquez.common.Utils;
 import marquez.db.mappers.RunFacetsMapper;
 import marquez.service.models.LineageEvent;
 import marquez.service.models.RunFacets;
 import org.jdbi.v3.sqlobject.config.RegisterRowMapper;
+import org.jdbi.v3.sqlobject.customizer.BindMethods;
+import org.jdbi.v3.sqlobject.statement.SqlBatch;
 import org.jdbi.v3.sqlobject.statement.SqlQuery;
 import org.jdbi.v3.sqlobject.statement.SqlUpdate;
 import org.jdbi.v3.sqlobject.transaction.Transaction;
@@ -30,16 +30,7 @@ public interface RunFacetsDao {
   Logger log = LoggerFactory.getLogger(RunFacetsDao.class);
   String SPARK_UNKNOWN = "spark_unknown";
   String SPARK_LOGICAL_PLAN = "spark.logicalPlan";
-
-  /**
-   * @param createdAt
-   * @param runUuid
-   * @param lineageEventTime
-   * @param lineageEventType
-   * @param name
-   * @param facet
-   */
-  @SqlUpdate(
+  String INSERT_RUN_FACET =
       """
       INSERT INTO run_facets (
          created_at,
@@ -56,7 +47,17 @@ public interface RunFacetsDao {
          :name,
          :facet
       )
-      """)
+      """;
+
+  /**
+   * @param createdAt
+   * @param runUuid
+   * @param lineageEventTime
+   * @param lineageEventType
+   * @param name
+   * @param facet
+   */
+  @SqlUpdate(INSERT_RUN_FACET)
   void insertRunFacet(
       Instant createdAt,
       UUID runUuid,
@@ -65,6 +66,10 @@ public interface RunFacetsDao {
       String name,
       PGobject facet);
 
+  /** Inserts the provided facet {@code rows} with a single JDBC batch. */
+  @SqlBatch(INSERT_RUN_FACET)
+  void insertRunFacets(@BindMethods List<RunFacetRow> rows);
+
   @SqlQuery("SELECT EXISTS (SELECT 1 FROM run_facets WHERE name = :name AND run_uuid = :runUuid)")
   boolean runFacetExists(String name, UUID runUuid);
 
@@ -97,14 +102,28 @@ public interface RunFacetsDao {
       @NonNull Instant lineageEventTime,
       @NonNull String lineageEventType,
       @NonNull LineageEvent.RunFacet runFacet) {
+    insertRunFacets(
+        runFacetRowsFor(
+            runUuid, lineageEventTime, lineageEventType, FacetUtils.facetsOf(runFacet)));
+  }
+
+  /**
+   * Returns the rows of the provided {@code facets} of a run, keyed by facet name. {@code
+   * spark_unknown} facets are skipped, as is a {@code spark.logicalPlan} facet already linked to
+   * the run.
+   */
+  default List<RunFacetRow> runFacetRowsFor(
+      @NonNull UUID runUuid,
+      @NonNull Instant lineageEventTime,
+      @NonNull String lineageEventType,
+      @NonNull Map<String, Object> facets) {
     final Instant now = Instant.now();
 
-    JsonNode jsonNode = Utils.getMapper().valueToTree(runFacet);
-    StreamSupport.stream(
-            Spliterators.spliteratorUnknownSize(jsonNode.fieldNames(), Spliterator.DISTINCT), false)
-        .filter(fieldName -> !fieldName.equalsIgnoreCase(SPARK_UNKNOWN))
+    return facets.entrySet().stream()
+        .filter(facet -> !facet.getKey().equalsIgnoreCase(SPARK_UNKNOWN))
         .filter(
-            fieldName -> {
+            facet -> {
+              final String fieldName = facet.getKey();
               if (fieldName.equalsIgnoreCase(SPARK_LOGICAL_PLAN)) {
                 if (runFacetExists(fieldName, runUuid)) {
                   log.info(
@@ -117,15 +136,16 @@ public interface RunFacetsDao {
               }
               return true;
             })
-        .forEach(
-            fieldName ->
-                insertRunFacet(
+        .map(
+            facet ->
+                new RunFacetRow(
                     now,
                     runUuid,
                     lineageEventTime,
                     lineageEventType,
-                    fieldName,
-                    FacetUtils.toPgObject(fieldName, jsonNode.get(fieldName))));
+                    facet.getKey(),
+                    FacetUtils.toPgObject(facet.getKey(), facet.getValue())))
+        .collect(Collectors.toList());
   }
 
   record RunFacetRow(
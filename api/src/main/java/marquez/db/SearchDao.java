@@ -46,7 +46,8 @@ public interface SearchDao extends SqlObject {
 
   /**
    * Returns all datasets and jobs that match the provided query; matching of datasets and jobs are
-   * string based and case-insensitive.
+   * string based and case-insensitive, or on all of the words of the query. Results are read from
+   * {@code search_index} and ordered by {@code sort}, then by relevance to the query.
    *
    * @param query Query containing pattern to match.
    * @param filter The filter to apply to the query result.
@@ -59,28 +60,20 @@ public interface SearchDao extends SqlObject {
    */
   @SqlQuery(
       """
-          SELECT type, name, updated_at, namespace_name
-                FROM (
-                  SELECT 'DATASET' AS type, d.name, d.updated_at, d.namespace_name
-                    FROM datasets_view AS d
-                   WHERE (d.namespace_name = :namespace OR CAST(:namespace AS TEXT) IS NULL)
-                     AND (d.updated_at < :before OR CAST(:before AS TEXT) IS NULL)
-                     AND (d.updated_at > :after OR CAST(:after AS TEXT) IS NULL)
-                     AND (d.name ILIKE '%' || :query || '%')
-                   UNION
-                  SELECT DISTINCT ON (j.namespace_name, j.name)
-                    'JOB' AS type, j.name, j.updated_at, j.namespace_name
-                    FROM (SELECT namespace_name, name, UNNEST(COALESCE(aliases, Array[NULL]::varchar[])) AS alias, updated_at
-                           FROM jobs_view WHERE symlink_target_uuid IS NULL
-                           ORDER BY updated_at DESC) AS j
-                   WHERE (j.namespace_name = :namespace OR CAST(:namespace AS TEXT) IS NULL)
-                     AND (j.updated_at < :before OR CAST(:before AS TEXT) IS NULL)
-                     AND (j.updated_at > :after OR CAST(:after AS TEXT) IS NULL)
-                     AND (j.name ILIKE '%' || :query || '%' OR j.alias ILIKE '%' || :query || '%')
-                ) AS results
-                  WHERE type = :filter OR CAST(:filter AS TEXT) IS NULL
-                  ORDER BY :sort
-                  LIMIT :limit""")
+          SELECT s.type, s.name, s.updated_at, s.namespace_name
+            FROM search_index AS s
+           WHERE (s.search_text ILIKE '%' || :query || '%'
+                  OR s.document @@ plainto_tsquery('simple', :query))
+             AND (s.type = :filter OR CAST(:filter AS TEXT) IS NULL)
+             AND (s.namespace_name = :namespace OR CAST(:namespace AS TEXT) IS NULL)
+             AND (s.updated_at < :before OR CAST(:before AS TEXT) IS NULL)
+             AND (s.updated_at > :after OR CAST(:after AS TEXT) IS NULL)
+           ORDER BY CASE WHEN CAST(:sort AS TEXT) = 'NAME' THEN s.name END,
+                    CASE WHEN CAST(:sort AS TEXT) = 'UPDATE_AT' THEN s.updated_at END,
+                    ts_rank(s.document, plainto_tsquery('simple', :query))
+                      + similarity(s.name, :query) DESC,
+                    s.name
+           LIMIT :limit""")
   List<SearchResult> search(
       String query,
       SearchFilter filter,
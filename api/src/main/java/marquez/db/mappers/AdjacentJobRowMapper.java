@@ -0,0 +1,25 @@
+/*
+ * Copyright 2018-2023 contributors to the Marquez project
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package marquez.db.mappers;
+
+import static marquez.db.Columns.uuidOrThrow;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import lombok.NonNull;
+import marquez.db.LineageDao.AdjacentJobRow;
+import org.jdbi.v3.core.mapper.RowMapper;
+import org.jdbi.v3.core.statement.StatementContext;
+
+/** Maps the adjacent jobs query result set to an AdjacentJobRow */
+public final class AdjacentJobRowMapper implements RowMapper<AdjacentJobRow> {
+  @Override
+  public AdjacentJobRow map(@NonNull ResultSet results, @NonNull StatementContext context)
+      throws SQLException {
+    return new AdjacentJobRow(
+        uuidOrThrow(results, "job_uuid"), uuidOrThrow(results, "adjacent_job_uuid"));
+  }
+}
@@ -0,0 +1,29 @@
+/*
+ * Copyright 2018-2023 contributors to the Marquez project
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package marquez.db.mappers;
+
+import static marquez.db.Columns.stringOrThrow;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import lombok.NonNull;
+import marquez.common.models.DatasetId;
+import marquez.common.models.DatasetName;
+import marquez.common.models.NamespaceName;
+import marquez.db.Columns;
+import org.jdbi.v3.core.mapper.RowMapper;
+import org.jdbi.v3.core.statement.StatementContext;
+
+/** Maps the namespace and name of a dataset to a DatasetId */
+public final class DatasetIdMapper implements RowMapper<DatasetId> {
+  @Override
+  public DatasetId map(@NonNull ResultSet results, @NonNull StatementContext context)
+      throws SQLException {
+    return new DatasetId(
+        NamespaceName.of(stringOrThrow(results, Columns.NAMESPACE_NAME)),
+        DatasetName.of(stringOrThrow(results, Columns.NAME)));
+  }
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright 2018-2023 contributors to the Marquez project
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package marquez.db.mappers;
+
+import static marquez.db.Columns.stringOrNull;
+import static marquez.db.Columns.uuidOrNull;
+import static marquez.db.Columns.uuidOrThrow;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import lombok.NonNull;
+import marquez.db.Columns;
+import marquez.db.JobVersionDao.IoType;
+import marquez.db.LineageDao.JobEdgeRow;
+import org.jdbi.v3.core.mapper.RowMapper;
+import org.jdbi.v3.core.statement.StatementContext;
+
+/** Maps the job edges query result set to a JobEdgeRow */
+public final class JobEdgeRowMapper implements RowMapper<JobEdgeRow> {
+  @Override
+  public JobEdgeRow map(@NonNull ResultSet results, @NonNull StatementContext context)
+      throws SQLException {
+    final String ioType = stringOrNull(results, "io_type");
+    return new JobEdgeRow(
+        uuidOrThrow(results, "job_uuid"),
+        uuidOrNull(results, "job_symlink_target_uuid"),
+        uuidOrNull(results, Columns.DATASET_UUID),
+        ioType == null ? null : IoType.valueOf(ioType));
+  }
+}
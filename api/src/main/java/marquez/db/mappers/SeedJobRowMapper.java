@@ -0,0 +1,25 @@
+/*
+ * Copyright 2018-2023 contributors to the Marquez project
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package marquez.db.mappers;
+
+import static marquez.db.Columns.stringOrThrow;
+import static marquez.db.Columns.uuidOrThrow;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import lombok.NonNull;
+import marquez.db.LineageDao.SeedJobRow;
+import org.jdbi.v3.core.mapper.RowMapper;
+import org.jdbi.v3.core.statement.StatementContext;
+
+/** Maps the seed jobs query result set to a SeedJobRow */
+public final class SeedJobRowMapper implements RowMapper<SeedJobRow> {
+  @Override
+  public SeedJobRow map(@NonNull ResultSet results, @NonNull StatementContext context)
+      throws SQLException {
+    return new SeedJobRow(stringOrThrow(results, "node_id"), uuidOrThrow(results, "job_uuid"));
+  }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2018-2023 contributors to the Marquez project
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package marquez.db.mappers;
+
+import static marquez.db.Columns.stringOrThrow;
+import static marquez.db.Columns.uuidOrNull;
+import static marquez.db.Columns.uuidOrThrow;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import lombok.NonNull;
+import marquez.common.Utils;
+import marquez.db.Columns;
+import marquez.db.models.UnprocessedLineageEventRow;
+import marquez.service.models.BaseEvent;
+import org.jdbi.v3.core.mapper.RowMapper;
+import org.jdbi.v3.core.statement.StatementContext;
+
+public final class UnprocessedLineageEventRowMapper
+    implements RowMapper<UnprocessedLineageEventRow> {
+  private static final ObjectMapper mapper = Utils.newObjectMapper();
+
+  @Override
+  public UnprocessedLineageEventRow map(
+      @NonNull ResultSet results, @NonNull StatementContext context) throws SQLException {
+    try {
+      return new UnprocessedLineageEventRow(
+          uuidOrThrow(results, Columns.ROW_UUID),
+          uuidOrNull(results, Columns.RUN_UUID),
+          mapper.readValue(stringOrThrow(results, Columns.EVENT), BaseEvent.class));
+    } catch (JsonProcessingException e) {
+      throw new IllegalArgumentException("Failed to read unprocessed lineage event", e);
+    }
+  }
+}
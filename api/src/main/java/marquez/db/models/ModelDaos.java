@@ -5,6 +5,10 @@
 
 package marquez.db.models;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import marquez.db.BaseDao;
 import marquez.db.ColumnLineageDao;
 import marquez.db.DatasetDao;
@@ -12,6 +16,7 @@ import marquez.db.DatasetFacetsDao;
 import marquez.db.DatasetFieldDao;
 import marquez.db.DatasetSymlinkDao;
 import marquez.db.DatasetVersionDao;
+import marquez.db.IngestCaches;
 import marquez.db.JobDao;
 import marquez.db.JobFacetsDao;
 import marquez.db.JobVersionDao;
@@ -24,7 +29,10 @@ import marquez.db.SourceDao;
 
 /**
  * Container for storing all the Dao classes which ensures parent interface methods are called
- * exactly once.
+ * exactly once. Also holds the rows already upserted while processing a single event, so that they
+ * are not written again for every dataset referencing them, and the facet rows of the event, which
+ * are inserted with one batch per facet table on {@link #flushFacetRows()}. Rows upserted for
+ * every event are looked up in the {@link IngestCaches} the container is created with.
  */
 public final class ModelDaos {
   private NamespaceDao namespaceDao = null;
@@ -43,11 +51,61 @@ public final class ModelDaos {
   private RunStateDao runStateDao = null;
   private RunFacetsDao runFacetsDao = null;
   private BaseDao baseDao;
+  private final IngestCaches ingestCaches;
+  private final Map<String, NamespaceRow> namespaceRows = new HashMap<>();
+  private final List<DatasetFacetsDao.DatasetFacetRow> datasetFacetRows = new ArrayList<>();
+  private final List<JobFacetsDao.JobFacetRow> jobFacetRows = new ArrayList<>();
+  private final List<RunFacetsDao.RunFacetRow> runFacetRows = new ArrayList<>();
+
+  public ModelDaos() {
+    this(IngestCaches.DISABLED);
+  }
+
+  public ModelDaos(IngestCaches ingestCaches) {
+    this.ingestCaches = ingestCaches;
+  }
 
   public void initBaseDao(BaseDao baseDao) {
     this.baseDao = baseDao;
   }
 
+  public IngestCaches getIngestCaches() {
+    return ingestCaches;
+  }
+
+  /** Returns the namespaces upserted through this container, keyed by namespace name. */
+  public Map<String, NamespaceRow> getNamespaceRows() {
+    return namespaceRows;
+  }
+
+  public void addDatasetFacetRows(List<DatasetFacetsDao.DatasetFacetRow> rows) {
+    datasetFacetRows.addAll(rows);
+  }
+
+  public void addJobFacetRows(List<JobFacetsDao.JobFacetRow> rows) {
+    jobFacetRows.addAll(rows);
+  }
+
+  public void addRunFacetRows(List<RunFacetsDao.RunFacetRow> rows) {
+    runFacetRows.addAll(rows);
+  }
+
+  /** Inserts the facet rows added so far, with a single batch per facet table. */
+  public void flushFacetRows() {
+    if (!runFacetRows.isEmpty()) {
+      getRunFacetsDao().insertRunFacets(List.copyOf(runFacetRows));
+      runFacetRows.clear();
+    }
+    if (!jobFacetRows.isEmpty()) {
+      getJobFacetsDao().insertJobFacets(List.copyOf(jobFacetRows));
+      jobFacetRows.clear();
+    }
+    if (!datasetFacetRows.isEmpty()) {
+      getDatasetFacetsDao().insertDatasetFacets(List.copyOf(datasetFacetRows));
+      datasetFacetRows.clear();
+    }
+  }
+
   public NamespaceDao getNamespaceDao() {
     if (namespaceDao == null) {
       namespaceDao = baseDao.createNamespaceDao();
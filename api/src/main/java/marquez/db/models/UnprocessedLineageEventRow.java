@@ -0,0 +1,20 @@
+/*
+ * Copyright 2018-2023 contributors to the Marquez project
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package marquez.db.models;
+
+import java.util.UUID;
+import javax.annotation.Nullable;
+import lombok.NonNull;
+import lombok.Value;
+import marquez.service.models.BaseEvent;
+
+/** A lineage event written ahead of being applied to the Marquez model. */
+@Value
+public class UnprocessedLineageEventRow {
+  @NonNull UUID uuid;
+  @Nullable UUID runUuid;
+  @NonNull BaseEvent event;
+}
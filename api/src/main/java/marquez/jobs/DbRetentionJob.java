@@ -8,10 +8,15 @@ package marquez.jobs;
 import com.google.common.util.concurrent.AbstractScheduledService;
 import io.dropwizard.lifecycle.Managed;
 import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import marquez.db.DbRetention;
+import marquez.db.IngestCaches;
 import marquez.db.exceptions.DbRetentionException;
+import marquez.service.LineageCache;
+import marquez.service.SearchEngine;
 import org.jdbi.v3.core.Jdbi;
 
 /**
@@ -38,19 +43,35 @@ public class DbRetentionJob extends AbstractScheduledService implements Managed
   private final Scheduler fixedRateScheduler;
   private final Jdbi jdbi;
 
+  /* The caches of rows upserted on ingest, invalidated once rows have been deleted. */
+  private final IngestCaches ingestCaches;
+
+  /* The cache of lineage graphs, invalidated once rows have been deleted. */
+  private final LineageCache lineageCache;
+
+  /* The search engine, whose index may hold the datasets and jobs deleted. */
+  private final SearchEngine searchEngine;
+
   /**
    * Constructs a {@code DbRetentionJob} with a run frequency {@code frequencyMins}, chunk size of
    * {@code numberOfRowsPerBatch} that can be deleted per retention job execution and retention days
    * of {@code retentionDays}.
    */
   public DbRetentionJob(
-      @NonNull final Jdbi jdbi, @NonNull final DbRetentionConfig dbRetentionConfig) {
+      @NonNull final Jdbi jdbi,
+      @NonNull final DbRetentionConfig dbRetentionConfig,
+      @NonNull final IngestCaches ingestCaches,
+      @NonNull final LineageCache lineageCache,
+      @NonNull final SearchEngine searchEngine) {
     this.frequencyMins = dbRetentionConfig.getFrequencyMins();
     this.numberOfRowsPerBatch = dbRetentionConfig.getNumberOfRowsPerBatch();
     this.retentionDays = dbRetentionConfig.getRetentionDays();
 
     // Connection to database retention policy will be applied.
     this.jdbi = jdbi;
+    this.ingestCaches = ingestCaches;
+    this.lineageCache = lineageCache;
+    this.searchEngine = searchEngine;
 
     // Define fixed schedule with no delay.
     this.fixedRateScheduler =
@@ -84,6 +105,12 @@ public class DbRetentionJob extends AbstractScheduledService implements Managed
           "Failed to apply retention policy of '{}' days to database!",
           retentionDays,
           errorOnDbRetention);
+    } finally {
+      // Rows cached on ingest, lineage cached on read, and datasets and jobs indexed for search,
+      // may have been deleted.
+      ingestCaches.invalidateAll();
+      lineageCache.invalidateAll();
+      searchEngine.removeUpdatedBefore(Instant.now().minus(retentionDays, ChronoUnit.DAYS));
     }
   }
 
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2018-2023 contributors to the Marquez project
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package marquez.jobs;
+
+import com.google.common.util.concurrent.AbstractScheduledService;
+import io.dropwizard.lifecycle.Managed;
+import java.time.Duration;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import marquez.service.IngestConfig;
+import marquez.service.OpenLineageService;
+
+/**
+ * A job that applies lineage events written ahead, see {@link IngestConfig#isWriteAhead()}, to the
+ * Marquez model. Each iteration applies events in batches of {@code writeAheadBatchSize} until none
+ * are left, then waits {@code writeAheadPollIntervalMs} before polling again. Instances running the
+ * job claim events of different runs, so that the events of a run are only applied by one instance
+ * at a time.
+ */
+@Slf4j
+public class UnprocessedEventsJob extends AbstractScheduledService implements Managed {
+  private static final Duration NO_DELAY = Duration.ofMillis(0);
+
+  private final OpenLineageService openLineageService;
+  private final int batchSize;
+  private final int maxAttempts;
+  private final Scheduler fixedDelayScheduler;
+
+  public UnprocessedEventsJob(
+      @NonNull final OpenLineageService openLineageService,
+      @NonNull final IngestConfig ingestConfig) {
+    this.openLineageService = openLineageService;
+    this.batchSize = ingestConfig.getWriteAheadBatchSize();
+    this.maxAttempts = ingestConfig.getWriteAheadMaxAttempts();
+    this.fixedDelayScheduler =
+        Scheduler.newFixedDelaySchedule(
+            NO_DELAY, Duration.ofMillis(ingestConfig.getWriteAheadPollIntervalMs()));
+  }
+
+  @Override
+  protected Scheduler scheduler() {
+    return fixedDelayScheduler;
+  }
+
+  @Override
+  public void start() throws Exception {
+    startAsync().awaitRunning();
+    log.info("Started job applying lineage events written ahead, in batches of '{}'.", batchSize);
+  }
+
+  @Override
+  protected void runOneIteration() {
+    try {
+      int processed;
+      do {
+        processed = openLineageService.processUnprocessedEvents(batchSize, maxAttempts);
+        log.debug("Applied '{}' lineage events written ahead.", processed);
+      } while (processed == batchSize && isRunning());
+    } catch (Exception errorOnProcess) {
+      // An exception would otherwise stop the schedule; retry on the next iteration instead.
+      log.error("Failed to apply lineage events written ahead!", errorOnProcess);
+    }
+  }
+
+  @Override
+  public void stop() throws Exception {
+    log.info("Stopping job applying lineage events written ahead...");
+    stopAsync().awaitTerminated();
+  }
+}
@@ -16,6 +16,8 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
+import javax.annotation.Nullable;
+import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import marquez.common.models.DatasetFieldId;
 import marquez.common.models.DatasetFieldVersionId;
@@ -32,6 +34,8 @@ import marquez.service.models.ColumnLineageInputField;
 import marquez.service.models.Dataset;
 import marquez.service.models.Edge;
 import marquez.service.models.Lineage;
+import marquez.service.models.LineageBudget;
+import marquez.service.models.LineageDirection;
 import marquez.service.models.Node;
 import marquez.service.models.NodeId;
 import org.apache.commons.lang3.tuple.Pair;
@@ -39,21 +43,44 @@ import org.apache.commons.lang3.tuple.Pair;
 @Slf4j
 public class ColumnLineageService extends DelegatingDaos.DelegatingColumnLineageDao {
   private final DatasetFieldDao datasetFieldDao;
+  private final LineageCache lineageCache;
 
   public ColumnLineageService(ColumnLineageDao dao, DatasetFieldDao datasetFieldDao) {
+    this(dao, datasetFieldDao, LineageCache.DISABLED);
+  }
+
+  public ColumnLineageService(
+      ColumnLineageDao dao, DatasetFieldDao datasetFieldDao, @NonNull LineageCache lineageCache) {
     super(dao);
     this.datasetFieldDao = datasetFieldDao;
+    this.lineageCache = lineageCache;
   }
 
   public Lineage lineage(NodeId nodeId, int depth, boolean withDownstream) {
+    final LineageDirection direction =
+        withDownstream ? LineageDirection.BOTH : LineageDirection.UPSTREAM;
+    return lineageCache.lineage(
+        new LineageCache.Key(
+            LineageCache.COLUMN_LINEAGE,
+            nodeId,
+            depth,
+            direction,
+            LineageBudget.UNLIMITED,
+            false),
+        () -> loadLineage(nodeId, depth, withDownstream));
+  }
+
+  private Lineage loadLineage(NodeId nodeId, int depth, boolean withDownstream) {
     ColumnNodes columnNodes = getColumnNodes(nodeId);
     if (columnNodes.nodeIds.isEmpty()) {
       throw new NodeIdNotFoundException("Could not find node");
     }
 
-    return toLineage(
-        getLineage(depth, columnNodes.nodeIds, withDownstream, columnNodes.createdAtUntil),
-        nodeId.hasVersion());
+    final Set<ColumnLineageNodeData> lineageNodeData =
+        columnNodes.createdAtUntil == null
+            ? getLineage(depth, columnNodes.nodeIds, withDownstream)
+            : getLineage(depth, columnNodes.nodeIds, withDownstream, columnNodes.createdAtUntil);
+    return toLineage(lineageNodeData, nodeId.hasVersion());
   }
 
   private Lineage toLineage(Set<ColumnLineageNodeData> lineageNodeData, boolean includeVersion) {
@@ -154,7 +181,7 @@ public class ColumnLineageService extends DelegatingDaos.DelegatingColumnLineage
     List<Pair<UUID, Instant>> fieldsWithInstant =
         datasetFieldDao.findDatasetVersionFieldsUuids(datasetVersionId.getVersion());
     return new ColumnNodes(
-        fieldsWithInstant.stream().map(pair -> pair.getValue()).findAny().orElse(Instant.now()),
+        fieldsWithInstant.stream().map(pair -> pair.getValue()).findAny().orElse(null),
         fieldsWithInstant.stream().map(pair -> pair.getKey()).collect(Collectors.toList()));
   }
 
@@ -163,7 +190,7 @@ public class ColumnLineageService extends DelegatingDaos.DelegatingColumnLineage
         datasetFieldDao.findDatasetVersionFieldsUuids(
             datasetFieldVersionId.getFieldName().getValue(), datasetFieldVersionId.getVersion());
     return new ColumnNodes(
-        fieldsWithInstant.stream().map(pair -> pair.getValue()).findAny().orElse(Instant.now()),
+        fieldsWithInstant.stream().map(pair -> pair.getValue()).findAny().orElse(null),
         fieldsWithInstant.stream().map(pair -> pair.getKey()).collect(Collectors.toList()));
   }
 
@@ -171,19 +198,19 @@ public class ColumnLineageService extends DelegatingDaos.DelegatingColumnLineage
     List<Pair<UUID, Instant>> fieldsWithInstant =
         datasetFieldDao.findFieldsUuidsByJobVersion(jobVersionId.getVersion());
     return new ColumnNodes(
-        fieldsWithInstant.stream().map(pair -> pair.getValue()).findAny().orElse(Instant.now()),
+        fieldsWithInstant.stream().map(pair -> pair.getValue()).findAny().orElse(null),
         fieldsWithInstant.stream().map(pair -> pair.getKey()).collect(Collectors.toList()));
   }
 
   private ColumnNodes getColumnNodes(DatasetId datasetId) {
     return new ColumnNodes(
-        Instant.now(),
+        null,
         datasetFieldDao.findDatasetFieldsUuids(
             datasetId.getNamespace().getValue(), datasetId.getName().getValue()));
   }
 
   private ColumnNodes getColumnNodes(DatasetFieldId datasetFieldId) {
-    ColumnNodes columnNodes = new ColumnNodes(Instant.now(), new ArrayList<>());
+    ColumnNodes columnNodes = new ColumnNodes(null, new ArrayList<>());
     datasetFieldDao
         .findUuid(
             datasetFieldId.getDatasetId().getNamespace().getValue(),
@@ -195,7 +222,7 @@ public class ColumnLineageService extends DelegatingDaos.DelegatingColumnLineage
 
   private ColumnNodes getColumnNodes(JobId jobId) {
     return new ColumnNodes(
-        Instant.now(),
+        null,
         datasetFieldDao.findFieldsUuidsByJob(
             jobId.getNamespace().getValue(), jobId.getName().getValue()));
   }
@@ -249,5 +276,9 @@ public class ColumnLineageService extends DelegatingDaos.DelegatingColumnLineage
         .forEach(dataset -> dataset.setColumnLineage(datasetLineage.get(dataset)));
   }
 
-  private record ColumnNodes(Instant createdAtUntil, List<UUID> nodeIds) {}
+  /**
+   * The fields to get the column lineage of, and the point in time to get it as of; the current
+   * column lineage if {@code createdAtUntil} is null.
+   */
+  private record ColumnNodes(@Nullable Instant createdAtUntil, List<UUID> nodeIds) {}
 }
@@ -0,0 +1,262 @@
+/*
+ * Copyright 2018-2023 contributors to the Marquez project
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package marquez.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import marquez.common.Utils;
+import marquez.service.models.BaseEvent;
+import marquez.service.models.DatasetEvent;
+import marquez.service.models.JobEvent;
+import marquez.service.models.LineageEvent;
+import marquez.service.models.LineageEvent.Dataset;
+
+/**
+ * Limits the size of the facets of an event on ingest. Facets are dropped, truncated or compressed
+ * by name, see {@link IngestConfig#getFacetActions()}, or once larger than {@link
+ * IngestConfig#getMaxFacetBytes()}; if the event is still larger than {@link
+ * IngestConfig#getMaxEventBytes()}, its largest facets are truncated or compressed in turn until it
+ * fits. The policy is applied to the event itself before it is written, so that both the raw event
+ * and the facet tables only ever see the facets kept.
+ *
+ * <p>Only facets outside of the OpenLineage core facets are subject to the policy, as the core
+ * facets are what the Marquez model is derived from. A truncated facet is replaced by its {@code
+ * _producer} and {@code _schemaURL}, and its size in bytes as {@code _truncatedBytes}; a compressed
+ * facet additionally holds the gzipped, base64 encoded JSON of the facet as {@code _gzip}.
+ */
+@Slf4j
+public class FacetPolicy {
+  /** A policy keeping all facets as is. */
+  public static final FacetPolicy NONE = new FacetPolicy(0, 0, Map.of(), Action.TRUNCATE);
+
+  /** What to do with a facet that is named, or too large to be kept as is. */
+  public enum Action {
+    DROP,
+    TRUNCATE,
+    COMPRESS
+  }
+
+  private static final ObjectMapper MAPPER = Utils.getMapper();
+
+  private final int maxFacetBytes;
+  private final int maxEventBytes;
+  private final Map<String, Action> facetActions;
+  private final Action oversizedFacetAction;
+
+  public FacetPolicy(@NonNull final IngestConfig config) {
+    this(
+        config.getMaxFacetBytes(),
+        config.getMaxEventBytes(),
+        config.getFacetActions(),
+        config.getOversizedFacetAction());
+  }
+
+  FacetPolicy(
+      int maxFacetBytes,
+      int maxEventBytes,
+      @NonNull Map<String, Action> facetActions,
+      @NonNull Action oversizedFacetAction) {
+    this.maxFacetBytes = maxFacetBytes;
+    this.maxEventBytes = maxEventBytes;
+    this.facetActions = Map.copyOf(facetActions);
+    this.oversizedFacetAction = oversizedFacetAction;
+  }
+
+  public boolean isEnabled() {
+    return maxFacetBytes > 0 || maxEventBytes > 0 || !facetActions.isEmpty();
+  }
+
+  /**
+   * Applies the policy to the facets of the provided {@code event}, in place. The raw JSON of the
+   * event, if any, is discarded once a facet has been changed.
+   */
+  public void apply(@NonNull BaseEvent event) {
+    if (!isEnabled()) {
+      return;
+    }
+    final List<Facet> kept = new ArrayList<>();
+    boolean changed = false;
+    for (final Map<String, Object> facets : facetsOf(event)) {
+      for (final Map.Entry<String, Object> entry : new ArrayList<>(facets.entrySet())) {
+        final Facet facet = new Facet(facets, entry.getKey(), entry.getValue());
+        final Action action = facetActions.get(facet.name);
+        if (action != null) {
+          facet.apply(action, 0);
+          changed = true;
+        } else if (maxFacetBytes > 0 && facet.size() > maxFacetBytes) {
+          facet.apply(oversizedFacetAction, maxFacetBytes);
+          changed = true;
+        } else {
+          kept.add(facet);
+        }
+      }
+    }
+    if (changed) {
+      event.setRawJson(null);
+    }
+    if (maxEventBytes > 0) {
+      long eventBytes = sizeOf(event);
+      if (eventBytes > maxEventBytes) {
+        kept.sort(Comparator.comparingInt(Facet::size).reversed());
+        for (final Facet facet : kept) {
+          if (eventBytes <= maxEventBytes) {
+            break;
+          }
+          final int size = facet.size();
+          facet.apply(oversizedFacetAction, maxFacetBytes);
+          eventBytes -= size - facet.replacementSize;
+          event.setRawJson(null);
+        }
+      }
+    }
+  }
+
+  private static long sizeOf(BaseEvent event) {
+    return event.getRawJson().map(json -> json.length).orElseGet(() -> toJson(event).length);
+  }
+
+  /** Returns the additional facets of each facet container of the provided {@code event}. */
+  private static List<Map<String, Object>> facetsOf(BaseEvent event) {
+    final List<Map<String, Object>> facets = new ArrayList<>();
+    if (event instanceof LineageEvent lineageEvent) {
+      if (lineageEvent.getRun() != null && lineageEvent.getRun().getFacets() != null) {
+        facets.add(lineageEvent.getRun().getFacets().getAdditionalFacets());
+      }
+      addJobFacets(facets, lineageEvent.getJob());
+      addDatasetFacets(facets, lineageEvent.getInputs(), lineageEvent.getOutputs());
+    } else if (event instanceof JobEvent jobEvent) {
+      addJobFacets(facets, jobEvent.getJob());
+      addDatasetFacets(facets, jobEvent.getInputs(), jobEvent.getOutputs());
+    } else if (event instanceof DatasetEvent datasetEvent && datasetEvent.getDataset() != null) {
+      addDatasetFacets(facets, List.of(datasetEvent.getDataset()), null);
+    }
+    return facets;
+  }
+
+  private static void addJobFacets(List<Map<String, Object>> facets, LineageEvent.Job job) {
+    if (job != null && job.getFacets() != null) {
+      facets.add(job.getFacets().getAdditionalFacets());
+    }
+  }
+
+  private static void addDatasetFacets(
+      List<Map<String, Object>> facets, List<Dataset> inputs, List<Dataset> outputs) {
+    Stream.of(inputs, outputs)
+        .filter(Objects::nonNull)
+        .flatMap(List::stream)
+        .filter(Objects::nonNull)
+        .forEach(
+            dataset -> {
+              if (dataset.getFacets() != null) {
+                facets.add(dataset.getFacets().getAdditionalFacets());
+              }
+              if (dataset.getInputFacets() != null) {
+                facets.add(dataset.getInputFacets().getAdditionalFacets());
+              }
+              if (dataset.getOutputFacets() != null) {
+                facets.add(dataset.getOutputFacets().getAdditionalFacets());
+              }
+            });
+  }
+
+  private static byte[] toJson(Object value) {
+    try {
+      return MAPPER.writeValueAsBytes(value);
+    } catch (JsonProcessingException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static String gzip(byte[] json) {
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream(json.length / 4);
+    try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+      out.write(json);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return Base64.getEncoder().encodeToString(bytes.toByteArray());
+  }
+
+  /** A facet of a facet container; its JSON is only serialized once its size is needed. */
+  private static final class Facet {
+    private final Map<String, Object> container;
+    private final String name;
+    private final Object value;
+    private byte[] json;
+    private int replacementSize;
+
+    Facet(Map<String, Object> container, String name, Object value) {
+      this.container = container;
+      this.name = name;
+      this.value = value;
+    }
+
+    byte[] json() {
+      if (json == null) {
+        json = toJson(value);
+      }
+      return json;
+    }
+
+    int size() {
+      return json().length;
+    }
+
+    /**
+     * Drops, truncates or compresses the facet; a compressed facet still larger than {@code
+     * maxBytes}, if positive, is truncated instead.
+     */
+    void apply(Action action, int maxBytes) {
+      if (action == Action.DROP) {
+        container.remove(name);
+        replacementSize = 0;
+        IngestMetrics.facetBytesDropped.labels(name).inc(size());
+        log.debug("Dropped facet '{}' of {} bytes", name, size());
+        return;
+      }
+      Map<String, Object> replacement = stubOf(value, size());
+      replacementSize = toJson(replacement).length;
+      if (action == Action.COMPRESS) {
+        final Map<String, Object> compressed = stubOf(value, size());
+        compressed.put("_gzip", gzip(json()));
+        final int compressedSize = toJson(compressed).length;
+        if (maxBytes <= 0 || compressedSize <= maxBytes) {
+          replacement = compressed;
+          replacementSize = compressedSize;
+        }
+      }
+      container.put(name, replacement);
+      if (size() > replacementSize) {
+        IngestMetrics.facetBytesDropped.labels(name).inc(size() - replacementSize);
+      }
+      log.debug("Replaced facet '{}' of {} bytes by {} bytes", name, size(), replacementSize);
+    }
+
+    private static Map<String, Object> stubOf(Object value, int size) {
+      final Map<String, Object> stub = new LinkedHashMap<>();
+      if (value instanceof Map<?, ?> facet) {
+        stub.put("_producer", facet.get("_producer"));
+        stub.put("_schemaURL", facet.get("_schemaURL"));
+      }
+      stub.put("_truncatedBytes", size);
+      return stub;
+    }
+  }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2018-2023 contributors to the Marquez project
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package marquez.service;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.Map;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+import lombok.Getter;
+
+/** Configuration for {@link IngestExecutor}. */
+public class IngestConfig {
+  public static final int DEFAULT_MAX_THREADS = 16;
+  public static final int DEFAULT_MAX_QUEUE_SIZE = 1024;
+  public static final int DEFAULT_RETRY_AFTER_SECS = 1;
+  public static final int DEFAULT_MAX_BATCH_SIZE = 1000;
+  public static final int DEFAULT_SHUTDOWN_TIMEOUT_SECS = 30;
+  public static final int DEFAULT_WRITE_AHEAD_BATCH_SIZE = 500;
+  public static final int DEFAULT_WRITE_AHEAD_POLL_INTERVAL_MS = 500;
+  public static final int DEFAULT_WRITE_AHEAD_MAX_ATTEMPTS = 5;
+  public static final int DEFAULT_IDENTITY_CACHE_TTL_SECS = 300;
+
+  /** Maximum number of threads writing events to the database concurrently. */
+  @Getter @Positive @JsonProperty private int maxThreads = DEFAULT_MAX_THREADS;
+
+  /** Maximum number of writes waiting for a thread before requests are rejected. */
+  @Getter @Positive @JsonProperty private int maxQueueSize = DEFAULT_MAX_QUEUE_SIZE;
+
+  /** Value of the {@code Retry-After} header returned when a request is rejected. */
+  @Getter @Positive @JsonProperty private int retryAfterSecs = DEFAULT_RETRY_AFTER_SECS;
+
+  /**
+   * Maximum number of events of a batch request; larger batches are rejected with a {@code 413}
+   * before any of their events is written.
+   */
+  @Getter @Positive @JsonProperty private int maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+
+  /**
+   * If {@code true}, the raw event and the Marquez model derived from it are written within a
+   * single transaction, using one connection per event instead of two.
+   */
+  @Getter @JsonProperty private boolean singleTransaction = false;
+
+  /**
+   * If {@code true}, only the raw event is written when an event is received, and the event is
+   * applied to the Marquez model in the background; takes precedence over {@code
+   * singleTransaction}.
+   */
+  @Getter @JsonProperty private boolean writeAhead = false;
+
+  /** Maximum number of events written ahead applied per poll. */
+  @Getter @Positive @JsonProperty
+  private int writeAheadBatchSize = DEFAULT_WRITE_AHEAD_BATCH_SIZE;
+
+  /** Interval at which events written ahead are polled for when none are left to apply. */
+  @Getter @Positive @JsonProperty
+  private int writeAheadPollIntervalMs = DEFAULT_WRITE_AHEAD_POLL_INTERVAL_MS;
+
+  /**
+   * Maximum number of attempts to apply an event written ahead; an event failing as many times is
+   * left unprocessed, with its last error in {@code lineage_events.processing_error}.
+   */
+  @Getter @Positive @JsonProperty
+  private int writeAheadMaxAttempts = DEFAULT_WRITE_AHEAD_MAX_ATTEMPTS;
+
+  /**
+   * Number of single-threaded lanes updates of the Marquez model are partitioned onto by run, see
+   * {@link IngestLanes}; {@code 0} applies updates on any ingest thread.
+   */
+  @Getter @PositiveOrZero @JsonProperty private int lanes = 0;
+
+  /**
+   * Maximum number of namespace, source and job rows each cached in place of upserting them on
+   * every event, see {@link marquez.db.IngestCaches}; {@code 0} disables the caches.
+   */
+  @Getter @PositiveOrZero @JsonProperty private int identityCacheSize = 0;
+
+  /**
+   * Maximum number of input datasets cached in place of upserting their dataset and version rows
+   * on every event, while their schema and current version are unchanged; {@code 0} disables the
+   * cache.
+   */
+  @Getter @PositiveOrZero @JsonProperty private int inputDatasetCacheSize = 0;
+
+  /** Maximum time a namespace, source, job or input dataset is cached for. */
+  @Getter @Positive @JsonProperty
+  private int identityCacheTtlSecs = DEFAULT_IDENTITY_CACHE_TTL_SECS;
+
+  /**
+   * Maximum size in bytes of a facet outside of the core facets, see {@link FacetPolicy}; larger
+   * facets are handled as per {@code oversizedFacetAction}. {@code 0} disables the limit.
+   */
+  @Getter @PositiveOrZero @JsonProperty private int maxFacetBytes = 0;
+
+  /**
+   * Maximum size in bytes of an event; the largest facets outside of the core facets of a larger
+   * event are handled as per {@code oversizedFacetAction} until it fits. {@code 0} disables the
+   * limit.
+   */
+  @Getter @PositiveOrZero @JsonProperty private int maxEventBytes = 0;
+
+  /** What to do with facets larger than {@code maxFacetBytes}, or of events too large. */
+  @Getter @NotNull @JsonProperty
+  private FacetPolicy.Action oversizedFacetAction = FacetPolicy.Action.TRUNCATE;
+
+  /** Facets always dropped, truncated or compressed by name, such as {@code spark_unknown}. */
+  @Getter @NotNull @JsonProperty private Map<String, FacetPolicy.Action> facetActions = Map.of();
+
+  /** Maximum time to wait for queued writes to complete on shutdown. */
+  @Getter @Positive @JsonProperty
+  private int shutdownTimeoutSecs = DEFAULT_SHUTDOWN_TIMEOUT_SECS;
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2018-2023 contributors to the Marquez project
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package marquez.service;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.dropwizard.lifecycle.Managed;
+import io.prometheus.client.Gauge;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * A bounded {@link Executor} for the blocking database writes of {@link OpenLineageService}. Writes
+ * are queued up to {@link IngestConfig#getMaxQueueSize()}; once the queue is full, new writes are
+ * rejected with a {@link RejectedExecutionException} rather than queued without limit.
+ */
+@Slf4j
+public class IngestExecutor implements Executor, Managed {
+  private final ThreadPoolExecutor executor;
+  private final int shutdownTimeoutSecs;
+  @Getter private final int retryAfterSecs;
+
+  public IngestExecutor(@NonNull final IngestConfig config) {
+    this.executor =
+        new ThreadPoolExecutor(
+            config.getMaxThreads(),
+            config.getMaxThreads(),
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(config.getMaxQueueSize()),
+            new ThreadFactoryBuilder().setNameFormat("marquez-ingest-%d").setDaemon(true).build(),
+            (runnable, rejectedBy) -> {
+              IngestMetrics.rejections.inc();
+              throw new RejectedExecutionException(
+                  String.format(
+                      "Ingest queue is full (%d queued writes)", config.getMaxQueueSize()));
+            });
+    this.shutdownTimeoutSecs = config.getShutdownTimeoutSecs();
+    this.retryAfterSecs = config.getRetryAfterSecs();
+
+    IngestMetrics.queueDepth.setChild(
+        new Gauge.Child() {
+          @Override
+          public double get() {
+            return executor.getQueue().size();
+          }
+        });
+    IngestMetrics.activeWorkers.setChild(
+        new Gauge.Child() {
+          @Override
+          public double get() {
+            return executor.getActiveCount();
+          }
+        });
+  }
+
+  @Override
+  public void execute(@NonNull Runnable command) {
+    executor.execute(command);
+  }
+
+  @Override
+  public void start() {}
+
+  @Override
+  public void stop() throws Exception {
+    log.info("Stopping ingest executor...");
+    executor.shutdown();
+    if (!executor.awaitTermination(shutdownTimeoutSecs, TimeUnit.SECONDS)) {
+      log.warn(
+          "Ingest executor did not terminate within {} secs, {} queued writes dropped",
+          shutdownTimeoutSecs,
+          executor.shutdownNow().size());
+    }
+  }
+}
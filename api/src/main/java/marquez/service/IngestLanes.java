@@ -0,0 +1,117 @@
+/*
+ * Copyright 2018-2023 contributors to the Marquez project
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package marquez.service;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.dropwizard.lifecycle.Managed;
+import io.prometheus.client.Gauge;
+import io.prometheus.client.Histogram;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * A fixed number of single-threaded lanes the updates of the Marquez model are partitioned onto.
+ * Updates with the same partition key, such as the events of a run, are always applied on the same
+ * lane, one after the other, so that they never contend for the same rows; updates of different
+ * keys are applied in parallel across lanes. Each lane queues up to {@link
+ * IngestConfig#getMaxQueueSize()} divided by the number of lanes updates; once full, new updates
+ * are rejected with a {@link RejectedExecutionException}.
+ */
+@Slf4j
+public class IngestLanes implements Managed {
+  private final List<Lane> lanes;
+  private final int shutdownTimeoutSecs;
+
+  public IngestLanes(@NonNull final IngestConfig config) {
+    final int queueSize = Math.max(1, config.getMaxQueueSize() / config.getLanes());
+    this.lanes = new ArrayList<>(config.getLanes());
+    for (int i = 0; i < config.getLanes(); i++) {
+      lanes.add(new Lane(String.valueOf(i), queueSize));
+    }
+    this.shutdownTimeoutSecs = config.getShutdownTimeoutSecs();
+  }
+
+  /** Returns the lane updates with the provided partition {@code key} are applied on. */
+  public Executor laneFor(@NonNull Object key) {
+    return lanes.get(Math.floorMod(key.hashCode(), lanes.size()));
+  }
+
+  @Override
+  public void start() {}
+
+  @Override
+  public void stop() throws Exception {
+    log.info("Stopping ingest lanes...");
+    lanes.forEach(lane -> lane.executor.shutdown());
+    final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(shutdownTimeoutSecs);
+    for (final Lane lane : lanes) {
+      final long remaining = Math.max(0, deadline - System.nanoTime());
+      if (!lane.executor.awaitTermination(remaining, TimeUnit.NANOSECONDS)) {
+        log.warn(
+            "Ingest lane '{}' did not terminate within {} secs, {} queued updates dropped",
+            lane.name,
+            shutdownTimeoutSecs,
+            lane.executor.shutdownNow().size());
+      }
+    }
+  }
+
+  private static final class Lane implements Executor {
+    private final String name;
+    private final ThreadPoolExecutor executor;
+    private final Histogram.Child latency;
+
+    Lane(String name, int queueSize) {
+      this.name = name;
+      this.executor =
+          new ThreadPoolExecutor(
+              1,
+              1,
+              0L,
+              TimeUnit.MILLISECONDS,
+              new ArrayBlockingQueue<>(queueSize),
+              new ThreadFactoryBuilder()
+                  .setNameFormat("marquez-ingest-lane-" + name)
+                  .setDaemon(true)
+                  .build(),
+              (runnable, rejectedBy) -> {
+                IngestMetrics.rejections.inc();
+                throw new RejectedExecutionException(
+                    String.format("Ingest lane '%s' is full (%d queued updates)", name, queueSize));
+              });
+      this.latency = IngestMetrics.laneLatency.labels(name);
+
+      IngestMetrics.laneQueueDepth.setChild(
+          new Gauge.Child() {
+            @Override
+            public double get() {
+              return executor.getQueue().size();
+            }
+          },
+          name);
+    }
+
+    @Override
+    public void execute(@NonNull Runnable command) {
+      final long queuedAt = System.nanoTime();
+      executor.execute(
+          () -> {
+            try {
+              command.run();
+            } finally {
+              latency.observe((System.nanoTime() - queuedAt) / 1e9);
+            }
+          });
+    }
+  }
+}
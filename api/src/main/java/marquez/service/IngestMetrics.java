@@ -0,0 +1,73 @@
+/*
+ * Copyright 2018-2023 contributors to the Marquez project
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package marquez.service;
+
+import io.prometheus.client.Counter;
+import io.prometheus.client.Gauge;
+import io.prometheus.client.Histogram;
+
+public class IngestMetrics {
+  public static final Gauge queueDepth =
+      Gauge.build()
+          .namespace("marquez")
+          .name("ingest_queue_depth")
+          .help("Number of writes waiting for an ingest thread.")
+          .register();
+  public static final Gauge activeWorkers =
+      Gauge.build()
+          .namespace("marquez")
+          .name("ingest_active_workers")
+          .help("Number of ingest threads actively writing events.")
+          .register();
+  public static final Counter rejections =
+      Counter.build()
+          .namespace("marquez")
+          .name("ingest_rejections_total")
+          .help("Total number of writes rejected because the ingest queue was full.")
+          .register();
+  public static final Counter unprocessedEvents =
+      Counter.build()
+          .namespace("marquez")
+          .name("ingest_unprocessed_events_total")
+          .labelNames("status")
+          .help("Total number of events written ahead and later applied to the model.")
+          .register();
+  public static final Gauge laneQueueDepth =
+      Gauge.build()
+          .namespace("marquez")
+          .name("ingest_lane_queue_depth")
+          .labelNames("lane")
+          .help("Number of model updates waiting on an ingest lane.")
+          .register();
+  public static final Histogram laneLatency =
+      Histogram.build()
+          .namespace("marquez")
+          .name("ingest_lane_latency_seconds")
+          .labelNames("lane")
+          .help("Time from a model update being queued on an ingest lane to its completion.")
+          .register();
+  public static final Counter identityCacheRequests =
+      Counter.build()
+          .namespace("marquez")
+          .name("ingest_identity_cache_requests_total")
+          .labelNames("cache", "result")
+          .help("Total number of namespace, source and job lookups in the ingest caches.")
+          .register();
+  public static final Counter identityCacheEvictions =
+      Counter.build()
+          .namespace("marquez")
+          .name("ingest_identity_cache_evictions_total")
+          .labelNames("cache")
+          .help("Total number of rows evicted from the ingest caches, by size or expiry.")
+          .register();
+  public static final Counter facetBytesDropped =
+      Counter.build()
+          .namespace("marquez")
+          .name("ingest_facet_bytes_dropped_total")
+          .labelNames("facet")
+          .help("Total number of facet bytes dropped, truncated or compressed away on ingest.")
+          .register();
+}
@@ -0,0 +1,289 @@
+/*
+ * Copyright 2018-2023 contributors to the Marquez project
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package marquez.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import javax.annotation.Nullable;
+import lombok.NonNull;
+import marquez.common.models.DatasetId;
+import marquez.common.models.DatasetName;
+import marquez.common.models.NamespaceName;
+import marquez.db.models.UpdateLineageRow;
+import marquez.db.models.UpdateLineageRow.DatasetRecord;
+import marquez.service.models.JobData;
+import marquez.service.models.Lineage;
+import marquez.service.models.LineageBudget;
+import marquez.service.models.LineageDirection;
+import marquez.service.models.Node;
+import marquez.service.models.NodeId;
+
+/**
+ * A cache of lineage graphs, see {@link LineageService#lineage(NodeId, int,
+ * LineageDirection, LineageBudget, boolean)} and {@link ColumnLineageService#lineage(NodeId, int,
+ * boolean)}, keyed by the node, depth, direction, budget and flags of the request. Each cached
+ * graph is indexed by the jobs and datasets of its nodes; ingest reports the jobs and datasets each
+ * event touched, see {@link #invalidate(UpdateLineageRow)}, and only the graphs containing any of
+ * them are dropped. Jobs are identified by UUID, and datasets by namespace and name, as the nodes
+ * of column lineage have no dataset UUID.
+ *
+ * <p>A graph loaded while an event touching it is ingested is returned, but not cached. The cache
+ * is held by the Marquez instance and shared by the services reading and changing lineage. Graphs
+ * changed by another instance are dropped once the {@link LineageGraphIndex} of this instance reads
+ * the change, if enabled, and otherwise only once they expire.
+ */
+public final class LineageCache {
+  /** A cache that is disabled, so that every graph is loaded. */
+  public static final LineageCache DISABLED = new LineageCache(0, Duration.ZERO);
+
+  /** Label of the metrics of job lineage, see {@link LineageService}. */
+  static final String JOB_LINEAGE = "job";
+
+  /** Label of the metrics of column lineage, see {@link ColumnLineageService}. */
+  static final String COLUMN_LINEAGE = "column";
+
+  /** Maximum number of recent invalidations a graph loaded concurrently is checked against. */
+  private static final int MAX_RECENT_INVALIDATIONS = 1024;
+
+  @Nullable private final Cache<Key, Entry> cache;
+  private final Map<UUID, Set<Entry>> entriesByJob = new ConcurrentHashMap<>();
+  private final Map<DatasetId, Set<Entry>> entriesByDataset = new ConcurrentHashMap<>();
+  private final AtomicLong sequence = new AtomicLong();
+  private final AtomicLong forgottenSequence = new AtomicLong();
+  private final ConcurrentLinkedDeque<Invalidation> recent = new ConcurrentLinkedDeque<>();
+  private final AtomicInteger recentSize = new AtomicInteger();
+
+  /** A lineage request; {@code flag} is the boolean option of the request, if any. */
+  record Key(
+      @NonNull String lineage,
+      @NonNull NodeId nodeId,
+      int depth,
+      @NonNull LineageDirection direction,
+      @NonNull LineageBudget budget,
+      boolean flag) {}
+
+  /**
+   * Returns a cache holding up to {@code maxSize} graphs for up to {@code ttl} after a graph was
+   * cached; a size of {@code 0} disables the cache.
+   */
+  public LineageCache(int maxSize, @NonNull Duration ttl) {
+    this.cache =
+        maxSize <= 0
+            ? null
+            : CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .<Key, Entry>removalListener(removal -> unindex(removal.getValue()))
+                .build();
+  }
+
+  /** Returns {@code true} if graphs are cached. */
+  boolean isEnabled() {
+    return cache != null;
+  }
+
+  /** Returns the cached graph of {@code key}, or the graph returned by {@code load}. */
+  Lineage lineage(@NonNull Key key, @NonNull Supplier<Lineage> load) {
+    if (cache == null) {
+      return load.get();
+    }
+    final Entry cached = cache.getIfPresent(key);
+    record(key.lineage(), cached != null);
+    if (cached != null) {
+      return cached.lineage;
+    }
+    final long loadedAfter = sequence.get();
+    final Entry entry = new Entry(key, load.get());
+    // Index the entry before caching it, so that an invalidation either finds it in the index or
+    // is seen below; either way the entry is dropped.
+    index(entry);
+    cache.put(key, entry);
+    if (invalidatedSince(loadedAfter, entry)) {
+      cache.asMap().remove(key, entry);
+    }
+    return entry.lineage;
+  }
+
+  /** Drops the graphs containing the job or any of the datasets of the provided {@code update}. */
+  public void invalidate(@Nullable UpdateLineageRow update) {
+    if (update == null || cache == null) {
+      return;
+    }
+    final Set<UUID> jobUuids = new HashSet<>();
+    if (update.getJob() != null) {
+      jobUuids.add(update.getJob().getUuid());
+      if (update.getJob().getSymlinkTargetId() != null) {
+        jobUuids.add(update.getJob().getSymlinkTargetId());
+      }
+    }
+    final Set<DatasetId> datasetIds = new HashSet<>();
+    for (final Optional<List<DatasetRecord>> datasets :
+        Arrays.asList(update.getInputs(), update.getOutputs())) {
+      if (datasets != null) {
+        datasets.ifPresent(records -> records.forEach(r -> datasetIds.add(datasetIdOf(r))));
+      }
+    }
+    invalidate(jobUuids, datasetIds);
+  }
+
+  /** Drops the graphs containing any of the provided jobs or datasets. */
+  public void invalidate(
+      @NonNull Collection<UUID> jobUuids, @NonNull Collection<DatasetId> datasetIds) {
+    if (cache == null || (jobUuids.isEmpty() && datasetIds.isEmpty())) {
+      return;
+    }
+    final Invalidation invalidation =
+        new Invalidation(sequence.incrementAndGet(), Set.copyOf(jobUuids), Set.copyOf(datasetIds));
+    recent.addLast(invalidation);
+    if (recentSize.incrementAndGet() > MAX_RECENT_INVALIDATIONS) {
+      final Invalidation forgotten = recent.pollFirst();
+      if (forgotten != null) {
+        recentSize.decrementAndGet();
+        forgottenSequence.accumulateAndGet(forgotten.sequence(), Math::max);
+      }
+    }
+    final Set<Entry> entries = new HashSet<>();
+    invalidation.jobUuids().forEach(job -> copyFrom(entriesByJob, job, entries));
+    invalidation.datasetIds().forEach(ds -> copyFrom(entriesByDataset, ds, entries));
+    for (final Entry entry : entries) {
+      if (cache.asMap().remove(entry.key, entry)) {
+        LineageMetrics.cacheInvalidations.labels(entry.key.lineage()).inc();
+      }
+    }
+  }
+
+  /** Drops all graphs; used on changes not attributable to a job or dataset, such as deletes. */
+  public void invalidateAll() {
+    if (cache == null) {
+      return;
+    }
+    // Forget all invalidations, so that graphs loaded concurrently are not cached either.
+    forgottenSequence.set(sequence.incrementAndGet());
+    cache.invalidateAll();
+  }
+
+  private static DatasetId datasetIdOf(DatasetRecord record) {
+    return new DatasetId(
+        NamespaceName.of(record.getNamespaceRow().getName()),
+        DatasetName.of(record.getDatasetRow().getName()));
+  }
+
+  private boolean invalidatedSince(long loadedAfter, Entry entry) {
+    if (forgottenSequence.get() > loadedAfter) {
+      return true;
+    }
+    final Iterator<Invalidation> invalidations = recent.descendingIterator();
+    while (invalidations.hasNext()) {
+      final Invalidation invalidation = invalidations.next();
+      if (invalidation.sequence() > loadedAfter
+          && entry.containsAny(invalidation.jobUuids(), invalidation.datasetIds())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void index(Entry entry) {
+    entry.jobUuids.forEach(job -> addTo(entriesByJob, job, entry));
+    entry.datasetIds.forEach(ds -> addTo(entriesByDataset, ds, entry));
+  }
+
+  private void unindex(@Nullable Entry entry) {
+    if (entry == null) {
+      return;
+    }
+    entry.jobUuids.forEach(job -> removeFrom(entriesByJob, job, entry));
+    entry.datasetIds.forEach(ds -> removeFrom(entriesByDataset, ds, entry));
+  }
+
+  private static <K> void addTo(Map<K, Set<Entry>> index, K node, Entry entry) {
+    index.compute(
+        node,
+        (k, entries) -> {
+          final Set<Entry> added = entries == null ? new HashSet<>() : entries;
+          added.add(entry);
+          return added;
+        });
+  }
+
+  private static <K> void copyFrom(Map<K, Set<Entry>> index, K node, Set<Entry> entries) {
+    index.computeIfPresent(
+        node,
+        (k, indexed) -> {
+          entries.addAll(indexed);
+          return indexed;
+        });
+  }
+
+  private static <K> void removeFrom(Map<K, Set<Entry>> index, K node, Entry entry) {
+    index.computeIfPresent(
+        node,
+        (k, entries) -> {
+          entries.remove(entry);
+          return entries.isEmpty() ? null : entries;
+        });
+  }
+
+  private static void record(String lineage, boolean hit) {
+    LineageMetrics.cacheRequests.labels(lineage, hit ? "hit" : "miss").inc();
+    final double hits = LineageMetrics.cacheRequests.labels(lineage, "hit").get();
+    final double misses = LineageMetrics.cacheRequests.labels(lineage, "miss").get();
+    LineageMetrics.cacheHitRatio.labels(lineage).set(hits / (hits + misses));
+  }
+
+  /** A cached graph, and the jobs and datasets of its nodes; compared by identity. */
+  private static final class Entry {
+    private final Key key;
+    private final Lineage lineage;
+    private final Set<UUID> jobUuids = new HashSet<>();
+    private final Set<DatasetId> datasetIds = new HashSet<>();
+
+    Entry(Key key, Lineage lineage) {
+      this.key = key;
+      this.lineage = lineage;
+      addDatasetOf(key.nodeId());
+      for (final Node node : lineage.getGraph()) {
+        if (node.getData() instanceof JobData job) {
+          jobUuids.add(job.getUuid());
+        } else {
+          addDatasetOf(node.getId());
+        }
+      }
+    }
+
+    private void addDatasetOf(NodeId nodeId) {
+      if (nodeId.isDatasetType()) {
+        datasetIds.add(nodeId.asDatasetId());
+      } else if (nodeId.isDatasetFieldVersionType()) {
+        datasetIds.add(nodeId.asDatasetFieldVersionId().getDatasetId());
+      } else if (nodeId.isDatasetFieldType()) {
+        datasetIds.add(nodeId.asDatasetFieldId().getDatasetId());
+      }
+    }
+
+    boolean containsAny(Set<UUID> jobUuids, Set<DatasetId> datasetIds) {
+      return jobUuids.stream().anyMatch(this.jobUuids::contains)
+          || datasetIds.stream().anyMatch(this.datasetIds::contains);
+    }
+  }
+
+  private record Invalidation(long sequence, Set<UUID> jobUuids, Set<DatasetId> datasetIds) {}
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2018-2023 contributors to the Marquez project
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package marquez.service;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+import lombok.Getter;
+
+/** Configuration for {@link LineageService}. */
+public class LineageConfig {
+  public static final int DEFAULT_GRAPH_REFRESH_INTERVAL_MS = 1000;
+  public static final int DEFAULT_GRAPH_RELOAD_INTERVAL_SECS = 600;
+  public static final int DEFAULT_CACHE_TTL_SECS = 60;
+
+  /**
+   * If {@code true}, lineage is traversed in an in-memory index of the edges between jobs and
+   * datasets, see {@link LineageGraphIndex}, instead of in the database.
+   */
+  @Getter @JsonProperty private boolean inMemoryGraph = false;
+
+  /**
+   * Interval at which the jobs with edges changed since, by any instance, are refreshed in the
+   * in-memory index.
+   */
+  @Getter @Positive @JsonProperty
+  private int graphRefreshIntervalMs = DEFAULT_GRAPH_REFRESH_INTERVAL_MS;
+
+  /**
+   * Interval at which the in-memory index is reloaded in full, to pick up changes committed too
+   * long after they were made to be seen by a refresh.
+   */
+  @Getter @Positive @JsonProperty
+  private int graphReloadIntervalSecs = DEFAULT_GRAPH_RELOAD_INTERVAL_SECS;
+
+  /**
+   * Maximum number of lineage graphs cached across requests, see {@link LineageCache}; {@code 0}
+   * disables the cache. The cache is held by each instance and only invalidated by the events
+   * ingested by the instance, or with {@code inMemoryGraph}, by the changes its index reads; a
+   * graph changed by another instance is otherwise served until it expires.
+   */
+  @Getter @PositiveOrZero @JsonProperty private int cacheSize = 0;
+
+  /**
+   * Time a lineage graph is cached for; bounds the staleness of graphs changed by other instances
+   * or outside of ingest.
+   */
+  @Getter @Positive @JsonProperty private int cacheTtlSecs = DEFAULT_CACHE_TTL_SECS;
+}
@@ -0,0 +1,378 @@
+/*
+ * Copyright 2018-2023 contributors to the Marquez project
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package marquez.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.IntConsumer;
+import javax.annotation.Nullable;
+import lombok.NonNull;
+import marquez.db.JobVersionDao.IoType;
+import marquez.db.LineageDao.JobEdgeRow;
+import marquez.service.models.LineageDirection;
+
+/**
+ * An immutable, in-memory index of the edges between jobs and the datasets of their current
+ * versions. Jobs and datasets are numbered by consecutive {@code int} ids; the input and output
+ * datasets of each job, and the jobs reading or writing each dataset, are kept in compressed
+ * sparse row arrays, so that a breadth-first traversal of the graph allocates little more than the
+ * result. A changed graph is a new {@link LineageGraph}, see {@link #withJobs(Collection)}.
+ *
+ * <p>The traversal is the one of {@link marquez.db.LineageDao#getLineage(Set, int,
+ * LineageDirection)}: jobs are adjacent if they share an input or output dataset, or, in one
+ * direction, if one writes a dataset the other reads; a symlinked job stands for its target.
+ */
+public final class LineageGraph {
+  public static final LineageGraph EMPTY = of(List.of());
+
+  private static final int NONE = -1;
+  private static final int[] NO_JOBS = new int[0];
+
+  /** The input and output datasets of a job in the lineage of a traversal. */
+  public record JobEdges(@NonNull Set<UUID> inputs, @NonNull Set<UUID> outputs) {}
+
+  private final UUID[] jobUuids;
+  private final Map<UUID, Integer> jobIds;
+  private final int[] symlinkTargets;
+  private final Map<Integer, int[]> symlinksByTarget;
+  private final UUID[] datasetUuids;
+  private final int[] inputOffsets;
+  private final int[] inputs;
+  private final int[] outputOffsets;
+  private final int[] outputs;
+  private final int[] readerOffsets;
+  private final int[] readers;
+  private final int[] writerOffsets;
+  private final int[] writers;
+
+  private LineageGraph(Map<UUID, Job> jobs) {
+    this.jobUuids = jobs.keySet().toArray(UUID[]::new);
+    this.jobIds = new HashMap<>(jobUuids.length * 2);
+    for (int i = 0; i < jobUuids.length; i++) {
+      jobIds.put(jobUuids[i], i);
+    }
+
+    final Map<UUID, Integer> datasetIds = new HashMap<>();
+    final List<UUID> datasets = new ArrayList<>();
+    this.symlinkTargets = new int[jobUuids.length];
+    this.symlinksByTarget = new HashMap<>();
+    this.inputOffsets = new int[jobUuids.length + 1];
+    this.outputOffsets = new int[jobUuids.length + 1];
+    int inputCount = 0;
+    int outputCount = 0;
+    for (int i = 0; i < jobUuids.length; i++) {
+      final Job job = jobs.get(jobUuids[i]);
+      inputCount += job.inputs.size();
+      outputCount += job.outputs.size();
+      inputOffsets[i + 1] = inputCount;
+      outputOffsets[i + 1] = outputCount;
+    }
+    this.inputs = new int[inputCount];
+    this.outputs = new int[outputCount];
+    for (int i = 0; i < jobUuids.length; i++) {
+      final Job job = jobs.get(jobUuids[i]);
+      symlinkTargets[i] =
+          job.symlinkTargetUuid == null ? NONE : jobIds.getOrDefault(job.symlinkTargetUuid, NONE);
+      int offset = inputOffsets[i];
+      for (final UUID dataset : job.inputs) {
+        inputs[offset++] = datasetIds.computeIfAbsent(dataset, uuid -> add(datasets, uuid));
+      }
+      offset = outputOffsets[i];
+      for (final UUID dataset : job.outputs) {
+        outputs[offset++] = datasetIds.computeIfAbsent(dataset, uuid -> add(datasets, uuid));
+      }
+    }
+    for (int i = 0; i < jobUuids.length; i++) {
+      if (symlinkTargets[i] != NONE) {
+        symlinksByTarget.merge(symlinkTargets[i], new int[] {i}, LineageGraph::concat);
+      }
+    }
+    this.datasetUuids = datasets.toArray(UUID[]::new);
+
+    this.readerOffsets = new int[datasetUuids.length + 1];
+    this.readers = invert(inputOffsets, inputs, readerOffsets);
+    this.writerOffsets = new int[datasetUuids.length + 1];
+    this.writers = invert(outputOffsets, outputs, writerOffsets);
+  }
+
+  /** Returns the graph of the provided {@code edges}, see {@link JobEdgeRow}. */
+  public static LineageGraph of(@NonNull Collection<JobEdgeRow> edges) {
+    final Map<UUID, Job> jobs = new LinkedHashMap<>();
+    addAll(jobs, edges);
+    return new LineageGraph(jobs);
+  }
+
+  /**
+   * Returns a copy of this graph in which the edges of each job of the provided {@code edges} are
+   * replaced by its edges in {@code edges}.
+   */
+  public LineageGraph withJobs(@NonNull Collection<JobEdgeRow> edges) {
+    final Map<UUID, Job> jobs = new LinkedHashMap<>(jobUuids.length * 2);
+    for (int i = 0; i < jobUuids.length; i++) {
+      final Job job = new Job(symlinkTargets[i] == NONE ? null : jobUuids[symlinkTargets[i]]);
+      for (int j = inputOffsets[i]; j < inputOffsets[i + 1]; j++) {
+        job.inputs.add(datasetUuids[inputs[j]]);
+      }
+      for (int j = outputOffsets[i]; j < outputOffsets[i + 1]; j++) {
+        job.outputs.add(datasetUuids[outputs[j]]);
+      }
+      jobs.put(jobUuids[i], job);
+    }
+    edges.forEach(edge -> jobs.remove(edge.jobUuid()));
+    addAll(jobs, edges);
+    return new LineageGraph(jobs);
+  }
+
+  /**
+   * Returns the jobs within {@code depth} hops of the provided jobs, or of the jobs symlinked to
+   * them, with their input and output datasets. Each job symlinked to another job is returned along
+   * with its target, which is given the edges of the symlinked jobs. Jobs not in the graph are
+   * returned without edges.
+   */
+  public Map<UUID, JobEdges> lineage(@NonNull Set<UUID> jobUuids, int depth) {
+    return lineage(jobUuids, depth, LineageDirection.BOTH);
+  }
+
+  /**
+   * Returns the jobs within {@code depth} hops of the provided jobs in the provided {@code
+   * direction}, see {@link #lineage(Set, int)}; upstream follows each job to the writers of its
+   * inputs, and downstream to the readers of its outputs.
+   */
+  public Map<UUID, JobEdges> lineage(
+      @NonNull Set<UUID> jobUuids, int depth, @NonNull LineageDirection direction) {
+    final List<Hop> hops = hops(direction);
+    final BitSet visited = new BitSet(this.jobUuids.length);
+    Frontier frontier = new Frontier(jobUuids.size());
+    for (final UUID jobUuid : jobUuids) {
+      final Integer job = jobIds.get(jobUuid);
+      if (job != null) {
+        frontier.visit(visited, job);
+        for (final int symlink : symlinksByTarget.getOrDefault(job, NO_JOBS)) {
+          frontier.visit(visited, symlink);
+        }
+      }
+    }
+
+    for (int level = 0; level < depth && frontier.size > 0; level++) {
+      final Frontier next = new Frontier(frontier.size);
+      for (int f = 0; f < frontier.size; f++) {
+        for (final Hop hop : hops) {
+          hop.forEachJob(frontier.jobs[f], job -> next.visit(visited, job));
+        }
+      }
+      frontier = next;
+    }
+
+    final Map<UUID, JobEdges> lineage = new LinkedHashMap<>();
+    for (int job = visited.nextSetBit(0); job >= 0; job = visited.nextSetBit(job + 1)) {
+      addEdges(lineage, this.jobUuids[job], job);
+      if (symlinkTargets[job] != NONE) {
+        addEdges(lineage, this.jobUuids[symlinkTargets[job]], job);
+      }
+    }
+    for (final UUID jobUuid : jobUuids) {
+      lineage.computeIfAbsent(jobUuid, uuid -> new JobEdges(Set.of(), Set.of()));
+    }
+    return lineage;
+  }
+
+  /**
+   * Returns up to {@code limit} jobs adjacent to each of the provided jobs in the provided {@code
+   * direction}, see {@link LineageTraversal}. The edges of the jobs symlinked to a job are its own,
+   * and symlinked jobs are returned as their targets.
+   */
+  public Map<UUID, List<UUID>> adjacentJobs(
+      @NonNull Collection<UUID> jobUuids, @NonNull LineageDirection direction, int limit) {
+    final List<Hop> hops = hops(direction);
+    final Map<UUID, List<UUID>> adjacentJobs = new HashMap<>();
+    for (final UUID jobUuid : jobUuids) {
+      final Integer job = jobIds.get(jobUuid);
+      if (job == null) {
+        continue;
+      }
+      final Set<UUID> adjacent = new LinkedHashSet<>();
+      final IntConsumer add =
+          other -> {
+            final UUID otherUuid =
+                this.jobUuids[symlinkTargets[other] == NONE ? other : symlinkTargets[other]];
+            if (adjacent.size() < limit && !otherUuid.equals(jobUuid)) {
+              adjacent.add(otherUuid);
+            }
+          };
+      for (final Hop hop : hops) {
+        hop.forEachJob(job, add);
+        for (final int symlink : symlinksByTarget.getOrDefault(job, NO_JOBS)) {
+          hop.forEachJob(symlink, add);
+        }
+      }
+      adjacentJobs.put(jobUuid, new ArrayList<>(adjacent));
+    }
+    return adjacentJobs;
+  }
+
+  /**
+   * Returns the input and output datasets of the provided jobs, and of the jobs symlinked to them.
+   * Jobs not in the graph are returned without edges.
+   */
+  public Map<UUID, JobEdges> edgesOf(@NonNull Collection<UUID> jobUuids) {
+    final Map<UUID, JobEdges> edges = new LinkedHashMap<>();
+    for (final UUID jobUuid : jobUuids) {
+      final Integer job = jobIds.get(jobUuid);
+      if (job == null) {
+        edges.put(jobUuid, new JobEdges(Set.of(), Set.of()));
+        continue;
+      }
+      addEdges(edges, jobUuid, job);
+      for (final int symlink : symlinksByTarget.getOrDefault(job, NO_JOBS)) {
+        addEdges(edges, jobUuid, symlink);
+      }
+    }
+    return edges;
+  }
+
+  /** Returns the number of jobs in the graph. */
+  public int jobCount() {
+    return jobUuids.length;
+  }
+
+  /** Returns the number of edges between jobs and datasets in the graph. */
+  public int edgeCount() {
+    return inputs.length + outputs.length;
+  }
+
+  private void addEdges(Map<UUID, JobEdges> lineage, UUID jobUuid, int job) {
+    final JobEdges edges =
+        lineage.computeIfAbsent(
+            jobUuid, uuid -> new JobEdges(new LinkedHashSet<>(), new LinkedHashSet<>()));
+    for (int i = inputOffsets[job]; i < inputOffsets[job + 1]; i++) {
+      edges.inputs().add(datasetUuids[inputs[i]]);
+    }
+    for (int i = outputOffsets[job]; i < outputOffsets[job + 1]; i++) {
+      edges.outputs().add(datasetUuids[outputs[i]]);
+    }
+  }
+
+  private static void addAll(Map<UUID, Job> jobs, Collection<JobEdgeRow> edges) {
+    for (final JobEdgeRow edge : edges) {
+      final Job job =
+          jobs.computeIfAbsent(edge.jobUuid(), uuid -> new Job(edge.jobSymlinkTargetUuid()));
+      if (edge.datasetUuid() != null) {
+        (edge.ioType() == IoType.INPUT ? job.inputs : job.outputs).add(edge.datasetUuid());
+      }
+    }
+    // Symlink targets are traversed even if none of their own versions have edges.
+    for (final JobEdgeRow edge : edges) {
+      if (edge.jobSymlinkTargetUuid() != null) {
+        jobs.computeIfAbsent(edge.jobSymlinkTargetUuid(), uuid -> new Job(null));
+      }
+    }
+  }
+
+  /**
+   * Returns the hops from a job to its adjacent jobs in the provided {@code direction}: upstream
+   * from its inputs to their writers, and downstream from its outputs to their readers. In both
+   * directions, jobs sharing an input or an output are adjacent too.
+   */
+  private List<Hop> hops(LineageDirection direction) {
+    final Hop upstream = new Hop(inputOffsets, inputs, writerOffsets, writers);
+    final Hop downstream = new Hop(outputOffsets, outputs, readerOffsets, readers);
+    return switch (direction) {
+      case UPSTREAM -> List.of(upstream);
+      case DOWNSTREAM -> List.of(downstream);
+      case BOTH -> {
+        final Hop sharedInputs = new Hop(inputOffsets, inputs, readerOffsets, readers);
+        final Hop sharedOutputs = new Hop(outputOffsets, outputs, writerOffsets, writers);
+        yield List.of(upstream, downstream, sharedInputs, sharedOutputs);
+      }
+    };
+  }
+
+  /**
+   * Returns the jobs of each dataset of the provided job to dataset arrays, filling in {@code
+   * datasetOffsets}.
+   */
+  private static int[] invert(int[] jobOffsets, int[] datasets, int[] datasetOffsets) {
+    for (final int dataset : datasets) {
+      datasetOffsets[dataset + 1]++;
+    }
+    for (int i = 0; i + 1 < datasetOffsets.length; i++) {
+      datasetOffsets[i + 1] += datasetOffsets[i];
+    }
+    final int[] jobs = new int[datasets.length];
+    final int[] next = datasetOffsets.clone();
+    for (int job = 0; job + 1 < jobOffsets.length; job++) {
+      for (int i = jobOffsets[job]; i < jobOffsets[job + 1]; i++) {
+        jobs[next[datasets[i]]++] = job;
+      }
+    }
+    return jobs;
+  }
+
+  private static int add(List<UUID> datasets, UUID dataset) {
+    datasets.add(dataset);
+    return datasets.size() - 1;
+  }
+
+  private static int[] append(int[] array, int size, int value) {
+    final int[] grown = size < array.length ? array : Arrays.copyOf(array, size * 2 + 1);
+    grown[size] = value;
+    return grown;
+  }
+
+  private static int[] concat(int[] left, int[] right) {
+    final int[] both = Arrays.copyOf(left, left.length + right.length);
+    System.arraycopy(right, 0, both, left.length, right.length);
+    return both;
+  }
+
+  /** A hop from a job to the datasets of one side, and from each dataset to its jobs of a side. */
+  private record Hop(int[] jobOffsets, int[] datasets, int[] datasetOffsets, int[] datasetJobs) {
+    void forEachJob(int job, IntConsumer consumer) {
+      for (int i = jobOffsets[job]; i < jobOffsets[job + 1]; i++) {
+        for (int j = datasetOffsets[datasets[i]]; j < datasetOffsets[datasets[i] + 1]; j++) {
+          consumer.accept(datasetJobs[j]);
+        }
+      }
+    }
+  }
+
+  /** The jobs visited on a level of a traversal. */
+  private static final class Frontier {
+    private int[] jobs;
+    private int size;
+
+    Frontier(int capacity) {
+      this.jobs = new int[capacity];
+    }
+
+    void visit(BitSet visited, int job) {
+      if (!visited.get(job)) {
+        visited.set(job);
+        jobs = append(jobs, size++, job);
+      }
+    }
+  }
+
+  /** The edges of a job while a graph is built. */
+  private static final class Job {
+    @Nullable private final UUID symlinkTargetUuid;
+    private final Set<UUID> inputs = new LinkedHashSet<>();
+    private final Set<UUID> outputs = new LinkedHashSet<>();
+
+    Job(@Nullable UUID symlinkTargetUuid) {
+      this.symlinkTargetUuid = symlinkTargetUuid;
+    }
+  }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2018-2023 contributors to the Marquez project
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package marquez.service;
+
+import com.google.common.util.concurrent.AbstractScheduledService;
+import io.dropwizard.lifecycle.Managed;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import marquez.common.models.DatasetId;
+import marquez.db.LineageDao;
+import marquez.db.LineageDao.JobEdgeRow;
+import marquez.service.LineageGraph.JobEdges;
+import marquez.service.models.LineageDirection;
+
+/**
+ * Keeps a {@link LineageGraph} of the current edges between jobs and datasets up to date. The graph
+ * is loaded in full on start; every {@code graphRefreshIntervalMs}, the jobs with an edge upserted
+ * or deleted in {@code lineage_edges} since the last refresh are then refreshed, whichever instance
+ * ingested them. As an edge is stamped with the start of the transaction writing it, each refresh
+ * reads back the changes of the last {@link #REFRESH_OVERLAP} again; edges committed later than
+ * that are picked up by the full reload every {@code graphReloadIntervalSecs}.
+ *
+ * <p>Lineage graphs cached by {@link LineageCache} are read from this index; once the index is
+ * refreshed, the graphs containing the jobs or datasets of the edges changed are dropped, and all
+ * graphs are dropped once it is reloaded.
+ */
+@Slf4j
+public class LineageGraphIndex extends AbstractScheduledService implements Managed {
+  private static final Duration NO_DELAY = Duration.ofMillis(0);
+
+  /** The time by which the changes read by a refresh overlap those read by the previous one. */
+  static final Duration REFRESH_OVERLAP = Duration.ofSeconds(5);
+
+  private final LineageDao lineageDao;
+  private final LineageCache lineageCache;
+  private final Duration reloadInterval;
+  private final Scheduler fixedDelayScheduler;
+  private volatile LineageGraph graph = LineageGraph.EMPTY;
+  private Instant loadedAt = Instant.EPOCH;
+  private Instant refreshedAt = Instant.EPOCH;
+
+  public LineageGraphIndex(
+      @NonNull final LineageDao lineageDao,
+      @NonNull final LineageConfig lineageConfig,
+      @NonNull final LineageCache lineageCache) {
+    this.lineageDao = lineageDao;
+    this.lineageCache = lineageCache;
+    this.reloadInterval = Duration.ofSeconds(lineageConfig.getGraphReloadIntervalSecs());
+    this.fixedDelayScheduler =
+        Scheduler.newFixedDelaySchedule(
+            NO_DELAY, Duration.ofMillis(lineageConfig.getGraphRefreshIntervalMs()));
+  }
+
+  /**
+   * Returns the lineage of the provided jobs, see {@link LineageGraph#lineage(Set, int,
+   * LineageDirection)}.
+   */
+  public Map<UUID, JobEdges> lineage(
+      @NonNull Set<UUID> jobUuids, int depth, @NonNull LineageDirection direction) {
+    return graph.lineage(jobUuids, depth, direction);
+  }
+
+  /** Returns the current graph, for traversals reading the graph more than once. */
+  public LineageGraph snapshot() {
+    return graph;
+  }
+
+  @Override
+  protected Scheduler scheduler() {
+    return fixedDelayScheduler;
+  }
+
+  @Override
+  public void start() throws Exception {
+    reload();
+    startAsync().awaitRunning();
+    log.info(
+        "Started lineage graph index of '{}' jobs and '{}' edges.",
+        graph.jobCount(),
+        graph.edgeCount());
+  }
+
+  @Override
+  protected void runOneIteration() {
+    try {
+      if (Instant.now().isAfter(loadedAt.plus(reloadInterval))) {
+        reload();
+      } else {
+        refresh();
+      }
+    } catch (Exception errorOnUpdate) {
+      // An exception would otherwise stop the schedule; retry on the next iteration instead.
+      log.error("Failed to update lineage graph index!", errorOnUpdate);
+    }
+  }
+
+  /**
+   * Loads the graph in full. The log of deleted edges is pruned of the edges deleted before the
+   * previous full reload of any instance, as no refresh reads them anymore.
+   */
+  void reload() {
+    final Instant now = Instant.now();
+    graph = LineageGraph.of(lineageDao.getCurrentJobEdges());
+    loadedAt = now;
+    refreshedAt = now;
+    lineageCache.invalidateAll();
+    lineageDao.deleteLineageEdgesDeletedBefore(now.minus(reloadInterval).minus(REFRESH_OVERLAP));
+    log.debug("Loaded '{}' jobs and '{}' edges.", graph.jobCount(), graph.edgeCount());
+  }
+
+  /** Replaces the edges of the jobs with edges changed since the last load or refresh. */
+  void refresh() {
+    final Instant now = Instant.now();
+    final Instant since = refreshedAt.minus(REFRESH_OVERLAP);
+    final List<JobEdgeRow> edges = lineageDao.getCurrentJobEdgesChangedSince(since);
+    if (edges.isEmpty()) {
+      refreshedAt = now;
+      return;
+    }
+    final List<DatasetId> datasetIds =
+        lineageCache.isEnabled() ? lineageDao.getDatasetsWithEdgesChangedSince(since) : List.of();
+    refreshedAt = now;
+    graph = graph.withJobs(edges);
+    // Only drop cached graphs once they can no longer be read from the graph before the refresh.
+    final Set<UUID> jobUuids = new HashSet<>();
+    for (final JobEdgeRow edge : edges) {
+      jobUuids.add(edge.jobUuid());
+      if (edge.jobSymlinkTargetUuid() != null) {
+        jobUuids.add(edge.jobSymlinkTargetUuid());
+      }
+    }
+    lineageCache.invalidate(jobUuids, datasetIds);
+    log.debug("Refreshed '{}' edges.", edges.size());
+  }
+
+  @Override
+  public void stop() throws Exception {
+    log.info("Stopping lineage graph index...");
+    stopAsync().awaitTerminated();
+  }
+}
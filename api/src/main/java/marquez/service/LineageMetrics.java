@@ -0,0 +1,33 @@
+/*
+ * Copyright 2018-2023 contributors to the Marquez project
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package marquez.service;
+
+import io.prometheus.client.Counter;
+import io.prometheus.client.Gauge;
+
+public class LineageMetrics {
+  public static final Counter cacheRequests =
+      Counter.build()
+          .namespace("marquez")
+          .name("lineage_cache_requests_total")
+          .labelNames("lineage", "result")
+          .help("Total number of lineage requests served by the lineage cache, by result.")
+          .register();
+  public static final Counter cacheInvalidations =
+      Counter.build()
+          .namespace("marquez")
+          .name("lineage_cache_invalidations_total")
+          .labelNames("lineage")
+          .help("Total number of lineage cache entries invalidated by ingested events.")
+          .register();
+  public static final Gauge cacheHitRatio =
+      Gauge.build()
+          .namespace("marquez")
+          .name("lineage_cache_hit_ratio")
+          .labelNames("lineage")
+          .help("Ratio of lineage requests served from the lineage cache since startup.")
+          .register();
+}
@@ -8,11 +8,14 @@ package marquez.service;
 import static java.util.stream.Collectors.groupingBy;
 import static java.util.stream.Collectors.toList;
 
-import com.google.common.base.Functions;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSortedSet;
-import com.google.common.collect.Maps;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
@@ -23,8 +26,10 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import javax.annotation.Nullable;
 import javax.validation.constraints.NotNull;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
@@ -32,50 +37,304 @@ import marquez.common.models.DatasetId;
 import marquez.common.models.JobId;
 import marquez.common.models.RunId;
 import marquez.db.JobDao;
+import marquez.db.JobVersionDao.IoType;
 import marquez.db.LineageDao;
+import marquez.db.LineageDao.AdjacentJobRow;
 import marquez.db.LineageDao.DatasetSummary;
 import marquez.db.LineageDao.JobSummary;
 import marquez.db.LineageDao.RunSummary;
+import marquez.db.LineageDao.UpstreamRunRow;
 import marquez.db.models.JobRow;
 import marquez.service.DelegatingDaos.DelegatingLineageDao;
+import marquez.service.LineageGraph.JobEdges;
 import marquez.service.LineageService.UpstreamRunLineage;
 import marquez.service.models.DatasetData;
-import marquez.service.models.Edge;
-import marquez.service.models.Graph;
 import marquez.service.models.JobData;
 import marquez.service.models.Lineage;
+import marquez.service.models.LineageBudget;
+import marquez.service.models.LineageCursor;
+import marquez.service.models.LineageDirection;
+import marquez.service.models.LineagePage;
 import marquez.service.models.Node;
 import marquez.service.models.NodeId;
-import marquez.service.models.NodeType;
 import marquez.service.models.Run;
+import marquez.service.models.StreamingLineage;
 
 @Slf4j
 public class LineageService extends DelegatingLineageDao {
 
-  public record UpstreamRunLineage(List<UpstreamRun> runs) {}
+  public record UpstreamRunLineage(
+      List<UpstreamRun> runs,
+      @Nullable @JsonInclude(JsonInclude.Include.NON_NULL) List<RunId> unexpandedRunIds) {}
 
   public record UpstreamRun(JobSummary job, RunSummary run, List<DatasetSummary> inputs) {}
 
   private final JobDao jobDao;
+  @Nullable private final LineageGraphIndex lineageGraphIndex;
+  private final LineageCache lineageCache;
 
   public LineageService(LineageDao delegate, JobDao jobDao) {
+    this(delegate, jobDao, null, LineageCache.DISABLED);
+  }
+
+  public LineageService(
+      LineageDao delegate,
+      JobDao jobDao,
+      @Nullable LineageGraphIndex lineageGraphIndex,
+      @NonNull LineageCache lineageCache) {
     super(delegate);
     this.jobDao = jobDao;
+    this.lineageGraphIndex = lineageGraphIndex;
+    this.lineageCache = lineageCache;
   }
 
   // TODO make input parameters easily extendable if adding more options like 'withJobFacets'
   public Lineage lineage(NodeId nodeId, int depth, boolean withRunFacets) {
-    log.debug("Attempting to get lineage for node '{}' with depth '{}'", nodeId.getValue(), depth);
-    Optional<UUID> optionalUUID = getJobUuid(nodeId);
-    if (optionalUUID.isEmpty()) {
+    return lineage(nodeId, depth, LineageDirection.BOTH, withRunFacets);
+  }
+
+  public Lineage lineage(
+      NodeId nodeId, int depth, @NonNull LineageDirection direction, boolean withRunFacets) {
+    return lineage(nodeId, depth, direction, LineageBudget.UNLIMITED, withRunFacets);
+  }
+
+  /**
+   * Returns the lineage of the provided node up to {@code depth} hops in the provided {@code
+   * direction}, within the provided {@code budget}. Upstream lineage of a dataset starts from the
+   * jobs writing it, and downstream lineage from the jobs reading it.
+   */
+  public Lineage lineage(
+      NodeId nodeId,
+      int depth,
+      @NonNull LineageDirection direction,
+      @NonNull LineageBudget budget,
+      boolean withRunFacets) {
+    return lineageCache.lineage(
+        new LineageCache.Key(
+            LineageCache.JOB_LINEAGE, nodeId, depth, direction, budget, withRunFacets),
+        () -> loadLineage(nodeId, depth, direction, budget, withRunFacets).toLineage());
+  }
+
+  /**
+   * Returns the lineage of the provided node as {@link #lineage(NodeId, int, LineageDirection,
+   * LineageBudget, boolean)} does, with its nodes built only as the lineage is serialized. Unless
+   * the lineage is cached, see {@link LineageCache}, the nodes of large graphs are thus never all
+   * held on the heap at once.
+   */
+  public StreamingLineage streamLineage(
+      NodeId nodeId,
+      int depth,
+      @NonNull LineageDirection direction,
+      @NonNull LineageBudget budget,
+      boolean withRunFacets) {
+    if (lineageCache.isEnabled()) {
+      return StreamingLineage.of(lineage(nodeId, depth, direction, budget, withRunFacets));
+    }
+    return loadLineage(nodeId, depth, direction, budget, withRunFacets);
+  }
+
+  /**
+   * Returns the lineage of the provided node up to {@code depth} hops in the provided {@code
+   * direction} as it was at {@code asOf}: the jobs connected through the datasets of their versions
+   * current then, each with its latest run created by then. A dataset starts from the jobs reading
+   * or writing it at {@code asOf}.
+   */
+  public Lineage lineageAsOf(
+      NodeId nodeId, int depth, @NonNull LineageDirection direction, @NonNull Instant asOf) {
+    log.debug(
+        "Attempting to get {} lineage for node '{}' with depth '{}' as of '{}'",
+        direction,
+        nodeId.getValue(),
+        depth,
+        asOf);
+    final Set<UUID> jobs = getJobUuidsAsOf(nodeId, direction, asOf);
+    final Set<JobData> jobData =
+        jobs.isEmpty() ? Set.of() : getLineageAsOf(jobs, depth, direction, asOf);
+    if (jobData.isEmpty()) {
+      log.warn(
+          "Failed to get lineage of node '{}' as of '{}', returning orphan graph...",
+          nodeId.getValue(),
+          asOf);
+      return toLineageWithOrphanDataset(nodeId.asDatasetId());
+    }
+    setLatestRuns(
+        jobData,
+        getRunsAsOf(jobData.stream().map(JobData::getUuid).collect(Collectors.toSet()), asOf));
+    final Set<UUID> datasetIds =
+        jobData.stream()
+            .flatMap(jd -> Stream.concat(jd.getInputUuids().stream(), jd.getOutputUuids().stream()))
+            .collect(Collectors.toSet());
+    return toLineage(jobData, datasetIds.isEmpty() ? Set.of() : getDatasetData(datasetIds));
+  }
+
+  /**
+   * Returns the union of the lineage of each of the provided nodes up to {@code depth} hops in the
+   * provided {@code direction}, traversed at once from the jobs of all of the nodes.
+   */
+  public StreamingLineage lineage(
+      @NonNull Collection<NodeId> nodeIds,
+      int depth,
+      @NonNull LineageDirection direction,
+      boolean withRunFacets) {
+    final UnionLineage union = loadUnionLineage(nodeIds, depth, direction, withRunFacets);
+    final Set<DatasetData> datasets = new HashSet<>(union.datasets());
+    for (final Map.Entry<NodeId, Set<UUID>> seeds : union.seeds().entrySet()) {
+      if (seeds.getValue().isEmpty() && seeds.getKey().isDatasetType()) {
+        final DatasetId datasetId = seeds.getKey().asDatasetId();
+        datasets.add(
+            getDatasetData(datasetId.getNamespace().getValue(), datasetId.getName().getValue()));
+      }
+    }
+    return StreamingLineage.of(union.jobData(), datasets, null);
+  }
+
+  /**
+   * Returns the lineage of each of the provided nodes up to {@code depth} hops in the provided
+   * {@code direction}. The lineage of all of the nodes is traversed at once, then the lineage of
+   * each node is split from it in memory.
+   */
+  public Map<NodeId, Lineage> lineageByNode(
+      @NonNull Collection<NodeId> nodeIds,
+      int depth,
+      @NonNull LineageDirection direction,
+      boolean withRunFacets) {
+    final UnionLineage union = loadUnionLineage(nodeIds, depth, direction, withRunFacets);
+    final Map<UUID, JobData> jobsByUuid =
+        union.jobData().stream().collect(Collectors.toMap(JobData::getUuid, jd -> jd));
+    final Map<UUID, DatasetData> datasetsByUuid =
+        union.datasets().stream().collect(Collectors.toMap(DatasetData::getUuid, ds -> ds));
+    final LineageTraversal.Adjacency adjacency = adjacencyAmong(union.jobData(), direction);
+    final Map<NodeId, Lineage> lineages = new LinkedHashMap<>();
+    for (final Map.Entry<NodeId, Set<UUID>> seeds : union.seeds().entrySet()) {
+      final Set<JobData> jobData =
+          LineageTraversal.traverse(seeds.getValue(), depth, LineageBudget.UNLIMITED, adjacency)
+              .jobUuids()
+              .stream()
+              .map(jobsByUuid::get)
+              .filter(Objects::nonNull)
+              .collect(Collectors.toSet());
+      if (jobData.isEmpty()) {
+        lineages.put(seeds.getKey(), toLineageWithOrphanDataset(seeds.getKey().asDatasetId()));
+        continue;
+      }
+      final Set<DatasetData> datasets =
+          jobData.stream()
+              .flatMap(
+                  jd -> Stream.concat(jd.getInputUuids().stream(), jd.getOutputUuids().stream()))
+              .map(datasetsByUuid::get)
+              .filter(Objects::nonNull)
+              .collect(Collectors.toSet());
+      lineages.put(seeds.getKey(), toLineage(jobData, datasets));
+    }
+    return lineages;
+  }
+
+  /**
+   * The jobs the lineage of each node is traversed from, and the jobs and datasets of the union of
+   * the lineage of all of the nodes.
+   */
+  private record UnionLineage(
+      Map<NodeId, Set<UUID>> seeds, Set<JobData> jobData, Set<DatasetData> datasets) {}
+
+  private UnionLineage loadUnionLineage(
+      Collection<NodeId> nodeIds, int depth, LineageDirection direction, boolean withRunFacets) {
+    final Map<NodeId, Set<UUID>> seeds = getJobUuids(nodeIds, direction);
+    final Set<UUID> jobs = seeds.values().stream().flatMap(Set::stream).collect(Collectors.toSet());
+    log.debug("Attempting to get {} lineage for jobs '{}' of nodes {}", direction, jobs, nodeIds);
+    final Set<JobData> jobData =
+        jobs.isEmpty()
+            ? Set.of()
+            : getJobLineage(jobs, depth, direction, LineageBudget.UNLIMITED).jobData();
+    // An empty set cannot be passed to LineageDao.getCurrentRuns().
+    if (jobData.isEmpty()) {
+      return new UnionLineage(seeds, Set.of(), Set.of());
+    }
+    setLatestRuns(jobData, withRunFacets);
+    final Set<UUID> datasetIds =
+        jobData.stream()
+            .flatMap(jd -> Stream.concat(jd.getInputUuids().stream(), jd.getOutputUuids().stream()))
+            .collect(Collectors.toSet());
+    return new UnionLineage(
+        seeds, jobData, datasetIds.isEmpty() ? Set.of() : getDatasetData(datasetIds));
+  }
+
+  /**
+   * Returns the adjacency of the provided jobs among themselves in the provided {@code direction},
+   * as read from the database by {@link LineageDao#getAdjacentJobs(Collection, LineageDirection,
+   * int)}.
+   */
+  private static LineageTraversal.Adjacency adjacencyAmong(
+      Set<JobData> jobData, LineageDirection direction) {
+    final Map<UUID, JobData> jobsByUuid = new HashMap<>();
+    final Map<UUID, List<UUID>> readers = new HashMap<>();
+    final Map<UUID, List<UUID>> writers = new HashMap<>();
+    for (final JobData data : jobData) {
+      jobsByUuid.put(data.getUuid(), data);
+      for (final UUID input : data.getInputUuids()) {
+        readers.computeIfAbsent(input, k -> new ArrayList<>()).add(data.getUuid());
+      }
+      for (final UUID output : data.getOutputUuids()) {
+        writers.computeIfAbsent(output, k -> new ArrayList<>()).add(data.getUuid());
+      }
+    }
+    return (jobUuids, limit) -> {
+      final Map<UUID, List<UUID>> adjacent = new HashMap<>();
+      for (final UUID job : jobUuids) {
+        final JobData data = jobsByUuid.get(job);
+        if (data == null) {
+          continue;
+        }
+        final Set<UUID> jobs = new LinkedHashSet<>();
+        for (final UUID input : data.getInputUuids()) {
+          if (direction != LineageDirection.DOWNSTREAM) {
+            jobs.addAll(writers.getOrDefault(input, List.of()));
+          }
+          if (direction == LineageDirection.BOTH) {
+            jobs.addAll(readers.getOrDefault(input, List.of()));
+          }
+        }
+        for (final UUID output : data.getOutputUuids()) {
+          if (direction != LineageDirection.UPSTREAM) {
+            jobs.addAll(readers.getOrDefault(output, List.of()));
+          }
+          if (direction == LineageDirection.BOTH) {
+            jobs.addAll(writers.getOrDefault(output, List.of()));
+          }
+        }
+        jobs.remove(job);
+        adjacent.put(job, jobs.stream().limit(limit).toList());
+      }
+      return adjacent;
+    };
+  }
+
+  private StreamingLineage loadLineage(
+      NodeId nodeId,
+      int depth,
+      LineageDirection direction,
+      LineageBudget budget,
+      boolean withRunFacets) {
+    log.debug(
+        "Attempting to get {} lineage for node '{}' with depth '{}'",
+        direction,
+        nodeId.getValue(),
+        depth);
+    Set<UUID> jobs = getJobUuids(nodeId, direction);
+    if (jobs.isEmpty()) {
       log.warn(
           "Failed to get job associated with node '{}', returning orphan graph...",
           nodeId.getValue());
-      return toLineageWithOrphanDataset(nodeId.asDatasetId());
+      return StreamingLineage.of(toLineageWithOrphanDataset(nodeId.asDatasetId()));
     }
-    UUID job = optionalUUID.get();
-    log.debug("Attempting to get lineage for job '{}'", job);
-    Set<JobData> jobData = getLineage(Collections.singleton(job), depth);
+    // The jobs of a dataset are adjacent to it, so are limited by the budget as well.
+    final int maxJobs = Math.min(budget.maxNodes(), budget.maxFanOut());
+    final boolean startTruncated = jobs.size() > maxJobs;
+    if (startTruncated) {
+      jobs = jobs.stream().sorted().limit(maxJobs).collect(Collectors.toSet());
+    }
+    log.debug("Attempting to get lineage for jobs '{}'", jobs);
+    final JobLineage jobLineage = getJobLineage(jobs, depth, direction, budget);
+    Set<JobData> jobData = jobLineage.jobData();
 
     // Ensure job data is not empty, an empty set cannot be passed to LineageDao.getCurrentRuns() or
     // LineageDao.getCurrentRunsWithFacets().
@@ -83,29 +342,13 @@ public class LineageService extends DelegatingLineageDao {
       // Log warning, then return an orphan lineage graph; a graph should contain at most one
       // job->dataset relationship.
       log.warn(
-          "Failed to get lineage for job '{}' associated with node '{}', returning orphan graph...",
-          job,
+          "Failed to get lineage for jobs '{}' of node '{}', returning orphan graph...",
+          jobs,
           nodeId.getValue());
-      return toLineageWithOrphanDataset(nodeId.asDatasetId());
+      return StreamingLineage.of(toLineageWithOrphanDataset(nodeId.asDatasetId()));
     }
 
-    List<Run> runs =
-        withRunFacets
-            ? getCurrentRunsWithFacets(
-                jobData.stream().map(JobData::getUuid).collect(Collectors.toSet()))
-            : getCurrentRuns(jobData.stream().map(JobData::getUuid).collect(Collectors.toSet()));
-
-    for (JobData j : jobData) {
-      if (j.getLatestRun().isEmpty()) {
-        for (Run run : runs) {
-          if (j.getName().getValue().equalsIgnoreCase(run.getJobName())
-              && j.getNamespace().getValue().equalsIgnoreCase(run.getNamespaceName())) {
-            j.setLatestRun(run);
-            break;
-          }
-        }
-      }
-    }
+    setLatestRuns(jobData, withRunFacets);
     Set<UUID> datasetIds =
         jobData.stream()
             .flatMap(jd -> Stream.concat(jd.getInputUuids().stream(), jd.getOutputUuids().stream()))
@@ -125,136 +368,289 @@ public class LineageService extends DelegatingLineageDao {
             "Found jobs {} which no longer share lineage with dataset '{}' - discarding",
             jobData.stream().map(JobData::getId).toList(),
             nodeId.getValue());
-        return toLineageWithOrphanDataset(nodeId.asDatasetId());
+        return StreamingLineage.of(toLineageWithOrphanDataset(nodeId.asDatasetId()));
       }
     }
-    return toLineage(jobData, datasets);
+    if (!startTruncated && jobLineage.unexpandedJobUuids().isEmpty()) {
+      return StreamingLineage.of(jobData, datasets, null);
+    }
+    final ImmutableSortedSet.Builder<NodeId> unexpanded = ImmutableSortedSet.naturalOrder();
+    if (startTruncated) {
+      unexpanded.add(nodeId);
+    }
+    for (final JobData data : jobData) {
+      if (jobLineage.unexpandedJobUuids().contains(data.getUuid())) {
+        unexpanded.add(NodeId.of(new JobId(data.getNamespace(), data.getName())));
+      }
+    }
+    return StreamingLineage.of(jobData, datasets, unexpanded.build());
   }
 
-  private Lineage toLineageWithOrphanDataset(@NonNull DatasetId datasetId) {
-    final DatasetData datasetData =
-        getDatasetData(datasetId.getNamespace().getValue(), datasetId.getName().getValue());
-    return new Lineage(
-        ImmutableSortedSet.of(
-            Node.dataset().data(datasetData).id(NodeId.of(datasetData.getId())).build()));
+  /**
+   * Returns a page of the lineage of the provided node up to {@code depth} hops in the provided
+   * {@code direction}: up to {@code limit} of the jobs first reached at the hop of the {@code
+   * cursor}, ordered by UUID after the last job of the cursor. Only the jobs of the traversal are
+   * held in memory, and only the jobs of the page are read with their datasets and latest runs, so
+   * that clients can expand large graphs page by page, see {@link LineagePage}.
+   *
+   * <p>No state is kept between calls: the layers up to the hop of the cursor are traversed again
+   * for each page, so that a page reflects the lineage at the time it is read.
+   */
+  public LineagePage lineagePage(
+      NodeId nodeId,
+      int depth,
+      @NonNull LineageDirection direction,
+      @NonNull LineageCursor cursor,
+      int limit) {
+    final Set<UUID> jobs = getJobUuids(nodeId, direction);
+    if (jobs.isEmpty()) {
+      return new LineagePage(
+          toLineageWithOrphanDataset(nodeId.asDatasetId()).getGraph(), cursor.depth(), null);
+    }
+    final LineageGraph graph = lineageGraphIndex == null ? null : lineageGraphIndex.snapshot();
+    final List<List<UUID>> layers =
+        LineageTraversal.layers(
+            jobs, Math.min(cursor.depth() + 1, depth), adjacency(graph, direction));
+    final List<UUID> layer =
+        cursor.depth() < layers.size() ? layers.get(cursor.depth()) : List.of();
+    final int start = startOf(layer, cursor.lastJobUuid());
+    final int end = (int) Math.min((long) start + limit, layer.size());
+    if (start >= end) {
+      return new LineagePage(ImmutableSortedSet.of(), cursor.depth(), null);
+    }
+    final LineageCursor next;
+    if (end < layer.size()) {
+      next = new LineageCursor(cursor.depth(), layer.get(end - 1));
+    } else if (cursor.depth() + 1 < layers.size()) {
+      next = new LineageCursor(cursor.depth() + 1, null);
+    } else {
+      next = null;
+    }
+
+    final Set<JobData> jobData = hydrate(graph, layer.subList(start, end));
+    if (!jobData.isEmpty()) {
+      setLatestRuns(jobData, false);
+    }
+    final Set<UUID> datasetIds =
+        jobData.stream()
+            .flatMap(jd -> Stream.concat(jd.getInputUuids().stream(), jd.getOutputUuids().stream()))
+            .collect(Collectors.toSet());
+    final Set<DatasetData> datasets =
+        datasetIds.isEmpty() ? Set.of() : getDatasetData(datasetIds);
+    return new LineagePage(
+        toLineage(jobData, datasets).getGraph(),
+        cursor.depth(),
+        next == null ? null : next.encode());
   }
 
-  private Lineage toLineage(Set<JobData> jobData, Set<DatasetData> datasets) {
-    Set<Node> nodes = new LinkedHashSet<>();
-    // build mapping for later
-    Map<UUID, DatasetData> datasetById =
-        datasets.stream().collect(Collectors.toMap(DatasetData::getUuid, Functions.identity()));
-
-    Map<DatasetData, Set<UUID>> dsInputToJob = new HashMap<>();
-    Map<DatasetData, Set<UUID>> dsOutputToJob = new HashMap<>();
-    // build jobs
-    Map<UUID, JobData> jobDataMap = Maps.uniqueIndex(jobData, JobData::getUuid);
-    for (JobData data : jobData) {
-      if (data == null) {
-        log.error("Could not find job node for {}", jobData);
-        continue;
+  /** Returns the index of the first job of the sorted {@code layer} after {@code lastJobUuid}. */
+  private static int startOf(List<UUID> layer, @Nullable UUID lastJobUuid) {
+    if (lastJobUuid == null) {
+      return 0;
+    }
+    final int index = Collections.binarySearch(layer, lastJobUuid);
+    return index >= 0 ? index + 1 : -index - 1;
+  }
+
+  /** Sets the latest run of each of the provided jobs without one. */
+  private void setLatestRuns(Set<JobData> jobData, boolean withRunFacets) {
+    setLatestRuns(
+        jobData,
+        withRunFacets
+            ? getCurrentRunsWithFacets(
+                jobData.stream().map(JobData::getUuid).collect(Collectors.toSet()))
+            : getCurrentRuns(jobData.stream().map(JobData::getUuid).collect(Collectors.toSet())));
+  }
+
+  /** Sets the latest run of each of the provided jobs without one to its run among {@code runs}. */
+  private static void setLatestRuns(Set<JobData> jobData, List<Run> runs) {
+    for (JobData j : jobData) {
+      if (j.getLatestRun().isEmpty()) {
+        for (Run run : runs) {
+          if (j.getName().getValue().equalsIgnoreCase(run.getJobName())
+              && j.getNamespace().getValue().equalsIgnoreCase(run.getNamespaceName())) {
+            j.setLatestRun(run);
+            break;
+          }
+        }
       }
-      Set<DatasetData> inputs =
-          data.getInputUuids().stream()
-              .map(datasetById::get)
-              .filter(Objects::nonNull)
-              .collect(Collectors.toSet());
-      Set<DatasetData> outputs =
-          data.getOutputUuids().stream()
-              .map(datasetById::get)
-              .filter(Objects::nonNull)
-              .collect(Collectors.toSet());
-      data.setInputs(buildDatasetId(inputs));
-      data.setOutputs(buildDatasetId(outputs));
-
-      inputs.forEach(
-          ds -> dsInputToJob.computeIfAbsent(ds, e -> new HashSet<>()).add(data.getUuid()));
-      outputs.forEach(
-          ds -> dsOutputToJob.computeIfAbsent(ds, e -> new HashSet<>()).add(data.getUuid()));
-
-      NodeId origin = NodeId.of(new JobId(data.getNamespace(), data.getName()));
-      Node node =
-          new Node(
-              origin,
-              NodeType.JOB,
-              data,
-              buildDatasetEdge(inputs, origin),
-              buildDatasetEdge(origin, outputs));
-      nodes.add(node);
-    }
-
-    for (DatasetData dataset : datasets) {
-      NodeId origin = NodeId.of(new DatasetId(dataset.getNamespace(), dataset.getName()));
-      Node node =
-          new Node(
-              origin,
-              NodeType.DATASET,
-              dataset,
-              buildJobEdge(dsOutputToJob.get(dataset), origin, jobDataMap),
-              buildJobEdge(origin, dsInputToJob.get(dataset), jobDataMap));
-      nodes.add(node);
-    }
-
-    return new Lineage(Lineage.withSortedNodes(Graph.directed().nodes(nodes).build()));
+    }
   }
 
-  private ImmutableSet<DatasetId> buildDatasetId(Set<DatasetData> datasetData) {
-    if (datasetData == null) {
-      return ImmutableSet.of();
+  /**
+   * Returns the jobs to traverse the lineage of the provided node from: the job itself, or for a
+   * dataset, a job reading or writing it, or the jobs writing or reading it in upstream or
+   * downstream lineage respectively.
+   */
+  private Set<UUID> getJobUuids(NodeId nodeId, LineageDirection direction) {
+    if (!nodeId.isDatasetType() || direction == LineageDirection.BOTH) {
+      return getJobUuid(nodeId).map(Set::of).orElse(Set.of());
     }
-    return datasetData.stream()
-        .map(ds -> new DatasetId(ds.getNamespace(), ds.getName()))
-        .collect(ImmutableSet.toImmutableSet());
+    final DatasetId datasetId = nodeId.asDatasetId();
+    return getJobsOfDataset(
+        datasetId.getName().getValue(),
+        datasetId.getNamespace().getValue(),
+        direction == LineageDirection.UPSTREAM ? IoType.OUTPUT : IoType.INPUT);
   }
 
-  private ImmutableSet<Edge> buildJobEdge(
-      NodeId origin, Set<UUID> uuids, Map<UUID, JobData> jobDataMap) {
-    if (uuids == null) {
-      return ImmutableSet.of();
+  /**
+   * Returns the jobs to traverse the lineage of each of the provided nodes from, read with a single
+   * query, see {@link #getJobUuids(NodeId, LineageDirection)}.
+   */
+  private Map<NodeId, Set<UUID>> getJobUuids(
+      Collection<NodeId> nodeIds, LineageDirection direction) {
+    for (final NodeId nodeId : nodeIds) {
+      if (!nodeId.isDatasetType() && !nodeId.isJobType()) {
+        throw new NodeIdNotFoundException(
+            String.format("Node '%s' must be of type dataset or job!", nodeId.getValue()));
+      }
     }
-    return uuids.stream()
-        .map(jobDataMap::get)
-        .filter(Objects::nonNull)
-        .map(j -> new Edge(origin, buildEdge(j)))
-        .collect(ImmutableSet.toImmutableSet());
+    final NodeKeys keys = NodeKeys.of(nodeIds);
+    if (keys.nodeIds().isEmpty()) {
+      return Map.of();
+    }
+    final Map<String, Set<UUID>> jobsByNode = new HashMap<>();
+    getSeedJobs(
+            keys.nodeIds(),
+            keys.namespaceNames(),
+            keys.names(),
+            switch (direction) {
+              case UPSTREAM -> IoType.OUTPUT;
+              case DOWNSTREAM -> IoType.INPUT;
+              case BOTH -> null;
+            })
+        .forEach(
+            row ->
+                jobsByNode
+                    .computeIfAbsent(row.nodeId(), nodeId -> new HashSet<>())
+                    .add(row.jobUuid()));
+    final Map<NodeId, Set<UUID>> seeds = new LinkedHashMap<>();
+    for (final NodeId nodeId : nodeIds) {
+      seeds.put(nodeId, jobsByNode.getOrDefault(nodeId.getValue(), Set.of()));
+    }
+    return seeds;
   }
 
-  private ImmutableSet<Edge> buildJobEdge(
-      Set<UUID> uuids, NodeId origin, Map<UUID, JobData> jobDataMap) {
-    if (uuids == null) {
-      return ImmutableSet.of();
+  /** Returns those of the provided dataset and job nodes that exist, read with a single query. */
+  public Set<NodeId> existingNodes(@NonNull Collection<NodeId> nodeIds) {
+    final NodeKeys keys = NodeKeys.of(nodeIds);
+    if (keys.nodeIds().isEmpty()) {
+      return Set.of();
     }
-    return uuids.stream()
-        .map(jobDataMap::get)
-        .filter(Objects::nonNull)
-        .map(j -> new Edge(buildEdge(j), origin))
-        .collect(ImmutableSet.toImmutableSet());
+    final Set<String> existing =
+        getExistingNodes(keys.nodeIds(), keys.namespaceNames(), keys.names());
+    return nodeIds.stream()
+        .filter(nodeId -> existing.contains(nodeId.getValue()))
+        .collect(Collectors.toSet());
   }
 
-  private ImmutableSet<Edge> buildDatasetEdge(NodeId nodeId, Set<DatasetData> datasetData) {
-    if (datasetData == null) {
-      return ImmutableSet.of();
+  /** The value, namespace and name of each of a collection of dataset and job nodes, in order. */
+  private record NodeKeys(List<String> nodeIds, List<String> namespaceNames, List<String> names) {
+    static NodeKeys of(Collection<NodeId> nodeIds) {
+      final NodeKeys keys = new NodeKeys(new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+      for (final NodeId nodeId : nodeIds) {
+        if (nodeId.isDatasetType()) {
+          final DatasetId datasetId = nodeId.asDatasetId();
+          keys.add(nodeId, datasetId.getNamespace().getValue(), datasetId.getName().getValue());
+        } else if (nodeId.isJobType()) {
+          final JobId jobId = nodeId.asJobId();
+          keys.add(nodeId, jobId.getNamespace().getValue(), jobId.getName().getValue());
+        }
+      }
+      return keys;
+    }
+
+    private void add(NodeId nodeId, String namespaceName, String name) {
+      nodeIds.add(nodeId.getValue());
+      namespaceNames.add(namespaceName);
+      names.add(name);
     }
-    return datasetData.stream()
-        .map(ds -> new Edge(nodeId, buildEdge(ds)))
-        .collect(ImmutableSet.toImmutableSet());
   }
 
-  private ImmutableSet<Edge> buildDatasetEdge(Set<DatasetData> datasetData, NodeId nodeId) {
-    if (datasetData == null) {
-      return ImmutableSet.of();
+  /**
+   * Returns the jobs to traverse the lineage of the provided node from as of {@code asOf}: the job
+   * itself, or for a dataset, the jobs reading or writing it then, see {@link
+   * #getJobUuids(NodeId, LineageDirection)}.
+   */
+  private Set<UUID> getJobUuidsAsOf(NodeId nodeId, LineageDirection direction, Instant asOf) {
+    if (!nodeId.isDatasetType()) {
+      return getJobUuid(nodeId).map(Set::of).orElse(Set.of());
     }
-    return datasetData.stream()
-        .map(ds -> new Edge(buildEdge(ds), nodeId))
-        .collect(ImmutableSet.toImmutableSet());
+    final DatasetId datasetId = nodeId.asDatasetId();
+    return getJobsOfDatasetAsOf(
+        datasetId.getName().getValue(),
+        datasetId.getNamespace().getValue(),
+        switch (direction) {
+          case UPSTREAM -> Set.of(IoType.OUTPUT);
+          case DOWNSTREAM -> Set.of(IoType.INPUT);
+          case BOTH -> Set.of(IoType.INPUT, IoType.OUTPUT);
+        },
+        asOf);
   }
 
-  private NodeId buildEdge(DatasetData ds) {
-    return NodeId.of(new DatasetId(ds.getNamespace(), ds.getName()));
+  /** The jobs of a lineage, and the jobs not fully expanded within a {@link LineageBudget}. */
+  private record JobLineage(Set<JobData> jobData, Set<UUID> unexpandedJobUuids) {}
+
+  /**
+   * Returns the jobs within {@code depth} hops of the provided jobs, traversed in the in-memory
+   * {@link LineageGraphIndex} if any, then only hydrated from the database. Within a limited
+   * {@code budget}, the jobs are traversed level by level, see {@link LineageTraversal}.
+   */
+  private JobLineage getJobLineage(
+      Set<UUID> jobs, int depth, LineageDirection direction, LineageBudget budget) {
+    if (budget.isUnlimited()) {
+      return new JobLineage(
+          lineageGraphIndex == null
+              ? getLineage(jobs, depth, direction)
+              : withEdges(lineageGraphIndex.lineage(jobs, depth, direction)),
+          Set.of());
+    }
+    final LineageGraph graph = lineageGraphIndex == null ? null : lineageGraphIndex.snapshot();
+    final LineageTraversal.Result traversal =
+        LineageTraversal.traverse(jobs, depth, budget, adjacency(graph, direction));
+    return new JobLineage(hydrate(graph, traversal.jobUuids()), traversal.unexpandedJobUuids());
   }
 
-  private NodeId buildEdge(JobData e) {
-    return NodeId.of(new JobId(e.getNamespace(), e.getName()));
+  /** Returns the adjacent jobs in the provided in-memory {@code graph} if any, or the database. */
+  private LineageTraversal.Adjacency adjacency(
+      @Nullable LineageGraph graph, LineageDirection direction) {
+    if (graph != null) {
+      return (jobUuids, limit) -> graph.adjacentJobs(jobUuids, direction, limit);
+    }
+    return (jobUuids, limit) ->
+        getAdjacentJobs(jobUuids, direction, limit).stream()
+            .collect(
+                groupingBy(
+                    AdjacentJobRow::jobUuid,
+                    Collectors.mapping(AdjacentJobRow::adjacentJobUuid, toList())));
+  }
+
+  /** Returns the provided jobs with their edges in the in-memory {@code graph} if any. */
+  private Set<JobData> hydrate(@Nullable LineageGraph graph, Collection<UUID> jobs) {
+    return graph == null ? getJobDataWithEdges(jobs) : withEdges(graph.edgesOf(jobs));
+  }
+
+  /** Returns the jobs of the provided {@code edges}, with their input and output datasets. */
+  private Set<JobData> withEdges(Map<UUID, JobEdges> edges) {
+    final Set<JobData> jobData = getJobData(edges.keySet());
+    for (final JobData data : jobData) {
+      final JobEdges jobEdges = edges.get(data.getUuid());
+      data.setInputUuids(ImmutableSet.copyOf(jobEdges.inputs()));
+      data.setOutputUuids(ImmutableSet.copyOf(jobEdges.outputs()));
+    }
+    return jobData;
+  }
+
+  private Lineage toLineageWithOrphanDataset(@NonNull DatasetId datasetId) {
+    final DatasetData datasetData =
+        getDatasetData(datasetId.getNamespace().getValue(), datasetId.getName().getValue());
+    return new Lineage(
+        ImmutableSortedSet.of(
+            Node.dataset().data(datasetData).id(NodeId.of(datasetData.getId())).build()));
+  }
+
+  private Lineage toLineage(Set<JobData> jobData, Set<DatasetData> datasets) {
+    return StreamingLineage.of(jobData, datasets, null).toLineage();
   }
 
   public Optional<UUID> getJobUuid(NodeId nodeId) {
@@ -282,22 +678,62 @@ public class LineageService extends DelegatingLineageDao {
    * @return the upstream lineage for that run up to `detph` levels
    */
   public UpstreamRunLineage upstream(@NotNull RunId runId, int depth) {
-    List<UpstreamRunRow> upstreamRuns = getUpstreamRuns(runId.getValue(), depth);
-    Map<RunId, List<UpstreamRunRow>> collect =
-        upstreamRuns.stream().collect(groupingBy(r -> r.run().id(), LinkedHashMap::new, toList()));
-    List<UpstreamRun> runs =
-        collect.entrySet().stream()
-            .map(
-                row -> {
-                  UpstreamRunRow upstreamRunRow = row.getValue().get(0);
-                  List<DatasetSummary> inputs =
-                      row.getValue().stream()
-                          .map(UpstreamRunRow::input)
-                          .filter(i -> i != null)
-                          .collect(toList());
-                  return new UpstreamRun(upstreamRunRow.job(), upstreamRunRow.run(), inputs);
-                })
-            .collect(toList());
-    return new UpstreamRunLineage(runs);
+    return upstream(runId, depth, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Returns the upstream lineage for a given run up to {@code depth} levels, with at most {@code
+   * maxRuns} runs; see {@link #upstream(RunId, int, int, Consumer)}.
+   */
+  public UpstreamRunLineage upstream(@NotNull RunId runId, int depth, int maxRuns) {
+    final List<UpstreamRun> runs = new ArrayList<>();
+    final List<RunId> unexpanded = upstream(runId, depth, maxRuns, runs::add);
+    return new UpstreamRunLineage(runs, unexpanded.isEmpty() ? null : unexpanded);
+  }
+
+  /**
+   * Traverses the upstream lineage of a given run breadth-first, reading the inputs of all of the
+   * runs of a level at once, and passes each run with its inputs to {@code sink} as soon as its
+   * level is read, ordered by depth then job name. Each run is visited once, however many paths
+   * lead to it. Once {@code maxRuns} runs are visited, the runs that produced the inputs of the
+   * remaining runs are no longer visited.
+   *
+   * @return the runs whose upstream runs were not all visited within {@code maxRuns}
+   */
+  public List<RunId> upstream(
+      @NotNull RunId runId, int depth, int maxRuns, @NonNull Consumer<UpstreamRun> sink) {
+    final Set<UUID> visited = new HashSet<>(Set.of(runId.getValue()));
+    final List<RunId> unexpanded = new ArrayList<>();
+    List<UUID> level = List.of(runId.getValue());
+    for (int hop = 0; !level.isEmpty(); hop++) {
+      final Map<RunId, List<UpstreamRunRow>> rowsByRun =
+          getRunsWithInputs(level).stream()
+              .sorted(Comparator.comparing(row -> row.job().name().getValue()))
+              .collect(groupingBy(row -> row.run().id(), LinkedHashMap::new, toList()));
+      final List<UUID> next = new ArrayList<>();
+      for (final List<UpstreamRunRow> rows : rowsByRun.values()) {
+        final UpstreamRunRow row = rows.get(0);
+        final List<DatasetSummary> inputs =
+            rows.stream().map(UpstreamRunRow::input).filter(Objects::nonNull).distinct().toList();
+        sink.accept(new UpstreamRun(row.job(), row.run(), inputs));
+        if (hop >= depth) {
+          continue;
+        }
+        for (final DatasetSummary input : inputs) {
+          final UUID producer = input.producedByRunId().getValue();
+          if (visited.contains(producer)) {
+            continue;
+          }
+          if (visited.size() >= maxRuns) {
+            unexpanded.add(row.run().id());
+            break;
+          }
+          visited.add(producer);
+          next.add(producer);
+        }
+      }
+      level = next;
+    }
+    return unexpanded;
   }
 }
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2018-2023 contributors to the Marquez project
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package marquez.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import lombok.NonNull;
+import marquez.service.models.LineageBudget;
+
+/**
+ * A breadth-first traversal of jobs within a {@link LineageBudget}. Each level of the traversal
+ * reads the jobs adjacent to the jobs of the level at once, up to one more than {@code maxFanOut}
+ * per job; a job with more adjacent jobs than {@code maxFanOut} is expanded to the first {@code
+ * maxFanOut} of them only. Once {@code maxNodes} jobs are visited, the traversal stops. Jobs not
+ * fully expanded before {@code depth} is reached are reported as unexpanded.
+ *
+ * <p>The layers of a traversal, see {@link #layers(Collection, int, Adjacency)}, are the jobs first
+ * visited at each hop, in a stable order, so that a client can page through them.
+ */
+final class LineageTraversal {
+  private LineageTraversal() {}
+
+  /** Reads the jobs adjacent to each of the provided jobs, up to {@code limit} per job. */
+  @FunctionalInterface
+  interface Adjacency {
+    Map<UUID, List<UUID>> adjacentJobs(Collection<UUID> jobUuids, int limit);
+  }
+
+  /** The jobs visited by a traversal, and the visited jobs not fully expanded. */
+  record Result(@NonNull Set<UUID> jobUuids, @NonNull Set<UUID> unexpandedJobUuids) {}
+
+  /** Traverses the jobs within {@code depth} hops of the provided jobs, which are all visited. */
+  static Result traverse(
+      @NonNull Collection<UUID> jobUuids,
+      int depth,
+      @NonNull LineageBudget budget,
+      @NonNull Adjacency adjacency) {
+    final Set<UUID> visited = new LinkedHashSet<>(jobUuids);
+    final Set<UUID> unexpanded = new LinkedHashSet<>();
+    final int limit =
+        budget.maxFanOut() == Integer.MAX_VALUE ? Integer.MAX_VALUE : budget.maxFanOut() + 1;
+    List<UUID> frontier = new ArrayList<>(visited);
+    boolean exhausted = false;
+    for (int level = 0; level < depth && !frontier.isEmpty() && !exhausted; level++) {
+      final Map<UUID, List<UUID>> adjacent = adjacency.adjacentJobs(frontier, limit);
+      final List<UUID> next = new ArrayList<>();
+      for (final UUID job : frontier) {
+        if (exhausted) {
+          unexpanded.add(job);
+          continue;
+        }
+        List<UUID> jobs = adjacent.getOrDefault(job, List.of());
+        if (jobs.size() > budget.maxFanOut()) {
+          unexpanded.add(job);
+          jobs = jobs.subList(0, budget.maxFanOut());
+        }
+        for (final UUID adjacentJob : jobs) {
+          if (visited.contains(adjacentJob)) {
+            continue;
+          }
+          if (visited.size() >= budget.maxNodes()) {
+            unexpanded.add(job);
+            exhausted = true;
+            break;
+          }
+          visited.add(adjacentJob);
+          next.add(adjacentJob);
+        }
+      }
+      if (exhausted && level + 1 < depth) {
+        unexpanded.addAll(next);
+      }
+      frontier = next;
+    }
+    return new Result(visited, unexpanded);
+  }
+
+  /**
+   * Returns the jobs first visited at each hop from the provided jobs, up to {@code depth} hops,
+   * ordered by UUID. The first layer is the provided jobs; the layers end at the first hop that
+   * visits no new job.
+   */
+  static List<List<UUID>> layers(
+      @NonNull Collection<UUID> jobUuids, int depth, @NonNull Adjacency adjacency) {
+    final Set<UUID> visited = new HashSet<>(jobUuids);
+    final List<List<UUID>> layers = new ArrayList<>();
+    List<UUID> layer = visited.stream().sorted().toList();
+    for (int level = 0; !layer.isEmpty(); level++) {
+      layers.add(layer);
+      if (level == depth) {
+        break;
+      }
+      final List<UUID> next = new ArrayList<>();
+      for (final List<UUID> jobs : adjacency.adjacentJobs(layer, Integer.MAX_VALUE).values()) {
+        for (final UUID job : jobs) {
+          if (visited.add(job)) {
+            next.add(job);
+          }
+        }
+      }
+      next.sort(null);
+      layer = next;
+    }
+    return layers;
+  }
+}
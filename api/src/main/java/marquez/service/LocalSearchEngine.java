@@ -0,0 +1,519 @@
+/*
+ * Copyright 2018-2023 contributors to the Marquez project
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package marquez.service;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.google.common.util.concurrent.AbstractScheduledService;
+import io.dropwizard.lifecycle.Managed;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.annotation.Nullable;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import marquez.api.models.SearchFilter;
+import marquez.api.models.SearchResult;
+import marquez.api.models.SearchResult.ResultType;
+import marquez.api.models.SearchSort;
+import marquez.common.Utils;
+import marquez.common.models.DatasetName;
+import marquez.common.models.JobName;
+import marquez.common.models.NamespaceName;
+import marquez.service.models.BaseEvent;
+import marquez.service.models.Dataset;
+import marquez.service.models.DatasetEvent;
+import marquez.service.models.Job;
+import marquez.service.models.JobEvent;
+import marquez.service.models.LineageEvent;
+
+/**
+ * Searches an in-process inverted index of the datasets and jobs of the events ingested, so that
+ * search does not query the database. Besides their names, datasets are matched on the names of
+ * their fields and facets, and on their documentation; jobs are matched on the SQL they run, the
+ * names of their facets, and their documentation.
+ *
+ * <p>Each word of a query matches the datasets and jobs with a term starting with it, and results
+ * match all of the words of the query. Results are ordered by {@code sort}, then by relevance:
+ * words matching the name of a dataset or job rank it above words matching its other terms.
+ *
+ * <p>The document of a dataset or job is replaced by that of each later event describing it, so
+ * that terms it no longer has stop matching; an event referring to a dataset or job without facets
+ * only updates the time of its document. Datasets and jobs created through the API are indexed as
+ * well, and removed once deleted, see {@link SearchEngine}.
+ *
+ * <p>The index is loaded from {@code indexPath} on start, saved to it every {@code
+ * snapshotIntervalSecs} when changed, and on stop. The index of events ingested before is built by
+ * the {@code search-index} command.
+ *
+ * <p>The index is local to a single Marquez instance: it only holds the events ingested, and the
+ * deletes made, by that instance. Run a single instance with the {@code LOCAL} engine; several
+ * instances would each search an index of their own.
+ */
+@Slf4j
+public class LocalSearchEngine extends AbstractScheduledService implements Managed, SearchEngine {
+  private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^\\p{Alnum}]+");
+  private static final TypeReference<List<Document>> DOCUMENTS = new TypeReference<>() {};
+
+  /** Identifies a dataset or job by name. */
+  record DocumentId(ResultType type, String namespace, String name) {}
+
+  /** The terms a dataset or job is matched on; {@code terms} include its {@code nameTerms}. */
+  record Document(
+      ResultType type,
+      String namespace,
+      String name,
+      Instant updatedAt,
+      Set<String> nameTerms,
+      Set<String> terms) {
+    DocumentId id() {
+      return new DocumentId(type, namespace, name);
+    }
+
+    /** Returns this document as of {@code updatedAt}. */
+    Document at(Instant updatedAt) {
+      return new Document(type, namespace, name, updatedAt, nameTerms, terms);
+    }
+
+    SearchResult toResult() {
+      return switch (type) {
+        case DATASET -> SearchResult.newDatasetResult(
+            DatasetName.of(name), updatedAt, NamespaceName.of(namespace));
+        case JOB -> SearchResult.newJobResult(
+            JobName.of(name), updatedAt, NamespaceName.of(namespace));
+      };
+    }
+  }
+
+  /** A document matching a query, with its relevance to the query. */
+  private record Match(Document document, int relevance) {}
+
+  private final Path indexPath;
+  private final Scheduler fixedDelayScheduler;
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private final Map<DocumentId, Document> documents = new HashMap<>();
+  private final NavigableMap<String, Set<DocumentId>> postings = new TreeMap<>();
+  private final AtomicBoolean changed = new AtomicBoolean();
+
+  public LocalSearchEngine(@NonNull final SearchConfig searchConfig) {
+    this(
+        Path.of(
+            Optional.ofNullable(searchConfig.getIndexPath())
+                .orElseThrow(
+                    () ->
+                        new IllegalArgumentException(
+                            "'indexPath' is required by the LOCAL search engine"))),
+        Duration.ofSeconds(searchConfig.getSnapshotIntervalSecs()));
+  }
+
+  LocalSearchEngine(@NonNull final Path indexPath, @NonNull final Duration snapshotInterval) {
+    this.indexPath = indexPath;
+    this.fixedDelayScheduler = Scheduler.newFixedDelaySchedule(snapshotInterval, snapshotInterval);
+  }
+
+  @Override
+  public List<SearchResult> search(
+      @NonNull String query,
+      @Nullable SearchFilter filter,
+      @NonNull SearchSort sort,
+      int limit,
+      @Nullable String namespace,
+      @Nullable LocalDate before,
+      @Nullable LocalDate after) {
+    final List<String> words = terms(query).distinct().toList();
+    if (words.isEmpty()) {
+      return List.of();
+    }
+    final Instant beforeTime = (before == null) ? null : startOf(before);
+    final Instant afterTime = (after == null) ? null : startOf(after);
+    final List<Match> matches = new ArrayList<>();
+    lock.readLock().lock();
+    try {
+      for (final DocumentId id : matching(words)) {
+        final Document document = documents.get(id);
+        if ((filter == null || document.type().name().equals(filter.name()))
+            && (namespace == null || document.namespace().equals(namespace))
+            && (beforeTime == null || document.updatedAt().isBefore(beforeTime))
+            && (afterTime == null || document.updatedAt().isAfter(afterTime))) {
+          matches.add(new Match(document, relevance(document, words)));
+        }
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+    return matches.stream()
+        .sorted(orderOf(sort))
+        .limit(limit)
+        .map(match -> match.document().toResult())
+        .collect(Collectors.toList());
+  }
+
+  /** Returns the documents with a term starting with each of the provided words. */
+  private Set<DocumentId> matching(List<String> words) {
+    Set<DocumentId> matching = null;
+    for (final String word : words) {
+      final Set<DocumentId> matchingWord = new HashSet<>();
+      postings
+          .subMap(word, true, word + Character.MAX_VALUE, true)
+          .values()
+          .forEach(matchingWord::addAll);
+      if (matching == null) {
+        matching = matchingWord;
+      } else {
+        matching.retainAll(matchingWord);
+      }
+      if (matching.isEmpty()) {
+        break;
+      }
+    }
+    return matching;
+  }
+
+  private static int relevance(Document document, List<String> words) {
+    int relevance = 0;
+    for (final String word : words) {
+      relevance += document.nameTerms().stream().anyMatch(term -> term.startsWith(word)) ? 2 : 1;
+    }
+    return relevance;
+  }
+
+  private static Comparator<Match> orderOf(SearchSort sort) {
+    final Comparator<Match> bySort =
+        switch (sort) {
+          case NAME -> Comparator.comparing(match -> match.document().name());
+          case UPDATE_AT -> Comparator.comparing(match -> match.document().updatedAt());
+        };
+    return bySort
+        .thenComparing(Comparator.comparingInt(Match::relevance).reversed())
+        .thenComparing(match -> match.document().name());
+  }
+
+  private static Instant startOf(LocalDate date) {
+    return date.atStartOfDay(ZoneOffset.UTC).toInstant();
+  }
+
+  @Override
+  public void index(@NonNull BaseEvent event) {
+    if (event instanceof LineageEvent lineageEvent) {
+      final Instant updatedAt = lineageEvent.getEventTime().toInstant();
+      indexJob(lineageEvent.getJob(), jobNameOf(lineageEvent), updatedAt);
+      indexDatasets(lineageEvent.getInputs(), updatedAt);
+      indexDatasets(lineageEvent.getOutputs(), updatedAt);
+    } else if (event instanceof JobEvent jobEvent) {
+      final Instant updatedAt = jobEvent.getEventTime().toInstant();
+      indexJob(jobEvent.getJob(), jobEvent.getJob().getName(), updatedAt);
+      indexDatasets(jobEvent.getInputs(), updatedAt);
+      indexDatasets(jobEvent.getOutputs(), updatedAt);
+    } else if (event instanceof DatasetEvent datasetEvent && datasetEvent.getDataset() != null) {
+      indexDataset(datasetEvent.getDataset(), datasetEvent.getEventTime().toInstant());
+    }
+  }
+
+  @Override
+  public void index(@NonNull Dataset dataset) {
+    final Set<String> nameTerms = terms(dataset.getName().getValue()).collect(Collectors.toSet());
+    final Set<String> terms = new HashSet<>(nameTerms);
+    if (dataset.getFields() != null) {
+      dataset.getFields().forEach(field -> terms(field.getName().getValue()).forEach(terms::add));
+    }
+    dataset.getDescription().ifPresent(description -> terms(description).forEach(terms::add));
+    facetTerms(dataset.getFacets()).forEach(terms::add);
+    add(
+        new Document(
+            ResultType.DATASET,
+            dataset.getNamespace().getValue(),
+            dataset.getName().getValue(),
+            dataset.getUpdatedAt(),
+            nameTerms,
+            terms),
+        true);
+  }
+
+  @Override
+  public void index(@NonNull Job job) {
+    final Set<String> nameTerms = terms(job.getName().getValue()).collect(Collectors.toSet());
+    final Set<String> terms = new HashSet<>(nameTerms);
+    job.getDescription().ifPresent(description -> terms(description).forEach(terms::add));
+    if (job.getFacets() != null) {
+      facetTerms(job.getFacets()).forEach(terms::add);
+      if (job.getFacets().get("sql") instanceof Map<?, ?> sql
+          && sql.get("query") instanceof String query) {
+        terms(query).forEach(terms::add);
+      }
+    }
+    add(
+        new Document(
+            ResultType.JOB,
+            job.getNamespace().getValue(),
+            job.getName().getValue(),
+            job.getUpdatedAt(),
+            nameTerms,
+            terms),
+        true);
+  }
+
+  private static Stream<String> facetTerms(@Nullable Map<String, Object> facets) {
+    return (facets == null)
+        ? Stream.empty()
+        : facets.keySet().stream().flatMap(LocalSearchEngine::terms);
+  }
+
+  @Override
+  public void remove(@NonNull ResultType type, @NonNull String namespace, @NonNull String name) {
+    removeIf(document -> document.id().equals(new DocumentId(type, namespace, name)));
+  }
+
+  @Override
+  public void removeNamespace(@NonNull String namespace) {
+    removeIf(document -> document.namespace().equals(namespace));
+  }
+
+  @Override
+  public void removeUpdatedBefore(@NonNull Instant updatedBefore) {
+    removeIf(document -> document.updatedAt().isBefore(updatedBefore));
+  }
+
+  /**
+   * Returns the name of the job of {@code event} as named in the Marquez model: prefixed by the
+   * name of its parent job, if any.
+   */
+  static String jobNameOf(LineageEvent event) {
+    final String name = event.getJob().getName();
+    return Optional.ofNullable(event.getRun().getFacets())
+        .map(LineageEvent.RunFacet::getParent)
+        .map(parent -> parent.getJob().getName())
+        .filter(parentName -> !name.startsWith(parentName + '.'))
+        .map(parentName -> parentName + '.' + name)
+        .orElse(name);
+  }
+
+  private void indexJob(LineageEvent.Job job, String name, Instant updatedAt) {
+    add(jobOf(job, name, updatedAt), job.getFacets() != null);
+  }
+
+  private void indexDatasets(@Nullable List<LineageEvent.Dataset> datasets, Instant updatedAt) {
+    if (datasets != null) {
+      datasets.forEach(dataset -> indexDataset(dataset, updatedAt));
+    }
+  }
+
+  private void indexDataset(LineageEvent.Dataset dataset, Instant updatedAt) {
+    add(datasetOf(dataset, updatedAt), dataset.getFacets() != null);
+  }
+
+  private static Document jobOf(LineageEvent.Job job, String name, Instant updatedAt) {
+    final Set<String> nameTerms = terms(name).collect(Collectors.toSet());
+    final Set<String> terms = new HashSet<>(nameTerms);
+    final LineageEvent.JobFacet facets = job.getFacets();
+    if (facets != null) {
+      if (facets.getSql() != null) {
+        terms(facets.getSql().getQuery()).forEach(terms::add);
+      }
+      if (facets.getDocumentation() != null) {
+        terms(facets.getDocumentation().getDescription()).forEach(terms::add);
+      }
+      facets.getAdditionalFacets().keySet().forEach(facet -> terms(facet).forEach(terms::add));
+    }
+    return new Document(ResultType.JOB, job.getNamespace(), name, updatedAt, nameTerms, terms);
+  }
+
+  private static Document datasetOf(LineageEvent.Dataset dataset, Instant updatedAt) {
+    final Set<String> nameTerms = terms(dataset.getName()).collect(Collectors.toSet());
+    final Set<String> terms = new HashSet<>(nameTerms);
+    final LineageEvent.DatasetFacets facets = dataset.getFacets();
+    if (facets != null) {
+      if (facets.getSchema() != null && facets.getSchema().getFields() != null) {
+        facets.getSchema().getFields().forEach(field -> terms(field.getName()).forEach(terms::add));
+      }
+      if (facets.getDocumentation() != null) {
+        terms(facets.getDocumentation().getDescription()).forEach(terms::add);
+      }
+      terms(facets.getDescription()).forEach(terms::add);
+      facets.getAdditionalFacets().keySet().forEach(facet -> terms(facet).forEach(terms::add));
+    }
+    return new Document(
+        ResultType.DATASET, dataset.getNamespace(), dataset.getName(), updatedAt, nameTerms, terms);
+  }
+
+  /** Splits {@code text} into lower case words, on any character other than a letter or digit. */
+  private static Stream<String> terms(@Nullable String text) {
+    if (text == null) {
+      return Stream.empty();
+    }
+    return NON_ALPHANUMERIC.splitAsStream(text.toLowerCase()).filter(term -> !term.isEmpty());
+  }
+
+  /**
+   * Replaces the document of the same dataset or job, if any, with {@code document}, unless the
+   * document indexed is more recent; if not {@code described}, only the time of the document
+   * indexed is updated.
+   */
+  private void add(Document document, boolean described) {
+    lock.writeLock().lock();
+    try {
+      final Document indexed = documents.get(document.id());
+      if (indexed != null) {
+        if (indexed.updatedAt().isAfter(document.updatedAt())) {
+          return;
+        }
+        unpost(indexed);
+      }
+      put((indexed == null || described) ? document : indexed.at(document.updatedAt()));
+      changed.set(true);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  private void removeIf(Predicate<Document> removed) {
+    lock.writeLock().lock();
+    try {
+      final List<Document> documentsRemoved =
+          documents.values().stream().filter(removed).collect(Collectors.toList());
+      for (final Document document : documentsRemoved) {
+        documents.remove(document.id());
+        unpost(document);
+      }
+      if (!documentsRemoved.isEmpty()) {
+        changed.set(true);
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  private void put(Document document) {
+    documents.put(document.id(), document);
+    for (final String term : document.terms()) {
+      postings.computeIfAbsent(term, k -> new HashSet<>()).add(document.id());
+    }
+  }
+
+  /** Removes the postings of the terms of {@code document}. */
+  private void unpost(Document document) {
+    for (final String term : document.terms()) {
+      final Set<DocumentId> posting = postings.get(term);
+      if (posting != null && posting.remove(document.id()) && posting.isEmpty()) {
+        postings.remove(term);
+      }
+    }
+  }
+
+  /** Returns the number of datasets and jobs indexed. */
+  public int size() {
+    lock.readLock().lock();
+    try {
+      return documents.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  @Override
+  protected Scheduler scheduler() {
+    return fixedDelayScheduler;
+  }
+
+  @Override
+  public void start() throws Exception {
+    load();
+    startAsync().awaitRunning();
+    log.info("Started local search index of '{}' datasets and jobs.", size());
+  }
+
+  @Override
+  protected void runOneIteration() {
+    try {
+      if (changed.get()) {
+        save();
+      }
+    } catch (Exception errorOnSave) {
+      // An exception would otherwise stop the schedule; retry on the next iteration instead.
+      log.error("Failed to save local search index to '{}'!", indexPath, errorOnSave);
+    }
+  }
+
+  @Override
+  public void stop() throws Exception {
+    stopAsync().awaitTerminated();
+    save();
+  }
+
+  /** Replaces the documents indexed with those saved to {@code indexPath}, if any. */
+  void load() throws IOException {
+    if (!Files.exists(indexPath)) {
+      log.warn("No local search index found at '{}'; run the 'search-index' command.", indexPath);
+      return;
+    }
+    final List<Document> saved;
+    try (InputStream in = Files.newInputStream(indexPath)) {
+      saved = Utils.getMapper().readValue(in, DOCUMENTS);
+    }
+    lock.writeLock().lock();
+    try {
+      documents.clear();
+      postings.clear();
+      saved.forEach(this::put);
+      changed.set(false);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Saves the documents indexed to {@code indexPath}; the file is replaced at once, so that a
+   * failed save leaves the index saved before.
+   */
+  public void save() throws IOException {
+    final List<Document> snapshot;
+    lock.readLock().lock();
+    try {
+      snapshot = new ArrayList<>(documents.values());
+      changed.set(false);
+    } finally {
+      lock.readLock().unlock();
+    }
+    if (indexPath.getParent() != null) {
+      Files.createDirectories(indexPath.getParent());
+    }
+    final Path temp = indexPath.resolveSibling(indexPath.getFileName() + ".tmp");
+    try {
+      try (OutputStream out = Files.newOutputStream(temp)) {
+        Utils.getMapper().writeValue(out, snapshot);
+      }
+      Files.move(temp, indexPath, REPLACE_EXISTING, ATOMIC_MOVE);
+    } catch (IOException errorOnSave) {
+      changed.set(true);
+      throw errorOnSave;
+    }
+    log.debug("Saved '{}' datasets and jobs to local search index.", snapshot.size());
+  }
+}
@@ -11,9 +11,13 @@ import static marquez.tracing.SentryPropagating.withSentry;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -21,7 +25,10 @@ import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
+import javax.annotation.Nullable;
+import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import marquez.common.Utils;
 import marquez.common.models.DatasetName;
@@ -34,127 +41,598 @@ import marquez.common.models.RunState;
 import marquez.db.BaseDao;
 import marquez.db.DatasetDao;
 import marquez.db.DatasetVersionDao;
+import marquez.db.IngestCaches;
+import marquez.db.OpenLineageDao;
 import marquez.db.models.ExtendedDatasetVersionRow;
 import marquez.db.models.JobRow;
 import marquez.db.models.RunArgsRow;
 import marquez.db.models.RunRow;
 import marquez.db.models.RunStateRow;
+import marquez.db.models.UnprocessedLineageEventRow;
 import marquez.db.models.UpdateLineageRow;
 import marquez.service.RunTransitionListener.JobInputUpdate;
 import marquez.service.RunTransitionListener.JobOutputUpdate;
 import marquez.service.RunTransitionListener.RunInput;
 import marquez.service.RunTransitionListener.RunOutput;
 import marquez.service.RunTransitionListener.RunTransition;
+import marquez.service.models.BaseEvent;
 import marquez.service.models.DatasetEvent;
 import marquez.service.models.JobEvent;
 import marquez.service.models.LineageEvent;
+import marquez.service.models.LineageEvent.RunFacet;
 import marquez.service.models.RunMeta;
 
 @Slf4j
 public class OpenLineageService extends DelegatingDaos.DelegatingOpenLineageDao {
+  /** The maximum number of events written within a single transaction for batched ingestion. */
+  public static final int DEFAULT_BATCH_CHUNK_SIZE = 100;
+
+  /** The savepoint used to isolate the failure of a single event within a batch transaction. */
+  private static final String BATCH_EVENT_SAVEPOINT = "marquez_batch_event";
+
+  /** The time events written ahead are claimed for while they are applied. */
+  private static final Duration UNPROCESSED_EVENT_LEASE = Duration.ofMinutes(5);
+
+  /** The time an event written ahead that failed to apply is held back for before it is retried. */
+  private static final Duration UNPROCESSED_EVENT_RETRY_DELAY = Duration.ofSeconds(30);
+
+  /** The result of ingesting a single event of a batch; {@code error} is set on failure. */
+  public record BatchEventResult(
+      int index, @NonNull BaseEvent event, boolean isSupported, @Nullable Throwable error) {
+    public boolean isSuccess() {
+      return error == null;
+    }
+  }
+
   private final RunService runService;
   private final DatasetVersionDao datasetVersionDao;
   private final ObjectMapper mapper = Utils.newObjectMapper();
 
   private final Executor executor;
+  private final boolean singleTransaction;
+  private final boolean writeAhead;
+  @Nullable private final IngestLanes lanes;
+  private final FacetPolicy facetPolicy;
+  private final IngestCaches ingestCaches;
+  private final LineageCache lineageCache;
+  @Nullable private final SearchEngine searchEngine;
 
   public OpenLineageService(BaseDao baseDao, RunService runService) {
     this(baseDao, runService, ForkJoinPool.commonPool());
   }
 
   public OpenLineageService(BaseDao baseDao, RunService runService, Executor executor) {
-    super(baseDao.createOpenLineageDao());
-    this.runService = runService;
-    this.datasetVersionDao = baseDao.createDatasetVersionDao();
-    this.executor = executor;
+    this(builder(baseDao, runService).executor(executor));
   }
 
-  public CompletableFuture<Void> createAsync(DatasetEvent event) {
-    CompletableFuture<Void> openLineage =
-        CompletableFuture.runAsync(
-            withSentry(
-                withMdc(
-                    () ->
-                        createDatasetEvent(
-                            event.getEventTime().withZoneSameInstant(ZoneId.of("UTC")).toInstant(),
-                            createJsonArray(event, mapper),
-                            event.getProducer()))),
-            executor);
-
-    CompletableFuture<Void> marquez =
-        CompletableFuture.runAsync(
-            withSentry(
-                withMdc(
-                    () -> {
-                      updateMarquezModel(event, mapper);
-                    })),
-            executor);
+  private OpenLineageService(Builder builder) {
+    super(builder.baseDao.createOpenLineageDao());
+    this.runService = builder.runService;
+    this.datasetVersionDao = builder.baseDao.createDatasetVersionDao();
+    this.executor = builder.executor;
+    this.singleTransaction = builder.singleTransaction;
+    this.writeAhead = builder.writeAhead;
+    this.lanes = builder.lanes;
+    this.facetPolicy = builder.facetPolicy;
+    this.ingestCaches = builder.ingestCaches;
+    this.lineageCache = builder.lineageCache;
+    this.searchEngine = builder.searchEngine;
+  }
 
-    return CompletableFuture.allOf(marquez, openLineage);
+  public static Builder builder(@NonNull BaseDao baseDao, @NonNull RunService runService) {
+    return new Builder(baseDao, runService);
+  }
+
+  /** Options of an {@link OpenLineageService}; each option is disabled unless set. */
+  public static class Builder {
+    private final BaseDao baseDao;
+    private final RunService runService;
+    private Executor executor;
+    private boolean singleTransaction;
+    private boolean writeAhead;
+    @Nullable private IngestLanes lanes;
+    private FacetPolicy facetPolicy;
+    private IngestCaches ingestCaches;
+    private LineageCache lineageCache;
+    @Nullable private SearchEngine searchEngine;
+
+    Builder(BaseDao baseDao, RunService runService) {
+      this.baseDao = baseDao;
+      this.runService = runService;
+      this.executor = ForkJoinPool.commonPool();
+      this.facetPolicy = FacetPolicy.NONE;
+      this.ingestCaches = IngestCaches.DISABLED;
+      this.lineageCache = LineageCache.DISABLED;
+    }
+
+    /** The executor events are written on. */
+    public Builder executor(@NonNull Executor executor) {
+      this.executor = executor;
+      return this;
+    }
+
+    /**
+     * If {@code true}, the raw event and the Marquez model are written within a single transaction
+     * on one handle, rather than on two handles.
+     */
+    public Builder singleTransaction(boolean singleTransaction) {
+      this.singleTransaction = singleTransaction;
+      return this;
+    }
+
+    /**
+     * If {@code true}, only the raw event is written when an event is created; the event is applied
+     * to the Marquez model later on by {@link
+     * OpenLineageService#processUnprocessedEvents(int, int)}.
+     */
+    public Builder writeAhead(boolean writeAhead) {
+      this.writeAhead = writeAhead;
+      return this;
+    }
+
+    /**
+     * If provided, updates of the Marquez model are applied on the lane of their run, see {@link
+     * IngestLanes}, rather than on the executor.
+     */
+    public Builder lanes(@Nullable IngestLanes lanes) {
+      this.lanes = lanes;
+      return this;
+    }
+
+    /** The policy applied to the facets of each event before it is written. */
+    public Builder facetPolicy(@NonNull FacetPolicy facetPolicy) {
+      this.facetPolicy = facetPolicy;
+      return this;
+    }
+
+    /** The caches of the rows upserted for every event, see {@link IngestCaches}. */
+    public Builder ingestCaches(@NonNull IngestCaches ingestCaches) {
+      this.ingestCaches = ingestCaches;
+      return this;
+    }
+
+    /** The cache of the lineage graphs touched by the events applied, see {@link LineageCache}. */
+    public Builder lineageCache(@NonNull LineageCache lineageCache) {
+      this.lineageCache = lineageCache;
+      return this;
+    }
+
+    /**
+     * If provided, indexes each event once applied to the Marquez model, see {@link
+     * SearchEngine#index(BaseEvent)}.
+     */
+    public Builder searchEngine(@Nullable SearchEngine searchEngine) {
+      this.searchEngine = searchEngine;
+      return this;
+    }
+
+    public OpenLineageService build() {
+      return new OpenLineageService(this);
+    }
+  }
+
+  public CompletableFuture<Void> createAsync(DatasetEvent event) {
+    return createEventAsync(event);
   }
 
   public CompletableFuture<Void> createAsync(JobEvent event) {
-    CompletableFuture<Void> openLineage =
-        CompletableFuture.runAsync(
-            withSentry(
-                withMdc(
-                    () ->
-                        createJobEvent(
-                            event.getEventTime().withZoneSameInstant(ZoneId.of("UTC")).toInstant(),
-                            event.getJob().getName(),
-                            event.getJob().getNamespace(),
-                            createJsonArray(event, mapper),
-                            event.getProducer()))),
-            executor);
-
-    CompletableFuture<Void> marquez =
-        CompletableFuture.runAsync(
+    return createEventAsync(event);
+  }
+
+  public CompletableFuture<Void> createAsync(LineageEvent event) {
+    return createEventAsync(event);
+  }
+
+  private CompletableFuture<Void> createEventAsync(BaseEvent event) {
+    facetPolicy.apply(event);
+    if (writeAhead) {
+      return createUnprocessedAsync(event);
+    }
+    if (singleTransaction) {
+      return createInTransactionAsync(event)
+          .thenAccept(update -> update.ifPresent(u -> onModelUpdated(event, u)));
+    }
+    return createOnTwoHandlesAsync(event);
+  }
+
+  /**
+   * Writes the raw {@code event}, then updates the Marquez model, each on a handle of its own. Both
+   * writes are submitted as a single task, so that if the task is rejected nothing has been written
+   * and a client retrying on the {@code 503} does not write the raw event twice.
+   */
+  private CompletableFuture<Void> createOnTwoHandlesAsync(BaseEvent event) {
+    return CompletableFuture.supplyAsync(
             withSentry(
                 withMdc(
                     () -> {
-                      updateMarquezModel(event, mapper);
+                      createRawEventWith(this, event);
+                      return updateMarquezModelWith(this, event);
                     })),
-            executor);
+            modelExecutorFor(event))
+        .thenAccept(update -> onModelUpdated(event, update));
+  }
 
-    return CompletableFuture.allOf(marquez, openLineage);
+  private CompletableFuture<Void> createUnprocessedAsync(BaseEvent event) {
+    return CompletableFuture.runAsync(
+        withSentry(withMdc(() -> createUnprocessedWith(this, event))), executor);
   }
 
-  public CompletableFuture<Void> createAsync(LineageEvent event) {
-    UUID runUuid = runUuidFromEvent(event.getRun());
-    CompletableFuture<Void> openLineage =
-        CompletableFuture.runAsync(
-            withSentry(
-                withMdc(
-                    () ->
-                        createLineageEvent(
-                            event.getEventType() == null ? "" : event.getEventType(),
-                            event.getEventTime().withZoneSameInstant(ZoneId.of("UTC")).toInstant(),
-                            runUuid,
-                            event.getJob().getName(),
-                            event.getJob().getNamespace(),
-                            createJsonArray(event, mapper),
-                            event.getProducer()))),
-            executor);
-
-    CompletableFuture<Void> marquez =
-        CompletableFuture.supplyAsync(
-                withSentry(withMdc(() -> updateMarquezModel(event, mapper))), executor)
-            .thenAccept(
-                (update) -> {
-                  if (event.getEventType() != null) {
-                    boolean isStreaming =
-                        Optional.ofNullable(event.getJob())
-                            .map(j -> j.isStreamingJob())
-                            .orElse(false);
-                    if (event.getEventType().equalsIgnoreCase("COMPLETE") || isStreaming) {
-                      buildJobOutputUpdate(update).ifPresent(runService::notify);
+  /**
+   * Writes the raw {@code event} and updates the Marquez model within a single transaction, so that
+   * a single connection is used per event and a failure leaves neither written.
+   */
+  private CompletableFuture<Optional<UpdateLineageRow>> createInTransactionAsync(BaseEvent event) {
+    return CompletableFuture.supplyAsync(
+        withSentry(
+            withMdc(
+                () ->
+                    withHandle(
+                        handle ->
+                            handle.inTransaction(
+                                transaction ->
+                                    createWith(
+                                        transaction.attach(OpenLineageDao.class), event))))),
+        modelExecutorFor(event));
+  }
+
+  /**
+   * Returns the executor the Marquez model is updated on for the provided {@code event}: the lane
+   * of its partition key, if lanes are enabled.
+   */
+  private Executor modelExecutorFor(BaseEvent event) {
+    return lanes == null ? executor : lanes.laneFor(partitionKeyFor(event));
+  }
+
+  /**
+   * Events of a run, and of its parent run if any, share a partition key so that the rows of the
+   * run, its states and its job version are only updated from one lane. Job and dataset events are
+   * partitioned by job and dataset, respectively.
+   */
+  private Object partitionKeyFor(BaseEvent event) {
+    if (event instanceof LineageEvent lineageEvent && lineageEvent.getRun() != null) {
+      final RunFacet facets = lineageEvent.getRun().getFacets();
+      if (facets != null && facets.getParent() != null) {
+        return Utils.findParentRunUuid(facets.getParent());
+      }
+      return runUuidFromEvent(lineageEvent.getRun());
+    } else if (event instanceof JobEvent jobEvent) {
+      return List.of(jobEvent.getJob().getNamespace(), jobEvent.getJob().getName());
+    } else if (event instanceof DatasetEvent datasetEvent && datasetEvent.getDataset() != null) {
+      return List.of(
+          datasetEvent.getDataset().getNamespace(), datasetEvent.getDataset().getName());
+    }
+    return event;
+  }
+
+  /**
+   * Ingests the provided {@code events} in chunks of {@link #DEFAULT_BATCH_CHUNK_SIZE}, where each
+   * chunk is written within a single transaction. A savepoint is taken before each event so that a
+   * failing event is rolled back on its own, and does not fail the remaining events of its chunk.
+   * Listeners are notified once the transaction of a chunk has been committed.
+   *
+   * <p>If lanes are enabled, events are chunked by lane, and each chunk is written on its lane, so
+   * that the events of a run are written one after the other whether they were batched or not.
+   *
+   * <p>If the first chunk is rejected, the {@link RejectedExecutionException} is thrown as nothing
+   * has been written; events of any later chunk rejected are reported as failed.
+   *
+   * @param events the events to ingest
+   * @return the result of each event, in the order the events were provided
+   */
+  public CompletableFuture<List<BatchEventResult>> createBatchAsync(
+      @NonNull List<BaseEvent> events) {
+    events.forEach(facetPolicy::apply);
+    final Map<Executor, List<Integer>> indicesByExecutor = new LinkedHashMap<>();
+    for (int i = 0; i < events.size(); i++) {
+      indicesByExecutor
+          .computeIfAbsent(batchExecutorFor(events.get(i)), executor -> new ArrayList<>())
+          .add(i);
+    }
+    final List<CompletableFuture<List<BatchEventResult>>> chunks = new ArrayList<>();
+    for (final Map.Entry<Executor, List<Integer>> entry : indicesByExecutor.entrySet()) {
+      final List<Integer> indices = entry.getValue();
+      for (int offset = 0; offset < indices.size(); offset += DEFAULT_BATCH_CHUNK_SIZE) {
+        final List<Integer> chunk =
+            indices.subList(offset, Math.min(offset + DEFAULT_BATCH_CHUNK_SIZE, indices.size()));
+        try {
+          chunks.add(
+              CompletableFuture.supplyAsync(
+                  withSentry(withMdc(() -> createChunk(events, chunk))), entry.getKey()));
+        } catch (RejectedExecutionException e) {
+          if (chunks.isEmpty()) {
+            throw e;
+          }
+          chunks.add(CompletableFuture.completedFuture(failedChunk(events, chunk, e)));
+        }
+      }
+    }
+    return CompletableFuture.allOf(chunks.toArray(CompletableFuture[]::new))
+        .thenApply(
+            ignored ->
+                chunks.stream()
+                    .flatMap(chunk -> chunk.join().stream())
+                    .sorted(Comparator.comparingInt(BatchEventResult::index))
+                    .collect(Collectors.toList()));
+  }
+
+  /** Events written ahead are only written, not applied, so they are not written on lanes. */
+  private Executor batchExecutorFor(BaseEvent event) {
+    return writeAhead ? executor : modelExecutorFor(event);
+  }
+
+  /** Writes the events of {@code events} at the provided {@code indices}. */
+  private List<BatchEventResult> createChunk(List<BaseEvent> events, List<Integer> indices) {
+    final List<BatchEventResult> results = new ArrayList<>(indices.size());
+    final List<UpdateLineageRow> updates = new ArrayList<>(indices.size());
+    try {
+      withHandle(
+          handle ->
+              handle.inTransaction(
+                  transaction -> {
+                    final OpenLineageDao dao = transaction.attach(OpenLineageDao.class);
+                    for (final int index : indices) {
+                      final BaseEvent event = events.get(index);
+                      transaction.savepoint(BATCH_EVENT_SAVEPOINT);
+                      try {
+                        final Optional<UpdateLineageRow> update = createWith(dao, event);
+                        transaction.release(BATCH_EVENT_SAVEPOINT);
+                        results.add(new BatchEventResult(index, event, isSupported(event), null));
+                        updates.add(update.orElse(null));
+                      } catch (Exception e) {
+                        log.warn("Failed to ingest event at index '{}' of batch", index, e);
+                        transaction.rollbackToSavepoint(BATCH_EVENT_SAVEPOINT);
+                        results.add(new BatchEventResult(index, event, true, e));
+                        updates.add(null);
+                      }
                     }
-                    buildJobInputUpdate(update).ifPresent(runService::notify);
-                    buildRunTransition(update).ifPresent(runService::notify);
-                  }
-                });
+                    return null;
+                  }));
+    } catch (Exception e) {
+      // The transaction of the chunk could not be committed; no event of the chunk was written.
+      log.error("Failed to commit batch of '{}' events", indices.size(), e);
+      return failedChunk(events, indices, e);
+    }
+
+    for (int i = 0; i < results.size(); i++) {
+      final UpdateLineageRow update = updates.get(i);
+      if (update != null) {
+        onModelUpdated(results.get(i).event(), update);
+      }
+    }
+    return results;
+  }
+
+  private static List<BatchEventResult> failedChunk(
+      List<BaseEvent> events, List<Integer> indices, Throwable error) {
+    final List<BatchEventResult> failed = new ArrayList<>(indices.size());
+    for (final int index : indices) {
+      failed.add(new BatchEventResult(index, events.get(index), true, error));
+    }
+    return failed;
+  }
+
+  /**
+   * Applies up to {@code limit} events written ahead of being applied to the Marquez model, oldest
+   * first. The events are claimed within a transaction of their own, so that no connection is held
+   * while they are applied. Events of different runs are applied in parallel on the executor, while
+   * events of the same run are applied one after the other, in the order they were written, so that
+   * the run's state transitions are applied as they would have been had the events been applied on
+   * receipt. An event failing to apply is retried after a delay, along with the events of its run
+   * after it, until it failed {@code maxAttempts} times; it is then left unprocessed with its last
+   * error, for inspection, and no longer holds back its run.
+   *
+   * @param limit the maximum number of events to apply
+   * @param maxAttempts the maximum number of attempts to apply an event
+   * @return the number of events claimed, or {@code 0} if another instance is claiming events
+   */
+  public int processUnprocessedEvents(int limit, int maxAttempts) {
+    final List<UnprocessedLineageEventRow> events =
+        withHandle(
+            handle ->
+                handle.inTransaction(
+                    transaction -> {
+                      final OpenLineageDao dao = transaction.attach(OpenLineageDao.class);
+                      if (!dao.tryLockUnprocessedEvents()) {
+                        return List.<UnprocessedLineageEventRow>of();
+                      }
+                      return dao.claimUnprocessedEvents(
+                          limit, maxAttempts, (int) UNPROCESSED_EVENT_LEASE.toSeconds());
+                    }));
+    if (events.isEmpty()) {
+      return 0;
+    }
+    final Map<UUID, List<UnprocessedLineageEventRow>> eventsByRun =
+        events.stream()
+            .collect(
+                Collectors.groupingBy(
+                    OpenLineageService::orderingKeyFor, LinkedHashMap::new, Collectors.toList()));
+    CompletableFuture.allOf(
+            eventsByRun.values().stream()
+                .map(this::applyAsync)
+                .toArray(CompletableFuture[]::new))
+        .join();
+    return events.size();
+  }
+
+  /** Events without a run, such as dataset and job events, are applied on their own. */
+  private static UUID orderingKeyFor(UnprocessedLineageEventRow row) {
+    return row.getRunUuid() != null ? row.getRunUuid() : row.getUuid();
+  }
+
+  private CompletableFuture<Void> applyAsync(List<UnprocessedLineageEventRow> events) {
+    final Runnable apply = withSentry(withMdc(() -> applyInOrder(events)));
+    try {
+      return CompletableFuture.runAsync(apply, modelExecutorFor(events.get(0).getEvent()));
+    } catch (RejectedExecutionException e) {
+      // The executor is saturated; apply the events on the calling thread instead.
+      apply.run();
+      return CompletableFuture.completedFuture(null);
+    }
+  }
+
+  /**
+   * Applies the events of a run one after the other, and marks each as processed once applied. On
+   * the first event failing, the claim of the events after it is released, so that they are applied
+   * after it once it is retried.
+   */
+  private void applyInOrder(List<UnprocessedLineageEventRow> events) {
+    for (int i = 0; i < events.size(); i++) {
+      final UnprocessedLineageEventRow row = events.get(i);
+      final UpdateLineageRow update;
+      try {
+        update = updateMarquezModelWith(this, row.getEvent());
+      } catch (Exception e) {
+        log.error("Failed to apply lineage event '{}'", row.getUuid(), e);
+        IngestMetrics.unprocessedEvents.labels("failed").inc();
+        markEventAsFailed(
+            row.getUuid(), e.toString(), (int) UNPROCESSED_EVENT_RETRY_DELAY.toSeconds());
+        final List<UUID> remaining =
+            events.subList(i + 1, events.size()).stream()
+                .map(UnprocessedLineageEventRow::getUuid)
+                .collect(Collectors.toList());
+        if (!remaining.isEmpty()) {
+          releaseEvents(remaining);
+        }
+        return;
+      }
+      markEventAsProcessed(row.getUuid());
+      IngestMetrics.unprocessedEvents.labels("applied").inc();
+      onModelUpdated(row.getEvent(), update);
+    }
+  }
+
+  private static boolean isSupported(BaseEvent event) {
+    return event instanceof LineageEvent
+        || event instanceof DatasetEvent
+        || event instanceof JobEvent;
+  }
+
+  /**
+   * Writes the raw {@code event} and updates the Marquez model using the provided {@code dao},
+   * which is expected to be attached to the handle of an ongoing transaction; in write-ahead mode,
+   * only the raw event is written. Returns an empty {@link Optional} if the Marquez model was not
+   * updated, or if the type of {@code event} is not supported.
+   */
+  private Optional<UpdateLineageRow> createWith(OpenLineageDao dao, BaseEvent event) {
+    if (!isSupported(event)) {
+      log.warn("Unsupported event type {}. Skipping without error", event.getClass().getName());
+      return Optional.empty();
+    }
+    if (writeAhead) {
+      createUnprocessedWith(dao, event);
+      return Optional.empty();
+    }
+    createRawEventWith(dao, event);
+    return Optional.of(updateMarquezModelWith(dao, event));
+  }
 
-    return CompletableFuture.allOf(marquez, openLineage);
+  /** Writes the raw {@code event} as received, to be served by the lineage events API. */
+  private void createRawEventWith(OpenLineageDao dao, BaseEvent event) {
+    if (event instanceof LineageEvent lineageEvent) {
+      dao.createLineageEvent(
+          lineageEvent.getEventType() == null ? "" : lineageEvent.getEventType(),
+          lineageEvent.getEventTime().withZoneSameInstant(ZoneId.of("UTC")).toInstant(),
+          runUuidFromEvent(lineageEvent.getRun()),
+          lineageEvent.getJob().getName(),
+          lineageEvent.getJob().getNamespace(),
+          createJsonArray(lineageEvent, mapper),
+          lineageEvent.getProducer());
+    } else if (event instanceof DatasetEvent datasetEvent) {
+      dao.createDatasetEvent(
+          datasetEvent.getEventTime().withZoneSameInstant(ZoneId.of("UTC")).toInstant(),
+          createJsonArray(datasetEvent, mapper),
+          datasetEvent.getProducer());
+    } else if (event instanceof JobEvent jobEvent) {
+      dao.createJobEvent(
+          jobEvent.getEventTime().withZoneSameInstant(ZoneId.of("UTC")).toInstant(),
+          jobEvent.getJob().getName(),
+          jobEvent.getJob().getNamespace(),
+          createJsonArray(jobEvent, mapper),
+          jobEvent.getProducer());
+    }
+  }
+
+  /** Writes the raw {@code event} only, to be applied to the Marquez model later on. */
+  private void createUnprocessedWith(OpenLineageDao dao, BaseEvent event) {
+    if (event instanceof LineageEvent lineageEvent) {
+      dao.createUnprocessedEvent(
+          UUID.randomUUID(),
+          lineageEvent.getEventType() == null ? "" : lineageEvent.getEventType(),
+          lineageEvent.getEventTime().withZoneSameInstant(ZoneId.of("UTC")).toInstant(),
+          runUuidFromEvent(lineageEvent.getRun()),
+          lineageEvent.getJob().getName(),
+          lineageEvent.getJob().getNamespace(),
+          createJsonArray(lineageEvent, mapper),
+          lineageEvent.getProducer(),
+          SpecEventType.RUN_EVENT);
+    } else if (event instanceof DatasetEvent datasetEvent) {
+      dao.createUnprocessedEvent(
+          UUID.randomUUID(),
+          null,
+          datasetEvent.getEventTime().withZoneSameInstant(ZoneId.of("UTC")).toInstant(),
+          null,
+          null,
+          null,
+          createJsonArray(datasetEvent, mapper),
+          datasetEvent.getProducer(),
+          SpecEventType.DATASET_EVENT);
+    } else if (event instanceof JobEvent jobEvent) {
+      dao.createUnprocessedEvent(
+          UUID.randomUUID(),
+          null,
+          jobEvent.getEventTime().withZoneSameInstant(ZoneId.of("UTC")).toInstant(),
+          null,
+          jobEvent.getJob().getName(),
+          jobEvent.getJob().getNamespace(),
+          createJsonArray(jobEvent, mapper),
+          jobEvent.getProducer(),
+          SpecEventType.JOB_EVENT);
+    } else {
+      throw new IllegalArgumentException("Unsupported event type " + event.getClass().getName());
+    }
+  }
+
+  private UpdateLineageRow updateMarquezModelWith(OpenLineageDao dao, BaseEvent event) {
+    if (event instanceof LineageEvent lineageEvent) {
+      return dao.updateMarquezModel(lineageEvent, mapper, ingestCaches);
+    } else if (event instanceof DatasetEvent datasetEvent) {
+      return dao.updateMarquezModel(datasetEvent, mapper, ingestCaches);
+    } else if (event instanceof JobEvent jobEvent) {
+      return dao.updateMarquezModel(jobEvent, mapper, ingestCaches);
+    }
+    throw new IllegalArgumentException("Unsupported event type " + event.getClass().getName());
+  }
+
+  /**
+   * Drops the cached lineage graphs the committed {@code update} touched, see {@link
+   * LineageCache}, then notifies the listeners of the run of a lineage event and indexes the event
+   * for search.
+   */
+  private void onModelUpdated(BaseEvent event, UpdateLineageRow update) {
+    lineageCache.invalidate(update);
+    if (event instanceof LineageEvent lineageEvent) {
+      notifyRunTransitionListeners(lineageEvent, update);
+    }
+    if (searchEngine != null) {
+      try {
+        searchEngine.index(event);
+      } catch (Exception errorOnIndex) {
+        // The event was ingested; only its search index is behind, until rebuilt.
+        log.error("Failed to index event for search", errorOnIndex);
+      }
+    }
+  }
+
+  private void notifyRunTransitionListeners(LineageEvent event, UpdateLineageRow update) {
+    if (event.getEventType() != null) {
+      boolean isStreaming =
+          Optional.ofNullable(event.getJob()).map(j -> j.isStreamingJob()).orElse(false);
+      if (event.getEventType().equalsIgnoreCase("COMPLETE") || isStreaming) {
+        buildJobOutputUpdate(update).ifPresent(runService::notify);
+      }
+      buildJobInputUpdate(update).ifPresent(runService::notify);
+      buildRunTransition(update).ifPresent(runService::notify);
+    }
   }
 
   /**
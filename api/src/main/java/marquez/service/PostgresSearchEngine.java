@@ -0,0 +1,36 @@
+/*
+ * Copyright 2018-2023 contributors to the Marquez project
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package marquez.service;
+
+import java.time.LocalDate;
+import java.util.List;
+import javax.annotation.Nullable;
+import lombok.NonNull;
+import marquez.api.models.SearchFilter;
+import marquez.api.models.SearchResult;
+import marquez.api.models.SearchSort;
+import marquez.db.SearchDao;
+
+/** Searches the {@code search_index} table of the Marquez model, see {@link SearchDao}. */
+public class PostgresSearchEngine implements SearchEngine {
+  private final SearchDao searchDao;
+
+  public PostgresSearchEngine(@NonNull final SearchDao searchDao) {
+    this.searchDao = searchDao;
+  }
+
+  @Override
+  public List<SearchResult> search(
+      @NonNull String query,
+      @Nullable SearchFilter filter,
+      @NonNull SearchSort sort,
+      int limit,
+      @Nullable String namespace,
+      @Nullable LocalDate before,
+      @Nullable LocalDate after) {
+    return searchDao.search(query, filter, sort, limit, namespace, before, after);
+  }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2018-2023 contributors to the Marquez project
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package marquez.service;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import javax.annotation.Nullable;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
+import lombok.Getter;
+
+/** Configuration for the {@link SearchEngine}. */
+public class SearchConfig {
+  public static final int DEFAULT_SNAPSHOT_INTERVAL_SECS = 60;
+
+  public enum Engine {
+    /** Searches the Marquez model, see {@link PostgresSearchEngine}. */
+    POSTGRES,
+    /**
+     * Searches an in-process index of the events ingested, see {@link LocalSearchEngine}; for a
+     * single Marquez instance only, as each instance indexes only what it ingests.
+     */
+    LOCAL
+  }
+
+  @Getter @NotNull @JsonProperty private Engine engine = Engine.POSTGRES;
+
+  /**
+   * File the local index is loaded from on start and saved to; required by the {@code LOCAL}
+   * engine, and written by the {@code search-index} command.
+   */
+  @Getter @Nullable @JsonProperty private String indexPath;
+
+  /** Interval at which the local index is saved to {@code indexPath}, if changed since. */
+  @Getter @Positive @JsonProperty
+  private int snapshotIntervalSecs = DEFAULT_SNAPSHOT_INTERVAL_SECS;
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2018-2023 contributors to the Marquez project
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package marquez.service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import javax.annotation.Nullable;
+import lombok.NonNull;
+import marquez.api.models.SearchFilter;
+import marquez.api.models.SearchResult;
+import marquez.api.models.SearchResult.ResultType;
+import marquez.api.models.SearchSort;
+import marquez.service.models.BaseEvent;
+import marquez.service.models.Dataset;
+import marquez.service.models.Job;
+
+/**
+ * Searches datasets and jobs for {@link marquez.api.SearchResource}. An engine either searches the
+ * Marquez model itself, see {@link PostgresSearchEngine}, or an index of its own fed with the
+ * events ingested, see {@link LocalSearchEngine}.
+ */
+public interface SearchEngine {
+  /**
+   * Returns the datasets and jobs that match the provided query.
+   *
+   * @param query Query containing pattern to match.
+   * @param filter The filter to apply to the query result.
+   * @param sort The sort to apply to the query result.
+   * @param limit The limit to apply to the query result.
+   * @param namespace Match jobs or datasets within the given namespace.
+   * @param before Match jobs or datasets before YYYY-MM-DD.
+   * @param after Match jobs or datasets after YYYY-MM-DD.
+   */
+  List<SearchResult> search(
+      @NonNull String query,
+      @Nullable SearchFilter filter,
+      @NonNull SearchSort sort,
+      int limit,
+      @Nullable String namespace,
+      @Nullable LocalDate before,
+      @Nullable LocalDate after);
+
+  /**
+   * Indexes the datasets and job of an event applied to the Marquez model; ignored by engines
+   * searching the Marquez model itself.
+   */
+  default void index(@NonNull BaseEvent event) {}
+
+  /** Indexes a dataset created or updated through the API; ignored like events. */
+  default void index(@NonNull Dataset dataset) {}
+
+  /** Indexes a job created or updated through the API; ignored like events. */
+  default void index(@NonNull Job job) {}
+
+  /** Removes the dataset or job {@code name} of {@code namespace} deleted; ignored like events. */
+  default void remove(@NonNull ResultType type, @NonNull String namespace, @NonNull String name) {}
+
+  /** Removes the datasets and jobs of the namespace deleted; ignored like events. */
+  default void removeNamespace(@NonNull String namespace) {}
+
+  /**
+   * Removes the datasets and jobs last updated before {@code updatedBefore}, as deleted by {@link
+   * marquez.db.DbRetention}; ignored like events.
+   */
+  default void removeUpdatedBefore(@NonNull Instant updatedBefore) {}
+}
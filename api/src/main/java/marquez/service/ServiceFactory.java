@@ -23,4 +23,5 @@ public class ServiceFactory {
   @NonNull DatasetFieldService datasetFieldService;
   @NonNull LineageService lineageService;
   @NonNull ColumnLineageService columnLineageService;
+  @NonNull SearchEngine searchEngine;
 }
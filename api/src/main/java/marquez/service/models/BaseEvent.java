@@ -5,10 +5,13 @@
 
 package marquez.service.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import com.fasterxml.jackson.annotation.JsonTypeInfo.As;
 import com.fasterxml.jackson.annotation.JsonTypeInfo.Id;
 import com.fasterxml.jackson.databind.annotation.JsonTypeIdResolver;
+import java.util.Optional;
+import javax.annotation.Nullable;
 
 @JsonTypeIdResolver(EventTypeResolver.class)
 @JsonTypeInfo(
@@ -17,4 +20,21 @@ import com.fasterxml.jackson.databind.annotation.JsonTypeIdResolver;
     property = "schemaURL",
     defaultImpl = LineageEvent.class,
     visible = true)
-public class BaseEvent extends BaseJsonModel {}
+public class BaseEvent extends BaseJsonModel {
+  /** The UTF-8 encoded JSON the event was read from, if any. */
+  @JsonIgnore @Nullable private byte[] rawJson;
+
+  /**
+   * Returns the JSON the event was read from, which is written as is in place of serializing the
+   * event again.
+   */
+  @JsonIgnore
+  public Optional<byte[]> getRawJson() {
+    return Optional.ofNullable(rawJson);
+  }
+
+  @JsonIgnore
+  public void setRawJson(@Nullable byte[] rawJson) {
+    this.rawJson = rawJson;
+  }
+}
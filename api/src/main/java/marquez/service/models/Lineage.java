@@ -8,8 +8,12 @@ package marquez.service.models;
 import static com.google.common.collect.ImmutableSortedSet.toImmutableSortedSet;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.collect.ImmutableSortedSet;
 import java.util.Comparator;
+import javax.annotation.Nullable;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NonNull;
@@ -20,13 +24,36 @@ import lombok.ToString;
 public final class Lineage {
   @Getter private final ImmutableSortedSet<Node> graph;
 
+  /**
+   * The nodes whose adjacent nodes were not all traversed within a {@link LineageBudget}; {@code
+   * null} if the lineage is complete.
+   */
+  @Getter
+  @Nullable
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  private final ImmutableSortedSet<NodeId> unexpandedNodeIds;
+
   public static ImmutableSortedSet<Node> withSortedNodes(Graph graph) {
     return graph.nodes().stream()
         .collect(toImmutableSortedSet(Comparator.comparing(node -> node.getId().getValue())));
   }
 
-  @JsonCreator
   public Lineage(@NonNull final ImmutableSortedSet<Node> graph) {
+    this(graph, null);
+  }
+
+  @JsonCreator
+  public Lineage(
+      @JsonProperty("graph") @NonNull final ImmutableSortedSet<Node> graph,
+      @JsonProperty("unexpandedNodeIds") @Nullable
+          final ImmutableSortedSet<NodeId> unexpandedNodeIds) {
     this.graph = graph;
+    this.unexpandedNodeIds = unexpandedNodeIds;
+  }
+
+  /** Returns {@code true} if the traversal of this lineage was truncated by its budget. */
+  @JsonIgnore
+  public boolean isTruncated() {
+    return unexpandedNodeIds != null;
   }
 }
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2018-2023 contributors to the Marquez project
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package marquez.service.models;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import javax.annotation.Nullable;
+
+/**
+ * Limits of a lineage traversal: the maximum number of jobs in the lineage, and the maximum number
+ * of jobs adjacent to a single job that are traversed. A job whose adjacent jobs were not all
+ * traversed is reported as unexpanded, see {@link Lineage#getUnexpandedNodeIds()}.
+ */
+public record LineageBudget(int maxNodes, int maxFanOut) {
+  public static final LineageBudget UNLIMITED =
+      new LineageBudget(Integer.MAX_VALUE, Integer.MAX_VALUE);
+
+  public LineageBudget {
+    checkArgument(maxNodes > 0, "maxNodes must be positive");
+    checkArgument(maxFanOut > 0, "maxFanOut must be positive");
+  }
+
+  /** Returns the budget of the provided limits; a {@code null} limit is unlimited. */
+  public static LineageBudget of(@Nullable Integer maxNodes, @Nullable Integer maxFanOut) {
+    return new LineageBudget(
+        maxNodes == null ? Integer.MAX_VALUE : maxNodes,
+        maxFanOut == null ? Integer.MAX_VALUE : maxFanOut);
+  }
+
+  public boolean isUnlimited() {
+    return maxNodes == Integer.MAX_VALUE && maxFanOut == Integer.MAX_VALUE;
+  }
+}
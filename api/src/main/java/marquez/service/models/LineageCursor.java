@@ -0,0 +1,52 @@
+/*
+ * Copyright 2018-2023 contributors to the Marquez project
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package marquez.service.models;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.util.Base64;
+import java.util.UUID;
+import javax.annotation.Nullable;
+import lombok.NonNull;
+
+/**
+ * The position of a page of lineage: the hop, or BFS layer, of the page, and the UUID of the last
+ * job returned of the layer, if any; the page starts at the first job of the layer ordered after
+ * it. Unlike an offset, the key stays valid as jobs are added to or removed from the layer between
+ * pages. Cursors are opaque to clients, see {@link #encode()}.
+ */
+public record LineageCursor(int depth, @Nullable UUID lastJobUuid) {
+  /** The position of the first page: the jobs the lineage of a node is traversed from. */
+  public static final LineageCursor FIRST = new LineageCursor(0, null);
+
+  public LineageCursor {
+    checkArgument(depth >= 0, "depth must not be negative");
+  }
+
+  /** Returns the cursor encoded as an opaque, URL-safe string. */
+  public String encode() {
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString(
+            (depth + ":" + (lastJobUuid == null ? "" : lastJobUuid.toString())).getBytes(UTF_8));
+  }
+
+  /**
+   * Returns the cursor of the provided string, see {@link #encode()}.
+   *
+   * @throws IllegalArgumentException if the string is not a valid cursor.
+   */
+  public static LineageCursor decode(@NonNull String cursor) {
+    final String decoded = new String(Base64.getUrlDecoder().decode(cursor), UTF_8);
+    final int separator = decoded.indexOf(':');
+    checkArgument(separator > 0, "Invalid lineage cursor: %s", cursor);
+    final String lastJobUuid = decoded.substring(separator + 1);
+    return new LineageCursor(
+        Integer.parseInt(decoded.substring(0, separator)),
+        lastJobUuid.isEmpty() ? null : UUID.fromString(lastJobUuid));
+  }
+}
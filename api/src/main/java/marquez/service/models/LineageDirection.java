@@ -0,0 +1,16 @@
+/*
+ * Copyright 2018-2023 contributors to the Marquez project
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package marquez.service.models;
+
+/** Direction in which lineage is traversed from a node. */
+public enum LineageDirection {
+  /** From each job to the jobs producing its input datasets. */
+  UPSTREAM,
+  /** From each job to the jobs consuming its output datasets. */
+  DOWNSTREAM,
+  /** From each job to all jobs sharing an input or output dataset with it. */
+  BOTH;
+}
@@ -0,0 +1,28 @@
+/*
+ * Copyright 2018-2023 contributors to the Marquez project
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package marquez.service.models;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.google.common.collect.ImmutableSortedSet;
+import javax.annotation.Nullable;
+import lombok.NonNull;
+import lombok.Value;
+
+/**
+ * A page of lineage: up to a limited number of the jobs first reached at {@code depth} hops from a
+ * node, with their input and output datasets. The edges of a dataset are limited to the jobs of
+ * the page, so a dataset shared by jobs of several pages is returned by each of them; clients merge
+ * the nodes of pages by ID. The page is the last one if {@code nextCursor} is {@code null}.
+ */
+@Value
+public class LineagePage {
+  @NonNull ImmutableSortedSet<Node> graph;
+  int depth;
+
+  @Nullable
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  String nextCursor;
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2018-2023 contributors to the Marquez project
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package marquez.service.models;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSortedSet;
+import com.google.common.collect.Iterables;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import javax.annotation.Nullable;
+import lombok.Getter;
+import lombok.NonNull;
+import marquez.common.models.DatasetId;
+import marquez.common.models.JobId;
+
+/**
+ * A lineage graph whose nodes are built one at a time, in the order of their IDs, as the graph is
+ * iterated. Serialized by Jackson as a {@link Lineage}, a large graph is written node by node
+ * without ever holding all of its nodes and edges on the heap; only the jobs and datasets the
+ * nodes are built from are held.
+ */
+@JsonPropertyOrder({"graph", "unexpandedNodeIds"})
+public final class StreamingLineage {
+  /** The nodes of the lineage, built lazily on each iteration. */
+  @Getter private final Iterable<Node> graph;
+
+  /** See {@link Lineage#getUnexpandedNodeIds()}. */
+  @Getter
+  @Nullable
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  private final ImmutableSortedSet<NodeId> unexpandedNodeIds;
+
+  private StreamingLineage(
+      Iterable<Node> graph, @Nullable ImmutableSortedSet<NodeId> unexpandedNodeIds) {
+    this.graph = graph;
+    this.unexpandedNodeIds = unexpandedNodeIds;
+  }
+
+  /** Returns the provided, already built, {@code lineage}. */
+  public static StreamingLineage of(@NonNull Lineage lineage) {
+    return new StreamingLineage(lineage.getGraph(), lineage.getUnexpandedNodeIds());
+  }
+
+  /**
+   * Returns the lineage of the provided jobs and datasets. The input and output datasets of each
+   * job are set to those of its input and output UUIDs that are among the provided datasets.
+   */
+  public static StreamingLineage of(
+      @NonNull Collection<JobData> jobData,
+      @NonNull Collection<DatasetData> datasets,
+      @Nullable ImmutableSortedSet<NodeId> unexpandedNodeIds) {
+    return new StreamingLineage(new Nodes(jobData, datasets), unexpandedNodeIds);
+  }
+
+  /** Returns the lineage with all of its nodes built. */
+  public Lineage toLineage() {
+    return new Lineage(ImmutableSortedSet.copyOf(graph), unexpandedNodeIds);
+  }
+
+  /** The nodes of jobs and datasets, and the edges between them, built on iteration. */
+  private static final class Nodes implements Iterable<Node> {
+    private final List<Entry> entries = new ArrayList<>();
+    private final Map<UUID, NodeId> jobIdsByUuid = new HashMap<>();
+    private final Map<UUID, List<UUID>> readersByDataset = new HashMap<>();
+    private final Map<UUID, List<UUID>> writersByDataset = new HashMap<>();
+
+    /** A node to build; the data of a job or a dataset. */
+    private record Entry(NodeId id, NodeData data) {}
+
+    Nodes(Collection<JobData> jobData, Collection<DatasetData> datasets) {
+      final Map<UUID, DatasetData> datasetsByUuid = new HashMap<>();
+      for (final DatasetData dataset : datasets) {
+        datasetsByUuid.put(dataset.getUuid(), dataset);
+        entries.add(new Entry(NodeId.of(datasetIdOf(dataset)), dataset));
+      }
+      for (final JobData data : jobData) {
+        if (data == null) {
+          continue;
+        }
+        final NodeId jobId = NodeId.of(new JobId(data.getNamespace(), data.getName()));
+        jobIdsByUuid.put(data.getUuid(), jobId);
+        data.setInputs(
+            datasetsOf(data.getUuid(), data.getInputUuids(), datasetsByUuid, readersByDataset));
+        data.setOutputs(
+            datasetsOf(data.getUuid(), data.getOutputUuids(), datasetsByUuid, writersByDataset));
+        entries.add(new Entry(jobId, data));
+      }
+      entries.sort(Comparator.comparing(Entry::id));
+    }
+
+    /**
+     * Returns the IDs of the provided datasets of a job, and adds the job to the jobs of each of
+     * them in {@code jobsByDataset}.
+     */
+    private static ImmutableSet<DatasetId> datasetsOf(
+        UUID job,
+        Set<UUID> datasetUuids,
+        Map<UUID, DatasetData> datasetsByUuid,
+        Map<UUID, List<UUID>> jobsByDataset) {
+      final ImmutableSet.Builder<DatasetId> datasetIds = ImmutableSet.builder();
+      for (final UUID datasetUuid : datasetUuids) {
+        final DatasetData dataset = datasetsByUuid.get(datasetUuid);
+        if (dataset != null) {
+          jobsByDataset.computeIfAbsent(datasetUuid, k -> new ArrayList<>()).add(job);
+          datasetIds.add(datasetIdOf(dataset));
+        }
+      }
+      return datasetIds.build();
+    }
+
+    @Override
+    public Iterator<Node> iterator() {
+      return Iterables.transform(entries, this::toNode).iterator();
+    }
+
+    private Node toNode(Entry entry) {
+      final NodeId origin = entry.id();
+      if (entry.data() instanceof JobData data) {
+        return new Node(
+            origin,
+            NodeType.JOB,
+            data,
+            data.getInputs().stream()
+                .map(ds -> new Edge(NodeId.of(ds), origin))
+                .collect(ImmutableSet.toImmutableSet()),
+            data.getOutputs().stream()
+                .map(ds -> new Edge(origin, NodeId.of(ds)))
+                .collect(ImmutableSet.toImmutableSet()));
+      }
+      final UUID dataset = ((DatasetData) entry.data()).getUuid();
+      return new Node(
+          origin,
+          NodeType.DATASET,
+          entry.data(),
+          writersByDataset.getOrDefault(dataset, List.of()).stream()
+              .map(job -> new Edge(jobIdsByUuid.get(job), origin))
+              .collect(ImmutableSet.toImmutableSet()),
+          readersByDataset.getOrDefault(dataset, List.of()).stream()
+              .map(job -> new Edge(origin, jobIdsByUuid.get(job)))
+              .collect(ImmutableSet.toImmutableSet()));
+    }
+  }
+
+  private static DatasetId datasetIdOf(DatasetData dataset) {
+    return new DatasetId(dataset.getNamespace(), dataset.getName());
+  }
+}
@@ -115,6 +115,10 @@ BEGIN
         SET job_symlink_target_uuid=j.symlink_target_uuid
         FROM jobs j
         WHERE job_versions_io_mapping.job_uuid=j.uuid AND j.uuid = NEW.uuid;
+        UPDATE lineage_edges
+        SET job_symlink_target_uuid=j.symlink_target_uuid, updated_at=NOW()
+        FROM jobs j
+        WHERE lineage_edges.job_uuid=j.uuid AND j.uuid = NEW.uuid;
     END IF;
     SELECT * INTO inserted_job FROM jobs_view
     WHERE uuid=job_uuid OR (new_symlink_target_uuid IS NOT NULL AND uuid=new_symlink_target_uuid);
@@ -0,0 +1,4 @@
+CREATE INDEX CONCURRENTLY lineage_events_unprocessed
+    ON lineage_events(created_at, event_time) WHERE processed = FALSE;
+CREATE UNIQUE INDEX CONCURRENTLY lineage_events_uuid
+    ON lineage_events(uuid) WHERE uuid IS NOT NULL;
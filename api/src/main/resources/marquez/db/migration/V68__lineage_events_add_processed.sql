@@ -0,0 +1,12 @@
+-- Events written ahead of being applied to the Marquez model are inserted with 'processed' set to
+-- FALSE, and set to TRUE once applied. Existing rows, and rows written synchronously, are left NULL.
+-- As lineage_events has no primary key, events written ahead are identified by 'uuid', indexed in
+-- V68.1; it is left NULL for existing rows and rows written synchronously.
+ALTER TABLE lineage_events ADD COLUMN uuid UUID;
+ALTER TABLE lineage_events ADD COLUMN processed BOOLEAN;
+-- An event written ahead that failed to apply is retried until 'processing_attempts' reaches the
+-- configured maximum; it is then left unprocessed, with its last error, for inspection.
+ALTER TABLE lineage_events ADD COLUMN processing_attempts INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE lineage_events ADD COLUMN processing_error TEXT;
+-- Events written ahead are claimed by one Marquez instance at a time, until 'claimed_until'.
+ALTER TABLE lineage_events ADD COLUMN claimed_until TIMESTAMP WITH TIME ZONE;
@@ -0,0 +1,48 @@
+-- The edges between jobs and the datasets of their current versions, maintained along with
+-- 'is_current_job_version' in job_versions_io_mapping, so that lineage is traversed by index
+-- instead of by aggregating job_versions_io_mapping as a whole.
+CREATE TABLE lineage_edges (
+  job_uuid                UUID NOT NULL REFERENCES jobs(uuid) ON DELETE CASCADE,
+  dataset_uuid            UUID NOT NULL REFERENCES datasets(uuid) ON DELETE CASCADE,
+  io_type                 VARCHAR(64) NOT NULL,
+  job_symlink_target_uuid UUID REFERENCES jobs(uuid) ON DELETE CASCADE,
+  updated_at              TIMESTAMP WITH TIME ZONE NOT NULL,
+  PRIMARY KEY (job_uuid, dataset_uuid, io_type)
+);
+
+CREATE INDEX lineage_edges_dataset_uuid ON lineage_edges (dataset_uuid);
+CREATE INDEX lineage_edges_job_symlink_target_uuid ON lineage_edges (job_symlink_target_uuid);
+
+INSERT INTO lineage_edges (job_uuid, dataset_uuid, io_type, job_symlink_target_uuid, updated_at)
+SELECT DISTINCT ON (io.job_uuid, io.dataset_uuid, io.io_type)
+       io.job_uuid, io.dataset_uuid, io.io_type, io.job_symlink_target_uuid, NOW()
+FROM job_versions_io_mapping io
+WHERE io.is_current_job_version = TRUE AND io.job_uuid IS NOT NULL;
+
+-- Edges changed since a point in time are polled by 'updated_at', see LineageGraphIndex; edges
+-- deleted, including by cascade, are logged to 'lineage_edges_deleted' for the same purpose.
+CREATE INDEX lineage_edges_updated_at ON lineage_edges (updated_at);
+
+CREATE TABLE lineage_edges_deleted (
+  job_uuid     UUID NOT NULL,
+  dataset_uuid UUID NOT NULL,
+  io_type      VARCHAR(64) NOT NULL,
+  deleted_at   TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX lineage_edges_deleted_deleted_at ON lineage_edges_deleted (deleted_at);
+
+CREATE OR REPLACE FUNCTION log_deleted_lineage_edges() RETURNS TRIGGER AS
+$$
+BEGIN
+    INSERT INTO lineage_edges_deleted (job_uuid, dataset_uuid, io_type, deleted_at)
+    SELECT job_uuid, dataset_uuid, io_type, NOW()
+    FROM deleted_edges;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER lineage_edges_log_deleted
+    AFTER DELETE ON lineage_edges
+    REFERENCING OLD TABLE AS deleted_edges
+    FOR EACH STATEMENT EXECUTE FUNCTION log_deleted_lineage_edges();
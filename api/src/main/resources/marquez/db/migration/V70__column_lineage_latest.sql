@@ -0,0 +1,43 @@
+-- The latest edge between each pair of fields in column_lineage, maintained along with
+-- column_lineage, so that current column lineage is traversed by index instead of by sorting
+-- column_lineage as a whole.
+CREATE TABLE column_lineage_latest (
+  output_dataset_field_uuid   UUID NOT NULL REFERENCES dataset_fields(uuid) ON DELETE CASCADE,
+  input_dataset_field_uuid    UUID NOT NULL REFERENCES dataset_fields(uuid) ON DELETE CASCADE,
+  output_dataset_version_uuid UUID NOT NULL REFERENCES dataset_versions(uuid) ON DELETE CASCADE,
+  input_dataset_version_uuid  UUID NOT NULL REFERENCES dataset_versions(uuid) ON DELETE CASCADE,
+  transformation_description  TEXT,
+  transformation_type         VARCHAR(255),
+  created_at                  TIMESTAMP NOT NULL,
+  updated_at                  TIMESTAMP NOT NULL,
+  PRIMARY KEY (output_dataset_field_uuid, input_dataset_field_uuid)
+);
+
+CREATE INDEX column_lineage_latest_input_dataset_field_uuid
+    ON column_lineage_latest (input_dataset_field_uuid);
+
+INSERT INTO column_lineage_latest (
+  output_dataset_field_uuid,
+  input_dataset_field_uuid,
+  output_dataset_version_uuid,
+  input_dataset_version_uuid,
+  transformation_description,
+  transformation_type,
+  created_at,
+  updated_at
+)
+SELECT DISTINCT ON (output_dataset_field_uuid, input_dataset_field_uuid)
+       output_dataset_field_uuid,
+       input_dataset_field_uuid,
+       output_dataset_version_uuid,
+       input_dataset_version_uuid,
+       transformation_description,
+       transformation_type,
+       created_at,
+       updated_at
+FROM column_lineage
+WHERE output_dataset_field_uuid IS NOT NULL
+  AND input_dataset_field_uuid IS NOT NULL
+  AND output_dataset_version_uuid IS NOT NULL
+  AND input_dataset_version_uuid IS NOT NULL
+ORDER BY output_dataset_field_uuid, input_dataset_field_uuid, updated_at DESC;
@@ -0,0 +1,54 @@
+-- The intervals during which each job read or wrote each dataset, one row per interval, so that the
+-- lineage of jobs as of a point in time is traversed by index instead of by reading every version
+-- of the jobs. A job reading a dataset again after a version that did not opens a new interval,
+-- keeping the earlier one. A NULL valid_to marks an interval that is still open.
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+CREATE TABLE job_versions_io_mapping_validity (
+  job_uuid     UUID NOT NULL REFERENCES jobs(uuid) ON DELETE CASCADE,
+  dataset_uuid UUID NOT NULL REFERENCES datasets(uuid) ON DELETE CASCADE,
+  io_type      VARCHAR(64) NOT NULL,
+  valid_from   TIMESTAMP WITH TIME ZONE NOT NULL,
+  valid_to     TIMESTAMP WITH TIME ZONE
+);
+
+-- A version of a job is current from its creation on; a previous version is current until the next
+-- version of the job is created.
+INSERT INTO job_versions_io_mapping_validity (job_uuid, dataset_uuid, io_type, valid_from, valid_to)
+SELECT DISTINCT
+       io.job_uuid,
+       io.dataset_uuid,
+       io.io_type,
+       jv.created_at,
+       CASE
+         WHEN io.is_current_job_version THEN NULL
+         ELSE COALESCE(
+           (SELECT MIN(next_jv.created_at)
+            FROM job_versions next_jv
+            WHERE next_jv.job_uuid = jv.job_uuid AND next_jv.created_at > jv.created_at),
+           jv.updated_at)
+       END
+FROM job_versions_io_mapping io
+INNER JOIN job_versions jv ON jv.uuid = io.job_version_uuid
+WHERE io.job_uuid IS NOT NULL;
+
+-- Should several versions of a job be current, keep the earliest of their open intervals.
+DELETE FROM job_versions_io_mapping_validity v
+WHERE v.valid_to IS NULL
+AND EXISTS (
+  SELECT 1
+  FROM job_versions_io_mapping_validity earlier
+  WHERE earlier.job_uuid = v.job_uuid
+  AND earlier.dataset_uuid = v.dataset_uuid
+  AND earlier.io_type = v.io_type
+  AND earlier.valid_to IS NULL
+  AND earlier.valid_from < v.valid_from);
+
+-- At most one interval of a job and a dataset is open, see JobVersionDao.
+CREATE UNIQUE INDEX job_versions_io_mapping_validity_open
+    ON job_versions_io_mapping_validity (job_uuid, dataset_uuid, io_type)
+    WHERE valid_to IS NULL;
+CREATE INDEX job_versions_io_mapping_validity_job_uuid
+    ON job_versions_io_mapping_validity USING gist (job_uuid, tstzrange(valid_from, valid_to));
+CREATE INDEX job_versions_io_mapping_validity_dataset_uuid
+    ON job_versions_io_mapping_validity USING gist (dataset_uuid, tstzrange(valid_from, valid_to));
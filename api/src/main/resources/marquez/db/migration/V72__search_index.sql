@@ -0,0 +1,162 @@
+-- A document per dataset name and per job that search matches against, maintained by triggers on
+-- the tables of datasets and jobs, so that search is served by trigram and full-text indexes
+-- instead of by scanning datasets_view and jobs_view.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE TABLE search_index (
+  uuid           UUID NOT NULL,
+  type           VARCHAR(64) NOT NULL,
+  namespace_name VARCHAR NOT NULL,
+  name           VARCHAR NOT NULL,
+  -- The name of the dataset or job and, for a job, the names of the jobs symlinked to it, one per
+  -- line.
+  search_text    TEXT NOT NULL,
+  document       TSVECTOR NOT NULL,
+  updated_at     TIMESTAMP NOT NULL,
+  PRIMARY KEY (uuid, namespace_name, name)
+);
+
+CREATE INDEX search_index_search_text ON search_index USING gin (search_text gin_trgm_ops);
+CREATE INDEX search_index_document ON search_index USING gin (document);
+CREATE INDEX search_index_updated_at ON search_index (updated_at);
+
+-- Splits names on punctuation, so that 'public.orders_v2' is matched by the words of its parts.
+CREATE OR REPLACE FUNCTION search_index_document(search_text TEXT) RETURNS TSVECTOR AS
+$$
+  SELECT to_tsvector('simple', regexp_replace(search_text, '[^[:alnum:]]+', ' ', 'g'));
+$$ LANGUAGE SQL IMMUTABLE;
+
+CREATE OR REPLACE FUNCTION refresh_search_index_dataset(dataset_uuid UUID) RETURNS VOID AS
+$$
+BEGIN
+  DELETE FROM search_index WHERE uuid = dataset_uuid;
+  INSERT INTO search_index (uuid, type, namespace_name, name, search_text, document, updated_at)
+  SELECT d.uuid, 'DATASET', d.namespace_name, d.name, d.name, search_index_document(d.name),
+         d.updated_at
+  FROM datasets_view d
+  WHERE d.uuid = dataset_uuid
+  ON CONFLICT DO NOTHING;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION refresh_search_index_job(job_uuid UUID) RETURNS VOID AS
+$$
+BEGIN
+  DELETE FROM search_index WHERE uuid = job_uuid;
+  INSERT INTO search_index (uuid, type, namespace_name, name, search_text, document, updated_at)
+  SELECT j.uuid, 'JOB', j.namespace_name, j.name, t.search_text,
+         search_index_document(t.search_text), j.updated_at
+  FROM jobs_view j,
+       LATERAL (SELECT array_to_string(array_prepend(j.name, j.aliases), E'\n') AS search_text) t
+  WHERE j.uuid = job_uuid;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION datasets_refresh_search_index() RETURNS TRIGGER AS
+$$
+BEGIN
+  IF TG_OP = 'DELETE' THEN
+    DELETE FROM search_index WHERE uuid = OLD.uuid;
+    RETURN OLD;
+  END IF;
+  PERFORM refresh_search_index_dataset(NEW.uuid);
+  RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION dataset_symlinks_refresh_search_index() RETURNS TRIGGER AS
+$$
+BEGIN
+  IF TG_OP IN ('UPDATE', 'DELETE') THEN
+    PERFORM refresh_search_index_dataset(OLD.dataset_uuid);
+  END IF;
+  IF TG_OP IN ('INSERT', 'UPDATE') THEN
+    PERFORM refresh_search_index_dataset(NEW.dataset_uuid);
+  END IF;
+  RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION jobs_refresh_search_index() RETURNS TRIGGER AS
+$$
+BEGIN
+  IF TG_OP = 'DELETE' THEN
+    DELETE FROM search_index WHERE uuid = OLD.uuid;
+    RETURN OLD;
+  END IF;
+  PERFORM refresh_search_index_job(NEW.uuid);
+  RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Sets the 'updated_at' of the document of a dataset or job in place, for updates not changing what
+-- the document is built from; ingesting an event bumps 'updated_at' of each of its datasets and jobs.
+CREATE OR REPLACE FUNCTION search_index_set_updated_at() RETURNS TRIGGER AS
+$$
+BEGIN
+  UPDATE search_index SET updated_at = NEW.updated_at WHERE uuid = NEW.uuid;
+  RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER datasets_search_index
+    AFTER INSERT OR DELETE ON datasets
+    FOR EACH ROW EXECUTE PROCEDURE datasets_refresh_search_index();
+
+CREATE TRIGGER datasets_search_index_refresh
+    AFTER UPDATE OF name, namespace_name, is_hidden ON datasets
+    FOR EACH ROW
+    WHEN (OLD.name IS DISTINCT FROM NEW.name
+       OR OLD.namespace_name IS DISTINCT FROM NEW.namespace_name
+       OR OLD.is_hidden IS DISTINCT FROM NEW.is_hidden)
+    EXECUTE PROCEDURE datasets_refresh_search_index();
+
+CREATE TRIGGER datasets_search_index_updated_at
+    AFTER UPDATE OF updated_at ON datasets
+    FOR EACH ROW
+    WHEN (OLD.updated_at IS DISTINCT FROM NEW.updated_at
+      AND OLD.name IS NOT DISTINCT FROM NEW.name
+      AND OLD.namespace_name IS NOT DISTINCT FROM NEW.namespace_name
+      AND OLD.is_hidden IS NOT DISTINCT FROM NEW.is_hidden)
+    EXECUTE PROCEDURE search_index_set_updated_at();
+
+CREATE TRIGGER dataset_symlinks_search_index
+    AFTER INSERT OR UPDATE OR DELETE ON dataset_symlinks
+    FOR EACH ROW EXECUTE PROCEDURE dataset_symlinks_refresh_search_index();
+
+CREATE TRIGGER jobs_search_index
+    AFTER INSERT OR DELETE ON jobs
+    FOR EACH ROW EXECUTE PROCEDURE jobs_refresh_search_index();
+
+CREATE TRIGGER jobs_search_index_refresh
+    AFTER UPDATE OF name, namespace_name, is_hidden, aliases, symlink_target_uuid ON jobs
+    FOR EACH ROW
+    WHEN (OLD.name IS DISTINCT FROM NEW.name
+       OR OLD.namespace_name IS DISTINCT FROM NEW.namespace_name
+       OR OLD.is_hidden IS DISTINCT FROM NEW.is_hidden
+       OR OLD.aliases IS DISTINCT FROM NEW.aliases
+       OR OLD.symlink_target_uuid IS DISTINCT FROM NEW.symlink_target_uuid)
+    EXECUTE PROCEDURE jobs_refresh_search_index();
+
+CREATE TRIGGER jobs_search_index_updated_at
+    AFTER UPDATE OF updated_at ON jobs
+    FOR EACH ROW
+    WHEN (OLD.updated_at IS DISTINCT FROM NEW.updated_at
+      AND OLD.name IS NOT DISTINCT FROM NEW.name
+      AND OLD.namespace_name IS NOT DISTINCT FROM NEW.namespace_name
+      AND OLD.is_hidden IS NOT DISTINCT FROM NEW.is_hidden
+      AND OLD.aliases IS NOT DISTINCT FROM NEW.aliases
+      AND OLD.symlink_target_uuid IS NOT DISTINCT FROM NEW.symlink_target_uuid)
+    EXECUTE PROCEDURE search_index_set_updated_at();
+
+INSERT INTO search_index (uuid, type, namespace_name, name, search_text, document, updated_at)
+SELECT DISTINCT d.uuid, 'DATASET', d.namespace_name, d.name, d.name, search_index_document(d.name),
+       d.updated_at
+FROM datasets_view d
+ON CONFLICT DO NOTHING;
+
+INSERT INTO search_index (uuid, type, namespace_name, name, search_text, document, updated_at)
+SELECT j.uuid, 'JOB', j.namespace_name, j.name, t.search_text, search_index_document(t.search_text),
+       j.updated_at
+FROM jobs_view j,
+     LATERAL (SELECT array_to_string(array_prepend(j.name, j.aliases), E'\n') AS search_text) t;
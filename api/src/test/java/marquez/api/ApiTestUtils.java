@@ -17,6 +17,7 @@ import marquez.service.LineageService;
 import marquez.service.NamespaceService;
 import marquez.service.OpenLineageService;
 import marquez.service.RunService;
+import marquez.service.SearchEngine;
 import marquez.service.ServiceFactory;
 import marquez.service.SourceService;
 import marquez.service.TagService;
@@ -37,6 +38,8 @@ public class ApiTestUtils {
         .columnLineageService(
             (ColumnLineageService)
                 mocks.getOrDefault(ColumnLineageService.class, (mock(ColumnLineageService.class))))
+        .searchEngine(
+            (SearchEngine) mocks.getOrDefault(SearchEngine.class, (mock(SearchEngine.class))))
         .openLineageService(
             (OpenLineageService)
                 mocks.getOrDefault(OpenLineageService.class, (mock(OpenLineageService.class))))
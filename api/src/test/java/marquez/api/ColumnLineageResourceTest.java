@@ -16,7 +16,12 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.google.common.collect.ImmutableSortedSet;
 import io.dropwizard.testing.junit5.DropwizardExtensionsSupport;
 import io.dropwizard.testing.junit5.ResourceExtension;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import marquez.api.filter.CompactLineageWriter;
 import marquez.common.Utils;
 import marquez.service.ColumnLineageService;
 import marquez.service.ServiceFactory;
@@ -46,7 +51,10 @@ public class ColumnLineageResourceTest {
         ApiTestUtils.mockServiceFactory(Map.of(ColumnLineageService.class, lineageService));
 
     UNDER_TEST =
-        ResourceExtension.builder().addResource(new ColumnLineageResource(serviceFactory)).build();
+        ResourceExtension.builder()
+            .addResource(new ColumnLineageResource(serviceFactory))
+            .addProvider(new CompactLineageWriter(Utils.getMapper()))
+            .build();
   }
 
   @Test
@@ -89,4 +97,43 @@ public class ColumnLineageResourceTest {
                 .getStatus())
         .isEqualTo(400);
   }
+
+  @Test
+  public void testGetColumnLineageInCompactFormat() {
+    final Response response =
+        UNDER_TEST
+            .target("/api/v1/column-lineage")
+            .queryParam("nodeId", "dataset:namespace:commonDataset")
+            .request(CompactLineageWriter.MEDIA_TYPE, "application/json;q=0.9")
+            .get();
+
+    assertThat(response.getMediaType())
+        .matches(type -> type.isCompatible(MediaType.valueOf(CompactLineageWriter.MEDIA_TYPE)));
+    final Map<?, ?> compact = response.readEntity(Map.class);
+    final Node node = LINEAGE.getGraph().first();
+    final List<?> nodeIds = (List<?>) compact.get("nodeIds");
+    final Map<?, ?> compactNode = (Map<?, ?>) ((List<?>) compact.get("nodes")).get(0);
+    assertThat(nodeIds.get((Integer) compactNode.get("id"))).isEqualTo(node.getId().getValue());
+    assertThat(nodeIds)
+        .hasSize(
+            (int)
+                Stream.concat(node.getInEdges().stream(), node.getOutEdges().stream())
+                    .flatMap(edge -> Stream.of(edge.getOrigin(), edge.getDestination()))
+                    .distinct()
+                    .count());
+    assertThat((List<?>) compactNode.get("inEdges")).hasSameSizeAs(node.getInEdges());
+    assertThat((List<?>) compactNode.get("outEdges")).hasSameSizeAs(node.getOutEdges());
+  }
+
+  @Test
+  public void testGetColumnLineageInJsonByDefault() {
+    final Response response =
+        UNDER_TEST
+            .target("/api/v1/column-lineage")
+            .queryParam("nodeId", "dataset:namespace:commonDataset")
+            .request()
+            .get();
+
+    assertThat(response.getMediaType().isCompatible(MediaType.APPLICATION_JSON_TYPE)).isTrue();
+  }
 }
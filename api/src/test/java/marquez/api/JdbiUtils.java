@@ -16,6 +16,7 @@ public class JdbiUtils {
           handle.execute("DELETE FROM runs_input_mapping");
           handle.execute("DELETE FROM dataset_versions_field_mapping");
           handle.execute("DELETE FROM stream_versions");
+          handle.execute("DELETE FROM column_lineage_latest");
           handle.execute("DELETE FROM column_lineage");
           handle.execute("DELETE FROM dataset_facets");
           handle.execute("DELETE FROM dataset_versions");
@@ -28,6 +29,9 @@ public class JdbiUtils {
           handle.execute("DELETE FROM run_facets");
           handle.execute("DELETE FROM runs");
           handle.execute("DELETE FROM run_args");
+          handle.execute("DELETE FROM lineage_edges");
+          handle.execute("DELETE FROM lineage_edges_deleted");
+          handle.execute("DELETE FROM job_versions_io_mapping_validity");
           handle.execute("DELETE FROM job_versions_io_mapping");
           handle.execute("DELETE FROM job_versions");
           handle.execute("DELETE FROM jobs_fqn");
@@ -36,6 +40,7 @@ public class JdbiUtils {
           handle.execute("DELETE FROM dataset_fields");
           handle.execute("DELETE FROM datasets");
           handle.execute("DELETE FROM sources");
+          handle.execute("DELETE FROM search_index");
           handle.execute("DELETE FROM namespace_ownerships");
           handle.execute("DELETE FROM namespaces");
           handle.execute("DELETE FROM run_facets");
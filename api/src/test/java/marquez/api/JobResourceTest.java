@@ -18,9 +18,11 @@ import io.dropwizard.testing.junit5.ResourceExtension;
 import java.util.Map;
 import java.util.UUID;
 import marquez.common.Utils;
+import marquez.db.IngestCaches;
 import marquez.db.JobFacetsDao;
 import marquez.db.JobVersionDao;
 import marquez.db.RunFacetsDao;
+import marquez.service.LineageCache;
 import marquez.service.RunService;
 import marquez.service.ServiceFactory;
 import marquez.service.models.JobFacets;
@@ -60,7 +62,14 @@ class JobResourceTest {
 
     UNDER_TEST =
         ResourceExtension.builder()
-            .addResource(new JobResource(serviceFactory, jobVersionDao, jobFacetsDao, runFacetsDao))
+            .addResource(
+                new JobResource(
+                    serviceFactory,
+                    jobVersionDao,
+                    jobFacetsDao,
+                    runFacetsDao,
+                    IngestCaches.DISABLED,
+                    LineageCache.DISABLED))
             .build();
   }
 
@@ -15,8 +15,10 @@ import marquez.api.filter.exclusions.ExclusionsConfig;
 import marquez.common.models.NamespaceName;
 import marquez.common.models.OwnerName;
 import marquez.db.BaseDao;
+import marquez.db.IngestCaches;
 import marquez.db.NamespaceDao;
 import marquez.jdbi.MarquezJdbiExternalPostgresExtension;
+import marquez.service.LineageCache;
 import marquez.service.NamespaceService;
 import marquez.service.ServiceFactory;
 import marquez.service.models.Namespace;
@@ -48,7 +50,8 @@ public class NamespaceResourceTest {
     namespaceService = new NamespaceService(baseDao);
 
     when(serviceFactory.getNamespaceService()).thenReturn(namespaceService);
-    namespaceResource = new NamespaceResource(serviceFactory);
+    namespaceResource =
+        new NamespaceResource(serviceFactory, IngestCaches.DISABLED, LineageCache.DISABLED);
   }
 
   @Test
@@ -8,8 +8,10 @@ package marquez.api;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -17,16 +19,39 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.google.common.collect.ImmutableSortedSet;
 import io.dropwizard.testing.junit5.DropwizardExtensionsSupport;
 import io.dropwizard.testing.junit5.ResourceExtension;
+import io.dropwizard.util.Resources;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.core.GenericType;
 import javax.ws.rs.core.Response;
+import marquez.api.filter.RawEventReaderInterceptor;
 import marquez.common.Utils;
 import marquez.db.OpenLineageDao;
 import marquez.service.JobService;
 import marquez.service.LineageService;
+import marquez.service.OpenLineageService;
+import marquez.service.OpenLineageService.BatchEventResult;
 import marquez.service.ServiceFactory;
+import marquez.service.models.BaseEvent;
 import marquez.service.models.Lineage;
+import marquez.service.models.LineageBudget;
+import marquez.service.models.LineageCursor;
+import marquez.service.models.LineageDirection;
+import marquez.service.models.LineageEvent;
+import marquez.service.models.LineagePage;
 import marquez.service.models.Node;
 import marquez.service.models.NodeId;
+import marquez.service.models.StreamingLineage;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 
@@ -34,27 +59,100 @@ import org.junit.jupiter.api.extension.ExtendWith;
 class OpenLineageResourceTest {
   private static ResourceExtension UNDER_TEST;
   private static Lineage LINEAGE;
+  private static Lineage UPSTREAM_LINEAGE;
+  private static final List<LineageEvent> CREATED = new CopyOnWriteArrayList<>();
+  private static final LineageCursor CURSOR = new LineageCursor(1, UUID.randomUUID());
+  private static final int MAX_BATCH_SIZE = 2;
 
   static {
     LineageService lineageService = mock(LineageService.class);
+    OpenLineageService openLineageService = mock(OpenLineageService.class);
     OpenLineageDao openLineageDao = mock(OpenLineageDao.class);
     JobService jobService = mock(JobService.class);
     when(jobService.exists(anyString(), anyString())).thenReturn(true);
+    when(jobService.exists("test-namespace", "missing-job")).thenReturn(false);
 
     Node testNode =
         Utils.fromJson(
             OpenLineageResourceTest.class.getResourceAsStream("/lineage/node.json"),
             new TypeReference<>() {});
     LINEAGE = new Lineage(ImmutableSortedSet.of(testNode));
-    when(lineageService.lineage(any(NodeId.class), anyInt(), anyBoolean())).thenReturn(LINEAGE);
+    UPSTREAM_LINEAGE = new Lineage(ImmutableSortedSet.of());
+    when(lineageService.streamLineage(
+            any(NodeId.class),
+            anyInt(),
+            eq(LineageDirection.BOTH),
+            any(LineageBudget.class),
+            anyBoolean()))
+        .thenReturn(StreamingLineage.of(LINEAGE));
+    when(lineageService.streamLineage(
+            any(NodeId.class),
+            anyInt(),
+            eq(LineageDirection.UPSTREAM),
+            any(LineageBudget.class),
+            anyBoolean()))
+        .thenReturn(StreamingLineage.of(UPSTREAM_LINEAGE));
+    when(lineageService.lineageAsOf(any(NodeId.class), anyInt(), any(), any(Instant.class)))
+        .thenReturn(UPSTREAM_LINEAGE);
+    when(lineageService.lineage(anyCollection(), anyInt(), any(), anyBoolean()))
+        .thenReturn(StreamingLineage.of(LINEAGE));
+    when(lineageService.lineageByNode(anyCollection(), anyInt(), any(), anyBoolean()))
+        .thenReturn(Map.of(NodeId.of("job:test-namespace:test-job"), LINEAGE));
+    when(lineageService.existingNodes(anyCollection()))
+        .thenAnswer(
+            invocation ->
+                invocation.<Collection<NodeId>>getArgument(0).stream()
+                    .filter(nodeId -> !nodeId.getValue().endsWith("missing-job"))
+                    .collect(Collectors.toSet()));
+    when(lineageService.lineagePage(
+            any(NodeId.class),
+            anyInt(),
+            any(LineageDirection.class),
+            eq(CURSOR),
+            anyInt()))
+        .thenReturn(
+            new LineagePage(ImmutableSortedSet.of(), 1, new LineageCursor(2, null).encode()));
+
+    // Fail every event of a batch except the first one.
+    when(openLineageService.createBatchAsync(any()))
+        .thenAnswer(
+            invocation -> {
+              List<BaseEvent> events = invocation.getArgument(0);
+              return CompletableFuture.completedFuture(
+                  IntStream.range(0, events.size())
+                      .mapToObj(
+                          i ->
+                              new BatchEventResult(
+                                  i,
+                                  events.get(i),
+                                  true,
+                                  i == 0 ? null : new IllegalArgumentException("invalid event")))
+                      .toList());
+            });
+
+    when(openLineageService.createAsync(any(LineageEvent.class)))
+        .thenAnswer(
+            invocation -> {
+              CREATED.add(invocation.getArgument(0));
+              return CompletableFuture.completedFuture(null);
+            });
 
     ServiceFactory serviceFactory =
         ApiTestUtils.mockServiceFactory(
-            Map.of(LineageService.class, lineageService, JobService.class, jobService));
+            Map.of(
+                LineageService.class,
+                lineageService,
+                JobService.class,
+                jobService,
+                OpenLineageService.class,
+                openLineageService));
 
     UNDER_TEST =
         ResourceExtension.builder()
-            .addResource(new OpenLineageResource(serviceFactory, openLineageDao))
+            .addResource(
+                new OpenLineageResource(
+                    serviceFactory, openLineageDao, Utils.getMapper(), MAX_BATCH_SIZE))
+            .addProvider(RawEventReaderInterceptor.class)
             .build();
   }
 
@@ -71,6 +169,146 @@ class OpenLineageResourceTest {
     assertEquals(lineage, LINEAGE);
   }
 
+  @Test
+  public void testGetLineageInDirection() {
+    final Lineage lineage =
+        UNDER_TEST
+            .target("/api/v1/lineage")
+            .queryParam("nodeId", "job:test-namespace:test-job")
+            .queryParam("direction", "UPSTREAM")
+            .request()
+            .get()
+            .readEntity(Lineage.class);
+
+    assertEquals(lineage, UPSTREAM_LINEAGE);
+  }
+
+  @Test
+  public void testGetLineageWithInvalidBudget() {
+    final Response response =
+        UNDER_TEST
+            .target("/api/v1/lineage")
+            .queryParam("nodeId", "job:test-namespace:test-job")
+            .queryParam("maxNodes", 0)
+            .request()
+            .get();
+
+    assertEquals(response.getStatus(), 400);
+  }
+
+  @Test
+  public void testGetLineageAsOf() {
+    final Lineage lineage =
+        UNDER_TEST
+            .target("/api/v1/lineage")
+            .queryParam("nodeId", "job:test-namespace:test-job")
+            .queryParam("asOf", "2023-01-01T00:00:00Z")
+            .request()
+            .get()
+            .readEntity(Lineage.class);
+
+    assertEquals(lineage, UPSTREAM_LINEAGE);
+  }
+
+  @Test
+  public void testGetLineageAsOfWithBudget() {
+    final Response response =
+        UNDER_TEST
+            .target("/api/v1/lineage")
+            .queryParam("nodeId", "job:test-namespace:test-job")
+            .queryParam("asOf", "2023-01-01T00:00:00Z")
+            .queryParam("maxNodes", 10)
+            .request()
+            .get();
+
+    assertEquals(response.getStatus(), 400);
+  }
+
+  @Test
+  public void testGetLineagePage() {
+    final Map<?, ?> page =
+        UNDER_TEST
+            .target("/api/v1/lineage/pages")
+            .queryParam("nodeId", "job:test-namespace:test-job")
+            .queryParam("cursor", CURSOR.encode())
+            .request()
+            .get()
+            .readEntity(Map.class);
+
+    assertEquals(page.get("depth"), 1);
+    assertEquals(LineageCursor.decode((String) page.get("nextCursor")), new LineageCursor(2, null));
+  }
+
+  @Test
+  public void testGetLineagePageWithInvalidCursor() {
+    final Response response =
+        UNDER_TEST
+            .target("/api/v1/lineage/pages")
+            .queryParam("nodeId", "job:test-namespace:test-job")
+            .queryParam("cursor", "not-a-cursor")
+            .request()
+            .get();
+
+    assertEquals(response.getStatus(), 400);
+  }
+
+  @Test
+  public void testQueryLineage() {
+    final Lineage lineage =
+        UNDER_TEST
+            .target("/api/v1/lineage/query")
+            .request()
+            .post(
+                Entity.json(
+                    Map.of(
+                        "nodeIds",
+                        List.of("job:test-namespace:test-job", "job:test-namespace:other-job"))))
+            .readEntity(Lineage.class);
+
+    assertEquals(lineage, LINEAGE);
+  }
+
+  @Test
+  public void testQueryLineagePerNode() {
+    final Map<String, List<Map<String, Object>>> lineages =
+        UNDER_TEST
+            .target("/api/v1/lineage/query")
+            .request()
+            .post(
+                Entity.json(
+                    Map.of("nodeIds", List.of("job:test-namespace:test-job"), "perNode", true)))
+            .readEntity(new GenericType<>() {});
+
+    assertEquals(lineages.get("lineages").size(), 1);
+    assertEquals(lineages.get("lineages").get(0).get("nodeId"), "job:test-namespace:test-job");
+  }
+
+  @Test
+  public void testQueryLineageOfMissingNode() {
+    final Response response =
+        UNDER_TEST
+            .target("/api/v1/lineage/query")
+            .request()
+            .post(
+                Entity.json(
+                    Map.of(
+                        "nodeIds",
+                        List.of("job:test-namespace:test-job", "job:test-namespace:missing-job"))));
+
+    assertEquals(response.getStatus(), 404);
+  }
+
+  @Test
+  public void testQueryLineageWithoutNodeIds() {
+    final Response response =
+        UNDER_TEST
+            .target("/api/v1/lineage/query")
+            .request()
+            .post(Entity.json(Map.of("nodeIds", List.of())));
+
+    assertEquals(response.getStatus(), 422);
+  }
+
   @Test
   public void testGetLineageEventsBadSort() {
     final Response response =
@@ -82,4 +320,59 @@ class OpenLineageResourceTest {
 
     assertEquals(response.getStatus(), 400);
   }
+
+  @Test
+  public void testCreateKeepsRawEvent() throws IOException {
+    final String event =
+        Resources.toString(
+            Resources.getResource("open_lineage/event_full.json"), StandardCharsets.UTF_8);
+    final Response response =
+        UNDER_TEST.target("/api/v1/lineage").request().post(Entity.json(event));
+
+    assertEquals(201, response.getStatus());
+    final LineageEvent created = CREATED.get(CREATED.size() - 1);
+    assertEquals(event, new String(created.getRawJson().orElseThrow(), StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void testCreateBatch() throws IOException {
+    final String event =
+        Resources.toString(
+            Resources.getResource("open_lineage/event_required_only.json"),
+            StandardCharsets.UTF_8);
+    final Response response =
+        UNDER_TEST
+            .target("/api/v1/lineage/batch")
+            .request()
+            .post(Entity.json("[" + event + "," + event + "]"));
+
+    assertEquals(207, response.getStatus());
+    final Map<String, Object> results =
+        response.readEntity(new GenericType<Map<String, Object>>() {});
+    assertEquals(1, results.get("succeeded"));
+    assertEquals(1, results.get("failed"));
+  }
+
+  @Test
+  public void testCreateBatchEmpty() {
+    final Response response =
+        UNDER_TEST.target("/api/v1/lineage/batch").request().post(Entity.json("[]"));
+
+    assertEquals(422, response.getStatus());
+  }
+
+  @Test
+  public void testCreateBatchTooLarge() throws IOException {
+    final String event =
+        Resources.toString(
+            Resources.getResource("open_lineage/event_required_only.json"),
+            StandardCharsets.UTF_8);
+    final Response response =
+        UNDER_TEST
+            .target("/api/v1/lineage/batch")
+            .request()
+            .post(Entity.json("[" + String.join(",", event, event, event) + "]"));
+
+    assertEquals(413, response.getStatus());
+  }
 }
@@ -527,6 +527,59 @@ public class ColumnLineageDaoTest {
     assertThat(inputFields).hasSize(2); // should contain col_a and col_b
   }
 
+  @Test
+  void testGetCurrentLineageMatchesLineageAsOfNow() {
+    UpdateLineageRow lineageRow = createLineage(openLineageDao, dataset_A, dataset_B);
+    createLineage(openLineageDao, dataset_B, dataset_C);
+    createLineage(openLineageDao, dataset_B, dataset_C);
+
+    UpdateLineageRow.DatasetRecord datasetRecord_a = lineageRow.getInputs().get().get(0);
+    UUID field_col_a = fieldDao.findUuid(datasetRecord_a.getDatasetRow().getUuid(), "col_a").get();
+    UpdateLineageRow.DatasetRecord datasetRecord_b = lineageRow.getOutputs().get().get(0);
+    UUID field_col_c = fieldDao.findUuid(datasetRecord_b.getDatasetRow().getUuid(), "col_c").get();
+
+    assertThat(dao.getLineage(20, List.of(field_col_c), false))
+        .extracting(ColumnLineageNodeData::getField)
+        .containsExactly("col_c");
+    assertThat(dao.getLineage(20, List.of(field_col_c), true))
+        .usingRecursiveFieldByFieldElementComparator()
+        .containsExactlyInAnyOrderElementsOf(
+            dao.getLineage(20, List.of(field_col_c), true, Instant.now()))
+        .extracting(ColumnLineageNodeData::getField)
+        .containsExactlyInAnyOrder("col_c", "col_d");
+    // Lineage is traversed from the edges into a field, and col_a has none.
+    assertThat(dao.getLineage(20, List.of(field_col_a), true)).isEmpty();
+  }
+
+  @Test
+  void testUpsertMaintainsLatestColumnLineage() {
+    UUID inputFieldUuid = UUID.randomUUID();
+    fieldDao.upsert(inputFieldUuid, now, "a", "string", "desc", inputDatasetRow.getUuid());
+
+    dao.upsertColumnLineageRow(
+        outputDatasetVersionRow.getUuid(),
+        outputDatasetFieldUuid,
+        List.of(Pair.of(inputDatasetVersionRow.getUuid(), inputFieldUuid)),
+        transformationDescription,
+        transformationType,
+        now.plusSeconds(1000));
+    // An older edge between the same fields does not replace the latest one.
+    dao.upsertColumnLineageRow(
+        inputDatasetVersionRow.getUuid(),
+        outputDatasetFieldUuid,
+        List.of(Pair.of(inputDatasetVersionRow.getUuid(), inputFieldUuid)),
+        transformationDescription,
+        transformationType,
+        now);
+
+    List<ColumnLineageRow> edges =
+        dao.getLatestColumnLineageEdges(List.of(outputDatasetFieldUuid), List.of());
+    assertThat(edges).hasSize(1);
+    assertEquals(outputDatasetVersionRow.getUuid(), edges.get(0).getOutputDatasetVersionUuid());
+    assertThat(dao.getLatestColumnLineageEdges(List.of(), List.of(inputFieldUuid)))
+        .isEqualTo(edges);
+  }
+
   private Set<ColumnLineageNodeData> getColumnLineage(UpdateLineageRow lineageRow, String field) {
     UpdateLineageRow.DatasetRecord datasetRecord = lineageRow.getOutputs().get().get(0);
     UUID field_UUID = fieldDao.findUuid(datasetRecord.getDatasetRow().getUuid(), field).get();
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2018-2023 contributors to the Marquez project
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package marquez.db;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import marquez.db.models.ColumnLineageRow;
+import org.junit.jupiter.api.Test;
+
+class ColumnLineageTraversalTest {
+  private final UUID a = UUID.randomUUID();
+  private final UUID b = UUID.randomUUID();
+  private final UUID c = UUID.randomUUID();
+  private final UUID d = UUID.randomUUID();
+
+  // c <- a, b; d <- c; a <- d
+  private final ColumnLineageRow ca = edge(c, a);
+  private final ColumnLineageRow cb = edge(c, b);
+  private final ColumnLineageRow dc = edge(d, c);
+  private final ColumnLineageRow ad = edge(a, d);
+  private final List<ColumnLineageRow> rows = List.of(ca, cb, dc, ad);
+
+  private final AtomicInteger reads = new AtomicInteger();
+  private final ColumnLineageTraversal.Edges edges =
+      (outputFieldUuids, inputFieldUuids) -> {
+        reads.incrementAndGet();
+        return rows.stream()
+            .filter(
+                row ->
+                    outputFieldUuids.contains(row.getOutputDatasetFieldUuid())
+                        || inputFieldUuids.contains(row.getInputDatasetFieldUuid()))
+            .toList();
+      };
+
+  @Test
+  public void testTraversesUpstreamEdgesOnceWhenCycleExists() {
+    assertThat(ColumnLineageTraversal.traverse(List.of(c), 20, false, edges))
+        .containsExactly(ca, cb, ad, dc);
+    // The traversal ends at c, which is not expanded again from d.
+    assertThat(reads).hasValue(3);
+  }
+
+  @Test
+  public void testLimitsTraversalToDepth() {
+    assertThat(ColumnLineageTraversal.traverse(List.of(c), 1, false, edges))
+        .containsExactly(ca, cb);
+    assertThat(ColumnLineageTraversal.traverse(List.of(d), 2, false, edges))
+        .containsExactly(dc, ca, cb);
+  }
+
+  @Test
+  public void testTraversesDownstreamFromEdgesIntoFields() {
+    assertThat(ColumnLineageTraversal.traverse(List.of(d), 2, true, edges))
+        .containsExactly(dc, ca, cb, ad);
+    assertThat(ColumnLineageTraversal.traverse(List.of(), 20, true, edges)).isEmpty();
+  }
+
+  private static ColumnLineageRow edge(UUID outputFieldUuid, UUID inputFieldUuid) {
+    final Instant now = Instant.now();
+    return new ColumnLineageRow(
+        UUID.randomUUID(),
+        outputFieldUuid,
+        UUID.randomUUID(),
+        inputFieldUuid,
+        null,
+        null,
+        now,
+        now);
+  }
+}
@@ -15,6 +15,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 import marquez.api.JdbiUtils;
 import marquez.db.models.UpdateLineageRow;
 import marquez.jdbi.MarquezJdbiExternalPostgresExtension;
@@ -22,6 +23,9 @@ import marquez.service.models.LineageEvent;
 import marquez.service.models.LineageEvent.Dataset;
 import marquez.service.models.LineageEvent.JobFacet;
 import org.jdbi.v3.core.Jdbi;
+import org.jdbi.v3.core.statement.SqlLogger;
+import org.jdbi.v3.core.statement.SqlStatements;
+import org.jdbi.v3.core.statement.StatementContext;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
@@ -53,6 +57,7 @@ public class DatasetFacetsDaoTest {
 
   @AfterEach
   public void tearDown(Jdbi jdbi) {
+    jdbi.getConfig(SqlStatements.class).setSqlLogger(SqlLogger.NOP_SQL_LOGGER);
     JdbiUtils.cleanDatabase(jdbi);
   }
 
@@ -369,6 +374,51 @@ public class DatasetFacetsDaoTest {
         .isEqualTo("{\"inputFacet2\": \"{some-facet2}\"}");
   }
 
+  @Test
+  public void testInsertDatasetAndInputDatasetFacetsOfEventInOneBatch() {
+    final AtomicInteger facetInserts = new AtomicInteger();
+    jdbi.getConfig(SqlStatements.class)
+        .setSqlLogger(
+            new SqlLogger() {
+              @Override
+              public void logBeforeExecution(StatementContext context) {
+                if (context.getRawSql().contains("INSERT INTO dataset_facets")) {
+                  facetInserts.incrementAndGet();
+                }
+              }
+            });
+    UpdateLineageRow lineageRow =
+        LineageTestUtils.createLineageRow(
+            jdbi.onDemand(OpenLineageDao.class),
+            "job_" + UUID.randomUUID(),
+            "COMPLETE",
+            JobFacet.builder().build(),
+            Arrays.asList(
+                new Dataset(
+                    "namespace",
+                    "dataset_input",
+                    LineageEvent.DatasetFacets.builder()
+                        .documentation(
+                            new LineageEvent.DocumentationDatasetFacet(
+                                PRODUCER_URL, SCHEMA_URL, "some-doc"))
+                        .build(),
+                    LineageEvent.InputDatasetFacets.builder()
+                        .additional(ImmutableMap.of("inputFacet1", "{some-facet1}"))
+                        .build(),
+                    null)),
+            Collections.emptyList(),
+            null);
+
+    DatasetFacetsDao.DatasetFacetRow documentation = getDatasetFacet(lineageRow, "documentation");
+    DatasetFacetsDao.DatasetFacetRow input = getDatasetFacet(lineageRow, "inputFacet1");
+
+    assertThat(documentation.type()).isEqualTo(DatasetFacetsDao.Type.DATASET);
+    assertThat(input.type()).isEqualTo(DatasetFacetsDao.Type.INPUT);
+    assertThat(input.datasetVersionUuid()).isEqualTo(documentation.datasetVersionUuid());
+    assertThat(input.runUuid()).isEqualTo(lineageRow.getRun().getUuid());
+    assertThat(facetInserts).hasValue(1);
+  }
+
   private UpdateLineageRow createLineageRowWithInputDataset(
       LineageEvent.DatasetFacets.DatasetFacetsBuilder inputDatasetFacetsbuilder) {
     LineageEvent.JobFacet jobFacet = JobFacet.builder().build();
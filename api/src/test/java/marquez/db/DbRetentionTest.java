@@ -684,4 +684,54 @@ public class DbRetentionTest extends DbTest {
       fail("failed to apply retention policy", e);
     }
   }
+
+  @Test
+  public void testRetentionOnDbOrErrorWithOlEventsOlderThanXDays_skipIfNotProcessed() {
+    // (1) Configure OL.
+    final URI olProducer = URI.create("https://test.com/test");
+    final OpenLineage ol = new OpenLineage(olProducer);
+
+    // (2) Add namespace and job for OL events.
+    final String namespaceName = newNamespaceName().getValue();
+    final String jobName = newJobName().getValue();
+
+    // (3) Add OL events older than X days, processed.
+    final Set<OpenLineage.RunEvent> olEventsOlderThanXDays =
+        newRunEvents(ol, OLDER_THAN_X_DAYS, namespaceName, jobName, 2);
+    DB.insertAll(olEventsOlderThanXDays);
+
+    // (4) Add OL events older than X days, written ahead and not yet applied to the model;
+    // therefore, the OL events will be skipped when applying retention policy.
+    final Set<OpenLineage.RunEvent> olEventsOlderThanXDaysNotProcessed =
+        newRunEvents(ol, OLDER_THAN_X_DAYS, namespaceName, jobName, 2);
+    DB.insertAll(olEventsOlderThanXDaysNotProcessed);
+    try (final Handle handle = DB.open()) {
+      handle
+          .createUpdate(
+              "UPDATE lineage_events SET processed = FALSE WHERE run_uuid IN (<runUuids>)")
+          .bindList(
+              "runUuids",
+              olEventsOlderThanXDaysNotProcessed.stream()
+                  .map(olEvent -> olEvent.getRun().getRunId())
+                  .toList())
+          .execute();
+    }
+
+    // (5) Apply retention policy on OL events older than X days.
+    try {
+      DbRetention.retentionOnDbOrError(
+          jdbiExtension.getJdbi(), NUMBER_OF_ROWS_PER_BATCH, RETENTION_DAYS);
+      // (6) Query 'lineage events' table for events deleted. We want to ensure: OL events older
+      // than X days not yet processed have not been deleted; OL events older than X days have
+      // been deleted.
+      try (final Handle handle = DB.open()) {
+        for (final OpenLineage.RunEvent olEvent : olEventsOlderThanXDaysNotProcessed) {
+          assertThat(DbTestUtils.olEventsExist(handle, Set.of(olEvent))).isTrue();
+        }
+        assertThat(DbTestUtils.olEventsExist(handle, olEventsOlderThanXDays)).isFalse();
+      }
+    } catch (DbRetentionException e) {
+      fail("failed to apply retention policy", e);
+    }
+  }
 }
@@ -0,0 +1,195 @@
+/*
+ * Copyright 2018-2023 contributors to the Marquez project
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package marquez.db;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import marquez.db.models.DatasetRow;
+import marquez.db.models.DatasetVersionRow;
+import marquez.db.models.JobRow;
+import marquez.db.models.NamespaceRow;
+import marquez.db.models.SourceRow;
+import marquez.db.models.UpdateLineageRow.DatasetRecord;
+import marquez.service.IngestMetrics;
+import org.jdbi.v3.core.Handle;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class IngestCachesTest {
+  private static final String NAMESPACE = "test-namespace";
+  private static final Instant CREATED_AT = Instant.parse("2023-01-01T00:00:00Z");
+
+  private final AtomicInteger upserts = new AtomicInteger();
+  private final AtomicInteger hits = new AtomicInteger();
+  private final List<Runnable> afterCommit = new ArrayList<>();
+  private IngestCaches caches;
+  private Handle handle;
+  private Handle transaction;
+
+  @BeforeEach
+  public void setUp() {
+    caches = new IngestCaches(10, 10, Duration.ofMinutes(1));
+    handle = mock(Handle.class);
+    transaction = mock(Handle.class);
+    when(transaction.isInTransaction()).thenReturn(true);
+    doAnswer(
+            invocation -> {
+              afterCommit.add(invocation.getArgument(0));
+              return null;
+            })
+        .when(transaction)
+        .afterCommit(any());
+  }
+
+  @Test
+  public void testCachesNamespaceOnCommit() {
+    final double cacheHits = IngestMetrics.identityCacheRequests.labels("namespace", "hit").get();
+
+    final NamespaceRow row =
+        caches.namespace(transaction, NAMESPACE, upsert(namespaceRow()), this::hit);
+    // The transaction upserting the namespace has not committed yet.
+    assertThat(caches.namespace(transaction, NAMESPACE, upsert(namespaceRow()), this::hit))
+        .isNotSameAs(row);
+    assertThat(upserts).hasValue(2);
+
+    afterCommit.get(0).run();
+    assertThat(caches.namespace(handle, NAMESPACE, upsert(null), this::hit)).isSameAs(row);
+    assertThat(upserts).hasValue(2);
+    assertThat(hits).hasValue(1);
+    assertThat(IngestMetrics.identityCacheRequests.labels("namespace", "hit").get())
+        .isEqualTo(cacheHits + 1);
+
+    caches.invalidateNamespace(NAMESPACE);
+    caches.namespace(handle, NAMESPACE, upsert(namespaceRow()), this::hit);
+    assertThat(upserts).hasValue(3);
+  }
+
+  @Test
+  public void testUpsertsSourceWhenAttributesChange() {
+    final List<String> attributes = Arrays.asList("POSTGRESQL", "jdbc:postgresql://db:5432");
+    final SourceRow row = sourceRow();
+
+    caches.source(handle, "source", attributes, upsert(row));
+    assertThat(caches.source(handle, "source", attributes, upsert(null))).isSameAs(row);
+    assertThat(upserts).hasValue(1);
+
+    final List<String> changed = Arrays.asList("POSTGRESQL", "jdbc:postgresql://db:5433");
+    caches.source(handle, "source", changed, upsert(row));
+    assertThat(upserts).hasValue(2);
+  }
+
+  @Test
+  public void testInvalidatesDeletedJob() {
+    final IngestCaches.JobKey key = new IngestCaches.JobKey(NAMESPACE, "job", null);
+    final List<String> attributes = Arrays.asList("BATCH", null);
+    final JobRow row = jobRow();
+
+    caches.job(handle, key, attributes, upsert(row), this::hit);
+    assertThat(caches.job(handle, key, attributes, upsert(null), this::hit)).isSameAs(row);
+    assertThat(hits).hasValue(1);
+
+    caches.invalidateJob(NAMESPACE, "job");
+    caches.job(handle, key, attributes, upsert(row), this::hit);
+    assertThat(upserts).hasValue(2);
+  }
+
+  @Test
+  public void testReturnsInputDatasetOfCurrentVersionOnly() {
+    final IngestCaches.DatasetKey key = new IngestCaches.DatasetKey(NAMESPACE, "dataset");
+    final List<String> fingerprint = Arrays.asList("POSTGRESQL", "schema-hash");
+    final UUID versionUuid = UUID.randomUUID();
+    final DatasetRecord record = datasetRecord(versionUuid);
+
+    caches.putInputDataset(transaction, key, fingerprint, record);
+    assertThat(caches.inputDataset(key, fingerprint, uuid -> Optional.of(versionUuid))).isEmpty();
+    afterCommit.forEach(Runnable::run);
+    assertThat(caches.inputDataset(key, fingerprint, uuid -> Optional.of(versionUuid)))
+        .contains(record);
+    assertThat(
+            caches.inputDataset(
+                key, Arrays.asList("POSTGRESQL", "other-hash"), uuid -> Optional.of(versionUuid)))
+        .isEmpty();
+
+    // A new version of the dataset was written.
+    assertThat(caches.inputDataset(key, fingerprint, uuid -> Optional.of(UUID.randomUUID())))
+        .isEmpty();
+    assertThat(caches.inputDataset(key, fingerprint, uuid -> Optional.of(versionUuid))).isEmpty();
+  }
+
+  @Test
+  public void testDisabled() {
+    IngestCaches.DISABLED.namespace(handle, NAMESPACE, upsert(namespaceRow()), this::hit);
+    IngestCaches.DISABLED.namespace(handle, NAMESPACE, upsert(namespaceRow()), this::hit);
+    assertThat(upserts).hasValue(2);
+    assertThat(hits).hasValue(0);
+  }
+
+  private void hit(Object row) {
+    hits.incrementAndGet();
+  }
+
+  private <R> Supplier<R> upsert(R row) {
+    return () -> {
+      upserts.incrementAndGet();
+      return row;
+    };
+  }
+
+  private static NamespaceRow namespaceRow() {
+    return new NamespaceRow(
+        UUID.randomUUID(), CREATED_AT, CREATED_AT, NAMESPACE, null, "owner", false);
+  }
+
+  private static SourceRow sourceRow() {
+    return new SourceRow(
+        UUID.randomUUID(),
+        "POSTGRESQL",
+        CREATED_AT,
+        CREATED_AT,
+        "source",
+        "jdbc:postgresql://db:5432",
+        null);
+  }
+
+  private static DatasetRecord datasetRecord(UUID versionUuid) {
+    final DatasetRow datasetRow = mock(DatasetRow.class);
+    when(datasetRow.getUuid()).thenReturn(UUID.randomUUID());
+    final DatasetVersionRow versionRow = mock(DatasetVersionRow.class);
+    when(versionRow.getUuid()).thenReturn(versionUuid);
+    return new DatasetRecord(datasetRow, versionRow, namespaceRow(), List.of());
+  }
+
+  private static JobRow jobRow() {
+    return new JobRow(
+        UUID.randomUUID(),
+        "BATCH",
+        CREATED_AT,
+        CREATED_AT,
+        UUID.randomUUID(),
+        NAMESPACE,
+        "job",
+        "job",
+        null,
+        null,
+        null,
+        null,
+        null,
+        null);
+  }
+}
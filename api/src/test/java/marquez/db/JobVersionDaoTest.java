@@ -31,6 +31,7 @@ import marquez.common.models.DatasetId;
 import marquez.common.models.NamespaceName;
 import marquez.common.models.RunState;
 import marquez.common.models.Version;
+import marquez.db.JobVersionDao.IoType;
 import marquez.db.models.DatasetRow;
 import marquez.db.models.ExtendedDatasetVersionRow;
 import marquez.db.models.ExtendedJobVersionRow;
@@ -76,6 +77,7 @@ public class JobVersionDaoTest extends BaseIntegrationTest {
     jobVersionDao = jdbiForTesting.onDemand(JobVersionDao.class);
 
     when(modelDaos.getJobDao()).thenReturn(jobDao);
+    when(modelDaos.getIngestCaches()).thenReturn(IngestCaches.DISABLED);
     when(modelDaos.getRunDao()).thenReturn(runDao);
     when(modelDaos.getJobVersionDao()).thenReturn(jobVersionDao);
     when(modelDaos.getNamespaceDao()).thenReturn(jdbi.onDemand(NamespaceDao.class));
@@ -564,4 +566,77 @@ public class JobVersionDaoTest extends BaseIntegrationTest {
                 .intValue())
         .isEqualTo(2);
   }
+
+  @Test
+  public void testUpsertDatasetMaintainsLineageEdges() {
+    final JobMeta jobMeta =
+        new JobMeta(
+            newJobType(),
+            newInputsWith(NamespaceName.of(namespaceRow.getName()), 2),
+            newOutputsWith(NamespaceName.of(namespaceRow.getName()), 1),
+            newLocation(),
+            newDescription(),
+            null);
+    final JobRow jobRow =
+        DbTestUtils.newJobWith(
+            jdbiForTesting, namespaceRow.getName(), newJobName().getValue(), jobMeta);
+    final List<UUID> inputUuids =
+        jobMeta.getInputs().stream()
+            .map(
+                id ->
+                    datasetDao
+                        .getUuid(id.getNamespace().getValue(), id.getName().getValue())
+                        .get()
+                        .getUuid())
+            .toList();
+    final DatasetId outputDatasetId = jobMeta.getOutputs().stream().findFirst().get();
+    final UUID outputDatasetUuid =
+        datasetDao
+            .getUuid(
+                outputDatasetId.getNamespace().getValue(), outputDatasetId.getName().getValue())
+            .get()
+            .getUuid();
+
+    // (1) The first version of the job reads the first input and writes the output.
+    final UUID firstVersionUuid =
+        DbTestUtils.newJobVersion(
+                jdbiForTesting,
+                jobRow.getUuid(),
+                UUID.randomUUID(),
+                jobRow.getName(),
+                namespaceRow.getUuid(),
+                namespaceRow.getName())
+            .getUuid();
+    jobVersionDao.upsertInputDatasetFor(
+        firstVersionUuid, inputUuids.get(0), jobRow.getUuid(), null);
+    jobVersionDao.upsertOutputDatasetFor(
+        firstVersionUuid, outputDatasetUuid, jobRow.getUuid(), null);
+    assertThat(lineageEdgesOf(jobRow.getUuid()))
+        .containsExactlyInAnyOrder(
+            new LineageDao.JobEdgeRow(jobRow.getUuid(), null, inputUuids.get(0), IoType.INPUT),
+            new LineageDao.JobEdgeRow(jobRow.getUuid(), null, outputDatasetUuid, IoType.OUTPUT));
+
+    // (2) The second version of the job reads the second input only.
+    final UUID secondVersionUuid =
+        DbTestUtils.newJobVersion(
+                jdbiForTesting,
+                jobRow.getUuid(),
+                UUID.randomUUID(),
+                jobRow.getName(),
+                namespaceRow.getUuid(),
+                namespaceRow.getName())
+            .getUuid();
+    jobVersionDao.upsertInputDatasetFor(
+        secondVersionUuid, inputUuids.get(1), jobRow.getUuid(), null);
+    jobVersionDao.markInputOrOutputDatasetAsPreviousFor(jobRow.getUuid(), IoType.OUTPUT);
+    assertThat(lineageEdgesOf(jobRow.getUuid()))
+        .containsExactly(
+            new LineageDao.JobEdgeRow(jobRow.getUuid(), null, inputUuids.get(1), IoType.INPUT));
+  }
+
+  private static List<LineageDao.JobEdgeRow> lineageEdgesOf(UUID jobUuid) {
+    return jdbiForTesting.onDemand(LineageDao.class).getCurrentJobEdges().stream()
+        .filter(edge -> edge.jobUuid().equals(jobUuid))
+        .toList();
+  }
 }
@@ -12,6 +12,7 @@ import static marquez.db.LineageTestUtils.SCHEMA_URL;
 import static marquez.db.LineageTestUtils.newDatasetFacet;
 import static marquez.db.LineageTestUtils.writeDownstreamLineage;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 
 import com.google.common.base.Functions;
 import java.sql.SQLException;
@@ -28,8 +29,11 @@ import java.util.UUID;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import marquez.api.JdbiUtils;
+import marquez.common.models.DatasetId;
+import marquez.common.models.DatasetName;
 import marquez.common.models.JobType;
-import marquez.db.LineageDao.UpstreamRunRow;
+import marquez.common.models.NamespaceName;
+import marquez.db.JobVersionDao.IoType;
 import marquez.db.LineageTestUtils.DatasetConsumerJob;
 import marquez.db.LineageTestUtils.JobLineage;
 import marquez.db.models.JobRow;
@@ -38,6 +42,7 @@ import marquez.db.models.UpdateLineageRow;
 import marquez.jdbi.MarquezJdbiExternalPostgresExtension;
 import marquez.service.models.DatasetData;
 import marquez.service.models.JobData;
+import marquez.service.models.LineageDirection;
 import marquez.service.models.LineageEvent;
 import marquez.service.models.LineageEvent.Dataset;
 import marquez.service.models.LineageEvent.JobFacet;
@@ -168,6 +173,62 @@ public class LineageDaoTest {
     }
   }
 
+  @Test
+  public void testGetLineageInDirection() {
+    Dataset outputData =
+        new Dataset(
+            NAMESPACE,
+            "outputData",
+            newDatasetFacet(new SchemaField("firstname", "string", "the first name")));
+    UpdateLineageRow writeJob =
+        LineageTestUtils.createLineageRow(
+            openLineageDao, "writeJob", "COMPLETE", jobFacet, List.of(), List.of(dataset));
+    UpdateLineageRow readJob =
+        LineageTestUtils.createLineageRow(
+            openLineageDao, "readJob", "COMPLETE", jobFacet, List.of(dataset), List.of(outputData));
+    UpdateLineageRow siblingJob =
+        LineageTestUtils.createLineageRow(
+            openLineageDao, "siblingJob", "COMPLETE", jobFacet, List.of(dataset), List.of());
+    UpdateLineageRow downstreamJob =
+        LineageTestUtils.createLineageRow(
+            openLineageDao, "downstreamJob", "COMPLETE", jobFacet, List.of(outputData), List.of());
+    Set<UUID> readJobIds = Set.of(readJob.getJob().getUuid());
+
+    assertThat(lineageDao.getLineage(readJobIds, 2, LineageDirection.UPSTREAM))
+        .map(JobData::getUuid)
+        .containsExactlyInAnyOrder(readJob.getJob().getUuid(), writeJob.getJob().getUuid());
+    assertThat(lineageDao.getLineage(readJobIds, 2, LineageDirection.DOWNSTREAM))
+        .map(JobData::getUuid)
+        .containsExactlyInAnyOrder(readJob.getJob().getUuid(), downstreamJob.getJob().getUuid());
+    assertThat(lineageDao.getLineage(readJobIds, 2, LineageDirection.BOTH))
+        .map(JobData::getUuid)
+        .containsExactlyInAnyOrder(
+            readJob.getJob().getUuid(),
+            writeJob.getJob().getUuid(),
+            siblingJob.getJob().getUuid(),
+            downstreamJob.getJob().getUuid());
+
+    assertThat(lineageDao.getAdjacentJobs(readJobIds, LineageDirection.BOTH, 10))
+        .map(LineageDao.AdjacentJobRow::adjacentJobUuid)
+        .containsExactlyInAnyOrder(
+            writeJob.getJob().getUuid(),
+            siblingJob.getJob().getUuid(),
+            downstreamJob.getJob().getUuid());
+    assertThat(lineageDao.getAdjacentJobs(readJobIds, LineageDirection.BOTH, 1)).hasSize(1);
+    assertThat(lineageDao.getJobDataWithEdges(readJobIds))
+        .singleElement()
+        .satisfies(
+            job -> {
+              assertThat(job.getInputUuids()).hasSize(1);
+              assertThat(job.getOutputUuids()).hasSize(1);
+            });
+
+    assertThat(lineageDao.getJobsOfDataset("commonDataset", NAMESPACE, IoType.OUTPUT))
+        .containsExactly(writeJob.getJob().getUuid());
+    assertThat(lineageDao.getJobsOfDataset("commonDataset", NAMESPACE, IoType.INPUT))
+        .containsExactlyInAnyOrder(readJob.getJob().getUuid(), siblingJob.getJob().getUuid());
+  }
+
   @Test
   public void testGetLineageForSymlinkedJob() throws SQLException {
 
@@ -312,6 +373,42 @@ public class LineageDaoTest {
     assertThat(lineage).hasSize(1).contains(writeJob.getJob().getUuid());
   }
 
+  @Test
+  public void testGetCurrentJobEdgesChangedSince() {
+    UpdateLineageRow writeJob =
+        LineageTestUtils.createLineageRow(
+            openLineageDao,
+            "writeJob",
+            "COMPLETE",
+            jobFacet,
+            Arrays.asList(),
+            Arrays.asList(dataset));
+    final UUID jobUuid = writeJob.getJob().getUuid();
+    assertThat(lineageDao.getCurrentJobEdgesChangedSince(Instant.now().plusSeconds(3600)))
+        .isEmpty();
+    assertThat(lineageDao.getCurrentJobEdgesChangedSince(Instant.EPOCH))
+        .extracting(LineageDao.JobEdgeRow::jobUuid, LineageDao.JobEdgeRow::datasetUuid)
+        .containsExactly(
+            tuple(jobUuid, writeJob.getOutputs().get().get(0).getDatasetRow().getUuid()));
+
+    // The edges of the job are deleted, as by a cascade; the job is returned without any edge.
+    jdbi.useHandle(
+        handle -> handle.execute("DELETE FROM lineage_edges WHERE job_uuid = ?", jobUuid));
+    assertThat(lineageDao.getCurrentJobEdgesChangedSince(Instant.EPOCH))
+        .containsExactly(new LineageDao.JobEdgeRow(jobUuid, null, null, null));
+  }
+
+  @Test
+  public void testGetDatasetsWithEdgesChangedSince() {
+    LineageTestUtils.createLineageRow(
+        openLineageDao, "writeJob", "COMPLETE", jobFacet, Arrays.asList(), Arrays.asList(dataset));
+    assertThat(lineageDao.getDatasetsWithEdgesChangedSince(Instant.EPOCH))
+        .containsExactly(
+            new DatasetId(NamespaceName.of(NAMESPACE), DatasetName.of(dataset.getName())));
+    assertThat(lineageDao.getDatasetsWithEdgesChangedSince(Instant.now().plusSeconds(3600)))
+        .isEmpty();
+  }
+
   @Test
   public void testGetLineageWithJobThatHasNoDatasets() {
 
@@ -566,6 +663,83 @@ public class LineageDaoTest {
         .isEmpty();
   }
 
+  @Test
+  public void testGetLineageAsOf() {
+    UpdateLineageRow writeJob =
+        LineageTestUtils.createLineageRow(
+            openLineageDao,
+            "writeJob",
+            "COMPLETE",
+            jobFacet,
+            Arrays.asList(),
+            Arrays.asList(dataset));
+    UpdateLineageRow readJob =
+        LineageTestUtils.createLineageRow(
+            openLineageDao,
+            "readJob",
+            "COMPLETE",
+            jobFacet,
+            Arrays.asList(dataset),
+            Arrays.asList());
+    Instant beforeChange =
+        jdbi.withHandle(handle -> handle.createQuery("SELECT NOW()").mapTo(Instant.class).one());
+    // the new version of the job no longer writes the dataset
+    LineageTestUtils.createLineageRow(
+        openLineageDao, "writeJob", "COMPLETE", jobFacet, Arrays.asList(), Arrays.asList());
+    Set<UUID> writeJobIds = Collections.singleton(writeJob.getJob().getUuid());
+
+    assertThat(lineageDao.getLineageAsOf(writeJobIds, 2, LineageDirection.BOTH, beforeChange))
+        .extracting(JobData::getUuid)
+        .containsExactlyInAnyOrder(writeJob.getJob().getUuid(), readJob.getJob().getUuid());
+    assertThat(lineageDao.getLineageAsOf(writeJobIds, 2, LineageDirection.BOTH, Instant.now()))
+        .hasSize(1)
+        .first()
+        .extracting(JobData::getOutputUuids, InstanceOfAssertFactories.iterable(UUID.class))
+        .isEmpty();
+    assertThat(
+            lineageDao.getJobsOfDatasetAsOf(
+                dataset.getName(), dataset.getNamespace(), Set.of(IoType.OUTPUT), beforeChange))
+        .containsExactly(writeJob.getJob().getUuid());
+  }
+
+  @Test
+  public void testGetLineageAsOfKeepsEarlierIntervals() {
+    UpdateLineageRow writeJob =
+        LineageTestUtils.createLineageRow(
+            openLineageDao, "writeJob", "COMPLETE", jobFacet, List.of(), List.of(dataset));
+    Instant firstVersion = now();
+    // the second version of the job no longer writes the dataset, the third one writes it again
+    LineageTestUtils.createLineageRow(
+        openLineageDao, "writeJob", "COMPLETE", jobFacet, List.of(), List.of());
+    Instant secondVersion = now();
+    LineageTestUtils.createLineageRow(
+        openLineageDao, "writeJob", "COMPLETE", jobFacet, List.of(), List.of(dataset));
+    UUID writeJobId = writeJob.getJob().getUuid();
+
+    for (Instant asOf : List.of(firstVersion, now())) {
+      assertThat(lineageDao.getLineageAsOf(Set.of(writeJobId), 1, LineageDirection.BOTH, asOf))
+          .singleElement()
+          .extracting(JobData::getOutputUuids, InstanceOfAssertFactories.iterable(UUID.class))
+          .hasSize(1);
+    }
+    assertThat(
+            lineageDao.getLineageAsOf(Set.of(writeJobId), 1, LineageDirection.BOTH, secondVersion))
+        .singleElement()
+        .extracting(JobData::getOutputUuids, InstanceOfAssertFactories.iterable(UUID.class))
+        .isEmpty();
+    assertThat(
+            jdbi.withHandle(
+                handle ->
+                    handle
+                        .createQuery(
+                            "SELECT COUNT(*) FROM job_versions_io_mapping_validity "
+                                + "WHERE job_uuid = :jobUuid AND io_type = 'OUTPUT'")
+                        .bind("jobUuid", writeJobId)
+                        .mapTo(Integer.class)
+                        .one()))
+        .isEqualTo(2);
+  }
+
   @Test
   public void testGetJobFromInputOrOutput() {
     JobFacet jobFacet = JobFacet.builder().build();
@@ -634,6 +808,34 @@ public class LineageDaoTest {
     assertThat(jobNode).isPresent().get().isEqualTo(writeJob.getJob().getUuid());
   }
 
+  @Test
+  public void testGetSeedJobsAndExistingNodes() {
+    UpdateLineageRow writeJob =
+        LineageTestUtils.createLineageRow(
+            openLineageDao, "writeJob", "COMPLETE", jobFacet, List.of(), List.of(dataset));
+    UpdateLineageRow readJob =
+        LineageTestUtils.createLineageRow(
+            openLineageDao, "readJob", "COMPLETE", jobFacet, List.of(dataset), List.of());
+    List<String> nodeIds =
+        List.of(
+            "dataset:" + NAMESPACE + ":commonDataset",
+            "job:" + NAMESPACE + ":readJob",
+            "job:" + NAMESPACE + ":missingJob");
+    List<String> namespaceNames = List.of(NAMESPACE, NAMESPACE, NAMESPACE);
+    List<String> names = List.of("commonDataset", "readJob", "missingJob");
+
+    assertThat(lineageDao.getExistingNodes(nodeIds, namespaceNames, names))
+        .containsExactlyInAnyOrder(nodeIds.get(0), nodeIds.get(1));
+    assertThat(lineageDao.getSeedJobs(nodeIds, namespaceNames, names, IoType.OUTPUT))
+        .containsExactlyInAnyOrder(
+            new LineageDao.SeedJobRow(nodeIds.get(0), writeJob.getJob().getUuid()),
+            new LineageDao.SeedJobRow(nodeIds.get(1), readJob.getJob().getUuid()));
+    assertThat(lineageDao.getSeedJobs(nodeIds, namespaceNames, names, null))
+        .containsExactlyInAnyOrder(
+            new LineageDao.SeedJobRow(nodeIds.get(0), writeJob.getJob().getUuid()),
+            new LineageDao.SeedJobRow(nodeIds.get(1), readJob.getJob().getUuid()));
+  }
+
   @Test
   public void testGetDatasetData() {
     LineageTestUtils.createLineageRow(
@@ -890,87 +1092,7 @@ public class LineageDaoTest {
         .containsAll(expectedRunIds);
   }
 
-  @Test
-  public void testGetRunLineage() {
-
-    Dataset upstreamDataset = new Dataset(NAMESPACE, "upstreamDataset", null);
-
-    UpdateLineageRow upstreamJob =
-        LineageTestUtils.createLineageRow(
-            openLineageDao,
-            "upstreamJob",
-            "COMPLETE",
-            jobFacet,
-            Arrays.asList(),
-            Arrays.asList(upstreamDataset));
-
-    UpdateLineageRow writeJob =
-        LineageTestUtils.createLineageRow(
-            openLineageDao,
-            "writeJob",
-            "COMPLETE",
-            jobFacet,
-            Arrays.asList(upstreamDataset),
-            Arrays.asList(dataset));
-    List<JobLineage> jobRows =
-        writeDownstreamLineage(
-            openLineageDao,
-            new LinkedList<>(
-                Arrays.asList(
-                    new DatasetConsumerJob("readJob", 20, Optional.of("outputData")),
-                    new DatasetConsumerJob("downstreamJob", 1, Optional.empty()))),
-            jobFacet,
-            dataset);
-
-    // don't expect a failed job in the returned lineage
-    UpdateLineageRow failedJobRow =
-        LineageTestUtils.createLineageRow(
-            openLineageDao,
-            "readJobFailed",
-            "FAILED",
-            jobFacet,
-            Arrays.asList(dataset),
-            Arrays.asList());
-
-    // don't expect a disjoint job in the returned lineage
-    UpdateLineageRow disjointJob =
-        LineageTestUtils.createLineageRow(
-            openLineageDao,
-            "writeRandomDataset",
-            "COMPLETE",
-            jobFacet,
-            Arrays.asList(
-                new Dataset(
-                    NAMESPACE,
-                    "randomDataset",
-                    newDatasetFacet(
-                        new SchemaField("firstname", "string", "the first name"),
-                        new SchemaField("lastname", "string", "the last name")))),
-            Arrays.asList());
-
-    {
-      List<UpstreamRunRow> upstream =
-          lineageDao.getUpstreamRuns(failedJobRow.getRun().getUuid(), 10);
-
-      assertThat(upstream).size().isEqualTo(3);
-      assertThat(upstream.get(0).job().name().getValue())
-          .isEqualTo(failedJobRow.getJob().getName());
-      assertThat(upstream.get(0).input().name().getValue()).isEqualTo(dataset.getName());
-      assertThat(upstream.get(1).job().name().getValue()).isEqualTo(writeJob.getJob().getName());
-      assertThat(upstream.get(1).input().name().getValue()).isEqualTo(upstreamDataset.getName());
-      assertThat(upstream.get(2).job().name().getValue()).isEqualTo(upstreamJob.getJob().getName());
-    }
-
-    {
-      List<UpstreamRunRow> upstream2 = lineageDao.getUpstreamRuns(jobRows.get(0).getRunId(), 10);
-
-      assertThat(upstream2).size().isEqualTo(3);
-      assertThat(upstream2.get(0).job().name().getValue()).isEqualTo(jobRows.get(0).getName());
-      assertThat(upstream2.get(0).input().name().getValue()).isEqualTo(dataset.getName());
-      assertThat(upstream2.get(1).job().name().getValue()).isEqualTo(writeJob.getJob().getName());
-      assertThat(upstream2.get(1).input().name().getValue()).isEqualTo(upstreamDataset.getName());
-      assertThat(upstream2.get(2).job().name().getValue())
-          .isEqualTo(upstreamJob.getJob().getName());
-    }
+  private Instant now() {
+    return jdbi.withHandle(handle -> handle.createQuery("SELECT NOW()").mapTo(Instant.class).one());
   }
 }
@@ -176,7 +176,8 @@ public class LineageTestUtils {
         .put(
             "_schemaURL",
             "https://openlineage.io/spec/1-0-1/OpenLineage.json#/definitions/RunEvent");
-    UpdateLineageRow updateLineageRow = dao.updateMarquezModel(event, Utils.getMapper());
+    UpdateLineageRow updateLineageRow =
+        dao.updateMarquezModel(event, Utils.getMapper(), IngestCaches.DISABLED);
     PGobject jsonObject = new PGobject();
     jsonObject.setType("json");
     try {
@@ -231,7 +232,8 @@ public class LineageTestUtils {
         .put(
             "_schemaURL",
             "https://openlineage.io/spec/1-0-1/OpenLineage.json#/definitions/RunEvent");
-    UpdateLineageRow updateLineageRow = dao.updateMarquezModel(event, Utils.getMapper());
+    UpdateLineageRow updateLineageRow =
+        dao.updateMarquezModel(event, Utils.getMapper(), IngestCaches.DISABLED);
     PGobject jsonObject = new PGobject();
     jsonObject.setType("json");
     try {
@@ -271,7 +273,8 @@ public class LineageTestUtils {
         .put(
             "_schemaURL",
             "https://openlineage.io/spec/1-0-1/OpenLineage.json#/definitions/RunEvent");
-    UpdateLineageRow updateLineageRow = dao.updateMarquezModel(event, Utils.getMapper());
+    UpdateLineageRow updateLineageRow =
+        dao.updateMarquezModel(event, Utils.getMapper(), IngestCaches.DISABLED);
     PGobject jsonObject = new PGobject();
     jsonObject.setType("json");
     try {
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2018-2023 contributors to the Marquez project
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package marquez.db;
+
+import static marquez.db.LineageTestUtils.NAMESPACE;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import lombok.extern.slf4j.Slf4j;
+import marquez.api.JdbiUtils;
+import marquez.db.models.UpdateLineageRow;
+import marquez.jdbi.MarquezJdbiExternalPostgresExtension;
+import marquez.service.models.LineageEvent.Dataset;
+import marquez.service.models.LineageEvent.JobFacet;
+import marquez.service.models.LineageEvent.SchemaField;
+import org.jdbi.v3.core.Jdbi;
+import org.jdbi.v3.core.statement.SqlLogger;
+import org.jdbi.v3.core.statement.SqlStatements;
+import org.jdbi.v3.core.statement.StatementContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * Test to measure the number of statements issued when writing a lineage event with many outputs.
+ * Currently, not run within circle-ci. Requires system property `-DrunPerfTest=true` to be
+ * executed
+ */
+@EnabledIfSystemProperty(named = "runPerfTest", matches = "true")
+@ExtendWith(MarquezJdbiExternalPostgresExtension.class)
+@Slf4j
+public class OpenLineageDaoPerformanceTest {
+  private static final int NUM_OF_OUTPUTS = 16;
+  private static final int NUM_OF_FIELDS = 20;
+
+  @AfterEach
+  public void tearDown(Jdbi jdbi) {
+    jdbi.getConfig(SqlStatements.class).setSqlLogger(SqlLogger.NOP_SQL_LOGGER);
+    JdbiUtils.cleanDatabase(jdbi);
+  }
+
+  @Test
+  public void testStatementsPerEvent(Jdbi jdbi) {
+    final AtomicInteger statements = new AtomicInteger();
+    jdbi.getConfig(SqlStatements.class)
+        .setSqlLogger(
+            new SqlLogger() {
+              @Override
+              public void logBeforeExecution(StatementContext context) {
+                statements.incrementAndGet();
+              }
+            });
+    final OpenLineageDao dao = jdbi.onDemand(OpenLineageDao.class);
+
+    final List<SchemaField> fields =
+        IntStream.range(0, NUM_OF_FIELDS)
+            .mapToObj(i -> new SchemaField("field_" + i, "VARCHAR", "field " + i))
+            .collect(Collectors.toList());
+    final List<Dataset> outputs =
+        IntStream.range(0, NUM_OF_OUTPUTS)
+            .mapToObj(
+                i ->
+                    new Dataset(
+                        NAMESPACE,
+                        "dataset_" + i,
+                        LineageTestUtils.newDatasetFacet(fields.toArray(SchemaField[]::new))))
+            .collect(Collectors.toList());
+
+    final UpdateLineageRow row =
+        LineageTestUtils.createLineageRow(
+            dao, "perfJob", "COMPLETE", JobFacet.builder().build(), List.of(), outputs);
+
+    log.info(
+        "Wrote event with {} outputs of {} fields using {} statements",
+        NUM_OF_OUTPUTS,
+        NUM_OF_FIELDS,
+        statements.get());
+    assertThat(row.getOutputs()).isPresent().get().asList().hasSize(NUM_OF_OUTPUTS);
+    // Fields are written with one statement per dataset, not one per field.
+    assertThat(statements.get()).isLessThan(NUM_OF_OUTPUTS * NUM_OF_FIELDS);
+  }
+}
@@ -191,6 +191,35 @@ class OpenLineageDaoTest {
         .isEqualTo("TRUNCATE");
   }
 
+  @Test
+  void testUpdateMarquezModelWithDuplicateSchemaFields() {
+    Dataset dataset =
+        new Dataset(
+            NAMESPACE,
+            DATASET_NAME,
+            LineageTestUtils.newDatasetFacet(
+                new SchemaField("name", "STRING", "first description"),
+                new SchemaField("name", "VARCHAR", "other type"),
+                new SchemaField("age", "INT", "my age"),
+                new SchemaField("name", "STRING", "last description")));
+
+    JobFacet jobFacet = JobFacet.builder().build();
+    UpdateLineageRow writeJob =
+        LineageTestUtils.createLineageRow(
+            dao, WRITE_JOB_NAME, "COMPLETE", jobFacet, Arrays.asList(), Arrays.asList(dataset));
+
+    UUID datasetVersionUuid = writeJob.getOutputs().get().get(0).getDatasetVersionRow().getUuid();
+    assertThat(datasetFieldDao.find(datasetVersionUuid))
+        .extracting(
+            field -> field.getName().getValue(),
+            field -> field.getType(),
+            field -> field.getDescription().orElse(null))
+        .containsExactlyInAnyOrder(
+            Tuple.tuple("name", "STRING", "last description"),
+            Tuple.tuple("name", "VARCHAR", "other type"),
+            Tuple.tuple("age", "INT", "my age"));
+  }
+
   @Test
   void testUpdateMarquezModelDatasetWithColumnLineageFacet() {
     JobFacet jobFacet = JobFacet.builder().build();
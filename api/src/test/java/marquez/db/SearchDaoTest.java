@@ -330,6 +330,41 @@ public class SearchDaoTest {
     assertThat(time1).isBefore(time2);
   }
 
+  @Test
+  public void testSearch_resultsMatchingWordsOfQuery() {
+    final String query = "ordering name";
+    final List<SearchResult> results =
+        searchDao.search(query, SearchFilter.DATASET, SearchSort.NAME, LIMIT);
+
+    // Ensure search results contain the datasets named with all of the words of the query.
+    assertThat(results)
+        .extracting("name")
+        .containsExactly("name_ordering_0", "name_ordering_1", "name_ordering_2");
+  }
+
+  @Test
+  public void testSearchIndex_updatedAtFollowsDataset(final Jdbi jdbi) {
+    DbTestUtils.newDataset(jdbi, "updated_at_only");
+    jdbi.useHandle(
+        handle ->
+            handle.execute(
+                "UPDATE datasets SET updated_at = updated_at + INTERVAL '1 hour' WHERE name = ?",
+                "updated_at_only"));
+
+    // Ensure the document of the dataset has the new updated_at, and is otherwise unchanged.
+    assertThat(
+            jdbi.withHandle(
+                handle ->
+                    handle
+                        .createQuery(
+                            "SELECT s.updated_at = d.updated_at AND s.name = d.name "
+                                + "FROM search_index s INNER JOIN datasets d ON d.uuid = s.uuid "
+                                + "WHERE d.name = 'updated_at_only'")
+                        .mapTo(Boolean.class)
+                        .one()))
+        .isTrue();
+  }
+
   /** Returns search results grouped by {@link SearchResult.ResultType}. */
   private Map<SearchResult.ResultType, List<SearchResult>> groupResultsByType(
       @NonNull List<SearchResult> results) {
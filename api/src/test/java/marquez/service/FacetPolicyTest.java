@@ -0,0 +1,82 @@
+/*
+ * Copyright 2018-2023 contributors to the Marquez project
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package marquez.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.common.io.Resources;
+import java.io.IOException;
+import java.util.Map;
+import marquez.common.Utils;
+import marquez.service.FacetPolicy.Action;
+import marquez.service.models.LineageEvent;
+import org.junit.jupiter.api.Test;
+
+class FacetPolicyTest {
+  @Test
+  public void testDropsAndCompressesNamedFacets() throws IOException {
+    final LineageEvent event = readEvent();
+    final double dropped = IngestMetrics.facetBytesDropped.labels("additionalProp1").get();
+
+    new FacetPolicy(
+            0,
+            0,
+            Map.of("additionalProp1", Action.DROP, "additionalProp2", Action.COMPRESS),
+            Action.TRUNCATE)
+        .apply(event);
+
+    final Map<String, Object> facets = event.getRun().getFacets().getAdditionalFacets();
+    assertThat(facets).doesNotContainKey("additionalProp1");
+    assertThat((Map<?, ?>) facets.get("additionalProp2"))
+        .containsKeys("_producer", "_schemaURL", "_truncatedBytes", "_gzip");
+    assertThat((Map<?, ?>) facets.get("additionalProp3")).containsKey("additionalProp1");
+    assertThat(event.getRun().getFacets().getNominalTime()).isNotNull();
+    assertThat(event.getRawJson()).isEmpty();
+    assertThat(IngestMetrics.facetBytesDropped.labels("additionalProp1").get())
+        .isGreaterThan(dropped);
+  }
+
+  @Test
+  public void testTruncatesOversizedFacets() throws IOException {
+    final LineageEvent event = readEvent();
+
+    new FacetPolicy(50, 0, Map.of(), Action.TRUNCATE).apply(event);
+
+    final Map<String, Object> facets = event.getRun().getFacets().getAdditionalFacets();
+    assertThat(facets).containsKeys("additionalProp1", "additionalProp2", "additionalProp3");
+    facets.values().forEach(facet -> assertThat((Map<?, ?>) facet).containsKey("_truncatedBytes"));
+  }
+
+  @Test
+  public void testShrinksLargestFacetsOfOversizedEvent() throws IOException {
+    final LineageEvent event = readEvent();
+    event.setRawJson(Utils.getMapper().writeValueAsBytes(event));
+    final int size = event.getRawJson().orElseThrow().length;
+
+    new FacetPolicy(0, size - 1, Map.of(), Action.DROP).apply(event);
+
+    assertThat(Utils.getMapper().writeValueAsBytes(event).length).isLessThan(size);
+    assertThat(event.getRawJson()).isEmpty();
+  }
+
+  @Test
+  public void testKeepsRawEventWhenDisabled() throws IOException {
+    final LineageEvent event = readEvent();
+
+    FacetPolicy.NONE.apply(event);
+
+    assertThat(event.getRawJson()).isPresent();
+    assertThat(event.getRun().getFacets().getAdditionalFacets()).hasSize(3);
+  }
+
+  private static LineageEvent readEvent() throws IOException {
+    final byte[] json =
+        Resources.toByteArray(Resources.getResource("open_lineage/event_additional_facet.json"));
+    final LineageEvent event = Utils.getMapper().readValue(json, LineageEvent.class);
+    event.setRawJson(json);
+    return event;
+  }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2018-2023 contributors to the Marquez project
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package marquez.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class IngestExecutorTest {
+  private final CountDownLatch release = new CountDownLatch(1);
+  private final CountDownLatch started = new CountDownLatch(1);
+  private IngestExecutor executor;
+
+  @BeforeEach
+  public void setUp() {
+    final IngestConfig config = mock(IngestConfig.class);
+    when(config.getMaxThreads()).thenReturn(1);
+    when(config.getMaxQueueSize()).thenReturn(1);
+    when(config.getRetryAfterSecs()).thenReturn(5);
+    when(config.getShutdownTimeoutSecs()).thenReturn(1);
+    executor = new IngestExecutor(config);
+  }
+
+  @AfterEach
+  public void tearDown() throws Exception {
+    release.countDown();
+    executor.stop();
+  }
+
+  @Test
+  public void testRejectsWhenQueueIsFull() throws InterruptedException {
+    executor.execute(this::block);
+    assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+    executor.execute(this::block);
+
+    final double rejections = IngestMetrics.rejections.get();
+    assertThatThrownBy(() -> executor.execute(this::block))
+        .isInstanceOf(RejectedExecutionException.class);
+    assertThat(IngestMetrics.rejections.get()).isEqualTo(rejections + 1);
+    assertThat(IngestMetrics.activeWorkers.get()).isEqualTo(1);
+    assertThat(IngestMetrics.queueDepth.get()).isEqualTo(1);
+    assertThat(executor.getRetryAfterSecs()).isEqualTo(5);
+  }
+
+  private void block() {
+    started.countDown();
+    try {
+      release.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
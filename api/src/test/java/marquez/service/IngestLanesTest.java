@@ -0,0 +1,83 @@
+/*
+ * Copyright 2018-2023 contributors to the Marquez project
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package marquez.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class IngestLanesTest {
+  private final CountDownLatch release = new CountDownLatch(1);
+  private final CountDownLatch started = new CountDownLatch(1);
+  private IngestLanes lanes;
+
+  @AfterEach
+  public void tearDown() throws Exception {
+    release.countDown();
+    lanes.stop();
+  }
+
+  private void newLanes(int maxQueueSize) {
+    final IngestConfig config = mock(IngestConfig.class);
+    when(config.getLanes()).thenReturn(4);
+    when(config.getMaxQueueSize()).thenReturn(maxQueueSize);
+    when(config.getShutdownTimeoutSecs()).thenReturn(1);
+    lanes = new IngestLanes(config);
+  }
+
+  @Test
+  public void testAppliesUpdatesOfSameKeyInOrder() {
+    newLanes(400);
+    final UUID runUuid = UUID.randomUUID();
+    assertThat(lanes.laneFor(runUuid)).isSameAs(lanes.laneFor(UUID.fromString(runUuid.toString())));
+
+    final List<Integer> applied = new CopyOnWriteArrayList<>();
+    final Executor lane = lanes.laneFor(runUuid);
+    CompletableFuture.allOf(
+            IntStream.range(0, 100)
+                .mapToObj(i -> CompletableFuture.runAsync(() -> applied.add(i), lane))
+                .toArray(CompletableFuture[]::new))
+        .join();
+    assertThat(applied).isEqualTo(IntStream.range(0, 100).boxed().collect(Collectors.toList()));
+  }
+
+  @Test
+  public void testRejectsWhenLaneIsFull() throws InterruptedException {
+    newLanes(4);
+    final Executor lane = lanes.laneFor(UUID.randomUUID());
+    lane.execute(this::block);
+    assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+    lane.execute(this::block);
+
+    final double rejections = IngestMetrics.rejections.get();
+    assertThatThrownBy(() -> lane.execute(this::block))
+        .isInstanceOf(RejectedExecutionException.class);
+    assertThat(IngestMetrics.rejections.get()).isEqualTo(rejections + 1);
+  }
+
+  private void block() {
+    started.countDown();
+    try {
+      release.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
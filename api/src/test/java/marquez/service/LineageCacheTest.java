@@ -0,0 +1,130 @@
+/*
+ * Copyright 2018-2023 contributors to the Marquez project
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package marquez.service;
+
+import static marquez.service.LineageCache.COLUMN_LINEAGE;
+import static marquez.service.LineageCache.JOB_LINEAGE;
+import static marquez.service.models.LineageDirection.BOTH;
+import static marquez.service.models.LineageDirection.UPSTREAM;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableSortedSet;
+import java.time.Duration;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import marquez.common.models.DatasetId;
+import marquez.common.models.DatasetName;
+import marquez.common.models.JobId;
+import marquez.common.models.JobName;
+import marquez.common.models.NamespaceName;
+import marquez.service.models.JobData;
+import marquez.service.models.Lineage;
+import marquez.service.models.LineageBudget;
+import marquez.service.models.LineageDirection;
+import marquez.service.models.Node;
+import marquez.service.models.NodeId;
+import org.junit.jupiter.api.Test;
+
+class LineageCacheTest {
+  private static final NamespaceName NAMESPACE = NamespaceName.of("test-namespace");
+  private static final DatasetId INPUT = new DatasetId(NAMESPACE, DatasetName.of("input"));
+  private static final DatasetId OUTPUT = new DatasetId(NAMESPACE, DatasetName.of("output"));
+  private static final DatasetId UNRELATED = new DatasetId(NAMESPACE, DatasetName.of("unrelated"));
+  private static final NodeId JOB_NODE = NodeId.of(new JobId(NAMESPACE, JobName.of("job")));
+
+  private final UUID jobUuid = UUID.randomUUID();
+  private final AtomicInteger loads = new AtomicInteger();
+  private final LineageCache cache = new LineageCache(10, Duration.ofMinutes(1));
+
+  @Test
+  public void testReturnsCachedLineageOfSameRequest() {
+    final double hits = LineageMetrics.cacheRequests.labels(JOB_LINEAGE, "hit").get();
+    final LineageCache.Key key = key(JOB_LINEAGE, 20, BOTH, false);
+
+    final Lineage lineage = cache.lineage(key, load());
+    assertThat(cache.lineage(key, load())).isSameAs(lineage);
+    assertThat(loads).hasValue(1);
+    assertThat(LineageMetrics.cacheRequests.labels(JOB_LINEAGE, "hit").get()).isEqualTo(hits + 1);
+
+    // Requests differing in depth, direction, flag or kind of lineage are cached separately.
+    cache.lineage(key(JOB_LINEAGE, 1, BOTH, false), load());
+    cache.lineage(key(JOB_LINEAGE, 20, UPSTREAM, false), load());
+    cache.lineage(key(JOB_LINEAGE, 20, BOTH, true), load());
+    cache.lineage(key(COLUMN_LINEAGE, 20, BOTH, false), load());
+    assertThat(loads).hasValue(5);
+  }
+
+  @Test
+  public void testInvalidatesOnlyLineageContainingChangedNodes() {
+    final LineageCache.Key key = key(JOB_LINEAGE, 20, BOTH, false);
+    cache.lineage(key, load());
+
+    cache.invalidate(Set.of(UUID.randomUUID()), Set.of(UNRELATED));
+    cache.lineage(key, load());
+    assertThat(loads).hasValue(1);
+
+    cache.invalidate(Set.of(), Set.of(OUTPUT));
+    cache.lineage(key, load());
+    assertThat(loads).hasValue(2);
+
+    cache.invalidate(Set.of(jobUuid), Set.of());
+    cache.lineage(key, load());
+    assertThat(loads).hasValue(3);
+
+    cache.invalidateAll();
+    cache.lineage(key, load());
+    assertThat(loads).hasValue(4);
+  }
+
+  @Test
+  public void testDoesNotCacheLineageInvalidatedWhileLoading() {
+    final LineageCache.Key key = key(JOB_LINEAGE, 20, BOTH, false);
+    final Supplier<Lineage> load = load();
+
+    cache.lineage(
+        key,
+        () -> {
+          final Lineage lineage = load.get();
+          cache.invalidate(Set.of(), Set.of(INPUT));
+          return lineage;
+        });
+    cache.lineage(key, load);
+    assertThat(loads).hasValue(2);
+  }
+
+  @Test
+  public void testLoadsLineageOnEachRequestWhenDisabled() {
+    final LineageCache.Key key = key(JOB_LINEAGE, 20, BOTH, false);
+
+    LineageCache.DISABLED.lineage(key, load());
+    LineageCache.DISABLED.lineage(key, load());
+    assertThat(loads).hasValue(2);
+  }
+
+  private static LineageCache.Key key(
+      String lineage, int depth, LineageDirection direction, boolean flag) {
+    return new LineageCache.Key(
+        lineage, JOB_NODE, depth, direction, LineageBudget.UNLIMITED, flag);
+  }
+
+  /** Returns a loader of the lineage {@code input -> job -> output}. */
+  private Supplier<Lineage> load() {
+    return () -> {
+      loads.incrementAndGet();
+      final JobData job = mock(JobData.class);
+      when(job.getUuid()).thenReturn(jobUuid);
+      return new Lineage(
+          ImmutableSortedSet.of(
+              Node.dataset().id(NodeId.of(INPUT)).build(),
+              Node.job().id(JOB_NODE).data(job).build(),
+              Node.dataset().id(NodeId.of(OUTPUT)).build()));
+    };
+  }
+}
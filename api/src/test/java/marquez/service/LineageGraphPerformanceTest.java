@@ -0,0 +1,106 @@
+/*
+ * Copyright 2018-2023 contributors to the Marquez project
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package marquez.service;
+
+import static marquez.db.LineageTestUtils.NAMESPACE;
+import static marquez.db.LineageTestUtils.newDatasetFacet;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import marquez.api.JdbiUtils;
+import marquez.db.LineageDao;
+import marquez.db.LineageTestUtils;
+import marquez.db.OpenLineageDao;
+import marquez.db.models.UpdateLineageRow;
+import marquez.jdbi.MarquezJdbiExternalPostgresExtension;
+import marquez.service.LineageGraph.JobEdges;
+import marquez.service.models.JobData;
+import marquez.service.models.LineageEvent.Dataset;
+import marquez.service.models.LineageEvent.JobFacet;
+import marquez.service.models.LineageEvent.SchemaField;
+import org.jdbi.v3.core.Jdbi;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * Test to compare the time to traverse the lineage of a chain of jobs with the recursive query of
+ * {@link LineageDao#getLineage(Set, int)} and with a {@link LineageGraph}. Currently, not run
+ * within circle-ci. Requires system property `-DrunPerfTest=true` to be executed
+ */
+@EnabledIfSystemProperty(named = "runPerfTest", matches = "true")
+@ExtendWith(MarquezJdbiExternalPostgresExtension.class)
+@Slf4j
+public class LineageGraphPerformanceTest {
+  private static final int NUM_OF_JOBS = 200;
+  private static final int DEPTH = 20;
+  private static final int NUM_OF_RUNS = 20;
+
+  @AfterEach
+  public void tearDown(Jdbi jdbi) {
+    JdbiUtils.cleanDatabase(jdbi);
+  }
+
+  @Test
+  public void testTraversesGraphFasterThanDatabase(Jdbi jdbi) {
+    final OpenLineageDao openLineageDao = jdbi.onDemand(OpenLineageDao.class);
+    final LineageDao lineageDao = jdbi.onDemand(LineageDao.class);
+    final SchemaField field = new SchemaField("id", "INTEGER", "id");
+    UUID middle = null;
+    for (int i = 0; i < NUM_OF_JOBS; i++) {
+      final UpdateLineageRow row =
+          LineageTestUtils.createLineageRow(
+              openLineageDao,
+              "job_" + i,
+              "COMPLETE",
+              JobFacet.builder().build(),
+              List.of(new Dataset(NAMESPACE, "dataset_" + i, newDatasetFacet(field))),
+              List.of(new Dataset(NAMESPACE, "dataset_" + (i + 1), newDatasetFacet(field))));
+      if (i == NUM_OF_JOBS / 2) {
+        middle = row.getJob().getUuid();
+      }
+    }
+    final Set<UUID> jobs = Set.of(middle);
+
+    long start = System.nanoTime();
+    final LineageGraph graph = LineageGraph.of(lineageDao.getCurrentJobEdges());
+    final long loadNanos = System.nanoTime() - start;
+
+    Set<JobData> fromDatabase = Set.of();
+    start = System.nanoTime();
+    for (int i = 0; i < NUM_OF_RUNS; i++) {
+      fromDatabase = lineageDao.getLineage(jobs, DEPTH);
+    }
+    final long databaseNanos = (System.nanoTime() - start) / NUM_OF_RUNS;
+
+    Set<JobData> fromGraph = Set.of();
+    start = System.nanoTime();
+    for (int i = 0; i < NUM_OF_RUNS; i++) {
+      final Map<UUID, JobEdges> lineage = graph.lineage(jobs, DEPTH);
+      fromGraph = lineageDao.getJobData(lineage.keySet());
+    }
+    final long graphNanos = (System.nanoTime() - start) / NUM_OF_RUNS;
+
+    log.info(
+        "Traversed {} of {} jobs to depth {} in {} µs with the database and {} µs with a graph "
+            + "loaded in {} µs",
+        fromGraph.size(),
+        NUM_OF_JOBS,
+        DEPTH,
+        databaseNanos / 1000,
+        graphNanos / 1000,
+        loadNanos / 1000);
+    assertThat(fromGraph.stream().map(JobData::getUuid).collect(Collectors.toSet()))
+        .isEqualTo(fromDatabase.stream().map(JobData::getUuid).collect(Collectors.toSet()));
+    assertThat(graphNanos).isLessThan(databaseNanos);
+  }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2018-2023 contributors to the Marquez project
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package marquez.service;
+
+import static marquez.db.JobVersionDao.IoType.INPUT;
+import static marquez.db.JobVersionDao.IoType.OUTPUT;
+import static marquez.service.models.LineageDirection.BOTH;
+import static marquez.service.models.LineageDirection.DOWNSTREAM;
+import static marquez.service.models.LineageDirection.UPSTREAM;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import marquez.db.LineageDao.JobEdgeRow;
+import marquez.service.LineageGraph.JobEdges;
+import org.junit.jupiter.api.Test;
+
+class LineageGraphTest {
+  private final UUID extract = UUID.randomUUID();
+  private final UUID transform = UUID.randomUUID();
+  private final UUID load = UUID.randomUUID();
+  private final UUID raw = UUID.randomUUID();
+  private final UUID staged = UUID.randomUUID();
+  private final UUID reported = UUID.randomUUID();
+
+  // extract -> raw -> transform -> staged -> load -> reported
+  private final LineageGraph graph =
+      LineageGraph.of(
+          List.of(
+              new JobEdgeRow(extract, null, raw, OUTPUT),
+              new JobEdgeRow(transform, null, raw, INPUT),
+              new JobEdgeRow(transform, null, staged, OUTPUT),
+              new JobEdgeRow(load, null, staged, INPUT),
+              new JobEdgeRow(load, null, reported, OUTPUT)));
+
+  @Test
+  public void testTraversesUpToDepth() {
+    assertThat(graph.lineage(Set.of(extract), 0)).containsOnlyKeys(extract);
+    assertThat(graph.lineage(Set.of(extract), 1)).containsOnlyKeys(extract, transform);
+    assertThat(graph.lineage(Set.of(transform), 1)).containsOnlyKeys(extract, transform, load);
+
+    final Map<UUID, JobEdges> lineage = graph.lineage(Set.of(extract), 20);
+    assertThat(lineage).containsOnlyKeys(extract, transform, load);
+    assertThat(lineage.get(transform).inputs()).containsExactly(raw);
+    assertThat(lineage.get(transform).outputs()).containsExactly(staged);
+    assertThat(graph.jobCount()).isEqualTo(3);
+    assertThat(graph.edgeCount()).isEqualTo(5);
+  }
+
+  @Test
+  public void testTraversesInDirection() {
+    final UUID audit = UUID.randomUUID();
+    // audit also reads staged, so it is a sibling of load.
+    final LineageGraph withAudit =
+        graph.withJobs(List.of(new JobEdgeRow(audit, null, staged, INPUT)));
+
+    assertThat(withAudit.lineage(Set.of(load), 20, UPSTREAM))
+        .containsOnlyKeys(extract, transform, load);
+    assertThat(withAudit.lineage(Set.of(transform), 20, DOWNSTREAM))
+        .containsOnlyKeys(transform, load, audit);
+    assertThat(withAudit.lineage(Set.of(transform), 1, UPSTREAM))
+        .containsOnlyKeys(extract, transform);
+    assertThat(withAudit.lineage(Set.of(load), 1, BOTH)).containsOnlyKeys(transform, load, audit);
+  }
+
+  @Test
+  public void testReturnsAdjacentJobsAndEdgesOfSymlinkTargets() {
+    final UUID renamed = UUID.randomUUID();
+    final LineageGraph symlinked =
+        graph.withJobs(List.of(new JobEdgeRow(renamed, load, reported, INPUT)));
+
+    assertThat(symlinked.adjacentJobs(List.of(transform), DOWNSTREAM, 10))
+        .containsExactly(Map.entry(transform, List.of(load)));
+    assertThat(symlinked.adjacentJobs(List.of(load), BOTH, 10).get(load))
+        .containsExactlyInAnyOrder(transform);
+    assertThat(symlinked.adjacentJobs(List.of(transform), BOTH, 1).get(transform)).hasSize(1);
+    assertThat(symlinked.edgesOf(List.of(load)).get(load).inputs())
+        .containsExactlyInAnyOrder(staged, reported);
+  }
+
+  @Test
+  public void testReturnsJobsOutsideOfGraphWithoutEdges() {
+    final UUID orphan = UUID.randomUUID();
+
+    final Map<UUID, JobEdges> lineage = graph.lineage(Set.of(orphan), 20);
+    assertThat(lineage).containsOnlyKeys(orphan);
+    assertThat(lineage.get(orphan).inputs()).isEmpty();
+    assertThat(lineage.get(orphan).outputs()).isEmpty();
+  }
+
+  @Test
+  public void testReplacesEdgesOfChangedJobs() {
+    // transform now writes to reported directly, and load is no longer connected.
+    final LineageGraph changed =
+        graph.withJobs(
+            List.of(
+                new JobEdgeRow(transform, null, raw, INPUT),
+                new JobEdgeRow(transform, null, reported, OUTPUT)));
+
+    assertThat(changed.lineage(Set.of(extract), 20)).containsOnlyKeys(extract, transform, load);
+    assertThat(changed.lineage(Set.of(extract), 20).get(transform).outputs())
+        .containsExactly(reported);
+
+    final LineageGraph unloaded = changed.withJobs(List.of(new JobEdgeRow(load, null, null, null)));
+    assertThat(unloaded.lineage(Set.of(extract), 20)).containsOnlyKeys(extract, transform);
+    assertThat(graph.lineage(Set.of(extract), 20)).containsOnlyKeys(extract, transform, load);
+  }
+
+  @Test
+  public void testTraversesSymlinkedJobsAsTheirTarget() {
+    final UUID renamed = UUID.randomUUID();
+    final LineageGraph symlinked =
+        graph.withJobs(List.of(new JobEdgeRow(renamed, load, reported, INPUT)));
+
+    assertThat(symlinked.lineage(Set.of(renamed), 0)).containsOnlyKeys(renamed, load);
+
+    final Map<UUID, JobEdges> lineage = symlinked.lineage(Set.of(load), 0);
+    assertThat(lineage).containsOnlyKeys(renamed, load);
+    assertThat(lineage.get(load).inputs()).containsExactlyInAnyOrder(staged, reported);
+  }
+}
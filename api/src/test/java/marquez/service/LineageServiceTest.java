@@ -9,6 +9,7 @@ import static marquez.db.LineageTestUtils.NAMESPACE;
 import static marquez.db.LineageTestUtils.newDatasetFacet;
 import static marquez.db.LineageTestUtils.writeDownstreamLineage;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.junit.Assert.assertTrue;
 
 import java.util.Arrays;
@@ -28,6 +29,7 @@ import marquez.common.models.JobId;
 import marquez.common.models.JobName;
 import marquez.common.models.NamespaceName;
 import marquez.common.models.OutputDatasetVersion;
+import marquez.common.models.RunId;
 import marquez.db.DatasetDao;
 import marquez.db.JobDao;
 import marquez.db.LineageDao;
@@ -37,11 +39,14 @@ import marquez.db.LineageTestUtils.JobLineage;
 import marquez.db.OpenLineageDao;
 import marquez.db.models.UpdateLineageRow;
 import marquez.jdbi.MarquezJdbiExternalPostgresExtension;
+import marquez.service.LineageService.UpstreamRun;
 import marquez.service.LineageService.UpstreamRunLineage;
 import marquez.service.models.Edge;
 import marquez.service.models.Job;
 import marquez.service.models.JobData;
 import marquez.service.models.Lineage;
+import marquez.service.models.LineageBudget;
+import marquez.service.models.LineageDirection;
 import marquez.service.models.LineageEvent.Dataset;
 import marquez.service.models.LineageEvent.JobFacet;
 import marquez.service.models.LineageEvent.JobTypeJobFacet;
@@ -154,6 +159,22 @@ public class LineageServiceTest {
                     && node.getId().asJobId().getName().getValue().contains("finalConsumer"))
         .isEmpty();
 
+    // the streamed lineage has the same nodes and edges
+    assertThat(
+            lineageService
+                .streamLineage(
+                    NodeId.of(new NamespaceName(NAMESPACE), new JobName(jobName)),
+                    2,
+                    LineageDirection.BOTH,
+                    LineageBudget.UNLIMITED,
+                    true)
+                .getGraph())
+        .extracting(Node::getId, Node::getInEdges, Node::getOutEdges)
+        .containsExactlyElementsOf(
+            lineage.getGraph().stream()
+                .map(n -> tuple(n.getId(), n.getInEdges(), n.getOutEdges()))
+                .toList());
+
     // assert the second run of writeJob is returned
     AbstractObjectAssert<?, Run> runAssert =
         assertThat(lineage.getGraph())
@@ -225,6 +246,16 @@ public class LineageServiceTest {
     assertThat(upstreamLineage.runs().get(1).inputs().get(0).name().getValue())
         .isEqualTo("commonDataset");
     assertThat(upstreamLineage.runs().get(2).job().name().getValue()).isEqualTo("writeJob");
+    assertThat(upstreamLineage.unexpandedRunIds()).isNull();
+
+    UpstreamRunLineage limitedLineage =
+        lineageService.upstream(job.getLatestRun().get().getId(), 10, 2);
+    assertThat(limitedLineage.runs())
+        .extracting(run -> run.run().id())
+        .containsExactly(
+            upstreamLineage.runs().get(0).run().id(), upstreamLineage.runs().get(1).run().id());
+    assertThat(limitedLineage.unexpandedRunIds())
+        .containsExactly(upstreamLineage.runs().get(1).run().id());
   }
 
   @Test
@@ -685,4 +716,98 @@ public class LineageServiceTest {
 
     assertThat(lineage.getGraph()).hasSize(2);
   }
+
+  @Test
+  public void testUpstreamRuns() {
+
+    Dataset upstreamDataset = new Dataset(NAMESPACE, "upstreamDataset", null);
+
+    UpdateLineageRow upstreamJob =
+        LineageTestUtils.createLineageRow(
+            openLineageDao,
+            "upstreamJob",
+            "COMPLETE",
+            jobFacet,
+            Arrays.asList(),
+            Arrays.asList(upstreamDataset));
+
+    UpdateLineageRow writeJob =
+        LineageTestUtils.createLineageRow(
+            openLineageDao,
+            "writeJob",
+            "COMPLETE",
+            jobFacet,
+            Arrays.asList(upstreamDataset),
+            Arrays.asList(dataset));
+    List<JobLineage> jobRows =
+        writeDownstreamLineage(
+            openLineageDao,
+            new LinkedList<>(
+                Arrays.asList(
+                    new DatasetConsumerJob("readJob", 20, Optional.of("outputData")),
+                    new DatasetConsumerJob("downstreamJob", 1, Optional.empty()))),
+            jobFacet,
+            dataset);
+
+    // don't expect a failed job in the returned lineage
+    UpdateLineageRow failedJobRow =
+        LineageTestUtils.createLineageRow(
+            openLineageDao,
+            "readJobFailed",
+            "FAILED",
+            jobFacet,
+            Arrays.asList(dataset),
+            Arrays.asList());
+
+    // don't expect a disjoint job in the returned lineage
+    UpdateLineageRow disjointJob =
+        LineageTestUtils.createLineageRow(
+            openLineageDao,
+            "writeRandomDataset",
+            "COMPLETE",
+            jobFacet,
+            Arrays.asList(
+                new Dataset(
+                    NAMESPACE,
+                    "randomDataset",
+                    newDatasetFacet(
+                        new SchemaField("firstname", "string", "the first name"),
+                        new SchemaField("lastname", "string", "the last name")))),
+            Arrays.asList());
+
+    {
+      List<UpstreamRun> upstream =
+          lineageService.upstream(RunId.of(failedJobRow.getRun().getUuid()), 10).runs();
+
+      assertThat(upstream).size().isEqualTo(3);
+      assertThat(upstream.get(0).job().name().getValue())
+          .isEqualTo(failedJobRow.getJob().getName());
+      assertThat(upstream.get(0).inputs())
+          .extracting(input -> input.name().getValue())
+          .containsExactly(dataset.getName());
+      assertThat(upstream.get(1).job().name().getValue()).isEqualTo(writeJob.getJob().getName());
+      assertThat(upstream.get(1).inputs())
+          .extracting(input -> input.name().getValue())
+          .containsExactly(upstreamDataset.getName());
+      assertThat(upstream.get(2).job().name().getValue()).isEqualTo(upstreamJob.getJob().getName());
+      assertThat(upstream.get(2).inputs()).isEmpty();
+    }
+
+    {
+      List<UpstreamRun> upstream2 =
+          lineageService.upstream(RunId.of(jobRows.get(0).getRunId()), 10).runs();
+
+      assertThat(upstream2).size().isEqualTo(3);
+      assertThat(upstream2.get(0).job().name().getValue()).isEqualTo(jobRows.get(0).getName());
+      assertThat(upstream2.get(0).inputs())
+          .extracting(input -> input.name().getValue())
+          .containsExactly(dataset.getName());
+      assertThat(upstream2.get(1).job().name().getValue()).isEqualTo(writeJob.getJob().getName());
+      assertThat(upstream2.get(1).inputs())
+          .extracting(input -> input.name().getValue())
+          .containsExactly(upstreamDataset.getName());
+      assertThat(upstream2.get(2).job().name().getValue())
+          .isEqualTo(upstreamJob.getJob().getName());
+    }
+  }
 }
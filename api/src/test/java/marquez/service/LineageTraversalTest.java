@@ -0,0 +1,87 @@
+/*
+ * Copyright 2018-2023 contributors to the Marquez project
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package marquez.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+import marquez.service.models.LineageBudget;
+import org.junit.jupiter.api.Test;
+
+class LineageTraversalTest {
+  private final UUID hub = UUID.randomUUID();
+  private final UUID first = UUID.randomUUID();
+  private final UUID second = UUID.randomUUID();
+  private final UUID third = UUID.randomUUID();
+  private final UUID leaf = UUID.randomUUID();
+
+  // hub -> first, second, third; first -> leaf
+  private final Map<UUID, List<UUID>> edges =
+      Map.of(hub, List.of(first, second, third), first, List.of(hub, leaf));
+
+  private final LineageTraversal.Adjacency adjacency =
+      (jobUuids, limit) -> {
+        final Map<UUID, List<UUID>> adjacent = new HashMap<>();
+        for (final UUID job : jobUuids) {
+          final List<UUID> jobs = edges.getOrDefault(job, List.of());
+          adjacent.put(job, jobs.subList(0, Math.min(limit, jobs.size())));
+        }
+        return adjacent;
+      };
+
+  @Test
+  public void testTraversesAllJobsWhenUnlimited() {
+    final LineageTraversal.Result result =
+        LineageTraversal.traverse(List.of(hub), 20, LineageBudget.UNLIMITED, adjacency);
+
+    assertThat(result.jobUuids()).containsExactlyInAnyOrder(hub, first, second, third, leaf);
+    assertThat(result.unexpandedJobUuids()).isEmpty();
+  }
+
+  @Test
+  public void testLimitsFanOutOfEachJob() {
+    final LineageTraversal.Result result =
+        LineageTraversal.traverse(List.of(hub), 20, LineageBudget.of(null, 2), adjacency);
+
+    assertThat(result.jobUuids()).containsExactlyInAnyOrder(hub, first, second, leaf);
+    assertThat(result.unexpandedJobUuids()).containsExactly(hub);
+  }
+
+  @Test
+  public void testStopsOnceMaxNodesAreVisited() {
+    final LineageTraversal.Result result =
+        LineageTraversal.traverse(List.of(hub), 20, LineageBudget.of(3, null), adjacency);
+
+    assertThat(result.jobUuids()).containsExactlyInAnyOrder(hub, first, second);
+    // The jobs visited last were not expanded, as the budget ran out.
+    assertThat(result.unexpandedJobUuids()).containsExactlyInAnyOrder(hub, first, second);
+  }
+
+  @Test
+  public void testDoesNotReportJobsAtMaxDepthAsUnexpanded() {
+    final LineageTraversal.Result result =
+        LineageTraversal.traverse(List.of(hub), 1, LineageBudget.of(4, null), adjacency);
+
+    assertThat(result.jobUuids()).containsExactlyInAnyOrder(hub, first, second, third);
+    assertThat(result.unexpandedJobUuids()).isEmpty();
+  }
+
+  @Test
+  public void testReturnsJobsFirstVisitedAtEachHop() {
+    final List<List<UUID>> layers = LineageTraversal.layers(List.of(leaf), 20, adjacency);
+
+    // leaf has no adjacent jobs in this direction, so its layers end at once.
+    assertThat(layers).containsExactly(List.of(leaf));
+    assertThat(LineageTraversal.layers(List.of(hub), 20, adjacency))
+        .containsExactly(
+            List.of(hub), Stream.of(first, second, third).sorted().toList(), List.of(leaf));
+    assertThat(LineageTraversal.layers(List.of(hub), 1, adjacency)).hasSize(2);
+  }
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright 2018-2023 contributors to the Marquez project
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package marquez.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+import marquez.api.models.SearchFilter;
+import marquez.api.models.SearchResult;
+import marquez.api.models.SearchSort;
+import marquez.service.models.LineageEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class LocalSearchEngineTest {
+  private static final ZonedDateTime EVENT_TIME =
+      ZonedDateTime.of(2023, 5, 1, 12, 0, 0, 0, ZoneOffset.UTC);
+  private static final int LIMIT = 10;
+
+  @TempDir Path tempDir;
+  private LocalSearchEngine searchEngine;
+
+  @BeforeEach
+  public void setUp() {
+    searchEngine = newSearchEngine();
+    searchEngine.index(
+        LineageEvent.builder()
+            .eventType("COMPLETE")
+            .eventTime(EVENT_TIME)
+            .run(new LineageEvent.Run("run", null))
+            .job(
+                new LineageEvent.Job(
+                    "food_delivery",
+                    "etl_orders",
+                    LineageEvent.JobFacet.builder()
+                        .sql(
+                            LineageEvent.SQLJobFacet.builder()
+                                .query("SELECT customer_id, amount FROM public.orders")
+                                .build())
+                        .build()))
+            .inputs(List.of(new LineageEvent.Dataset("food_delivery", "public.orders", null)))
+            .outputs(
+                List.of(
+                    new LineageEvent.Dataset(
+                        "food_delivery",
+                        "public.orders_summary",
+                        LineageEvent.DatasetFacets.builder()
+                            .schema(
+                                LineageEvent.SchemaDatasetFacet.builder()
+                                    .fields(
+                                        List.of(
+                                            LineageEvent.SchemaField.builder()
+                                                .name("total_amount")
+                                                .build()))
+                                    .build())
+                            .build())))
+            .producer("producer")
+            .build());
+  }
+
+  @Test
+  public void testSearchMatchesNamesFieldsAndSql() {
+    assertThat(names(search("orders")))
+        .containsExactly("etl_orders", "public.orders", "public.orders_summary");
+    assertThat(names(search("CUSTOMER"))).containsExactly("etl_orders");
+    assertThat(names(search("total amo"))).containsExactly("public.orders_summary");
+    assertThat(search("orders amount"))
+        .extracting(SearchResult::getType)
+        .containsExactly(SearchResult.ResultType.JOB, SearchResult.ResultType.DATASET);
+    assertThat(search("shipments")).isEmpty();
+  }
+
+  @Test
+  public void testSearchAppliesFilters() {
+    assertThat(
+            names(
+                searchEngine.search(
+                    "orders", SearchFilter.JOB, SearchSort.NAME, LIMIT, null, null, null)))
+        .containsExactly("etl_orders");
+    assertThat(searchEngine.search("orders", null, SearchSort.NAME, LIMIT, "other", null, null))
+        .isEmpty();
+    final LocalDate eventDate = EVENT_TIME.toLocalDate();
+    assertThat(
+            searchEngine.search(
+                "orders", null, SearchSort.NAME, LIMIT, null, eventDate.plusDays(1), eventDate))
+        .hasSize(3);
+    assertThat(
+            searchEngine.search(
+                "orders", null, SearchSort.NAME, LIMIT, null, null, eventDate.plusDays(1)))
+        .isEmpty();
+    assertThat(searchEngine.search("orders", null, SearchSort.NAME, 1, null, null, null))
+        .hasSize(1);
+  }
+
+  @Test
+  public void testNamesJobsAfterTheirParent() {
+    final LineageEvent event =
+        LineageEvent.builder()
+            .run(
+                new LineageEvent.Run(
+                    "run",
+                    LineageEvent.RunFacet.builder()
+                        .parent(
+                            LineageEvent.ParentRunFacet.builder()
+                                .run(new LineageEvent.RunLink("parent_run"))
+                                .job(new LineageEvent.JobLink("food_delivery", "dag"))
+                                .build())
+                        .build()))
+            .job(new LineageEvent.Job("food_delivery", "task", null))
+            .build();
+    assertThat(LocalSearchEngine.jobNameOf(event)).isEqualTo("dag.task");
+
+    event.getJob().setName("dag.task");
+    assertThat(LocalSearchEngine.jobNameOf(event)).isEqualTo("dag.task");
+  }
+
+  @Test
+  public void testReplacesDocumentsOfLaterEvents() {
+    searchEngine.index(
+        LineageEvent.builder()
+            .eventType("COMPLETE")
+            .eventTime(EVENT_TIME.plusHours(1))
+            .run(new LineageEvent.Run("run", null))
+            .job(
+                new LineageEvent.Job(
+                    "food_delivery",
+                    "etl_orders",
+                    LineageEvent.JobFacet.builder()
+                        .sql(
+                            LineageEvent.SQLJobFacet.builder()
+                                .query("SELECT order_id FROM public.orders")
+                                .build())
+                        .build()))
+            .outputs(
+                List.of(new LineageEvent.Dataset("food_delivery", "public.orders_summary", null)))
+            .producer("producer")
+            .build());
+
+    // The terms of the job are replaced, not merged with those indexed before.
+    assertThat(names(search("order id"))).containsExactly("etl_orders");
+    assertThat(search("customer")).isEmpty();
+    // A dataset without facets keeps its terms; only its time is updated.
+    assertThat(search("total amount"))
+        .extracting(SearchResult::getUpdatedAt)
+        .containsExactly(EVENT_TIME.plusHours(1).toInstant());
+  }
+
+  @Test
+  public void testRemovesDeletedDocuments() {
+    searchEngine.remove(SearchResult.ResultType.JOB, "food_delivery", "etl_orders");
+    assertThat(names(search("orders"))).containsExactly("public.orders", "public.orders_summary");
+    assertThat(search("customer")).isEmpty();
+
+    searchEngine.removeUpdatedBefore(EVENT_TIME.toInstant());
+    assertThat(searchEngine.size()).isEqualTo(2);
+    searchEngine.removeNamespace("food_delivery");
+    assertThat(searchEngine.size()).isZero();
+    assertThat(search("orders")).isEmpty();
+  }
+
+  @Test
+  public void testLoadsSavedIndex() throws IOException {
+    searchEngine.save();
+
+    final LocalSearchEngine loaded = newSearchEngine();
+    loaded.load();
+    assertThat(loaded.size()).isEqualTo(3);
+    assertThat(loaded.search("orders", null, SearchSort.NAME, LIMIT, null, null, null))
+        .isEqualTo(search("orders"));
+  }
+
+  private LocalSearchEngine newSearchEngine() {
+    return new LocalSearchEngine(tempDir.resolve("search-index.json"), Duration.ofSeconds(60));
+  }
+
+  private List<SearchResult> search(String query) {
+    return searchEngine.search(query, null, SearchSort.NAME, LIMIT, null, null, null);
+  }
+
+  private static List<String> names(List<SearchResult> results) {
+    return results.stream().map(SearchResult::getName).toList();
+  }
+}
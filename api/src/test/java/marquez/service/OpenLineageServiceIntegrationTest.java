@@ -8,14 +8,17 @@ package marquez.service;
 import static marquez.db.LineageTestUtils.PRODUCER_URL;
 import static marquez.db.LineageTestUtils.SCHEMA_URL;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 import io.dropwizard.util.Resources;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.sql.SQLException;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.util.ArrayList;
@@ -27,6 +30,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import marquez.common.Utils;
@@ -35,6 +39,7 @@ import marquez.common.models.JobType;
 import marquez.common.models.RunState;
 import marquez.db.DatasetDao;
 import marquez.db.DatasetVersionDao;
+import marquez.db.IngestCaches;
 import marquez.db.JobDao;
 import marquez.db.JobVersionDao;
 import marquez.db.NamespaceDao;
@@ -47,9 +52,11 @@ import marquez.db.models.JobRow;
 import marquez.db.models.NamespaceRow;
 import marquez.db.models.RunArgsRow;
 import marquez.jdbi.MarquezJdbiExternalPostgresExtension;
+import marquez.service.OpenLineageService.BatchEventResult;
 import marquez.service.RunTransitionListener.JobInputUpdate;
 import marquez.service.RunTransitionListener.JobOutputUpdate;
 import marquez.service.RunTransitionListener.RunTransition;
+import marquez.service.models.BaseEvent;
 import marquez.service.models.Dataset;
 import marquez.service.models.DatasetEvent;
 import marquez.service.models.Job;
@@ -274,6 +281,222 @@ public class OpenLineageServiceIntegrationTest {
     }
   }
 
+  @ParameterizedTest
+  @MethodSource("getData")
+  public void testCreateBatch(List<URI> uris, ExpectedResults expectedResults)
+      throws ExecutionException, InterruptedException {
+    List<BaseEvent> events =
+        uris.stream()
+            .<BaseEvent>map(OpenLineageServiceIntegrationTest::getLineageEventFromResource)
+            .collect(Collectors.toList());
+
+    List<BatchEventResult> results = lineageService.createBatchAsync(events).get();
+
+    assertThat(results).hasSize(events.size()).allMatch(BatchEventResult::isSuccess);
+    assertThat(results).extracting(BatchEventResult::index).isSorted();
+    if (expectedResults.inputEventCount > 0) {
+      Assertions.assertEquals(
+          uris.size(),
+          runTransitionListener.getAllValues().size(),
+          "RunTransition happens once for each run");
+    }
+  }
+
+  @Test
+  public void testCreateBatchIsolatesFailedEvent()
+      throws URISyntaxException, ExecutionException, InterruptedException {
+    LineageEvent valid =
+        getLineageEventFromResource(Resources.getResource(EVENT_REQUIRED_ONLY).toURI());
+    // An event without a run fails on write, and must not roll back the valid event.
+    LineageEvent invalid =
+        LineageEvent.builder()
+            .eventType("START")
+            .eventTime(Instant.now().atZone(TIMEZONE))
+            .job(LineageEvent.Job.builder().name(JOB_NAME).namespace(NAMESPACE).build())
+            .producer(PRODUCER_URL.toString())
+            .build();
+
+    List<BatchEventResult> results =
+        lineageService.createBatchAsync(List.of(invalid, valid)).get();
+
+    assertThat(results).hasSize(2);
+    assertThat(results.get(0).isSuccess()).isFalse();
+    assertThat(results.get(1).isSuccess()).isTrue();
+    UUID validRunUuid = UUID.fromString(valid.getRun().getRunId());
+    assertThat(openLineageDao.findLineageEventsByRunUuid(validRunUuid)).hasSize(1);
+  }
+
+  @Test
+  public void testCreateBatchOnLanes() throws Exception {
+    IngestConfig config = mock(IngestConfig.class);
+    when(config.getLanes()).thenReturn(4);
+    when(config.getMaxQueueSize()).thenReturn(400);
+    when(config.getShutdownTimeoutSecs()).thenReturn(1);
+    IngestLanes lanes = new IngestLanes(config);
+    OpenLineageService service =
+        OpenLineageService.builder(openLineageDao, runService).lanes(lanes).build();
+    List<BaseEvent> events = new ArrayList<>();
+    for (int i = 0; i < 8; i++) {
+      events.add(
+          LineageEvent.builder()
+              .eventType("START")
+              .eventTime(Instant.now().atZone(TIMEZONE))
+              .run(new LineageEvent.Run(UUID.randomUUID().toString(), RunFacet.builder().build()))
+              .job(LineageEvent.Job.builder().name(JOB_NAME + i).namespace(NAMESPACE).build())
+              .producer(PRODUCER_URL.toString())
+              .build());
+    }
+
+    try {
+      List<BatchEventResult> results = service.createBatchAsync(events).get();
+
+      // Events are written on the lanes of their runs, and reported in the order provided.
+      assertThat(results).hasSize(events.size()).allMatch(BatchEventResult::isSuccess);
+      assertThat(results).extracting(BatchEventResult::event).isEqualTo(events);
+    } finally {
+      lanes.stop();
+    }
+  }
+
+  @ParameterizedTest
+  @MethodSource("getData")
+  public void testRunTransitionInSingleTransaction(List<URI> uris, ExpectedResults expectedResults)
+      throws ExecutionException, InterruptedException {
+    OpenLineageService service =
+        OpenLineageService.builder(openLineageDao, runService).singleTransaction(true).build();
+    for (URI uri : uris) {
+      service.createAsync(getLineageEventFromResource(uri)).get();
+    }
+
+    if (expectedResults.inputEventCount > 0) {
+      Assertions.assertEquals(
+          uris.size(),
+          runTransitionListener.getAllValues().size(),
+          "RunTransition happens once for each run");
+    }
+  }
+
+  @Test
+  public void testSingleTransactionDoesNotWriteRawEventOnFailure() {
+    OpenLineageService service =
+        OpenLineageService.builder(openLineageDao, runService).singleTransaction(true).build();
+    UUID runUuid = UUID.randomUUID();
+    // A dataset without a name fails when the model is updated, after the raw event is written.
+    LineageEvent event =
+        LineageEvent.builder()
+            .eventType("START")
+            .eventTime(Instant.now().atZone(TIMEZONE))
+            .run(new LineageEvent.Run(runUuid.toString(), RunFacet.builder().build()))
+            .job(LineageEvent.Job.builder().name(JOB_NAME).namespace(NAMESPACE).build())
+            .inputs(List.of(new LineageEvent.Dataset(NAMESPACE, null, null)))
+            .producer(PRODUCER_URL.toString())
+            .build();
+
+    assertThatThrownBy(() -> service.createAsync(event).get())
+        .isInstanceOf(ExecutionException.class);
+    assertThat(openLineageDao.findLineageEventsByRunUuid(runUuid)).isEmpty();
+  }
+
+  @Test
+  public void testRejectedEventWritesNoRawEvent() {
+    OpenLineageService service =
+        new OpenLineageService(
+            openLineageDao,
+            runService,
+            command -> {
+              throw new RejectedExecutionException("Ingest queue is full");
+            });
+    UUID runUuid = UUID.randomUUID();
+    LineageEvent event =
+        LineageEvent.builder()
+            .eventType("START")
+            .eventTime(Instant.now().atZone(TIMEZONE))
+            .run(new LineageEvent.Run(runUuid.toString(), RunFacet.builder().build()))
+            .job(LineageEvent.Job.builder().name(JOB_NAME).namespace(NAMESPACE).build())
+            .producer(PRODUCER_URL.toString())
+            .build();
+
+    assertThatThrownBy(() -> service.createAsync(event))
+        .isInstanceOf(RejectedExecutionException.class);
+    assertThat(openLineageDao.findLineageEventsByRunUuid(runUuid)).isEmpty();
+  }
+
+  @ParameterizedTest
+  @MethodSource("getData")
+  public void testWriteAheadAppliesEventsInOrder(List<URI> uris, ExpectedResults expectedResults)
+      throws ExecutionException, InterruptedException {
+    OpenLineageService service =
+        OpenLineageService.builder(openLineageDao, runService).writeAhead(true).build();
+    List<LineageEvent> events = new ArrayList<>();
+    for (URI uri : uris) {
+      LineageEvent event = getLineageEventFromResource(uri);
+      service.createAsync(event).get();
+      events.add(event);
+    }
+
+    // Only the raw events are written until they are processed.
+    LineageEvent last = events.get(events.size() - 1);
+    assertThat(
+            jobDao.findJobByName(
+                openLineageDao.formatNamespaceName(last.getJob().getNamespace()),
+                last.getJob().getName()))
+        .isEmpty();
+    assertThat(runTransitionListener.getAllValues()).isEmpty();
+
+    assertThat(service.processUnprocessedEvents(uris.size(), 1)).isEqualTo(uris.size());
+    assertThat(service.processUnprocessedEvents(uris.size(), 1)).isZero();
+
+    assertThat(
+            jobDao.findJobByName(
+                openLineageDao.formatNamespaceName(last.getJob().getNamespace()),
+                last.getJob().getName()))
+        .isPresent();
+    if (expectedResults.inputEventCount > 0) {
+      Assertions.assertEquals(
+          uris.size(),
+          runTransitionListener.getAllValues().size(),
+          "RunTransition happens once for each run");
+    }
+  }
+
+  @Test
+  public void testWriteAheadKeepsEventFailingToApply()
+      throws ExecutionException, InterruptedException {
+    OpenLineageService service =
+        OpenLineageService.builder(openLineageDao, runService).writeAhead(true).build();
+    UUID runUuid = UUID.randomUUID();
+    // A dataset without a name fails when the model is updated.
+    LineageEvent event =
+        LineageEvent.builder()
+            .eventType("START")
+            .eventTime(Instant.now().atZone(TIMEZONE))
+            .run(new LineageEvent.Run(runUuid.toString(), RunFacet.builder().build()))
+            .job(LineageEvent.Job.builder().name(JOB_NAME).namespace(NAMESPACE).build())
+            .inputs(List.of(new LineageEvent.Dataset(NAMESPACE, null, null)))
+            .producer(PRODUCER_URL.toString())
+            .build();
+    service.createAsync(event).get();
+
+    assertThat(service.processUnprocessedEvents(10, 1)).isOne();
+    Map<String, Object> row =
+        jdbi.withHandle(
+            h ->
+                h.createQuery(
+                        "SELECT processed, processing_attempts, processing_error "
+                            + "FROM lineage_events WHERE run_uuid = :runUuid")
+                    .bind("runUuid", runUuid)
+                    .mapToMap()
+                    .one());
+    assertThat(row)
+        .containsEntry("processed", false)
+        .containsEntry("processing_attempts", 1)
+        .extractingByKey("processing_error")
+        .isNotNull();
+
+    // The event failed as many times as allowed, and is no longer claimed.
+    assertThat(service.processUnprocessedEvents(10, 1)).isZero();
+  }
+
   @ParameterizedTest
   @MethodSource({"getData"})
   public void serviceCalls(List<URI> uris, ExpectedResults expectedResults) {
@@ -453,6 +676,44 @@ public class OpenLineageServiceIntegrationTest {
     assertThat(jobService.findJobByName(NAMESPACE, name)).isNotEmpty();
   }
 
+  @Test
+  void testCachedJobIsNotHiddenAfterSubsequentOLEvent()
+      throws ExecutionException, InterruptedException {
+    String name = "aCachedNotHiddenJob";
+    OpenLineageService cachingService =
+        OpenLineageService.builder(openLineageDao, runService)
+            .ingestCaches(new IngestCaches(10, 10, Duration.ofMinutes(1)))
+            .build();
+
+    LineageEvent.LineageEventBuilder builder =
+        LineageEvent.builder()
+            .eventType("COMPLETE")
+            .job(LineageEvent.Job.builder().name(name).namespace(NAMESPACE).build())
+            .eventTime(Instant.now().atZone(TIMEZONE))
+            .inputs(Collections.emptyList())
+            .outputs(Collections.emptyList());
+
+    cachingService
+        .createAsync(
+            builder
+                .run(new LineageEvent.Run(UUID.randomUUID().toString(), RunFacet.builder().build()))
+                .build())
+        .get();
+
+    // Hidden without invalidating the cache, as by another instance.
+    jobService.delete(NAMESPACE, name);
+    assertThat(jobService.findJobByName(NAMESPACE, name)).isEmpty();
+
+    cachingService
+        .createAsync(
+            builder
+                .run(new LineageEvent.Run(UUID.randomUUID().toString(), RunFacet.builder().build()))
+                .build())
+        .get();
+
+    assertThat(jobService.findJobByName(NAMESPACE, name)).isNotEmpty();
+  }
+
   @Test
   void testDatasetEvent() throws ExecutionException, InterruptedException {
     LineageEvent.Dataset dataset =
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2018-2023 contributors to the Marquez project
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package marquez.service;
+
+import static marquez.db.LineageTestUtils.NAMESPACE;
+import static marquez.db.LineageTestUtils.PRODUCER_URL;
+import static org.mockito.Mockito.mock;
+
+import com.codahale.metrics.MetricRegistry;
+import io.dropwizard.db.DataSourceFactory;
+import io.dropwizard.db.ManagedDataSource;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import lombok.extern.slf4j.Slf4j;
+import marquez.PostgresContainer;
+import marquez.api.JdbiUtils;
+import marquez.db.OpenLineageDao;
+import marquez.jdbi.MarquezJdbiExternalPostgresExtension;
+import marquez.service.models.LineageEvent;
+import marquez.service.models.LineageEvent.Dataset;
+import marquez.service.models.LineageEvent.Job;
+import marquez.service.models.LineageEvent.Run;
+import marquez.service.models.LineageEvent.RunFacet;
+import org.jdbi.v3.core.Jdbi;
+import org.jdbi.v3.jackson2.Jackson2Plugin;
+import org.jdbi.v3.postgres.PostgresPlugin;
+import org.jdbi.v3.sqlobject.SqlObjectPlugin;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Test to compare the throughput of writing the raw event and the Marquez model concurrently on two
+ * connections against writing both within a single transaction, for several connection pool sizes.
+ * Currently, not run within circle-ci. Requires system property `-DrunPerfTest=true` to be executed
+ */
+@EnabledIfSystemProperty(named = "runPerfTest", matches = "true")
+@ExtendWith(MarquezJdbiExternalPostgresExtension.class)
+@Slf4j
+public class OpenLineageServicePerformanceTest {
+  private static final int NUM_OF_EVENTS = 2000;
+  private static final int NUM_OF_CLIENT_THREADS = 200;
+
+  @AfterEach
+  public void tearDown(Jdbi jdbi) {
+    JdbiUtils.cleanDatabase(jdbi);
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = {10, 30, 100})
+  public void testThroughput(int poolSize) throws Exception {
+    final PostgresContainer postgres = PostgresContainer.create("marquez");
+    final DataSourceFactory factory = new DataSourceFactory();
+    factory.setDriverClass("org.postgresql.Driver");
+    factory.setUrl(postgres.getJdbcUrl());
+    factory.setUser(postgres.getUsername());
+    factory.setPassword(postgres.getPassword());
+    factory.setMinSize(poolSize);
+    factory.setInitialSize(poolSize);
+    factory.setMaxSize(poolSize);
+    final ManagedDataSource source = factory.build(new MetricRegistry(), "perf-" + poolSize);
+    source.start();
+    try {
+      final Jdbi jdbi =
+          Jdbi.create(source)
+              .installPlugin(new SqlObjectPlugin())
+              .installPlugin(new PostgresPlugin())
+              .installPlugin(new Jackson2Plugin());
+      final OpenLineageDao dao = jdbi.onDemand(OpenLineageDao.class);
+      final ExecutorService executor = Executors.newFixedThreadPool(NUM_OF_CLIENT_THREADS);
+      try {
+        for (boolean singleTransaction : List.of(false, true)) {
+          final OpenLineageService service =
+              OpenLineageService.builder(dao, mock(RunService.class))
+                  .executor(executor)
+                  .singleTransaction(singleTransaction)
+                  .build();
+          final Instant start = Instant.now();
+          CompletableFuture.allOf(
+                  IntStream.range(0, NUM_OF_EVENTS)
+                      .mapToObj(i -> service.createAsync(newEvent(i)))
+                      .toArray(CompletableFuture[]::new))
+              .get();
+          final Duration elapsed = Duration.between(start, Instant.now());
+          log.info(
+              "Pool size {}, single transaction {}: {} events in {} ms ({} events/s)",
+              poolSize,
+              singleTransaction,
+              NUM_OF_EVENTS,
+              elapsed.toMillis(),
+              NUM_OF_EVENTS * 1000L / Math.max(1, elapsed.toMillis()));
+        }
+      } finally {
+        executor.shutdownNow();
+      }
+    } finally {
+      source.stop();
+    }
+  }
+
+  private static LineageEvent newEvent(int i) {
+    final List<Dataset> outputs =
+        IntStream.range(0, 4)
+            .mapToObj(o -> new Dataset(NAMESPACE, "dataset_" + (i % 50) + "_" + o, null))
+            .collect(Collectors.toList());
+    return LineageEvent.builder()
+        .eventType("COMPLETE")
+        .eventTime(Instant.now().atZone(ZoneId.of("UTC")))
+        .run(new Run(UUID.randomUUID().toString(), RunFacet.builder().build()))
+        .job(Job.builder().namespace(NAMESPACE).name("job_" + (i % 50)).build())
+        .inputs(List.of())
+        .outputs(outputs)
+        .producer(PRODUCER_URL.toString())
+        .build();
+  }
+}
@@ -0,0 +1,31 @@
+/*
+ * Copyright 2018-2023 contributors to the Marquez project
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package marquez.service.models;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class LineageCursorTest {
+  @Test
+  public void testDecodesEncodedCursor() {
+    final LineageCursor cursor = new LineageCursor(3, UUID.randomUUID());
+    assertThat(LineageCursor.decode(cursor.encode())).isEqualTo(cursor);
+    assertThat(LineageCursor.decode(LineageCursor.FIRST.encode())).isEqualTo(LineageCursor.FIRST);
+  }
+
+  @Test
+  public void testRejectsInvalidCursor() {
+    assertThatThrownBy(() -> LineageCursor.decode("not a cursor"))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> LineageCursor.decode("MTI"))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> LineageCursor.decode(new LineageCursor(1, UUID.randomUUID()).encode() + "x"))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
@@ -37,6 +37,7 @@ import lombok.extern.slf4j.Slf4j;
 import marquez.client.models.Dataset;
 import marquez.client.models.DatasetMeta;
 import marquez.client.models.DatasetVersion;
+import marquez.client.models.Edge;
 import marquez.client.models.Job;
 import marquez.client.models.JobMeta;
 import marquez.client.models.JobVersion;
@@ -44,7 +45,9 @@ import marquez.client.models.LineageEvent;
 import marquez.client.models.Namespace;
 import marquez.client.models.NamespaceMeta;
 import marquez.client.models.Node;
+import marquez.client.models.NodeData;
 import marquez.client.models.NodeId;
+import marquez.client.models.NodeType;
 import marquez.client.models.Run;
 import marquez.client.models.RunMeta;
 import marquez.client.models.RunState;
@@ -120,9 +123,13 @@ public class MarquezClient {
     return getLineage(nodeId, DEFAULT_LINEAGE_GRAPH_DEPTH);
   }
 
+  /**
+   * Returns the lineage of the provided node; the compact lineage format is requested, see {@link
+   * Lineage#COMPACT_MEDIA_TYPE}, and {@code application/json} is accepted from servers not
+   * supporting it.
+   */
   public Lineage getLineage(NodeId nodeId, int depth) {
-    final String bodyAsJson = http.get(url.toLineageUrl(nodeId, depth));
-    return Lineage.fromJson(bodyAsJson);
+    return Lineage.of(http.get(url.toLineageUrl(nodeId, depth), Lineage.ACCEPT));
   }
 
   public Lineage getColumnLineage(NodeId nodeId) {
@@ -130,8 +137,8 @@ public class MarquezClient {
   }
 
   public Lineage getColumnLineage(NodeId nodeId, int depth, boolean withDownstream) {
-    final String bodyAsJson = http.get(url.toColumnLineageUrl(nodeId, depth, withDownstream));
-    return Lineage.fromJson(bodyAsJson);
+    return Lineage.of(
+        http.get(url.toColumnLineageUrl(nodeId, depth, withDownstream), Lineage.ACCEPT));
   }
 
   public Namespace createNamespace(
@@ -704,6 +711,14 @@ public class MarquezClient {
 
   @Value
   public static class Lineage {
+    /**
+     * The compact lineage format: each node ID is written once, to {@code nodeIds}, and nodes and
+     * edges refer to node IDs by index.
+     */
+    public static final String COMPACT_MEDIA_TYPE = "application/vnd.marquez.lineage.compact+json";
+
+    static final String ACCEPT = COMPACT_MEDIA_TYPE + ", application/json;q=0.9";
+
     @Getter Set<Node> graph;
 
     @JsonCreator
@@ -711,12 +726,78 @@ public class MarquezClient {
       this.graph = ImmutableSet.copyOf(value);
     }
 
+    static Lineage of(final MarquezHttp.Body body) {
+      return COMPACT_MEDIA_TYPE.equalsIgnoreCase(body.getMediaType())
+          ? fromCompactJson(body.getValue())
+          : fromJson(body.getValue());
+    }
+
     static Lineage fromJson(final String json) {
       return Utils.fromJson(json, new TypeReference<Lineage>() {});
     }
 
+    static Lineage fromCompactJson(final String json) {
+      final CompactLineage compact = Utils.fromJson(json, new TypeReference<CompactLineage>() {});
+      final List<NodeId> nodeIds =
+          compact.getNodeIds().stream().map(NodeId::of).collect(ImmutableList.toImmutableList());
+      return new Lineage(
+          compact.getNodes().stream()
+              .map(
+                  node ->
+                      new Node(
+                          nodeIds.get(node.getId()),
+                          node.getType(),
+                          node.getData(),
+                          toEdges(node.getInEdges(), nodeIds),
+                          toEdges(node.getOutEdges(), nodeIds)))
+              .collect(ImmutableSet.toImmutableSet()));
+    }
+
+    private static Set<Edge> toEdges(final List<int[]> edges, final List<NodeId> nodeIds) {
+      return edges.stream()
+          .map(edge -> Edge.of(nodeIds.get(edge[0]), nodeIds.get(edge[1])))
+          .collect(ImmutableSet.toImmutableSet());
+    }
+
     String toJson() {
       return Utils.toJson(this);
     }
   }
+
+  @Value
+  static class CompactLineage {
+    @NonNull List<CompactNode> nodes;
+    @NonNull List<String> nodeIds;
+
+    @JsonCreator
+    CompactLineage(
+        @JsonProperty("nodes") final List<CompactNode> nodes,
+        @JsonProperty("nodeIds") final List<String> nodeIds) {
+      this.nodes = nodes;
+      this.nodeIds = nodeIds;
+    }
+  }
+
+  @Value
+  static class CompactNode {
+    int id;
+    @NonNull NodeType type;
+    @Nullable NodeData data;
+    @NonNull List<int[]> inEdges;
+    @NonNull List<int[]> outEdges;
+
+    @JsonCreator
+    CompactNode(
+        @JsonProperty("id") final int id,
+        @JsonProperty("type") final NodeType type,
+        @JsonProperty("data") @Nullable final NodeData data,
+        @JsonProperty("inEdges") final List<int[]> inEdges,
+        @JsonProperty("outEdges") final List<int[]> outEdges) {
+      this.id = id;
+      this.type = type;
+      this.data = data;
+      this.inEdges = inEdges;
+      this.outEdges = outEdges;
+    }
+  }
 }
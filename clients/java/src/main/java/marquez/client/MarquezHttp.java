@@ -30,6 +30,7 @@ import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.client.methods.HttpPut;
 import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.entity.ContentType;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClientBuilder;
@@ -121,20 +122,26 @@ class MarquezHttp implements Closeable {
   }
 
   String get(URL url) {
+    return get(url, APPLICATION_JSON.toString()).getValue();
+  }
+
+  /** Returns the body of the response to a GET request accepting the provided media types. */
+  Body get(URL url, String accept) {
     log.debug("GET {}", url);
     try {
       final HttpGet request = new HttpGet();
       request.setURI(url.toURI());
-      request.addHeader(ACCEPT, APPLICATION_JSON.toString());
+      request.addHeader(ACCEPT, accept);
 
       addAuthToReqIfKeyPresent(request);
 
       final HttpResponse response = http.execute(request);
       throwOnHttpError(response);
 
-      final String bodyAsJson = EntityUtils.toString(response.getEntity(), UTF_8);
-      log.debug("Response: {}", bodyAsJson);
-      return bodyAsJson;
+      final String body = EntityUtils.toString(response.getEntity(), UTF_8);
+      log.debug("Response: {}", body);
+      final ContentType contentType = ContentType.get(response.getEntity());
+      return new Body(contentType == null ? null : contentType.getMimeType(), body);
     } catch (URISyntaxException | IOException e) {
       throw new MarquezHttpException();
     }
@@ -197,6 +204,13 @@ class MarquezHttp implements Closeable {
     }
   }
 
+  /** The body of a response, and its media type, without parameters, if any. */
+  @Value
+  static class Body {
+    @Nullable String mediaType;
+    @NonNull String value;
+  }
+
   @Value
   static class HttpError {
     @Getter @Nullable Integer code;
@@ -1059,8 +1059,10 @@ public class MarquezClientTest {
   public void testGetLineage() throws Exception {
     MarquezClient.Lineage lineage = new MarquezClient.Lineage(ImmutableSet.of(LINEAGE_NODE));
     String lineageJson = lineage.toJson();
-    when(http.get(buildUrlFor("/lineage?nodeId=dataset%3Anamespace%3Adataset&depth=20")))
-        .thenReturn(lineageJson);
+    when(http.get(
+            buildUrlFor("/lineage?nodeId=dataset%3Anamespace%3Adataset&depth=20"),
+            MarquezClient.Lineage.ACCEPT))
+        .thenReturn(new MarquezHttp.Body("application/json", lineageJson));
 
     Node retrievedNode =
         client.getLineage(NodeId.of(new DatasetId("namespace", "dataset"))).getGraph().stream()
@@ -1075,8 +1077,9 @@ public class MarquezClientTest {
     String lineageJson = lineage.toJson();
     when(http.get(
             buildUrlFor(
-                "/column-lineage?nodeId=dataset%3Anamespace%3Adataset&depth=20&withDownstream=false")))
-        .thenReturn(lineageJson);
+                "/column-lineage?nodeId=dataset%3Anamespace%3Adataset&depth=20&withDownstream=false"),
+            MarquezClient.Lineage.ACCEPT))
+        .thenReturn(new MarquezHttp.Body(null, lineageJson));
 
     Node retrievedNode =
         client
@@ -1088,6 +1091,32 @@ public class MarquezClientTest {
     assertThat(retrievedNode).isEqualTo(COLUMN_LINEAGE_NODE);
   }
 
+  @Test
+  public void testGetLineageInCompactFormat() throws Exception {
+    final NodeId dataset = NodeId.of(DATASET_ID);
+    final NodeId job = NodeId.of(JOB_ID);
+    final String compactJson =
+        "{\"nodes\":["
+            + "{\"id\":0,\"type\":\"DATASET\",\"data\":null,\"inEdges\":[],\"outEdges\":[[0,1]]},"
+            + "{\"id\":1,\"type\":\"JOB\",\"data\":null,\"inEdges\":[[0,1]],\"outEdges\":[]}],"
+            + "\"nodeIds\":[\""
+            + dataset.getValue()
+            + "\",\""
+            + job.getValue()
+            + "\"]}";
+    when(http.get(
+            buildUrlFor("/lineage?nodeId=dataset%3Anamespace%3Adataset&depth=20"),
+            MarquezClient.Lineage.ACCEPT))
+        .thenReturn(
+            new MarquezHttp.Body(MarquezClient.Lineage.COMPACT_MEDIA_TYPE, compactJson));
+
+    final Edge edge = Edge.of(dataset, job);
+    assertThat(client.getLineage(NodeId.of(new DatasetId("namespace", "dataset"))).getGraph())
+        .containsExactlyInAnyOrder(
+            new Node(dataset, NodeType.DATASET, null, null, ImmutableSet.of(edge)),
+            new Node(job, NodeType.JOB, null, ImmutableSet.of(edge), null));
+  }
+
   private URL buildUrlFor(String pathTemplate) throws Exception {
     return new URL(DEFAULT_BASE_URL + BASE_PATH + pathTemplate);
   }